@@ -0,0 +1,237 @@
+package com.app.financiera.config;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.app.financiera.dto.ActividadRecienteResponse;
+import com.app.financiera.dto.ResumenDashboardResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+/**
+ * Serialización de la respuesta del dashboard con y sin el módulo Blackbird de JacksonConfig.
+ * Ambos mappers se configuran igual que el de Spring Boot salvo por el módulo.
+ * Los métodos construirYSerializar* arman la respuesta en cada llamada a partir de los mismos datos:
+ * el árbol de HashMap que devolvía el servicio antes de los records (serializado
+ * sin Blackbird, como entonces) frente a los records actuales. Para comparar asignaciones por
+ * operación: mvn -Pjmh test-compile exec:exec -Djmh.args="SerializacionJackson -f 1 -prof gc"
+ * y ver gc.alloc.rate.norm (bytes por operación).
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializacionJacksonBenchmark {
+
+    private ObjectMapper reflexion;
+    private ObjectMapper blackbird;
+    private ResumenDashboardResponse respuesta;
+
+    // Datos de origen comunes a los dos modelos, como llegan de los repositorios
+    private String nombre;
+    private String apellido;
+    private List<FilaActividad> filas;
+    private Map<String, Long> tiempos;
+    private Date ultimoAcceso;
+    private Date fechaAfiliacion;
+    private LocalDateTime fechaGeneracion;
+
+    @Setup
+    public void preparar() {
+        reflexion = mapper(false);
+        blackbird = mapper(true);
+
+        nombre = "María";
+        apellido = "Quispe";
+        filas = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            filas.add(i % 2 == 0
+                    ? new FilaActividad("Aporte", "Aporte registrado: 2024-0" + (i / 2 + 1),
+                            LocalDateTime.of(2024, i / 2 + 1, 28, 0, 0), 450.75 + i, null)
+                    : new FilaActividad("Consulta", "Consulta de saldo",
+                            LocalDateTime.of(2024, 6, i, 10, 30), null, "Exitosa"));
+        }
+        tiempos = new LinkedHashMap<>();
+        tiempos.put("resumenFinanciero", 12L);
+        tiempos.put("actividadReciente", 4L);
+        ultimoAcceso = new Date(1_700_000_000_000L);
+        fechaAfiliacion = new Date(1_500_000_000_000L);
+        fechaGeneracion = LocalDateTime.of(2024, 6, 30, 9, 0);
+
+        respuesta = construirRespuesta();
+    }
+
+    @Benchmark
+    public byte[] jacksonReflexion() throws JsonProcessingException {
+        return reflexion.writeValueAsBytes(respuesta);
+    }
+
+    @Benchmark
+    public byte[] jacksonBlackbird() throws JsonProcessingException {
+        return blackbird.writeValueAsBytes(respuesta);
+    }
+
+    // Camino anterior: árbol de HashMap y mapper sin Blackbird
+    @Benchmark
+    public byte[] construirYSerializarMapa() throws JsonProcessingException {
+        return reflexion.writeValueAsBytes(construirMapa());
+    }
+
+    // Camino actual: records y mapper con Blackbird (JacksonConfig)
+    @Benchmark
+    public byte[] construirYSerializarRecords() throws JsonProcessingException {
+        return blackbird.writeValueAsBytes(construirRespuesta());
+    }
+
+    private static ObjectMapper mapper(boolean conBlackbird) {
+        JsonMapper.Builder builder = JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if (conBlackbird) {
+            builder.addModule(new BlackbirdModule());
+        }
+        return builder.build();
+    }
+
+    // Un dashboard completo con 10 actividades y 5 años de estadísticas
+    private ResumenDashboardResponse construirRespuesta() {
+        List<ActividadRecienteResponse.Actividad> actividades = new ArrayList<>(filas.size());
+        for (FilaActividad fila : filas) {
+            actividades.add("Aporte".equals(fila.tipo())
+                    ? new ActividadRecienteResponse.Actividad(fila.tipo(), fila.descripcion(),
+                            fila.fecha().toLocalDate(), fila.monto(), null, "💰")
+                    : new ActividadRecienteResponse.Actividad(fila.tipo(), fila.descripcion(),
+                            fila.fecha(), null, fila.resultado(), "🔍"));
+        }
+
+        List<ResumenDashboardResponse.EstadisticaYear> estadisticas = new ArrayList<>();
+        for (int year = 2020; year <= 2024; year++) {
+            double total = 5400.0 + year;
+            estadisticas.add(new ResumenDashboardResponse.EstadisticaYear(year, total, total));
+        }
+
+        return new ResumenDashboardResponse(
+                new ResumenDashboardResponse.InfoPersonal(nombre + " " + apellido, "45678912", "maria@correo.pe",
+                        "987654321", null, "Usuario", ultimoAcceso),
+                new ResumenDashboardResponse.ResumenFinanciero(85_430.50, 80_100.25, 5_409.0, 1_250.75, 6.4),
+                new ResumenDashboardResponse.ResumenSeguros(3, 2, 320.5, 250_000),
+                null,
+                new ActividadRecienteResponse(actividades, actividades.size(), true, null),
+                estadisticas,
+                new ResumenDashboardResponse.InfoPensiones("AFP", "Prima", "123456ABCDE1", fechaAfiliacion),
+                false,
+                List.of(),
+                tiempos,
+                true,
+                fechaGeneracion,
+                null,
+                null);
+    }
+
+    // El mismo dashboard con las claves que armaba DashboardServiceImpl antes de los records
+    private HashMap<String, Object> construirMapa() {
+        HashMap<String, Object> resumen = new HashMap<>();
+
+        HashMap<String, Object> infoPersonal = new HashMap<>();
+        infoPersonal.put("nombre", nombre + " " + apellido);
+        infoPersonal.put("dni", "45678912");
+        infoPersonal.put("correo", "maria@correo.pe");
+        infoPersonal.put("telefono", "987654321");
+        infoPersonal.put("fotoPerfil", null);
+        infoPersonal.put("rol", "Usuario");
+        infoPersonal.put("ultimoAcceso", ultimoAcceso);
+        resumen.put("infoPersonal", infoPersonal);
+
+        HashMap<String, Object> resumenFinanciero = new HashMap<>();
+        resumenFinanciero.put("saldoTotal", 85_430.50);
+        resumenFinanciero.put("saldoDisponible", 80_100.25);
+        resumenFinanciero.put("aportesYearActual", 5_409.0);
+        resumenFinanciero.put("proyeccionPensionMensual", 1_250.75);
+        resumenFinanciero.put("rentabilidadPromedio", 6.4);
+        resumen.put("resumenFinanciero", resumenFinanciero);
+
+        HashMap<String, Object> resumenSeguros = new HashMap<>();
+        resumenSeguros.put("totalSeguros", 3L);
+        resumenSeguros.put("segurosActivos", 2L);
+        resumenSeguros.put("primaMensualTotal", 320.5);
+        resumenSeguros.put("coberturaTotal", 250_000.0);
+        resumen.put("resumenSeguros", resumenSeguros);
+
+        List<HashMap<String, Object>> actividades = new ArrayList<>();
+        for (FilaActividad fila : filas) {
+            HashMap<String, Object> actividad = new HashMap<>();
+            actividad.put("tipo", fila.tipo());
+            actividad.put("descripcion", fila.descripcion());
+            if ("Aporte".equals(fila.tipo())) {
+                actividad.put("fecha", fila.fecha().toLocalDate());
+                actividad.put("monto", fila.monto());
+                actividad.put("icono", "💰");
+            } else {
+                actividad.put("fecha", fila.fecha());
+                actividad.put("resultado", fila.resultado());
+                actividad.put("icono", "🔍");
+            }
+            actividades.add(actividad);
+        }
+        HashMap<String, Object> actividadReciente = new HashMap<>();
+        actividadReciente.put("actividades", actividades);
+        actividadReciente.put("total", actividades.size());
+        actividadReciente.put("exitoso", true);
+        resumen.put("actividadReciente", actividadReciente);
+
+        List<HashMap<String, Object>> estadisticasYear = new ArrayList<>();
+        for (int year = 2020; year <= 2024; year++) {
+            double total = 5400.0 + year;
+            HashMap<String, Object> yearData = new HashMap<>();
+            yearData.put("year", year);
+            yearData.put("total", total);
+            yearData.put("totalAportes", total);
+            estadisticasYear.add(yearData);
+        }
+        resumen.put("estadisticasYear", estadisticasYear);
+
+        HashMap<String, Object> infoPensiones = new HashMap<>();
+        infoPensiones.put("tipoRegimen", "AFP");
+        infoPensiones.put("afp", "Prima");
+        infoPensiones.put("cuspp", "123456ABCDE1");
+        infoPensiones.put("fechaAfiliacion", fechaAfiliacion);
+        resumen.put("infoPensiones", infoPensiones);
+
+        resumen.put("parcial", false);
+        resumen.put("seccionesNoDisponibles", List.of());
+        resumen.put("tiemposSecciones", tiempos);
+        resumen.put("exitoso", true);
+        resumen.put("fechaGeneracion", fechaGeneracion);
+        return resumen;
+    }
+
+    private record FilaActividad(String tipo, String descripcion, LocalDateTime fecha, Double monto,
+                                 String resultado) {
+    }
+}
@@ -0,0 +1,74 @@
+package com.app.financiera.service;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.util.StreamUtils;
+
+/**
+ * Renderizado del correo de aporte registrado con las plantillas precompiladas frente al
+ * String.format sobre el bloque de texto que se usaba antes. El formato de referencia se
+ * obtiene de la misma plantilla, así ambos producen el mismo HTML.
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PlantillaCorreoBenchmark {
+
+    private static final String NOMBRE = "María Quispe";
+    private static final double MONTO = 450.75;
+    private static final String PERIODO = "2024-06";
+
+    private MotorPlantillasCorreo motor;
+    private String formato;
+
+    @Setup
+    public void preparar() throws IOException {
+        motor = new MotorPlantillasCorreo();
+        motor.cargar();
+
+        String plantilla = StreamUtils.copyToString(
+                new ClassPathResource("plantillas/correo/aporte-registrado.html").getInputStream(),
+                StandardCharsets.UTF_8);
+        formato = plantilla
+                .replace("{{nombreUsuario}}", "%s")
+                .replace("{{monto}}", "%.2f")
+                .replace("{{periodo}}", "%s");
+    }
+
+    @Benchmark
+    public String plantillaCompilada() {
+        // Mismos valores que arma EmailServiceImpl, incluido el formateo del monto
+        return motor.renderizar("aporte-registrado", Map.of(
+                "nombreUsuario", NOMBRE,
+                "monto", BigDecimal.valueOf(MONTO).setScale(2, RoundingMode.HALF_UP).toPlainString(),
+                "periodo", PERIODO));
+    }
+
+    @Benchmark
+    public String stringFormat() {
+        return String.format(Locale.ROOT, formato, NOMBRE, MONTO, PERIODO);
+    }
+}
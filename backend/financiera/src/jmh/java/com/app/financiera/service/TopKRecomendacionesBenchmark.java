@@ -0,0 +1,93 @@
+package com.app.financiera.service;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Selección de los k mejores planes frente al ordenamiento completo del catálogo, con 10 mil y
+ * 100 mil planes. umbralSecuencial compara la unión de montículos por tramo (valor de
+ * application.properties) con un único montículo sobre todo el catálogo.
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TopKRecomendacionesBenchmark {
+
+    private static final MotorRecomendaciones.Perfil PERFIL =
+            new MotorRecomendaciones.Perfil(40, 4000.0, Set.of(3), null, null);
+
+    @Param({ "10000", "100000" })
+    private int planes;
+
+    @Param({ "10", "50" })
+    private int k;
+
+    @Param({ "2048", "2147483647" })
+    private int umbralSecuencial;
+
+    private MotorRecomendaciones motor;
+    private IndiceCatalogoSeguros.Columnas columnas;
+
+    @Setup
+    public void preparar() {
+        motor = new MotorRecomendaciones();
+        ReflectionTestUtils.setField(motor, "pesoPrima", 0.35);
+        ReflectionTestUtils.setField(motor, "pesoCobertura", 0.30);
+        ReflectionTestUtils.setField(motor, "pesoDeducible", 0.15);
+        ReflectionTestUtils.setField(motor, "pesoValor", 0.20);
+        ReflectionTestUtils.setField(motor, "porcentajeIngresoMax", 0.05);
+        ReflectionTestUtils.setField(motor, "penalizacionTipoContratado", 0.5);
+        ReflectionTestUtils.setField(motor, "umbralSecuencial", umbralSecuencial);
+        columnas = catalogo(planes);
+    }
+
+    @Benchmark
+    public MotorRecomendaciones.Recomendacion[] topK() {
+        return motor.recomendar(columnas, PERFIL, k);
+    }
+
+    @Benchmark
+    public MotorRecomendaciones.Recomendacion[] ordenCompleto() {
+        return motor.recomendar(columnas, PERFIL, planes);
+    }
+
+    // Catálogo ordenado por prima como lo entrega IndiceCatalogoSeguros
+    private static IndiceCatalogoSeguros.Columnas catalogo(int n) {
+        Random aleatorio = new Random(42);
+        int[] ids = new int[n];
+        double[] primas = new double[n];
+        double[] coberturas = new double[n];
+        double[] deducibles = new double[n];
+        int[] tipos = new int[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = i + 1;
+            primas[i] = 20 + aleatorio.nextDouble() * 480;
+            coberturas[i] = 5_000 + aleatorio.nextDouble() * 245_000;
+            deducibles[i] = aleatorio.nextInt(8) * 250;
+            tipos[i] = 1 + aleatorio.nextInt(4);
+        }
+        Arrays.sort(primas);
+        return new IndiceCatalogoSeguros.Columnas(ids, primas, coberturas, deducibles, tipos);
+    }
+}
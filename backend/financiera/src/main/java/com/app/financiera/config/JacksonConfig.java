@@ -0,0 +1,25 @@
+package com.app.financiera.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+/**
+ * Configuración de Jackson.
+ * Blackbird reemplaza el acceso por reflexión a getters y constructores por
+ * funciones generadas con LambdaMetafactory, lo que acelera la serialización
+ * de los records de respuesta. Spring Boot registra el módulo automáticamente.
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
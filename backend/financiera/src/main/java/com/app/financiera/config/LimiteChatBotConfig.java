@@ -0,0 +1,73 @@
+package com.app.financiera.config;
+
+import java.util.HashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.app.financiera.service.LimiteExcedidoException;
+import com.app.financiera.service.LimitadorChatBot;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Límite de mensajes por usuario para los endpoints del chatbot que pueden llamar al modelo.
+ * La cubeta se identifica con el idUsuario del JWT (no con el del cuerpo, que el cliente controla);
+ * sin token se usa la IP. El rechazo se responde aquí mismo como 429 con Retry-After,
+ * antes de leer el cuerpo o abrir el stream.
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+@Configuration
+public class LimiteChatBotConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private LimitadorChatBot limitador;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+                if (HttpMethod.OPTIONS.matches(request.getMethod())) {
+                    return true;
+                }
+                Object idUsuario = request.getAttribute("idUsuario");
+                String cliente = idUsuario != null ? "u:" + idUsuario : "ip:" + request.getRemoteAddr();
+                try {
+                    limitador.verificarTasa(cliente);
+                    return true;
+                } catch (LimiteExcedidoException e) {
+                    rechazar(response, e);
+                    return false;
+                }
+            }
+        }).addPathPatterns("/api/chatbot/mensaje", "/api/chatbot/mensaje/stream");
+    }
+
+    private void rechazar(HttpServletResponse response, LimiteExcedidoException e) throws Exception {
+        HashMap<String, Object> cuerpo = new HashMap<>();
+        cuerpo.put("error", true);
+        cuerpo.put("mensaje", e.getReason());
+        cuerpo.put("reintentarEnSegundos", e.getReintentarEnSegundos());
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(e.getReintentarEnSegundos()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getWriter(), cuerpo);
+    }
+}
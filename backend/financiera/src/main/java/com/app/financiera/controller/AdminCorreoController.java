@@ -0,0 +1,37 @@
+package com.app.financiera.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.app.financiera.service.DespachadorCorreos;
+import com.app.financiera.util.AppSettings;
+
+@RestController
+@RequestMapping("/api/admin/correos")
+@CrossOrigin(origins = AppSettings.URL_CROSS_ORIGIN)
+public class AdminCorreoController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdminCorreoController.class);
+
+    @Autowired
+    private DespachadorCorreos despachadorCorreos;
+
+    /**
+     * Estado de la bandeja de salida: correos en cola, reintentos y latencia de envío
+     */
+    @GetMapping("/estadisticas")
+    public ResponseEntity<?> obtenerEstadisticas() {
+        try {
+            return ResponseEntity.ok(despachadorCorreos.obtenerEstadisticas());
+        } catch (Exception e) {
+            logger.error("Error al obtener estadísticas de correos: {}", e.getMessage());
+            return ResponseEntity.status(500).body("Error al obtener estadísticas de correos");
+        }
+    }
+}
@@ -1,12 +1,18 @@
 package com.app.financiera.controller;
 
 import java.util.HashMap;
+import java.util.UUID;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import com.app.financiera.service.ChatBotService;
+import com.app.financiera.service.LimiteExcedidoException;
+import com.app.financiera.service.LimitadorChatBot;
 import com.app.financiera.util.AppSettings;
 
 @RestController
@@ -16,9 +22,15 @@ public class ChatBotController {
 
     private static final Logger logger = LoggerFactory.getLogger(ChatBotController.class);
 
+    // Longitud de chat_mensaje.session_id
+    private static final int MAX_LONGITUD_SESION = 100;
+
     @Autowired
     private ChatBotService chatBotService;
 
+    @Autowired
+    private LimitadorChatBot limitadorChatBot;
+
     @PostMapping("/mensaje")
     public ResponseEntity<?> procesarMensaje(@RequestBody HashMap<String, Object> request) {
         HashMap<String, Object> respuesta = new HashMap<>();
@@ -26,6 +38,7 @@ public class ChatBotController {
         try {
             String mensaje = (String) request.get("mensaje");
             Integer idUsuario = (Integer) request.get("idUsuario");
+            String sessionId = resolverSesion(request.get("sessionId"));
 
             logger.info("Procesando mensaje del chatbot para usuario: {}", idUsuario);
 
@@ -35,13 +48,16 @@ public class ChatBotController {
                 return ResponseEntity.badRequest().body(respuesta);
             }
 
-            String respuestaBot = chatBotService.procesarMensaje(mensaje, idUsuario);
+            String respuestaBot = chatBotService.procesarMensaje(mensaje, idUsuario, sessionId);
 
             respuesta.put("error", false);
             respuesta.put("respuesta", respuestaBot);
+            respuesta.put("sessionId", sessionId);
 
             return ResponseEntity.ok(respuesta);
 
+        } catch (LimiteExcedidoException e) {
+            return limiteExcedido(e);
         } catch (Exception e) {
             logger.error("Error procesando mensaje del chatbot: {}", e.getMessage());
             respuesta.put("error", true);
@@ -50,6 +66,38 @@ public class ChatBotController {
         }
     }
 
+    /**
+     * Igual que /mensaje, pero envía el texto por SSE a medida que el modelo lo genera
+     */
+    @PostMapping(value = "/mensaje/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> procesarMensajeStream(@RequestBody HashMap<String, Object> request) {
+        String mensaje = (String) request.get("mensaje");
+        Integer idUsuario = (Integer) request.get("idUsuario");
+        String sessionId = resolverSesion(request.get("sessionId"));
+
+        logger.info("Procesando mensaje del chatbot en streaming para usuario: {}", idUsuario);
+
+        if (mensaje == null || mensaje.trim().isEmpty()) {
+            SseEmitter emitter = new SseEmitter();
+            try {
+                emitter.send(SseEmitter.event().name("error").data("El mensaje no puede estar vacío"));
+            } catch (Exception e) {
+                logger.debug("No se pudo enviar el error de validación: {}", e.getMessage());
+            }
+            emitter.complete();
+            return ResponseEntity.ok(emitter);
+        }
+
+        try {
+            return ResponseEntity.ok(chatBotService.procesarMensajeStream(mensaje, idUsuario, sessionId));
+        } catch (LimiteExcedidoException e) {
+            // Sin lugar para llamar al modelo: 429 antes de abrir el stream
+            return ResponseEntity.status(e.getStatusCode())
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getReintentarEnSegundos()))
+                    .build();
+        }
+    }
+
     @PostMapping("/solicitar-asesor")
     public ResponseEntity<?> solicitarAsesor(@RequestBody HashMap<String, Object> request) {
         HashMap<String, Object> respuesta = new HashMap<>();
@@ -79,4 +127,79 @@ public class ChatBotController {
             return ResponseEntity.status(500).body(respuesta);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Métricas de la caché de respuestas (aciertos por nivel, desalojos)
+     */
+    @GetMapping("/cache/estadisticas")
+    public ResponseEntity<?> obtenerEstadisticasCache() {
+        return ResponseEntity.ok(chatBotService.obtenerEstadisticasCache());
+    }
+
+    /**
+     * Estado del circuito de Gemini y uso del camino local (respuestas con datos y sin modelo)
+     */
+    @GetMapping("/circuito/estadisticas")
+    public ResponseEntity<?> obtenerEstadisticasCircuito() {
+        return ResponseEntity.ok(chatBotService.obtenerEstadisticasCircuito());
+    }
+
+    /**
+     * Rechazos por tasa y por concurrencia, llamadas al modelo en curso y espera en cola
+     */
+    @GetMapping("/limites/estadisticas")
+    public ResponseEntity<?> obtenerEstadisticasLimites() {
+        return ResponseEntity.ok(limitadorChatBot.obtenerEstadisticas());
+    }
+
+    /**
+     * Sesiones en memoria y estado de la escritura en segundo plano de chat_mensaje
+     */
+    @GetMapping("/conversaciones/estadisticas")
+    public ResponseEntity<?> obtenerEstadisticasConversaciones() {
+        return ResponseEntity.ok(chatBotService.obtenerEstadisticasConversaciones());
+    }
+
+    /**
+     * Contexto que se envía al modelo para el usuario y su tamaño estimado en tokens
+     */
+    @GetMapping("/contexto/{idUsuario}")
+    public ResponseEntity<?> obtenerContexto(@PathVariable int idUsuario) {
+        HashMap<String, Object> respuesta = new HashMap<>();
+
+        try {
+            return ResponseEntity.ok(chatBotService.obtenerContextoConTokens(idUsuario));
+        } catch (Exception e) {
+            logger.error("Error obteniendo contexto del chatbot: {}", e.getMessage());
+            respuesta.put("error", true);
+            respuesta.put("mensaje", "Error al obtener el contexto");
+            return ResponseEntity.status(500).body(respuesta);
+        }
+    }
+
+    /**
+     * Métricas de la caché de contexto y tamaño de los prompts enviados al modelo
+     */
+    @GetMapping("/contexto/estadisticas")
+    public ResponseEntity<?> obtenerEstadisticasContexto() {
+        return ResponseEntity.ok(chatBotService.obtenerEstadisticasContexto());
+    }
+
+    private static ResponseEntity<?> limiteExcedido(LimiteExcedidoException e) {
+        HashMap<String, Object> respuesta = new HashMap<>();
+        respuesta.put("error", true);
+        respuesta.put("mensaje", e.getReason());
+        respuesta.put("reintentarEnSegundos", e.getReintentarEnSegundos());
+        return ResponseEntity.status(e.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getReintentarEnSegundos()))
+                .body(respuesta);
+    }
+
+    // Sin sesión (o con una inválida) se abre una nueva; el cliente la reenvía en los siguientes mensajes
+    private static String resolverSesion(Object sessionId) {
+        if (sessionId instanceof String valor && !valor.isBlank() && valor.length() <= MAX_LONGITUD_SESION) {
+            return valor;
+        }
+        return UUID.randomUUID().toString();
+    }
+}
@@ -1,13 +1,16 @@
 package com.app.financiera.controller;
 
+import com.app.financiera.dto.ComparacionSegurosResponse;
 import com.app.financiera.entity.Seguro;
 import com.app.financiera.entity.TipoSeguro;
 import com.app.financiera.entity.CompaniaSeguro;
+import com.app.financiera.repository.SeguroRepositoryCustom;
 import com.app.financiera.service.ComparadorService;
 import com.app.financiera.util.AppSettings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -25,6 +28,9 @@ public class ComparadorController {
     @Autowired
     private ComparadorService comparadorService;
 
+    @Value("${comparador.comparar.max-planes:200}")
+    private int maxPlanesComparar;
+
     // Obtener todas las categorías de seguros
     @GetMapping("/categorias")
     public ResponseEntity<?> obtenerCategorias() {
@@ -64,13 +70,22 @@ public class ComparadorController {
         }
     }
 
-    // Obtener seguros por categoría
+    // Obtener seguros por categoría; con fields, cursor o limite responde una página por cursor ordenada por prima
     @GetMapping("/seguros/categoria/{categoria}")
-    public ResponseEntity<?> obtenerSegurosPorCategoria(@PathVariable String categoria) {
+    public ResponseEntity<?> obtenerSegurosPorCategoria(@PathVariable String categoria,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite) {
         logger.info("Solicitud de seguros por categoría: {}", categoria);
         try {
+            if (fields != null || cursor != null || limite != null) {
+                return ResponseEntity.ok(comparadorService.obtenerPaginaSeguros(
+                        SeguroRepositoryCustom.CriterioSeguros.CATEGORIA, categoria, fields, cursor, limite));
+            }
             List<Seguro> seguros = comparadorService.obtenerSegurosPorCategoria(categoria);
             return ResponseEntity.ok(seguros);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
             logger.error("Error al obtener seguros: {}", e.getMessage());
             return ResponseEntity.status(500).body("Error al obtener seguros");
@@ -79,11 +94,20 @@ public class ComparadorController {
 
     // Obtener seguros por tipo específico
     @GetMapping("/seguros/tipo/{idTipo}")
-    public ResponseEntity<?> obtenerSegurosPorTipo(@PathVariable int idTipo) {
+    public ResponseEntity<?> obtenerSegurosPorTipo(@PathVariable int idTipo,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite) {
         logger.info("Solicitud de seguros por tipo: {}", idTipo);
         try {
+            if (fields != null || cursor != null || limite != null) {
+                return ResponseEntity.ok(comparadorService.obtenerPaginaSeguros(
+                        SeguroRepositoryCustom.CriterioSeguros.TIPO, idTipo, fields, cursor, limite));
+            }
             List<Seguro> seguros = comparadorService.obtenerSegurosPorTipo(idTipo);
             return ResponseEntity.ok(seguros);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
             logger.error("Error al obtener seguros: {}", e.getMessage());
             return ResponseEntity.status(500).body("Error al obtener seguros");
@@ -92,34 +116,46 @@ public class ComparadorController {
 
     // Obtener seguros por compañía
     @GetMapping("/seguros/compania/{idCompania}")
-    public ResponseEntity<?> obtenerSegurosPorCompania(@PathVariable int idCompania) {
+    public ResponseEntity<?> obtenerSegurosPorCompania(@PathVariable int idCompania,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite) {
         logger.info("Solicitud de seguros por compañía: {}", idCompania);
         try {
+            if (fields != null || cursor != null || limite != null) {
+                return ResponseEntity.ok(comparadorService.obtenerPaginaSeguros(
+                        SeguroRepositoryCustom.CriterioSeguros.COMPANIA, idCompania, fields, cursor, limite));
+            }
             List<Seguro> seguros = comparadorService.obtenerSegurosPorCompania(idCompania);
             return ResponseEntity.ok(seguros);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
             logger.error("Error al obtener seguros: {}", e.getMessage());
             return ResponseEntity.status(500).body("Error al obtener seguros");
         }
     }
 
-    // Comparar planes seleccionados
+    // Comparar planes seleccionados (orden opcional: prima, primaDesc, cobertura, deducible o mejorValor)
     @PostMapping("/comparar")
-    public ResponseEntity<?> compararPlanes(@RequestBody Map<String, List<Integer>> request) {
+    public ResponseEntity<?> compararPlanes(@RequestBody Map<String, List<Integer>> request,
+                                            @RequestParam(required = false) String orden) {
         List<Integer> idsPlanes = request.get("idsPlanes");
-        logger.info("Solicitud de comparación de {} planes", idsPlanes.size());
 
         try {
             if (idsPlanes == null || idsPlanes.isEmpty()) {
                 return ResponseEntity.badRequest().body("Debe seleccionar al menos un plan");
             }
+            logger.info("Solicitud de comparación de {} planes", idsPlanes.size());
 
-            if (idsPlanes.size() > 5) {
-                return ResponseEntity.badRequest().body("No puede comparar más de 5 planes");
+            if (idsPlanes.size() > maxPlanesComparar) {
+                return ResponseEntity.badRequest().body("No puede comparar más de " + maxPlanesComparar + " planes");
             }
 
-            Map<String, Object> comparacion = comparadorService.compararSeguros(idsPlanes);
+            ComparacionSegurosResponse comparacion = comparadorService.compararSeguros(idsPlanes, orden);
             return ResponseEntity.ok(comparacion);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
             logger.error("Error al comparar planes: {}", e.getMessage());
             HashMap<String, Object> error = new HashMap<>();
@@ -129,6 +165,53 @@ public class ComparadorController {
         }
     }
 
+    // Comparar todos los planes de una categoría; por defecto ordenados por prima
+    @GetMapping("/comparar/categoria/{categoria}")
+    public ResponseEntity<?> compararCategoria(@PathVariable String categoria,
+                                               @RequestParam(required = false) String orden,
+                                               @RequestParam(required = false) Integer limite) {
+        logger.info("Solicitud de comparación de la categoría: {}", categoria);
+        try {
+            int planes = limite != null ? Math.max(1, Math.min(limite, maxPlanesComparar)) : maxPlanesComparar;
+            return ResponseEntity.ok(comparadorService.compararCategoria(categoria, orden, planes));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error al comparar categoría: {}", e.getMessage());
+            HashMap<String, Object> error = new HashMap<>();
+            error.put("mensaje", "Error al comparar planes");
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(500).body(error);
+        }
+    }
+
+    // Planes de la categoría ordenados por afinidad con el perfil del usuario
+    @GetMapping("/recomendaciones/{categoria}")
+    public ResponseEntity<?> recomendarPlanes(@PathVariable String categoria,
+                                              @RequestParam(required = false) Integer idUsuario,
+                                              @RequestParam(defaultValue = "5") int k,
+                                              @RequestParam(required = false) Double coberturaDeseada,
+                                              @RequestParam(required = false) Double deducibleMaximo) {
+        logger.info("Solicitud de recomendaciones de la categoría {} para el usuario {}", categoria, idUsuario);
+        try {
+            return ResponseEntity.ok(comparadorService.recomendarPlanes(categoria, idUsuario, k,
+                    coberturaDeseada, deducibleMaximo));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error al recomendar planes: {}", e.getMessage());
+            HashMap<String, Object> error = new HashMap<>();
+            error.put("mensaje", "Error al recomendar planes");
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(500).body(error);
+        }
+    }
+
+    @GetMapping("/recomendaciones/estadisticas")
+    public ResponseEntity<?> obtenerEstadisticasRecomendaciones() {
+        return ResponseEntity.ok(comparadorService.obtenerEstadisticasRecomendaciones());
+    }
+
     // Filtrar seguros por criterios
     @GetMapping("/filtrar")
     public ResponseEntity<?> filtrarSeguros(
@@ -136,12 +219,14 @@ public class ComparadorController {
             @RequestParam(required = false) Double primaMin,
             @RequestParam(required = false) Double primaMax,
             @RequestParam(required = false) Double coberturaMin,
-            @RequestParam(required = false) Double coberturaMax) {
+            @RequestParam(required = false) Double coberturaMax,
+            @RequestParam(required = false) Integer idCompania,
+            @RequestParam(required = false) Integer idTipo) {
 
         logger.info("Filtrando seguros - Categoría: {}", categoria);
         try {
             List<Seguro> seguros = comparadorService.filtrarSeguros(
-                    categoria, primaMin, primaMax, coberturaMin, coberturaMax
+                    categoria, primaMin, primaMax, coberturaMin, coberturaMax, idCompania, idTipo
             );
             return ResponseEntity.ok(seguros);
         } catch (Exception e) {
@@ -179,6 +264,12 @@ public class ComparadorController {
         }
     }
 
+    // Métricas del índice en memoria usado por /filtrar
+    @GetMapping("/indice/estadisticas")
+    public ResponseEntity<?> obtenerEstadisticasIndice() {
+        return ResponseEntity.ok(comparadorService.obtenerEstadisticasIndice());
+    }
+
     @GetMapping("/health")
     public ResponseEntity<?> healthCheck() {
         HashMap<String, Object> health = new HashMap<>();
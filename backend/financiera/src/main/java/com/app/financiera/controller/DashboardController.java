@@ -6,6 +6,11 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import com.app.financiera.dto.ActividadRecienteResponse;
+import com.app.financiera.dto.AlertasResponse;
+import com.app.financiera.dto.EstadisticasFinancierasResponse;
+import com.app.financiera.dto.ResumenDashboardResponse;
+import com.app.financiera.service.DashboardCache;
 import com.app.financiera.service.DashboardService;
 import com.app.financiera.util.AppSettings;
 
@@ -26,6 +31,9 @@ public class DashboardController {
     @Autowired
     private DashboardService dashboardService;
 
+    @Autowired
+    private DashboardCache dashboardCache;
+
     /**
      * Obtiene el resumen completo del dashboard para el usuario
      * Incluye información financiera, pensiones, seguros y alertas
@@ -37,7 +45,7 @@ public class DashboardController {
     public ResponseEntity<?> obtenerResumenDashboard(@PathVariable int idUsuario) {
         logger.info("Solicitud de resumen de dashboard para usuario: {}", idUsuario);
         try {
-            HashMap<String, Object> resumen = dashboardService.obtenerResumenCompleto(idUsuario);
+            ResumenDashboardResponse resumen = dashboardService.obtenerResumenCompleto(idUsuario);
             return ResponseEntity.ok(resumen);
         } catch (Exception e) {
             logger.error("Error al obtener resumen de dashboard: {}", e.getMessage(), e);
@@ -76,7 +84,7 @@ public class DashboardController {
     public ResponseEntity<?> obtenerAlertas(@PathVariable int idUsuario) {
         logger.info("Solicitud de alertas para usuario: {}", idUsuario);
         try {
-            HashMap<String, Object> alertas = dashboardService.obtenerAlertas(idUsuario);
+            AlertasResponse alertas = dashboardService.obtenerAlertas(idUsuario);
             return ResponseEntity.ok(alertas);
         } catch (Exception e) {
             logger.error("Error al obtener alertas: {}", e.getMessage(), e);
@@ -97,7 +105,7 @@ public class DashboardController {
             @RequestParam(defaultValue = "5") int limite) {
         logger.info("Solicitud de actividad reciente para usuario: {}, límite: {}", idUsuario, limite);
         try {
-            HashMap<String, Object> actividad = dashboardService.obtenerActividadReciente(idUsuario, limite);
+            ActividadRecienteResponse actividad = dashboardService.obtenerActividadReciente(idUsuario, limite);
             return ResponseEntity.ok(actividad);
         } catch (Exception e) {
             logger.error("Error al obtener actividad reciente: {}", e.getMessage(), e);
@@ -115,7 +123,7 @@ public class DashboardController {
     public ResponseEntity<?> obtenerEstadisticasFinancieras(@PathVariable int idUsuario) {
         logger.info("Solicitud de estadísticas financieras para usuario: {}", idUsuario);
         try {
-            HashMap<String, Object> estadisticas = dashboardService.obtenerEstadisticasFinancieras(idUsuario);
+            EstadisticasFinancierasResponse estadisticas = dashboardService.obtenerEstadisticasFinancieras(idUsuario);
             return ResponseEntity.ok(estadisticas);
         } catch (Exception e) {
             logger.error("Error al obtener estadísticas: {}", e.getMessage(), e);
@@ -123,6 +131,14 @@ public class DashboardController {
         }
     }
 
+    /**
+     * Métricas de la caché del dashboard (aciertos, fallos, desalojos)
+     */
+    @GetMapping("/cache/estadisticas")
+    public ResponseEntity<?> obtenerEstadisticasCache() {
+        return ResponseEntity.ok(dashboardCache.obtenerEstadisticas());
+    }
+
     /**
      * Health check del dashboard
      */
@@ -6,11 +6,13 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import com.app.financiera.dto.TendenciaAportes;
 import com.app.financiera.entity.AportePension;
 import com.app.financiera.entity.SaldoPension;
 import com.app.financiera.entity.TipoFondo;
 import com.app.financiera.service.AportePensionService;
 import com.app.financiera.service.SaldoPensionService;
+import com.app.financiera.service.TendenciaAportesService;
 import com.app.financiera.repository.TipoFondoRepository;
 import com.app.financiera.util.AppSettings;
 
@@ -30,6 +32,9 @@ public class FinancieroController {
     @Autowired
     private TipoFondoRepository tipoFondoRepository;
 
+    @Autowired
+    private TendenciaAportesService tendenciaAportesService;
+
     // Resumen financiero
     @GetMapping("/resumen/{idUsuario}")
     public ResponseEntity<?> obtenerResumenFinanciero(@PathVariable int idUsuario) {
@@ -152,19 +157,19 @@ public class FinancieroController {
 
     // Estadistica
     @GetMapping("/estadisticas/{idUsuario}")
-    public ResponseEntity<?> obtenerEstadisticas(@PathVariable int idUsuario) {
-        logger.info("Solicitud de estadísticas para usuario ID: {}", idUsuario);
+    public ResponseEntity<?> obtenerEstadisticas(@PathVariable int idUsuario,
+                                                 @RequestParam(defaultValue = "3") int years) {
+        logger.info("Solicitud de estadísticas para usuario ID: {} ({} años)", idUsuario, years);
         try {
             HashMap<String, Object> stats = new HashMap<>();
-            int yearActual = Calendar.getInstance().get(Calendar.YEAR);
             List<HashMap<String, Object>> aportesPorYear = new ArrayList<>();
 
-            for (int i = 2; i >= 0; i--) {
-                int year = yearActual - i;
-                Double total = aportePensionService.obtenerTotalAportesUsuarioYear(idUsuario, year);
+            // Todos los años en una sola consulta agrupada
+            TendenciaAportes tendencia = tendenciaAportesService.obtenerTendenciaAnual(idUsuario, years);
+            for (TendenciaAportes.Punto punto : tendencia.puntos()) {
                 HashMap<String, Object> yearData = new HashMap<>();
-                yearData.put("year", year);
-                yearData.put("total", total != null ? total : 0);
+                yearData.put("year", punto.year());
+                yearData.put("total", punto.total());
                 aportesPorYear.add(yearData);
             }
 
@@ -180,6 +185,23 @@ public class FinancieroController {
         }
     }
 
+    // Tendencia de aportes por año (o por mes si se indica "meses"), con totales ONP/AFP
+    @GetMapping("/tendencia/{idUsuario}")
+    public ResponseEntity<?> obtenerTendencia(@PathVariable int idUsuario,
+                                              @RequestParam(defaultValue = "10") int years,
+                                              @RequestParam(required = false) Integer meses) {
+        logger.info("Solicitud de tendencia de aportes para usuario ID: {}", idUsuario);
+        try {
+            TendenciaAportes tendencia = meses != null
+                    ? tendenciaAportesService.obtenerTendenciaMensual(idUsuario, meses)
+                    : tendenciaAportesService.obtenerTendenciaAnual(idUsuario, years);
+            return ResponseEntity.ok(tendencia);
+        } catch (Exception e) {
+            logger.error("Error al obtener tendencia para usuario ID {}: {}", idUsuario, e.getMessage(), e);
+            return ResponseEntity.status(500).body("Error al obtener tendencia de aportes");
+        }
+    }
+
     // Tipos de fondo
     @GetMapping("/fondos")
     public ResponseEntity<?> obtenerTodosFondos() {
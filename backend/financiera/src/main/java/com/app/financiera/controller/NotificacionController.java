@@ -0,0 +1,132 @@
+package com.app.financiera.controller;
+
+import java.util.HashMap;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.app.financiera.entity.Notificacion;
+import com.app.financiera.service.CentroNotificacionesSse;
+import com.app.financiera.service.DespachadorNotificaciones;
+import com.app.financiera.service.NotificacionService;
+import com.app.financiera.util.AppSettings;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+@RestController
+@RequestMapping("/api/notificaciones")
+@CrossOrigin(origins = AppSettings.URL_CROSS_ORIGIN)
+public class NotificacionController {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificacionController.class);
+
+    @Autowired
+    private NotificacionService notificacionService;
+
+    @Autowired
+    private DespachadorNotificaciones despachadorNotificaciones;
+
+    @Autowired
+    private CentroNotificacionesSse centroNotificaciones;
+
+    /**
+     * Canal SSE del usuario autenticado: eventos "notificacion", "noLeidas" y "resincronizar"
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter suscribir(HttpServletRequest request) {
+        // Lo coloca JwtRequestFilter a partir del token
+        Integer idUsuario = (Integer) request.getAttribute("idUsuario");
+        if (idUsuario == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Token sin usuario");
+        }
+        return centroNotificaciones.suscribir(idUsuario);
+    }
+
+    @GetMapping("/stream/estadisticas")
+    public ResponseEntity<?> obtenerEstadisticasStream() {
+        return ResponseEntity.ok(centroNotificaciones.obtenerEstadisticas());
+    }
+
+    @GetMapping("/{idUsuario}")
+    public ResponseEntity<?> obtenerNotificaciones(@PathVariable int idUsuario) {
+        try {
+            List<Notificacion> notificaciones = notificacionService.obtenerNotificacionesUsuario(idUsuario);
+            return ResponseEntity.ok(notificaciones);
+        } catch (Exception e) {
+            logger.error("Error al obtener notificaciones: {}", e.getMessage());
+            return ResponseEntity.status(500).body("Error al obtener notificaciones");
+        }
+    }
+
+    @GetMapping("/{idUsuario}/no-leidas")
+    public ResponseEntity<?> obtenerNoLeidas(@PathVariable int idUsuario) {
+        try {
+            HashMap<String, Object> response = new HashMap<>();
+            response.put("notificaciones", notificacionService.obtenerNotificacionesNoLeidas(idUsuario));
+            response.put("total", notificacionService.contarNotificacionesNoLeidas(idUsuario));
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            logger.error("Error al obtener notificaciones no leídas: {}", e.getMessage());
+            return ResponseEntity.status(500).body("Error al obtener notificaciones no leídas");
+        }
+    }
+
+    @PutMapping("/{idNotificacion}/leer")
+    public ResponseEntity<?> marcarComoLeida(@PathVariable int idNotificacion) {
+        HashMap<String, Object> response = new HashMap<>();
+        try {
+            notificacionService.marcarComoLeida(idNotificacion);
+            response.put("exitoso", true);
+            response.put("mensaje", "Notificación marcada como leída");
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            logger.error("Error al marcar notificación {}: {}", idNotificacion, e.getMessage());
+            response.put("exitoso", false);
+            response.put("mensaje", e.getMessage());
+            return ResponseEntity.status(500).body(response);
+        }
+    }
+
+    @DeleteMapping("/{idNotificacion}")
+    public ResponseEntity<?> eliminar(@PathVariable int idNotificacion) {
+        HashMap<String, Object> response = new HashMap<>();
+        try {
+            notificacionService.eliminarNotificacion(idNotificacion);
+            response.put("exitoso", true);
+            response.put("mensaje", "Notificación eliminada");
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            logger.error("Error al eliminar notificación {}: {}", idNotificacion, e.getMessage());
+            response.put("exitoso", false);
+            response.put("mensaje", e.getMessage());
+            return ResponseEntity.status(500).body(response);
+        }
+    }
+
+    /**
+     * Métricas del despacho: pendientes, notificaciones por segundo y retraso
+     */
+    @GetMapping("/despacho/estadisticas")
+    public ResponseEntity<?> obtenerEstadisticasDespacho() {
+        try {
+            return ResponseEntity.ok(despachadorNotificaciones.obtenerEstadisticas());
+        } catch (Exception e) {
+            logger.error("Error al obtener estadísticas de notificaciones: {}", e.getMessage());
+            return ResponseEntity.status(500).body("Error al obtener estadísticas de notificaciones");
+        }
+    }
+}
@@ -7,10 +7,13 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import com.app.financiera.dto.ResumenPensionesResponse;
 import com.app.financiera.entity.AportePension;
 import com.app.financiera.entity.SaldoPension;
 import com.app.financiera.entity.ConsultaAportes;
 import com.app.financiera.entity.HistorialConsultas;
+import com.app.financiera.service.ImportacionAportesService;
 import com.app.financiera.service.PensionesService;
 import com.app.financiera.util.AppSettings;
 
@@ -24,12 +27,15 @@ public class PensionesController {
     @Autowired
     private PensionesService pensionesService;
 
+    @Autowired
+    private ImportacionAportesService importacionAportesService;
+
     // Resumen General
     @GetMapping("/resumen/{idUsuario}")
     public ResponseEntity<?> obtenerResumen(@PathVariable int idUsuario) {
         logger.info("Solicitando resumen de pensiones para usuario: {}", idUsuario);
         try {
-            HashMap<String, Object> resumen = pensionesService.obtenerResumenPensiones(idUsuario);
+            ResumenPensionesResponse resumen = pensionesService.obtenerResumenPensiones(idUsuario);
             return ResponseEntity.ok(resumen);
         } catch (Exception e) {
             logger.error("Error al obtener resumen: {}", e.getMessage());
@@ -126,6 +132,27 @@ public class PensionesController {
         }
     }
 
+    // APORTES - Importación masiva (CSV)
+    @PostMapping("/aportes/importar")
+    public ResponseEntity<?> importarAportes(@RequestParam("archivo") MultipartFile archivo) {
+        logger.info("Importando aportes desde archivo: {} ({} bytes)", archivo.getOriginalFilename(), archivo.getSize());
+        try {
+            if (archivo.isEmpty()) {
+                HashMap<String, Object> error = new HashMap<>();
+                error.put("mensaje", "Debe adjuntar un archivo CSV");
+                return ResponseEntity.badRequest().body(error);
+            }
+            HashMap<String, Object> resultado = importacionAportesService.importarAportesCsv(archivo.getInputStream());
+            return ResponseEntity.ok(resultado);
+        } catch (Exception e) {
+            logger.error("Error al importar aportes: {}", e.getMessage());
+            HashMap<String, Object> error = new HashMap<>();
+            error.put("mensaje", "Error al importar aportes");
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(500).body(error);
+        }
+    }
+
     // SALDOS - Obtener todos
     @GetMapping("/saldos/{idUsuario}")
     public ResponseEntity<?> obtenerSaldos(@PathVariable int idUsuario) {
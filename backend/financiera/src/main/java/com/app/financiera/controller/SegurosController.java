@@ -7,6 +7,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import com.app.financiera.dto.ResumenSegurosResponse;
 import com.app.financiera.entity.Seguro;
 import com.app.financiera.entity.TramiteSeguro;
 import com.app.financiera.entity.BeneficiarioSeguro;
@@ -28,7 +29,7 @@ public class SegurosController {
     public ResponseEntity<?> obtenerResumen(@PathVariable int idUsuario) {
         logger.info("Solicitud de resumen de seguros para usuario: {}", idUsuario);
         try {
-            HashMap<String, Object> resumen = segurosService.obtenerResumenAdministrativo(idUsuario);
+            ResumenSegurosResponse resumen = segurosService.obtenerResumenAdministrativo(idUsuario);
             return ResponseEntity.ok(resumen);
         } catch (Exception e) {
             logger.error("Error al obtener resumen: {}", e.getMessage());
@@ -40,11 +41,20 @@ public class SegurosController {
     }
 
     @GetMapping("/polizas/{idUsuario}")
-    public ResponseEntity<?> obtenerPolizas(@PathVariable int idUsuario) {
+    public ResponseEntity<?> obtenerPolizas(@PathVariable int idUsuario,
+                                            @RequestParam(required = false) String fields,
+                                            @RequestParam(required = false) String cursor,
+                                            @RequestParam(required = false) Integer limite) {
         logger.info("Solicitud de pólizas para usuario: {}", idUsuario);
         try {
+            // Con fields, cursor o limite: página por cursor (más recientes primero) con solo esos campos
+            if (fields != null || cursor != null || limite != null) {
+                return ResponseEntity.ok(segurosService.obtenerPaginaPolizas(idUsuario, fields, cursor, limite));
+            }
             List<Seguro> seguros = segurosService.obtenerSegurosUsuario(idUsuario);
             return ResponseEntity.ok(seguros);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
             logger.error("Error al obtener pólizas: {}", e.getMessage());
             return ResponseEntity.status(500).body("Error al obtener pólizas");
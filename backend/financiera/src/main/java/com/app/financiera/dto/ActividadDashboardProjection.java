@@ -0,0 +1,25 @@
+package com.app.financiera.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyección de una fila de actividad reciente del dashboard
+ * Combina historial de consultas y aportes en una sola consulta
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+public interface ActividadDashboardProjection {
+
+    String getOrigen(); // "Historial", "Aporte"
+
+    String getTipo();
+
+    String getDescripcion();
+
+    LocalDateTime getFecha();
+
+    String getResultado();
+
+    Double getMonto();
+}
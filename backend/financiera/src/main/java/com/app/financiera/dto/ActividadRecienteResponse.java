@@ -0,0 +1,30 @@
+package com.app.financiera.dto;
+
+import java.util.List;
+
+/**
+ * Actividad reciente del usuario (/api/dashboard/actividad y sección del resumen)
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+public record ActividadRecienteResponse(List<Actividad> actividades, Integer total, boolean exitoso, String mensaje)
+        implements SeccionDashboard {
+
+    public static ActividadRecienteResponse error(String mensaje) {
+        return new ActividadRecienteResponse(null, null, false, mensaje);
+    }
+
+    /**
+     * fecha es LocalDate para aportes y LocalDateTime para consultas del historial;
+     * monto solo aplica a aportes y resultado solo a consultas (el otro va como null)
+     */
+    public record Actividad(
+            String tipo,
+            String descripcion,
+            Object fecha,
+            Double monto,
+            String resultado,
+            String icono) {
+    }
+}
@@ -0,0 +1,24 @@
+package com.app.financiera.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Alertas activas del usuario (/api/dashboard/alertas y sección del resumen)
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AlertasResponse(List<Alerta> alertas, Long totalAlertas, boolean exitoso, String mensaje)
+        implements SeccionDashboard {
+
+    public static AlertasResponse error(String mensaje) {
+        return new AlertasResponse(null, null, false, mensaje);
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Alerta(String tipo, String titulo, String mensaje, Long cantidad, Double monto, String icono) {
+    }
+}
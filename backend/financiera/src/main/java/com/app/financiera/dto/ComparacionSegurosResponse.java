@@ -0,0 +1,40 @@
+package com.app.financiera.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Respuesta de /api/comparador/comparar; las estadísticas solo se incluyen si hay planes con el dato.
+ * idMejorValor es el plan con más cobertura por sol de prima mensual.
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+public record ComparacionSegurosResponse(
+        List<PlanComparado> planes,
+        int totalComparados,
+        @JsonInclude(JsonInclude.Include.NON_NULL) Double precioMin,
+        @JsonInclude(JsonInclude.Include.NON_NULL) Double precioMax,
+        @JsonInclude(JsonInclude.Include.NON_NULL) Double precioPromedio,
+        @JsonInclude(JsonInclude.Include.NON_NULL) Double coberturaMin,
+        @JsonInclude(JsonInclude.Include.NON_NULL) Double coberturaMax,
+        @JsonInclude(JsonInclude.Include.NON_NULL) Double coberturaPromedio,
+        @JsonInclude(JsonInclude.Include.NON_NULL) Integer idMejorValor) {
+
+    public record PlanComparado(
+            int idSeguro,
+            String nombrePlan,
+            String compania,
+            Double primaMensual,
+            Double primaAnual,
+            Double montoAsegurado,
+            Double deducible,
+            String coberturas,
+            String exclusiones,
+            String formaPago,
+            String numeroPoliza,
+            // Monto asegurado por cada sol de prima mensual; null si falta alguno de los dos
+            @JsonInclude(JsonInclude.Include.NON_NULL) Double coberturaPorSol) {
+    }
+}
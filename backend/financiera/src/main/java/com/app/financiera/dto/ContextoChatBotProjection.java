@@ -0,0 +1,23 @@
+package com.app.financiera.dto;
+
+/**
+ * Proyección con los datos del usuario que el chatbot envía como contexto al modelo
+ * Se llena con una sola consulta de conteos y sumas desde UsuarioRepository
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+public interface ContextoChatBotProjection {
+
+    String getTipoRegimen();
+
+    String getNombreAfp();
+
+    Double getSaldoTotal();
+
+    Long getTotalAportes();
+
+    Double getMontoAportes();
+
+    Long getSegurosActivos();
+}
@@ -0,0 +1,16 @@
+package com.app.financiera.dto;
+
+/**
+ * Proyección de un usuario cuyo saldo registrado difiere de la suma de sus aportes
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+public interface DescuadreSaldoProjection {
+
+    Integer getIdUsuario();
+
+    Double getSaldoRegistrado();
+
+    Double getSaldoCalculado();
+}
@@ -0,0 +1,37 @@
+package com.app.financiera.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Respuesta de /api/dashboard/estadisticas
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record EstadisticasFinancierasResponse(
+        DistribucionAportes distribucionAportes,
+        List<TendenciaYear> tendenciaAportes,
+        ComparativoAnual comparativoAnual,
+        boolean exitoso,
+        String mensaje) {
+
+    public static EstadisticasFinancierasResponse error(String mensaje) {
+        return new EstadisticasFinancierasResponse(null, null, null, false, mensaje);
+    }
+
+    public record DistribucionAportes(double onp, double afp, double total, double porcentajeONP,
+            double porcentajeAFP) {
+    }
+
+    public record TendenciaYear(int year, double total) {
+    }
+
+    // variacionPorcentual y tendencia solo se informan si hubo aportes el año anterior
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record ComparativoAnual(int yearActual, double montoYearActual, int yearAnterior,
+            double montoYearAnterior, Double variacionPorcentual, String tendencia) {
+    }
+}
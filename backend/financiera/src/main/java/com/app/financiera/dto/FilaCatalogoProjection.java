@@ -0,0 +1,27 @@
+package com.app.financiera.dto;
+
+/**
+ * Proyección con las columnas de un seguro activo que usa el índice del catálogo
+ * (sin coberturas, exclusiones ni las entidades de compañía y tipo)
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+public interface FilaCatalogoProjection {
+
+    Integer getIdSeguro();
+
+    String getCategoria();
+
+    Integer getIdCompania();
+
+    String getNombreCompania();
+
+    Integer getIdTipoSeguro();
+
+    Double getPrimaMensual();
+
+    Double getMontoAsegurado();
+
+    Double getDeducible();
+}
@@ -0,0 +1,28 @@
+package com.app.financiera.dto;
+
+import java.time.LocalDateTime;
+
+import com.app.financiera.entity.Notificacion;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Notificación enviada por el canal SSE (sin la relación con el usuario)
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record NotificacionEvento(int idNotificacion, String tipoNotificacion, String asunto, String mensaje,
+                                 String prioridad, LocalDateTime fechaEnvio, String urlAccion) {
+
+    public static NotificacionEvento de(Notificacion notificacion) {
+        return new NotificacionEvento(
+                notificacion.getIdNotificacion(),
+                notificacion.getTipoNotificacion(),
+                notificacion.getAsunto(),
+                notificacion.getMensaje(),
+                notificacion.getPrioridad(),
+                notificacion.getFechaEnvio(),
+                notificacion.getUrlAccion());
+    }
+}
@@ -0,0 +1,19 @@
+package com.app.financiera.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Página de una consulta por cursor (keyset). siguienteCursor se envía tal cual en la próxima
+ * petición; es null cuando no hay más resultados.
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+public record PaginaResponse<T>(
+        List<T> items,
+        int limite,
+        boolean hayMas,
+        @JsonInclude(JsonInclude.Include.NON_NULL) String siguienteCursor) {
+}
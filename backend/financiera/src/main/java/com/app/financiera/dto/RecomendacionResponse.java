@@ -0,0 +1,34 @@
+package com.app.financiera.dto;
+
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Respuesta de /api/comparador/recomendaciones: los mejores planes de la categoría para el usuario,
+ * del mayor al menor puntaje. criterios tiene el puntaje de cada criterio (0 a 1) antes de ponderar.
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+public record RecomendacionResponse(
+        List<PlanRecomendado> planes,
+        int planesEvaluados,
+        Map<String, Double> pesos,
+        @JsonInclude(JsonInclude.Include.NON_NULL) Integer edad,
+        @JsonInclude(JsonInclude.Include.NON_NULL) Double salarioActual) {
+
+    public record PlanRecomendado(
+            int idSeguro,
+            String nombrePlan,
+            String compania,
+            Double primaMensual,
+            Double montoAsegurado,
+            Double deducible,
+            double puntaje,
+            Map<String, Double> criterios,
+            // Ya tiene contratado un seguro de este tipo (el puntaje está penalizado)
+            boolean tipoContratado) {
+    }
+}
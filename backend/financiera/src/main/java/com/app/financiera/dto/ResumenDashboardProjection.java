@@ -0,0 +1,36 @@
+package com.app.financiera.dto;
+
+/**
+ * Proyección con las cifras agregadas del dashboard de un usuario
+ * Se llena con una sola consulta (CTE) desde DashboardRepository
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+public interface ResumenDashboardProjection {
+
+    // Saldos de pensión
+    Double getSaldoTotal();
+    Double getSaldoDisponible();
+
+    // Total aportado en el año actual (la tendencia por año viene de TendenciaAportesService)
+    Double getAportesYearActual();
+
+    // Aportes por sistema
+    Double getMontoOnp();
+    Double getMontoAfp();
+
+    // Aportes registrados en los últimos 3 meses
+    Long getAportesRecientes();
+
+    // Seguros vigentes o activos
+    Long getSegurosActivos();
+    Double getPrimaMensualTotal();
+    Double getCoberturaTotal();
+    Long getSegurosPorVencer();
+
+    // Pagos y trámites pendientes
+    Long getPagosPendientes();
+    Double getMontoPendiente();
+    Long getTramitesPendientes();
+}
@@ -0,0 +1,56 @@
+package com.app.financiera.dto;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Respuesta de /api/dashboard/resumen
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ResumenDashboardResponse(
+        SeccionDashboard infoPersonal,
+        SeccionDashboard resumenFinanciero,
+        SeccionDashboard resumenSeguros,
+        SeccionDashboard alertas,
+        SeccionDashboard actividadReciente,
+        List<EstadisticaYear> estadisticasYear,
+        SeccionDashboard infoPensiones,
+        Boolean parcial,
+        List<String> seccionesNoDisponibles,
+        Map<String, Long> tiemposSecciones,
+        boolean exitoso,
+        LocalDateTime fechaGeneracion,
+        String mensaje,
+        String error) {
+
+    public static ResumenDashboardResponse error(String mensaje, String error) {
+        return new ResumenDashboardResponse(null, null, null, null, null, null, null,
+                null, null, null, false, null, mensaje, error);
+    }
+
+    public record InfoPersonal(String nombre, String dni, String correo, String telefono,
+            String fotoPerfil, String rol, Date ultimoAcceso) implements SeccionDashboard {
+    }
+
+    public record ResumenFinanciero(double saldoTotal, double saldoDisponible, double aportesYearActual,
+            double proyeccionPensionMensual, double rentabilidadPromedio) implements SeccionDashboard {
+    }
+
+    public record ResumenSeguros(long totalSeguros, long segurosActivos, double primaMensualTotal,
+            double coberturaTotal) implements SeccionDashboard {
+    }
+
+    public record EstadisticaYear(int year, double total, double totalAportes) {
+    }
+
+    public record InfoPensiones(String tipoRegimen, String afp, String cuspp,
+            Date fechaAfiliacion) implements SeccionDashboard {
+    }
+}
@@ -0,0 +1,23 @@
+package com.app.financiera.dto;
+
+/**
+ * Respuesta de /api/pensiones/resumen; los campos sin dato se envían como null
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+public record ResumenPensionesResponse(
+        Double saldoTotal,
+        Double saldoDisponible,
+        String estadoAFP,
+        String estadoONP,
+        Double aportesONP12m,
+        Double aportesAFP12m,
+        Integer años,
+        boolean exitoso,
+        String error) {
+
+    public static ResumenPensionesResponse error(String error) {
+        return new ResumenPensionesResponse(null, null, null, null, null, null, null, false, error);
+    }
+}
@@ -0,0 +1,25 @@
+package com.app.financiera.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Respuesta de /api/seguros/resumen
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ResumenSegurosResponse(
+        Integer polizasActivas,
+        Long beneficiariosRegistrados,
+        Double pagosPendientes,
+        Long alertas,
+        Long alertasVencimiento,
+        Long tramitesPendientes,
+        boolean exitoso,
+        String error) {
+
+    public static ResumenSegurosResponse error(String error) {
+        return new ResumenSegurosResponse(null, null, null, null, null, null, false, error);
+    }
+}
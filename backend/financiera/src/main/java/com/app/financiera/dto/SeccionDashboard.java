@@ -0,0 +1,10 @@
+package com.app.financiera.dto;
+
+/**
+ * Sección del resumen del dashboard; puede ser el contenido real o un SeccionNoDisponible
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+public interface SeccionDashboard {
+}
@@ -0,0 +1,13 @@
+package com.app.financiera.dto;
+
+/**
+ * Marcador para una sección del dashboard que no se pudo cargar a tiempo
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+public record SeccionNoDisponible(boolean exitoso, String mensaje) implements SeccionDashboard {
+
+    public static final SeccionNoDisponible INSTANCIA =
+            new SeccionNoDisponible(false, "Información no disponible en este momento");
+}
@@ -0,0 +1,27 @@
+package com.app.financiera.dto;
+
+import java.util.List;
+
+/**
+ * Tendencia de aportes de un usuario: un punto por año (o por mes), del más antiguo al más reciente,
+ * incluyendo los periodos sin aportes con total cero
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+public record TendenciaAportes(List<Punto> puntos) {
+
+    /**
+     * mes es null en la tendencia anual
+     */
+    public record Punto(int year, Integer mes, double total, double totalOnp, double totalAfp, long cantidad) {
+    }
+
+    public Punto ultimo() {
+        return puntos.isEmpty() ? null : puntos.get(puntos.size() - 1);
+    }
+
+    public Punto penultimo() {
+        return puntos.size() < 2 ? null : puntos.get(puntos.size() - 2);
+    }
+}
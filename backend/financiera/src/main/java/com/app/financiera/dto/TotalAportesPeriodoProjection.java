@@ -0,0 +1,22 @@
+package com.app.financiera.dto;
+
+/**
+ * Total de aportes agrupado por año (y mes, cuando aplica) y sistema de pensiones
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+public interface TotalAportesPeriodoProjection {
+
+    Integer getYear();
+
+    // Null en la agrupación anual
+    Integer getMes();
+
+    // Tipo de institución: "Pensiones" (ONP) o "Financiera" (AFP); null si el aporte no tiene institución
+    String getSistema();
+
+    Double getTotal();
+
+    Long getCantidad();
+}
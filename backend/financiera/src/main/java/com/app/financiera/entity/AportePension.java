@@ -12,8 +12,10 @@ import lombok.Setter;
 @Table(name = "aporte_pension")
 public class AportePension {
 
+    // Secuencia con asignación por bloques para permitir inserciones en lote (JDBC batching)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "aporte_pension_seq")
+    @SequenceGenerator(name = "aporte_pension_seq", sequenceName = "aporte_pension_id_aporte_seq", allocationSize = 50)
     @Column(name = "id_aporte")
     private int idAporte;
 
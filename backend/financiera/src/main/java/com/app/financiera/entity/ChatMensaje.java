@@ -0,0 +1,56 @@
+package com.app.financiera.entity;
+
+import java.time.LocalDateTime;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Entidad que representa un turno de conversación con el chatbot (pregunta y respuesta)
+ * Se escribe en segundo plano y por lotes desde EscritorConversaciones
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "chat_mensaje")
+public class ChatMensaje {
+
+    // Secuencia con asignación por bloques para permitir inserciones en lote (JDBC batching)
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "chat_mensaje_seq")
+    @SequenceGenerator(name = "chat_mensaje_seq", sequenceName = "chat_mensaje_id_mensaje_seq", allocationSize = 50)
+    @Column(name = "id_mensaje")
+    private int idMensaje;
+
+    @JsonIgnoreProperties({ "hibernateLazyInitializer", "handler" })
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "id_usuario")
+    private Usuario usuario;
+
+    @Column(name = "session_id")
+    private String sessionId;
+
+    @Column(name = "mensaje_usuario", columnDefinition = "TEXT")
+    private String mensajeUsuario;
+
+    @Column(name = "respuesta_asistente", columnDefinition = "TEXT")
+    private String respuestaAsistente;
+
+    @Column(name = "fecha_mensaje")
+    private LocalDateTime fechaMensaje;
+
+    @Column(name = "tipo_consulta")
+    private String tipoConsulta; // Intención detectada: "SALDO", "NUMERO_APORTES", "DESCONOCIDA"...
+
+    @Column(name = "contexto_conversacion", columnDefinition = "TEXT")
+    private String contextoConversacion;
+
+    @Column(name = "accion_generada")
+    private String accionGenerada; // Origen de la respuesta: "Modelo", "Cache", "Datos", "Local"
+
+    private Integer satisfaccion; // 1 a 5
+}
@@ -0,0 +1,74 @@
+package com.app.financiera.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Entidad que representa un correo en la bandeja de salida
+ * Se registra junto con la operación que lo origina y se envía en segundo plano
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "correo_saliente")
+public class CorreoSaliente {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_correo")
+    private int idCorreo;
+
+    private String destinatario;
+
+    private String asunto;
+
+    @Column(columnDefinition = "TEXT")
+    private String contenido;
+
+    @Column(name = "es_html")
+    private boolean esHtml;
+
+    private String estado; // "Pendiente", "Enviando", "Enviado", "Fallido"
+
+    private int intentos;
+
+    @Column(name = "proximo_intento")
+    private LocalDateTime proximoIntento;
+
+    @Column(name = "fecha_creacion")
+    private LocalDateTime fechaCreacion;
+
+    @Column(name = "fecha_bloqueo")
+    private LocalDateTime fechaBloqueo;
+
+    @Column(name = "fecha_envio")
+    private LocalDateTime fechaEnvio;
+
+    @Column(name = "ultimo_error")
+    private String ultimoError;
+
+    @PrePersist
+    protected void onCreate() {
+        if (fechaCreacion == null) {
+            fechaCreacion = LocalDateTime.now();
+        }
+        if (proximoIntento == null) {
+            proximoIntento = fechaCreacion;
+        }
+        if (estado == null) {
+            estado = "Pendiente";
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package com.app.financiera.repository;
 
+import com.app.financiera.dto.TotalAportesPeriodoProjection;
 import com.app.financiera.entity.AportePension;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDate;
 import java.util.List;
 
 public interface AportePensionRepository extends JpaRepository<AportePension, Integer> {
@@ -11,23 +14,58 @@ public interface AportePensionRepository extends JpaRepository<AportePension, In
     @Query("SELECT a FROM AportePension a WHERE a.usuario.idUsuario = ?1 ORDER BY a.fechaAporte DESC")
     List<AportePension> findByUsuarioId(int idUsuario);
 
-    // Obtener aportes por usuario y periodo
-    @Query("SELECT a FROM AportePension a WHERE a.usuario.idUsuario = ?1 AND YEAR(a.fechaAporte) = ?2 ORDER BY a.fechaAporte DESC")
-    List<AportePension> findByUsuarioAndYear(int idUsuario, int year);
+    // Obtener aportes por usuario en un rango de fechas [desde, hasta)
+    @Query("SELECT a FROM AportePension a WHERE a.usuario.idUsuario = ?1 AND a.fechaAporte >= ?2 AND a.fechaAporte < ?3 ORDER BY a.fechaAporte DESC")
+    List<AportePension> findByUsuarioAndRango(int idUsuario, LocalDate desde, LocalDate hasta);
 
     // Obtener aportes por usuario y sistema (ONP o AFP)
     @Query("SELECT a FROM AportePension a WHERE a.usuario.idUsuario = ?1 AND a.institucion.tipo = ?2 ORDER BY a.fechaAporte DESC")
     List<AportePension> findByUsuarioAndSistema(int idUsuario, String sistema);
 
-    // Obtener aportes del último año
-    @Query("SELECT a FROM AportePension a WHERE a.usuario.idUsuario = ?1 AND YEAR(a.fechaAporte) = YEAR(CURRENT_DATE) ORDER BY a.fechaAporte DESC")
-    List<AportePension> findAportesUltimoYear(int idUsuario);
+
+    // Cantidad de aportes por usuario
+    @Query("SELECT COUNT(a) FROM AportePension a WHERE a.usuario.idUsuario = ?1")
+    long countByUsuarioId(int idUsuario);
 
     // Suma de aportes por usuario
     @Query("SELECT COALESCE(SUM(a.montoAporte), 0) FROM AportePension a WHERE a.usuario.idUsuario = ?1")
     Double sumAportesUsuario(int idUsuario);
 
-    // Suma de aportes por usuario y año
-    @Query("SELECT COALESCE(SUM(a.montoAporte), 0) FROM AportePension a WHERE a.usuario.idUsuario = ?1 AND YEAR(a.fechaAporte) = ?2")
-    Double sumAportesUsuarioYear(int idUsuario, int year);
+    // Suma de aportes por usuario en un rango de fechas [desde, hasta)
+    @Query("SELECT COALESCE(SUM(a.montoAporte), 0) FROM AportePension a WHERE a.usuario.idUsuario = ?1 AND a.fechaAporte >= ?2 AND a.fechaAporte < ?3")
+    Double sumAportesUsuarioRango(int idUsuario, LocalDate desde, LocalDate hasta);
+
+    // Totales por año y sistema en un rango de fechas [desde, hasta), en una sola consulta
+    @Query(value = """
+            SELECT CAST(EXTRACT(YEAR FROM a.fecha_aporte) AS integer) AS "year",
+                   CAST(NULL AS integer) AS "mes",
+                   i.tipo AS "sistema",
+                   COALESCE(SUM(a.monto_aporte), 0) AS "total",
+                   COUNT(*) AS "cantidad"
+            FROM aporte_pension a
+            LEFT JOIN institucion i ON i.id_institucion = a.id_institucion
+            WHERE a.id_usuario = :idUsuario
+              AND a.fecha_aporte >= :desde AND a.fecha_aporte < :hasta
+            GROUP BY 1, 3
+            """, nativeQuery = true)
+    List<TotalAportesPeriodoProjection> sumAportesPorYear(@Param("idUsuario") int idUsuario,
+                                                          @Param("desde") LocalDate desde,
+                                                          @Param("hasta") LocalDate hasta);
+
+    // Totales por año, mes y sistema en un rango de fechas [desde, hasta), en una sola consulta
+    @Query(value = """
+            SELECT CAST(EXTRACT(YEAR FROM a.fecha_aporte) AS integer) AS "year",
+                   CAST(EXTRACT(MONTH FROM a.fecha_aporte) AS integer) AS "mes",
+                   i.tipo AS "sistema",
+                   COALESCE(SUM(a.monto_aporte), 0) AS "total",
+                   COUNT(*) AS "cantidad"
+            FROM aporte_pension a
+            LEFT JOIN institucion i ON i.id_institucion = a.id_institucion
+            WHERE a.id_usuario = :idUsuario
+              AND a.fecha_aporte >= :desde AND a.fecha_aporte < :hasta
+            GROUP BY 1, 2, 3
+            """, nativeQuery = true)
+    List<TotalAportesPeriodoProjection> sumAportesPorMes(@Param("idUsuario") int idUsuario,
+                                                         @Param("desde") LocalDate desde,
+                                                         @Param("hasta") LocalDate hasta);
 }
\ No newline at end of file
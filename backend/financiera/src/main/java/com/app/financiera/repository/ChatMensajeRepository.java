@@ -0,0 +1,18 @@
+package com.app.financiera.repository;
+
+import com.app.financiera.entity.ChatMensaje;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.List;
+
+public interface ChatMensajeRepository extends JpaRepository<ChatMensaje, Integer> {
+
+    // Últimos turnos de una sesión del usuario, del más reciente al más antiguo
+    @Query("SELECT c FROM ChatMensaje c WHERE c.usuario.idUsuario = :idUsuario AND c.sessionId = :sessionId " +
+            "ORDER BY c.fechaMensaje DESC, c.idMensaje DESC")
+    List<ChatMensaje> findRecientesBySesion(@Param("idUsuario") int idUsuario,
+                                            @Param("sessionId") String sessionId,
+                                            Pageable pageable);
+}
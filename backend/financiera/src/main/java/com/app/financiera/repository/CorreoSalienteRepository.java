@@ -0,0 +1,40 @@
+package com.app.financiera.repository;
+
+import com.app.financiera.entity.CorreoSaliente;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface CorreoSalienteRepository extends JpaRepository<CorreoSaliente, Integer> {
+
+    // Correos listos para enviar, o bloqueados por un despacho que no terminó.
+    // SKIP LOCKED evita que dos instancias tomen el mismo correo
+    @Query(value = "SELECT c.id_correo FROM correo_saliente c " +
+            "WHERE (c.estado = 'Pendiente' AND c.proximo_intento <= :ahora) " +
+            "OR (c.estado = 'Enviando' AND c.fecha_bloqueo < :bloqueoVencido) " +
+            "ORDER BY c.proximo_intento " +
+            "LIMIT :limite " +
+            "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Integer> bloquearListos(@Param("ahora") LocalDateTime ahora,
+                                 @Param("bloqueoVencido") LocalDateTime bloqueoVencido,
+                                 @Param("limite") int limite);
+
+    @Modifying
+    @Query("UPDATE CorreoSaliente c SET c.estado = 'Enviando', c.fechaBloqueo = :ahora WHERE c.idCorreo IN :ids")
+    int marcarEnviando(@Param("ids") Collection<Integer> ids, @Param("ahora") LocalDateTime ahora);
+
+    @Modifying
+    @Query("UPDATE CorreoSaliente c SET c.estado = 'Enviado', c.fechaEnvio = :ahora, c.intentos = c.intentos + 1, " +
+            "c.ultimoError = NULL WHERE c.idCorreo IN :ids")
+    int marcarEnviados(@Param("ids") Collection<Integer> ids, @Param("ahora") LocalDateTime ahora);
+
+    @Modifying
+    @Query("DELETE FROM CorreoSaliente c WHERE c.estado = 'Enviado' AND c.fechaEnvio < ?1")
+    int eliminarEnviadosAntesDe(LocalDateTime limite);
+
+    long countByEstado(String estado);
+}
@@ -0,0 +1,119 @@
+package com.app.financiera.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import com.app.financiera.dto.ActividadDashboardProjection;
+import com.app.financiera.dto.ResumenDashboardProjection;
+import com.app.financiera.entity.Usuario;
+
+/**
+ * Repositorio de agregación para el Dashboard
+ * Calcula todas las cifras del resumen en una sola ida a la base de datos
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+public interface DashboardRepository extends Repository<Usuario, Integer> {
+
+    // Usuario con rol y AFP en una sola consulta
+    @Query("SELECT u FROM Usuario u LEFT JOIN FETCH u.rol LEFT JOIN FETCH u.afp WHERE u.idUsuario = ?1")
+    Optional<Usuario> findUsuarioConPerfil(int idUsuario);
+
+    // Cifras agregadas: saldos, aportes del año y por sistema, seguros, pagos y trámites
+    // (la tendencia por año se obtiene de TendenciaAportesService)
+    @Query(value = """
+            WITH saldos AS (
+                SELECT COALESCE(SUM(s.saldo_total), 0) AS saldo_total,
+                       COALESCE(SUM(s.saldo_disponible), 0) AS saldo_disponible
+                FROM saldo_pension s
+                WHERE s.id_usuario = :idUsuario AND s.estado = 'Activo'
+            ),
+            aportes AS (
+                SELECT COALESCE(SUM(a.monto_aporte) FILTER (WHERE a.fecha_aporte >= make_date(:year, 1, 1)
+                                AND a.fecha_aporte < make_date(:year + 1, 1, 1)), 0) AS year_actual,
+                       COALESCE(SUM(a.monto_aporte) FILTER (WHERE i.tipo = 'Pensiones'), 0) AS monto_onp,
+                       COALESCE(SUM(a.monto_aporte) FILTER (WHERE i.tipo = 'Financiera'), 0) AS monto_afp,
+                       COUNT(*) FILTER (WHERE a.fecha_aporte > :hace3Meses) AS recientes
+                FROM aporte_pension a
+                LEFT JOIN institucion i ON i.id_institucion = a.id_institucion
+                WHERE a.id_usuario = :idUsuario
+            ),
+            seguros AS (
+                SELECT COUNT(*) AS activos,
+                       COALESCE(SUM(s.prima_mensual), 0) AS prima_total,
+                       COALESCE(SUM(s.monto_asegurado), 0) AS cobertura_total,
+                       COUNT(*) FILTER (WHERE s.fecha_vencimiento >= :hoy
+                                     AND s.fecha_vencimiento < CAST(:limiteVencimiento AS date) + 1) AS por_vencer
+                FROM seguro s
+                WHERE s.id_usuario = :idUsuario AND s.estado IN ('Activo', 'Vigente')
+            ),
+            pagos AS (
+                SELECT COUNT(*) AS pendientes,
+                       COALESCE(SUM(p.monto_pagado), 0) AS monto_pendiente
+                FROM pago_seguro p
+                JOIN seguro s ON s.id_seguro = p.id_seguro
+                WHERE s.id_usuario = :idUsuario AND p.estado = 'Pendiente'
+            ),
+            tramites AS (
+                SELECT COUNT(*) AS pendientes
+                FROM tramite_seguro t
+                WHERE t.id_usuario = :idUsuario AND t.estado IN ('Pendiente', 'En proceso')
+            )
+            SELECT saldos.saldo_total AS "saldoTotal",
+                   saldos.saldo_disponible AS "saldoDisponible",
+                   aportes.year_actual AS "aportesYearActual",
+                   aportes.monto_onp AS "montoOnp",
+                   aportes.monto_afp AS "montoAfp",
+                   aportes.recientes AS "aportesRecientes",
+                   seguros.activos AS "segurosActivos",
+                   seguros.prima_total AS "primaMensualTotal",
+                   seguros.cobertura_total AS "coberturaTotal",
+                   seguros.por_vencer AS "segurosPorVencer",
+                   pagos.pendientes AS "pagosPendientes",
+                   pagos.monto_pendiente AS "montoPendiente",
+                   tramites.pendientes AS "tramitesPendientes"
+            FROM saldos, aportes, seguros, pagos, tramites
+            """, nativeQuery = true)
+    ResumenDashboardProjection obtenerResumen(@Param("idUsuario") int idUsuario,
+                                              @Param("year") int year,
+                                              @Param("hoy") LocalDate hoy,
+                                              @Param("limiteVencimiento") LocalDate limiteVencimiento,
+                                              @Param("hace3Meses") LocalDate hace3Meses);
+
+    // Actividad reciente: últimas consultas del historial y últimos 2 aportes, ordenados por fecha
+    @Query(value = """
+            SELECT actividad.* FROM (
+                (SELECT 'Historial' AS "origen",
+                        h.tipo_consulta AS "tipo",
+                        h.detalle_consulta AS "descripcion",
+                        h.fecha AS "fecha",
+                        h.resultado AS "resultado",
+                        CAST(NULL AS numeric) AS "monto"
+                 FROM historial_consultas h
+                 WHERE h.id_usuario = :idUsuario
+                 ORDER BY h.fecha DESC
+                 LIMIT :limite)
+                UNION ALL
+                (SELECT 'Aporte',
+                        'Aporte',
+                        CONCAT('Aporte registrado: ', a.periodo),
+                        CAST(a.fecha_aporte AS timestamp),
+                        NULL,
+                        a.monto_aporte
+                 FROM aporte_pension a
+                 WHERE a.id_usuario = :idUsuario
+                 ORDER BY a.fecha_aporte DESC NULLS LAST
+                 LIMIT 2)
+            ) actividad
+            ORDER BY actividad."fecha" DESC NULLS LAST
+            LIMIT :limite
+            """, nativeQuery = true)
+    List<ActividadDashboardProjection> obtenerActividad(@Param("idUsuario") int idUsuario,
+                                                        @Param("limite") int limite);
+}
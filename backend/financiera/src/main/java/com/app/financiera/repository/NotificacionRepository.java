@@ -1,10 +1,13 @@
 package com.app.financiera.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.app.financiera.entity.Notificacion;
 
@@ -37,4 +40,23 @@ public interface NotificacionRepository extends JpaRepository<Notificacion, Inte
     // Buscar notificaciones por prioridad
     @Query("SELECT n FROM Notificacion n WHERE n.usuario.idUsuario = ?1 AND n.prioridad = ?2 ORDER BY n.fechaEnvio DESC")
     List<Notificacion> findByUsuarioAndPrioridad(int idUsuario, String prioridad);
+
+    // Pendientes listas para despachar, por prioridad; SKIP LOCKED permite varias instancias
+    @Query(value = "SELECT n.id_notificacion FROM notificacion n " +
+            "WHERE n.estado = 'Pendiente' AND n.fecha_envio <= :ahora " +
+            "ORDER BY CASE n.prioridad WHEN 'Urgente' THEN 0 WHEN 'Alta' THEN 1 WHEN 'Media' THEN 2 ELSE 3 END, " +
+            "n.fecha_envio " +
+            "LIMIT :limite " +
+            "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Integer> bloquearPendientes(@Param("ahora") LocalDateTime ahora, @Param("limite") int limite);
+
+    // Notificaciones con su usuario en una sola consulta
+    @Query("SELECT n FROM Notificacion n JOIN FETCH n.usuario WHERE n.idNotificacion IN :ids")
+    List<Notificacion> findConUsuarioByIds(@Param("ids") Collection<Integer> ids);
+
+    @Modifying
+    @Query("UPDATE Notificacion n SET n.estado = :estado WHERE n.idNotificacion IN :ids")
+    int actualizarEstado(@Param("ids") Collection<Integer> ids, @Param("estado") String estado);
+
+    long countByEstado(String estado);
 }
@@ -0,0 +1,104 @@
+package com.app.financiera.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Parámetros de las listas de seguros paginadas: los campos que se pueden pedir con fields= y el cursor.
+ * Se validan en el servicio, antes de llegar al repositorio, para responder 400 si no son válidos.
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+public final class ParametrosPaginaSeguros {
+
+    // Campo de la respuesta -> expresión JPQL; s = seguro, t = tipo, c = compañía
+    private static final Map<String, String> CAMPOS = new LinkedHashMap<>();
+
+    static {
+        CAMPOS.put("idSeguro", "s.idSeguro");
+        CAMPOS.put("numeroPoliza", "s.numeroPoliza");
+        CAMPOS.put("nombrePlan", "t.nombre");
+        CAMPOS.put("categoria", "t.categoria");
+        CAMPOS.put("idTipoSeguro", "t.idTipoSeguro");
+        CAMPOS.put("compania", "c.nombre");
+        CAMPOS.put("idCompania", "c.idCompania");
+        CAMPOS.put("primaMensual", "s.primaMensual");
+        CAMPOS.put("primaAnual", "s.primaAnual");
+        CAMPOS.put("montoAsegurado", "s.montoAsegurado");
+        CAMPOS.put("deducible", "s.deducible");
+        CAMPOS.put("formaPago", "s.formaPago");
+        CAMPOS.put("metodoPago", "s.metodoPago");
+        CAMPOS.put("fechaInicio", "s.fechaInicio");
+        CAMPOS.put("fechaVencimiento", "s.fechaVencimiento");
+        CAMPOS.put("estado", "s.estado");
+        CAMPOS.put("coberturas", "s.coberturas");
+        CAMPOS.put("exclusiones", "s.exclusiones");
+    }
+
+    // Lo que muestran las tarjetas de las listas
+    private static final List<String> CAMPOS_PREDETERMINADOS = List.of(
+            "idSeguro", "nombrePlan", "compania", "primaMensual", "montoAsegurado", "deducible");
+
+    private ParametrosPaginaSeguros() {
+    }
+
+    /**
+     * Campos de fields= (separados por coma) en el orden pedido; sin fields, los de las listas
+     */
+    public static List<String> campos(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return CAMPOS_PREDETERMINADOS;
+        }
+        Set<String> seleccion = new LinkedHashSet<>();
+        for (String nombre : fields.split(",")) {
+            String campo = nombre.trim();
+            if (campo.isEmpty()) {
+                continue;
+            }
+            if (!CAMPOS.containsKey(campo)) {
+                throw new IllegalArgumentException("Campo no válido: " + campo + ". Campos disponibles: " + CAMPOS.keySet());
+            }
+            seleccion.add(campo);
+        }
+        return seleccion.isEmpty() ? CAMPOS_PREDETERMINADOS : new ArrayList<>(seleccion);
+    }
+
+    static String expresion(String campo) {
+        return CAMPOS.get(campo);
+    }
+
+    /**
+     * Clave de la última fila entregada (prima solo en el orden por prima), en Base64 para que
+     * el cliente la trate como un valor opaco
+     */
+    public record Cursor(Double prima, int id) {
+
+        public String codificar() {
+            String texto = (prima != null ? Double.toString(prima) : "") + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+        }
+
+        // null si no hay cursor (primera página)
+        public static Cursor decodificar(String cursor) {
+            if (cursor == null || cursor.isBlank()) {
+                return null;
+            }
+            try {
+                String texto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separador = texto.indexOf('|');
+                String prima = texto.substring(0, separador);
+                int id = Integer.parseInt(texto.substring(separador + 1));
+                return new Cursor(prima.isEmpty() ? null : Double.valueOf(prima), id);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Cursor no válido");
+            }
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package com.app.financiera.repository;
 
+import com.app.financiera.dto.DescuadreSaldoProjection;
 import com.app.financiera.entity.SaldoPension;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,4 +30,47 @@ public interface SaldoPensionRepository extends JpaRepository<SaldoPension, Inte
     // Suma de saldos disponibles por usuario
     @Query("SELECT COALESCE(SUM(s.saldoDisponible), 0) FROM SaldoPension s WHERE s.usuario.idUsuario = ?1 AND s.estado = 'Activo'")
     Double sumSaldosDisponibles(int idUsuario);
-}
\ No newline at end of file
+
+    // ID del saldo activo que se actualiza con cada aporte
+    @Query("SELECT MIN(s.idSaldo) FROM SaldoPension s WHERE s.usuario.idUsuario = ?1 AND s.estado = 'Activo'")
+    Integer findIdSaldoActivo(int idUsuario);
+
+    // Bloqueo consultivo hasta el fin de la transacción: serializa la creación del saldo de un usuario
+    @Query(value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock(?1, ?2)) bloqueo", nativeQuery = true)
+    Integer bloquearCreacionSaldo(int espacio, int idUsuario);
+
+    // Aplicar una variación al saldo en una sola sentencia (bloquea la fila hasta el commit)
+    @Modifying
+    @Query("UPDATE SaldoPension s SET " +
+            "s.saldoTotal = COALESCE(s.saldoTotal, 0) + ?2, " +
+            "s.saldoDisponible = COALESCE(s.saldoDisponible, 0) + ?3, " +
+            "s.saldoCIC = COALESCE(s.saldoCIC, 0) + ?4, " +
+            "s.saldoCV = COALESCE(s.saldoCV, 0) + ?5, " +
+            "s.rentabilidadAcumulada = COALESCE(s.rentabilidadAcumulada, 0) + ?6, " +
+            "s.fechaCorte = ?7, s.fechaActualizacion = ?7 " +
+            "WHERE s.idSaldo = ?1")
+    int aplicarVariacion(int idSaldo, double total, double disponible, double cic, double cv,
+                         double rentabilidad, LocalDate fecha);
+
+    // Usuarios cuyo saldo registrado no coincide con la suma de sus aportes
+    @Query(value = """
+            WITH aportes AS (
+                SELECT a.id_usuario, SUM(a.monto_aporte) AS total
+                FROM aporte_pension a
+                GROUP BY a.id_usuario
+            ),
+            saldos AS (
+                SELECT s.id_usuario, SUM(s.saldo_total) AS total
+                FROM saldo_pension s
+                WHERE s.estado = 'Activo'
+                GROUP BY s.id_usuario
+            )
+            SELECT COALESCE(s.id_usuario, a.id_usuario) AS "idUsuario",
+                   COALESCE(s.total, 0) AS "saldoRegistrado",
+                   COALESCE(a.total, 0) AS "saldoCalculado"
+            FROM saldos s
+            FULL OUTER JOIN aportes a ON a.id_usuario = s.id_usuario
+            WHERE ABS(COALESCE(s.total, 0) - COALESCE(a.total, 0)) > ?1
+            """, nativeQuery = true)
+    List<DescuadreSaldoProjection> findDescuadres(double tolerancia);
+}
@@ -1,11 +1,13 @@
 package com.app.financiera.repository;
 
+import com.app.financiera.dto.FilaCatalogoProjection;
 import com.app.financiera.entity.Seguro;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import java.util.Collection;
 import java.util.List;
 
-public interface SeguroRepository extends JpaRepository<Seguro, Integer> {
+public interface SeguroRepository extends JpaRepository<Seguro, Integer>, SeguroRepositoryCustom {
 
     // Obtener todos los seguros activos
     @Query("SELECT s FROM Seguro s WHERE s.estado = 'Activo'")
@@ -27,6 +29,14 @@ public interface SeguroRepository extends JpaRepository<Seguro, Integer> {
     @Query("SELECT s FROM Seguro s WHERE s.usuario.idUsuario = ?1 AND (s.estado = 'Activo' OR s.estado = 'Vigente')")
     List<Seguro> findByUsuario(int idUsuario);
 
+    // Tipos de seguro que el usuario ya tiene contratados
+    @Query("SELECT DISTINCT s.tipoSeguro.idTipoSeguro FROM Seguro s WHERE s.usuario.idUsuario = ?1 AND (s.estado = 'Activo' OR s.estado = 'Vigente')")
+    List<Integer> findTiposContratadosByUsuario(int idUsuario);
+
+    // Cantidad de seguros activos o vigentes de un usuario
+    @Query("SELECT COUNT(s) FROM Seguro s WHERE s.usuario.idUsuario = ?1 AND (s.estado = 'Activo' OR s.estado = 'Vigente')")
+    long countActivosByUsuario(int idUsuario);
+
     // Buscar seguros por rango de prima mensual
     @Query("SELECT s FROM Seguro s WHERE s.primaMensual BETWEEN ?1 AND ?2 AND s.estado = 'Activo'")
     List<Seguro> findByRangoPrimaMensual(Double min, Double max);
@@ -38,4 +48,32 @@ public interface SeguroRepository extends JpaRepository<Seguro, Integer> {
     // Obtener seguros ordenados por prima mensual
     @Query("SELECT s FROM Seguro s WHERE s.tipoSeguro.categoria = ?1 AND s.estado = 'Activo' ORDER BY s.primaMensual ASC")
     List<Seguro> findByCategoriaOrderByPrima(String categoria);
-}
\ No newline at end of file
+
+    // Usuario dueño de la póliza (para invalidar su dashboard)
+    @Query("SELECT s.usuario.idUsuario FROM Seguro s WHERE s.idSeguro = ?1")
+    Integer findIdUsuarioBySeguro(int idSeguro);
+
+    // Columnas del catálogo activo para el índice en memoria del comparador
+    @Query("""
+            SELECT s.idSeguro AS idSeguro, t.categoria AS categoria, c.idCompania AS idCompania,
+                   c.nombre AS nombreCompania, t.idTipoSeguro AS idTipoSeguro,
+                   s.primaMensual AS primaMensual, s.montoAsegurado AS montoAsegurado, s.deducible AS deducible
+            FROM Seguro s JOIN s.tipoSeguro t LEFT JOIN s.compania c
+            WHERE s.estado = 'Activo'
+            """)
+    List<FilaCatalogoProjection> findFilasCatalogo();
+
+    // La misma fila para un solo seguro; null si ya no está activo
+    @Query("""
+            SELECT s.idSeguro AS idSeguro, t.categoria AS categoria, c.idCompania AS idCompania,
+                   c.nombre AS nombreCompania, t.idTipoSeguro AS idTipoSeguro,
+                   s.primaMensual AS primaMensual, s.montoAsegurado AS montoAsegurado, s.deducible AS deducible
+            FROM Seguro s JOIN s.tipoSeguro t LEFT JOIN s.compania c
+            WHERE s.idSeguro = ?1 AND s.estado = 'Activo'
+            """)
+    FilaCatalogoProjection findFilaCatalogo(int idSeguro);
+
+    // Seguros con su tipo y compañía en una sola consulta
+    @Query("SELECT s FROM Seguro s JOIN FETCH s.tipoSeguro LEFT JOIN FETCH s.compania WHERE s.idSeguro IN ?1")
+    List<Seguro> findAllConDetalleByIds(Collection<Integer> ids);
+}
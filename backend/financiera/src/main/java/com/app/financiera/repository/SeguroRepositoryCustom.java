@@ -0,0 +1,48 @@
+package com.app.financiera.repository;
+
+import java.util.List;
+import java.util.Map;
+
+import com.app.financiera.dto.PaginaResponse;
+
+/**
+ * Consultas de seguros paginadas por cursor que solo leen las columnas pedidas
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+public interface SeguroRepositoryCustom {
+
+    // Mismos criterios que las consultas de listas de SeguroRepository
+    enum CriterioSeguros {
+        CATEGORIA("t.categoria = :valor AND s.estado = 'Activo'"),
+        TIPO("t.idTipoSeguro = :valor AND s.estado = 'Activo'"),
+        COMPANIA("c.idCompania = :valor AND s.estado = 'Activo'"),
+        USUARIO("s.usuario.idUsuario = :valor AND (s.estado = 'Activo' OR s.estado = 'Vigente')");
+
+        private final String condicion;
+
+        CriterioSeguros(String condicion) {
+            this.condicion = condicion;
+        }
+
+        public String getCondicion() {
+            return condicion;
+        }
+    }
+
+    enum OrdenSeguros {
+        // Catálogo: de la prima más baja a la más alta (sin prima al final)
+        PRIMA,
+        // Pólizas: las registradas más recientemente primero
+        RECIENTES
+    }
+
+    /**
+     * Una página de seguros que cumplen el criterio, con solo los campos indicados.
+     * cursor: el de la página anterior (null para la primera); limite: null = el predeterminado.
+     */
+    PaginaResponse<Map<String, Object>> buscarPagina(CriterioSeguros criterio, Object valor, OrdenSeguros orden,
+                                                     List<String> campos, ParametrosPaginaSeguros.Cursor cursor,
+                                                     Integer limite);
+}
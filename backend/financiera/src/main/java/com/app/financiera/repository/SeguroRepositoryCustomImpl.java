@@ -0,0 +1,112 @@
+package com.app.financiera.repository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+
+import com.app.financiera.dto.PaginaResponse;
+import com.app.financiera.repository.ParametrosPaginaSeguros.Cursor;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+
+/**
+ * Paginación por cursor: en lugar de OFFSET, cada página continúa después de la última fila de la
+ * anterior según su clave de orden (prima, id) o (id), así el costo no crece con el número de página
+ * y no se repiten ni saltan filas si el catálogo cambia entre peticiones.
+ * El SELECT incluye solo los campos pedidos (ver ParametrosPaginaSeguros) y las claves del cursor,
+ * de modo que las listas no leen las columnas jsonb de coberturas ni las entidades relacionadas.
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+public class SeguroRepositoryCustomImpl implements SeguroRepositoryCustom {
+
+    // Alias internos de las claves del cursor
+    private static final String CLAVE_ID = "cursorId";
+    private static final String CLAVE_PRIMA = "cursorPrima";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${paginacion.limite-predeterminado:20}")
+    private int limitePredeterminado;
+
+    @Value("${paginacion.limite-maximo:100}")
+    private int limiteMaximo;
+
+    @Override
+    public PaginaResponse<Map<String, Object>> buscarPagina(CriterioSeguros criterio, Object valor, OrdenSeguros orden,
+                                                            List<String> campos, Cursor posicion, Integer limitePedido) {
+        int limite = limitePedido != null ? Math.max(1, Math.min(limitePedido, limiteMaximo)) : limitePredeterminado;
+
+        StringBuilder jpql = new StringBuilder("SELECT ");
+        for (String campo : campos) {
+            jpql.append(ParametrosPaginaSeguros.expresion(campo)).append(" AS ").append(campo).append(", ");
+        }
+        jpql.append("s.idSeguro AS ").append(CLAVE_ID);
+        if (orden == OrdenSeguros.PRIMA) {
+            jpql.append(", s.primaMensual AS ").append(CLAVE_PRIMA);
+        }
+        jpql.append(" FROM Seguro s LEFT JOIN s.tipoSeguro t LEFT JOIN s.compania c WHERE ")
+                .append(criterio.getCondicion());
+
+        if (posicion != null) {
+            jpql.append(" AND ").append(condicionCursor(orden, posicion));
+        }
+        jpql.append(orden == OrdenSeguros.PRIMA
+                ? " ORDER BY s.primaMensual ASC NULLS LAST, s.idSeguro ASC"
+                : " ORDER BY s.idSeguro DESC");
+
+        TypedQuery<Tuple> consulta = entityManager.createQuery(jpql.toString(), Tuple.class)
+                .setParameter("valor", valor)
+                // Una fila de más indica si hay otra página
+                .setMaxResults(limite + 1);
+        if (posicion != null) {
+            consulta.setParameter("cursorId", posicion.id());
+            if (posicion.prima() != null) {
+                consulta.setParameter("cursorPrima", posicion.prima());
+            }
+        }
+
+        List<Tuple> filas = consulta.getResultList();
+        boolean hayMas = filas.size() > limite;
+        int cantidad = Math.min(filas.size(), limite);
+
+        List<Map<String, Object>> items = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            Tuple fila = filas.get(i);
+            Map<String, Object> item = new LinkedHashMap<>();
+            for (String campo : campos) {
+                item.put(campo, fila.get(campo));
+            }
+            items.add(item);
+        }
+
+        String siguienteCursor = null;
+        if (hayMas) {
+            Tuple ultima = filas.get(cantidad - 1);
+            Double prima = orden == OrdenSeguros.PRIMA ? ultima.get(CLAVE_PRIMA, Double.class) : null;
+            siguienteCursor = new Cursor(prima, ultima.get(CLAVE_ID, Integer.class)).codificar();
+        }
+        return new PaginaResponse<>(items, limite, hayMas, siguienteCursor);
+    }
+
+    // Filas estrictamente después del cursor en el orden de la consulta
+    private static String condicionCursor(OrdenSeguros orden, Cursor posicion) {
+        if (orden == OrdenSeguros.RECIENTES) {
+            return "s.idSeguro < :cursorId";
+        }
+        if (posicion.prima() == null) {
+            // Ya se está en el tramo final de seguros sin prima
+            return "(s.primaMensual IS NULL AND s.idSeguro > :cursorId)";
+        }
+        return "(s.primaMensual > :cursorPrima OR (s.primaMensual = :cursorPrima AND s.idSeguro > :cursorId)"
+                + " OR s.primaMensual IS NULL)";
+    }
+}
@@ -30,4 +30,12 @@ public interface TramiteSeguroRepository extends JpaRepository<TramiteSeguro, In
     // Contar trámites pendientes por usuario
     @Query("SELECT COUNT(t) FROM TramiteSeguro t WHERE t.usuario.idUsuario = ?1 AND t.estado IN ('Pendiente', 'En proceso')")
     long countPendientesByUsuario(int idUsuario);
+
+    // Usuario dueño del trámite (para invalidar su dashboard)
+    @Query("SELECT t.usuario.idUsuario FROM TramiteSeguro t WHERE t.idTramite = ?1")
+    Integer findIdUsuarioByTramite(int idTramite);
+
+    // Estado confirmado antes de una actualización (para avisar solo de cambios de estado)
+    @Query("SELECT t.estado FROM TramiteSeguro t WHERE t.idTramite = ?1")
+    String findEstadoByTramite(int idTramite);
 }
\ No newline at end of file
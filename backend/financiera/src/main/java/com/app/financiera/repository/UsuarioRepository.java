@@ -1,8 +1,11 @@
 package com.app.financiera.repository;
 
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import com.app.financiera.dto.ContextoChatBotProjection;
 import com.app.financiera.entity.Usuario;
 
 public interface UsuarioRepository extends JpaRepository<Usuario, Integer> {
@@ -30,4 +33,37 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Integer> {
     // Buscar por rol
     @Query("SELECT u FROM Usuario u WHERE u.rol.idRol = ?1")
     List<Usuario> findByRolId(int idRol);
+
+    // Carga en una sola consulta los usuarios de un lote junto con su AFP
+    @Query("SELECT u FROM Usuario u LEFT JOIN FETCH u.afp WHERE u.idUsuario IN ?1")
+    List<Usuario> findConAfpByIds(Collection<Integer> ids);
+
+    // Contexto del chatbot: régimen, AFP y totales de saldo, aportes y seguros en una sola consulta
+    @Query(value = """
+            SELECT u.tipo_regimen AS "tipoRegimen",
+                   f.nombre AS "nombreAfp",
+                   saldos.total AS "saldoTotal",
+                   aportes.cantidad AS "totalAportes",
+                   aportes.monto AS "montoAportes",
+                   seguros.activos AS "segurosActivos"
+            FROM usuario u
+            LEFT JOIN afp f ON f.id_afp = u.id_afp
+            CROSS JOIN LATERAL (
+                SELECT COALESCE(SUM(s.saldo_total), 0) AS total
+                FROM saldo_pension s
+                WHERE s.id_usuario = u.id_usuario AND s.estado = 'Activo'
+            ) saldos
+            CROSS JOIN LATERAL (
+                SELECT COUNT(*) AS cantidad, COALESCE(SUM(a.monto_aporte), 0) AS monto
+                FROM aporte_pension a
+                WHERE a.id_usuario = u.id_usuario
+            ) aportes
+            CROSS JOIN LATERAL (
+                SELECT COUNT(*) AS activos
+                FROM seguro s
+                WHERE s.id_usuario = u.id_usuario AND s.estado IN ('Activo', 'Vigente')
+            ) seguros
+            WHERE u.id_usuario = :idUsuario
+            """, nativeQuery = true)
+    ContextoChatBotProjection obtenerContextoChatBot(@Param("idUsuario") int idUsuario);
 }
\ No newline at end of file
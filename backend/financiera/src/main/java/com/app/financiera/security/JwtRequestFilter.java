@@ -38,9 +38,11 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         if (requestTokenHeader != null && requestTokenHeader.startsWith("Bearer ")) {
             jwtToken = requestTokenHeader.substring(7);
             try {
-                dni = jwtUtil.extractDni(jwtToken);
-                Integer idUsuario = jwtUtil.extractIdUsuario(jwtToken);
-                Integer idRol = jwtUtil.extractIdRol(jwtToken);
+                // Una sola verificación de firma (o ninguna si el token ya está en caché)
+                TokenVerificado verificado = jwtUtil.verificar(jwtToken);
+                dni = verificado.dni();
+                Integer idUsuario = verificado.idUsuario();
+                Integer idRol = verificado.idRol();
                 
                 // Agregar información al request para uso posterior
                 request.setAttribute("dni", dni);
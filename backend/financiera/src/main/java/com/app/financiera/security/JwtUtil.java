@@ -1,14 +1,21 @@
 package com.app.financiera.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.function.Function;
 
@@ -21,8 +28,26 @@ public class JwtUtil {
     // Tiempo de expiración: 24 horas
     private static final long JWT_TOKEN_VALIDITY = 24 * 60 * 60 * 1000;
 
+    // La clave y el parser son inmutables y seguros entre hilos: se construyen una sola vez
+    private final Key signingKey = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+
+    private final JwtParser parser = Jwts.parserBuilder()
+            .setSigningKey(signingKey)
+            .build();
+
+    @Value("${jwt.cache.max-tokens:10000}")
+    private int maxTokens;
+
+    // Tokens ya verificados, por hash SHA-256 del token; orden de acceso (LRU)
+    private final LinkedHashMap<String, TokenVerificado> verificados = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, TokenVerificado> eldest) {
+            return size() > maxTokens;
+        }
+    };
+
     private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+        return signingKey;
     }
 
     // Generar token para un usuario
@@ -46,17 +71,17 @@ public class JwtUtil {
 
     // Extraer el DNI del token
     public String extractDni(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return verificar(token).dni();
     }
 
     // Extraer el ID del usuario del token
     public Integer extractIdUsuario(String token) {
-        return extractClaim(token, claims -> claims.get("idUsuario", Integer.class));
+        return verificar(token).idUsuario();
     }
 
     // Extraer el ID del rol del token
     public Integer extractIdRol(String token) {
-        return extractClaim(token, claims -> claims.get("idRol", Integer.class));
+        return verificar(token).idRol();
     }
 
     // Extraer fecha de expiración
@@ -72,11 +97,59 @@ public class JwtUtil {
 
     // Extraer todos los claims
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    /**
+     * Verifica el token una sola vez y retorna sus datos. Si el mismo token ya se verificó
+     * y no ha expirado, se responde desde la caché sin volver a calcular la firma.
+     * Lanza JwtException si el token es inválido o expiró.
+     */
+    public TokenVerificado verificar(String token) {
+        String clave = hashToken(token);
+        long ahora = System.currentTimeMillis();
+
+        synchronized (verificados) {
+            TokenVerificado enCache = verificados.get(clave);
+            if (enCache != null) {
+                if (enCache.vigente(ahora)) {
+                    return enCache;
+                }
+                verificados.remove(clave);
+            }
+        }
+
+        Claims claims = extractAllClaims(token);
+        Date expiracion = claims.getExpiration();
+        TokenVerificado verificado = new TokenVerificado(
+                claims.getSubject(),
+                claims.get("idUsuario", Integer.class),
+                claims.get("idRol", Integer.class),
+                expiracion != null ? expiracion.getTime() : Long.MAX_VALUE);
+
+        // Un token sin exp no se guarda: no hay momento en que deje de ser válido en la caché
+        if (expiracion != null) {
+            synchronized (verificados) {
+                verificados.put(clave, verificado);
+            }
+        }
+        return verificado;
+    }
+
+    // Descarta los tokens guardados (por ejemplo, al rotar la clave)
+    public void limpiarCache() {
+        synchronized (verificados) {
+            verificados.clear();
+        }
+    }
+
+    private static String hashToken(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
     }
 
     // Verificar si el token ha expirado
@@ -86,14 +159,14 @@ public class JwtUtil {
 
     // Validar el token
     public Boolean validateToken(String token, String dni) {
-        final String extractedDni = extractDni(token);
-        return (extractedDni.equals(dni) && !isTokenExpired(token));
+        final TokenVerificado verificado = verificar(token);
+        return (verificado.dni().equals(dni) && verificado.vigente(System.currentTimeMillis()));
     }
 
     // Validar solo si el token es válido (sin comparar usuario)
     public Boolean validateToken(String token) {
         try {
-            return !isTokenExpired(token);
+            return verificar(token).vigente(System.currentTimeMillis());
         } catch (Exception e) {
             return false;
         }
@@ -0,0 +1,14 @@
+package com.app.financiera.security;
+
+/**
+ * Datos de un JWT cuya firma ya fue verificada
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+public record TokenVerificado(String dni, Integer idUsuario, Integer idRol, long expiracion) {
+
+    public boolean vigente(long ahora) {
+        return expiracion > ahora;
+    }
+}
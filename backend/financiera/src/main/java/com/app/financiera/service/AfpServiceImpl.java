@@ -15,6 +15,9 @@ public class AfpServiceImpl implements AfpService {
     @Autowired
     private AfpRepository afpRepository;
 
+    @Autowired
+    private InstitucionCache institucionCache;
+
     @Override
     public List<Afp> listarAfps() {
         return afpRepository.findAll();
@@ -48,17 +51,22 @@ public class AfpServiceImpl implements AfpService {
 
     @Override
     public Afp guardarAfp(Afp afp) {
-        return afpRepository.save(afp);
+        Afp guardada = afpRepository.save(afp);
+        institucionCache.invalidar();
+        return guardada;
     }
 
     @Override
     public Afp actualizarAfp(Afp afp) {
-        return afpRepository.save(afp);
+        Afp guardada = afpRepository.save(afp);
+        institucionCache.invalidar();
+        return guardada;
     }
 
     @Override
     public void eliminarAfp(int id) {
         afpRepository.deleteById(id);
+        institucionCache.invalidar();
     }
 
     @Override
@@ -7,16 +7,16 @@ import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.app.financiera.entity.AportePension;
-import com.app.financiera.entity.SaldoPension;
 import com.app.financiera.entity.Usuario;
 import com.app.financiera.entity.Institucion;
+import com.app.financiera.entity.TipoFondo;
 import com.app.financiera.repository.AportePensionRepository;
-import com.app.financiera.repository.SaldoPensionRepository;
 import com.app.financiera.repository.UsuarioRepository;
-import com.app.financiera.repository.InstitucionRepository;
 
 
 @Service
@@ -28,13 +28,19 @@ public class AportePensionServiceImpl implements AportePensionService {
     private AportePensionRepository aportePensionRepository;
 
     @Autowired
-    private SaldoPensionRepository saldoPensionRepository;
+    private SaldoPensionService saldoPensionService;
 
     @Autowired
     private UsuarioRepository usuarioRepository;
 
     @Autowired
-    private InstitucionRepository institucionRepository;
+    private InstitucionCache institucionCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private NotificacionService notificacionService;
 
     @Override
     public List<AportePension> obtenerAportesUsuario(int idUsuario) {
@@ -43,12 +49,12 @@ public class AportePensionServiceImpl implements AportePensionService {
 
     @Override
     public List<AportePension> obtenerAportesUsuarioYear(int idUsuario, int year) {
-        return aportePensionRepository.findByUsuarioAndYear(idUsuario, year);
+        return aportePensionRepository.findByUsuarioAndRango(idUsuario, LocalDate.of(year, 1, 1), LocalDate.of(year + 1, 1, 1));
     }
 
     @Override
     public List<AportePension> obtenerAportesUltimoYear(int idUsuario) {
-        return aportePensionRepository.findAportesUltimoYear(idUsuario);
+        return obtenerAportesUsuarioYear(idUsuario, LocalDate.now().getYear());
     }
 
     @Override
@@ -63,10 +69,11 @@ public class AportePensionServiceImpl implements AportePensionService {
 
     @Override
     public Double obtenerTotalAportesUsuarioYear(int idUsuario, int year) {
-        return aportePensionRepository.sumAportesUsuarioYear(idUsuario, year);
+        return aportePensionRepository.sumAportesUsuarioRango(idUsuario, LocalDate.of(year, 1, 1), LocalDate.of(year + 1, 1, 1));
     }
 
     @Override
+    @Transactional
     public AportePension guardarAporte(AportePension aporte) {
         logger.info("Guardando aporte para usuario: {}", aporte.getUsuario().getIdUsuario());
 
@@ -75,40 +82,64 @@ public class AportePensionServiceImpl implements AportePensionService {
 
         AportePension aporteGuardado = aportePensionRepository.save(aporte);
 
-        // Actualizar saldo automáticamente
-        actualizarSaldoUsuario(aporte.getUsuario().getIdUsuario());
+        // Sumar el nuevo aporte al saldo
+        saldoPensionService.aplicarVariacion(aporteGuardado.getUsuario(), aporteGuardado.getTipoFondo(),
+                monto(aporteGuardado));
 
+        // Aviso al usuario en la misma transacción: solo se despacha si el aporte se confirma
+        notificacionService.notificarAporteRegistrado(aporteGuardado.getUsuario().getIdUsuario(),
+                monto(aporteGuardado), aporteGuardado.getPeriodo());
+
+        eventPublisher.publishEvent(new DatosUsuarioModificadosEvent(aporteGuardado.getUsuario().getIdUsuario(), "Aporte"));
         return aporteGuardado;
     }
 
     @Override
+    @Transactional
     public AportePension actualizarAporte(AportePension aporte) {
         logger.info("Actualizando aporte: {}", aporte.getIdAporte());
 
+        // Monto y usuario anteriores, para ajustar el saldo solo por la diferencia
+        Optional<AportePension> anteriorOpt = aportePensionRepository.findById(aporte.getIdAporte());
+        Usuario usuarioAnterior = anteriorOpt.map(AportePension::getUsuario).orElse(null);
+        TipoFondo tipoFondoAnterior = anteriorOpt.map(AportePension::getTipoFondo).orElse(null);
+        double montoAnterior = anteriorOpt.map(this::monto).orElse(0.0);
+
         // SINCRONIZAR INSTITUCIÓN CON EL PERFIL ACTUAL DEL USUARIO
         sincronizarInstitucionConUsuario(aporte);
 
         AportePension aporteActualizado = aportePensionRepository.save(aporte);
 
-        // Actualizar saldo automáticamente
-        actualizarSaldoUsuario(aporte.getUsuario().getIdUsuario());
+        Usuario usuario = aporteActualizado.getUsuario();
+        if (usuarioAnterior != null && usuarioAnterior.getIdUsuario() != usuario.getIdUsuario()) {
+            // El aporte cambió de usuario: se descuenta de uno y se suma al otro
+            saldoPensionService.aplicarVariacion(usuarioAnterior, tipoFondoAnterior, -montoAnterior);
+            saldoPensionService.aplicarVariacion(usuario, aporteActualizado.getTipoFondo(), monto(aporteActualizado));
+            eventPublisher.publishEvent(new DatosUsuarioModificadosEvent(usuarioAnterior.getIdUsuario(), "Aporte"));
+        } else {
+            saldoPensionService.aplicarVariacion(usuario, aporteActualizado.getTipoFondo(),
+                    monto(aporteActualizado) - montoAnterior);
+        }
 
+        eventPublisher.publishEvent(new DatosUsuarioModificadosEvent(usuario.getIdUsuario(), "Aporte"));
         return aporteActualizado;
     }
 
     @Override
+    @Transactional
     public void eliminarAporte(int idAporte) {
         logger.info("Eliminando aporte: {}", idAporte);
 
-        // Obtener el aporte antes de eliminarlo para saber el usuario
+        // Obtener el aporte antes de eliminarlo para saber el usuario y el monto
         Optional<AportePension> aporteOpt = aportePensionRepository.findById(idAporte);
 
         if (aporteOpt.isPresent()) {
-            int idUsuario = aporteOpt.get().getUsuario().getIdUsuario();
+            AportePension aporte = aporteOpt.get();
             aportePensionRepository.deleteById(idAporte);
 
-            // Actualizar saldo automáticamente
-            actualizarSaldoUsuario(idUsuario);
+            // Restar el aporte eliminado del saldo
+            saldoPensionService.aplicarVariacion(aporte.getUsuario(), aporte.getTipoFondo(), -monto(aporte));
+            eventPublisher.publishEvent(new DatosUsuarioModificadosEvent(aporte.getUsuario().getIdUsuario(), "Aporte"));
         } else {
             aportePensionRepository.deleteById(idAporte);
         }
@@ -135,48 +166,7 @@ public class AportePensionServiceImpl implements AportePensionService {
                     usuario.getAfp() != null ? usuario.getAfp().getNombre() : "null");
 
             // Determinar la institución según el perfil del usuario
-            Institucion institucionCorrecta = null;
-
-            // CASO 1: Usuario está en ONP
-            if ("ONP".equalsIgnoreCase(usuario.getTipoRegimen())) {
-                // Buscar institución ONP (tipo="Pensiones")
-                List<Institucion> instituciones = institucionRepository.findAll();
-
-                // Buscar por tipo="Pensiones" (solo hay una: ONP)
-                institucionCorrecta = instituciones.stream()
-                        .filter(i -> "Pensiones".equalsIgnoreCase(i.getTipo()))
-                        .findFirst()
-                        .orElse(null);
-
-                logger.info("Usuario en ONP, institución asignada: {}",
-                        institucionCorrecta != null ? institucionCorrecta.getNombre() : "null");
-            }
-            // CASO 2: Usuario está en AFP
-            else if ("AFP".equalsIgnoreCase(usuario.getTipoRegimen()) && usuario.getAfp() != null) {
-                // Buscar institución que corresponda a la AFP del usuario
-                List<Institucion> instituciones = institucionRepository.findAll();
-                String nombreAFP = usuario.getAfp().getNombre(); // Ej: "Integra", "Prima", "Habitat", "Profuturo"
-
-                // Buscar por tipo="Financiera" y nombre que contenga el nombre de la AFP
-                institucionCorrecta = instituciones.stream()
-                        .filter(i -> "Financiera".equalsIgnoreCase(i.getTipo()) &&
-                                i.getNombre() != null &&
-                                i.getNombre().toUpperCase().contains(nombreAFP.toUpperCase()))
-                        .findFirst()
-                        .orElse(null);
-
-                // Si no encuentra por nombre, buscar cualquier institución de tipo Financiera
-                if (institucionCorrecta == null) {
-                    logger.warn("No se encontró AFP con nombre '{}', buscando cualquier AFP", nombreAFP);
-                    institucionCorrecta = instituciones.stream()
-                            .filter(i -> "Financiera".equalsIgnoreCase(i.getTipo()))
-                            .findFirst()
-                            .orElse(null);
-                }
-
-                logger.info("Usuario en AFP '{}', institución asignada: {}",
-                        nombreAFP, institucionCorrecta != null ? institucionCorrecta.getNombre() : "null");
-            }
+            Institucion institucionCorrecta = institucionCache.resolver(usuario);
 
             // Asignar la institución correcta al aporte
             if (institucionCorrecta != null) {
@@ -192,65 +182,7 @@ public class AportePensionServiceImpl implements AportePensionService {
         }
     }
 
-    private void actualizarSaldoUsuario(int idUsuario) {
-        try {
-            logger.info("Actualizando saldo para usuario: {}", idUsuario);
-
-            // Obtener todos los aportes del usuario
-            List<AportePension> aportes = aportePensionRepository.findByUsuarioId(idUsuario);
-
-            if (aportes.isEmpty()) {
-                logger.info("Usuario {} no tiene aportes, no se crea saldo", idUsuario);
-                return;
-            }
-
-            // Calcular saldo total sumando todos los aportes
-            double saldoTotal = aportes.stream()
-                    .mapToDouble(a -> a.getMontoAporte() != null ? a.getMontoAporte() : 0.0)
-                    .sum();
-
-            // Calcular saldo disponible (90% del total como ejemplo)
-            double saldoDisponible = saldoTotal * 0.9;
-
-            // Calcular rentabilidad (5% anual acumulado como ejemplo)
-            double rentabilidadAcumulada = saldoTotal * 0.05;
-
-            // Buscar si ya existe un saldo para este usuario
-            List<SaldoPension> saldosExistentes = saldoPensionRepository.findByUsuarioId(idUsuario);
-
-            SaldoPension saldo;
-            if (!saldosExistentes.isEmpty()) {
-                // Actualizar el primer saldo encontrado
-                saldo = saldosExistentes.get(0);
-                logger.info("Actualizando saldo existente ID: {}", saldo.getIdSaldo());
-            } else {
-                // Crear nuevo saldo
-                saldo = new SaldoPension();
-                saldo.setUsuario(aportes.get(0).getUsuario());
-                saldo.setEstado("Activo");
-                logger.info("Creando nuevo saldo para usuario: {}", idUsuario);
-            }
-
-            // Actualizar valores
-            saldo.setSaldoTotal(saldoTotal);
-            saldo.setSaldoDisponible(saldoDisponible);
-            saldo.setSaldoCIC(saldoTotal * 0.6); // 60% en CIC
-            saldo.setSaldoCV(saldoTotal * 0.4);  // 40% en CV
-            saldo.setRentabilidadAcumulada(rentabilidadAcumulada);
-            saldo.setFechaCorte(LocalDate.now());
-            saldo.setFechaActualizacion(LocalDate.now());
-
-            // Si tiene tipo de fondo, asignarlo
-            if (aportes.get(0).getTipoFondo() != null) {
-                saldo.setTipoFondo(aportes.get(0).getTipoFondo());
-            }
-
-            // Guardar saldo
-            saldoPensionRepository.save(saldo);
-            logger.info("Saldo actualizado exitosamente. Total: S/ {}", saldoTotal);
-
-        } catch (Exception e) {
-            logger.error("Error al actualizar saldo del usuario {}: {}", idUsuario, e.getMessage(), e);
-        }
+    private double monto(AportePension aporte) {
+        return aporte.getMontoAporte() != null ? aporte.getMontoAporte() : 0.0;
     }
-}
\ No newline at end of file
+}
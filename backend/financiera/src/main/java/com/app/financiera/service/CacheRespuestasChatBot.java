@@ -0,0 +1,220 @@
+package com.app.financiera.service;
+
+import java.text.Normalizer;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Caché de respuestas del chatbot por pregunta normalizada, en dos niveles:
+ * - General: preguntas que no dependen del usuario ("¿Qué es una AFP?"), compartidas por todos.
+ * - Por usuario: preguntas sobre sus propios datos, con la huella de su contexto en la clave,
+ *   de modo que un cambio en saldo, aportes o seguros produce una clave nueva.
+ * Ambos niveles se acotan por tamaño (LRU) y por tiempo de vida.
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+@Component
+public class CacheRespuestasChatBot {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheRespuestasChatBot.class);
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+    private static final Pattern NO_ALFANUMERICO = Pattern.compile("[^a-z0-9 ]+");
+    private static final Pattern ESPACIOS = Pattern.compile("\\s+");
+
+    // Saludos y fórmulas de cortesía que no cambian la respuesta
+    private static final Set<String> PALABRAS_VACIAS = Set.of(
+            "hola", "buenas", "buenos", "dias", "tardes", "noches", "porfavor", "favor", "gracias",
+            "oye", "disculpa", "disculpe", "please", "ayudame", "ayudeme");
+
+    // Palabras que indican que la respuesta depende de los datos del usuario
+    private static final Set<String> MARCAS_PERSONALES = Set.of(
+            "mi", "mis", "me", "yo", "tengo", "tenia", "mio", "mia", "mios", "mias",
+            "cuanto", "cuantos", "cuantas", "saldo", "llevo", "aportado");
+
+    @Value("${chatbot.cache.general.max-entradas:500}")
+    private int maxGeneral;
+
+    @Value("${chatbot.cache.general.ttl-minutos:1440}")
+    private long ttlGeneralMinutos;
+
+    @Value("${chatbot.cache.usuario.max-entradas:5000}")
+    private int maxUsuario;
+
+    @Value("${chatbot.cache.usuario.ttl-minutos:10}")
+    private long ttlUsuarioMinutos;
+
+    private Nivel<String> general;
+    private Nivel<ClaveUsuario> porUsuario;
+
+    @PostConstruct
+    public void iniciar() {
+        general = new Nivel<>(maxGeneral, ttlGeneralMinutos * 60_000);
+        porUsuario = new Nivel<>(maxUsuario, ttlUsuarioMinutos * 60_000);
+    }
+
+    /**
+     * Minúsculas, sin tildes ni signos, sin saludos y con espacios simples
+     */
+    public static String normalizar(String pregunta) {
+        if (pregunta == null) {
+            return "";
+        }
+        String texto = Normalizer.normalize(pregunta.toLowerCase(), Normalizer.Form.NFD);
+        texto = MARCAS.matcher(texto).replaceAll("");
+        texto = NO_ALFANUMERICO.matcher(texto).replaceAll(" ");
+
+        StringBuilder resultado = new StringBuilder(texto.length());
+        for (String palabra : ESPACIOS.split(texto.trim())) {
+            if (!palabra.isEmpty() && !PALABRAS_VACIAS.contains(palabra)) {
+                if (resultado.length() > 0) {
+                    resultado.append(' ');
+                }
+                resultado.append(palabra);
+            }
+        }
+        return resultado.toString();
+    }
+
+    public boolean esGeneral(String preguntaNormalizada) {
+        if (preguntaNormalizada.isEmpty()) {
+            return false;
+        }
+        for (String palabra : preguntaNormalizada.split(" ")) {
+            if (MARCAS_PERSONALES.contains(palabra)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public String buscarGeneral(String preguntaNormalizada) {
+        return general.obtener(preguntaNormalizada);
+    }
+
+    public void guardarGeneral(String preguntaNormalizada, String respuesta) {
+        general.guardar(preguntaNormalizada, respuesta);
+    }
+
+    public String buscarUsuario(int idUsuario, String preguntaNormalizada, String contexto) {
+        return porUsuario.obtener(new ClaveUsuario(idUsuario, preguntaNormalizada, huella(contexto)));
+    }
+
+    public void guardarUsuario(int idUsuario, String preguntaNormalizada, String contexto, String respuesta) {
+        porUsuario.guardar(new ClaveUsuario(idUsuario, preguntaNormalizada, huella(contexto)), respuesta);
+    }
+
+    // La huella ya cubre los cambios de datos; esto además libera las entradas que quedaron obsoletas
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alModificarDatos(DatosUsuarioModificadosEvent evento) {
+        int idUsuario = evento.getIdUsuario();
+        porUsuario.eliminarSi(clave -> clave.idUsuario() == idUsuario);
+        logger.debug("Respuestas del chatbot invalidadas para usuario {} por cambio en {}", idUsuario, evento.getOrigen());
+    }
+
+    public HashMap<String, Object> obtenerEstadisticas() {
+        HashMap<String, Object> estadisticas = new HashMap<>();
+        estadisticas.put("general", general.estadisticas());
+        estadisticas.put("porUsuario", porUsuario.estadisticas());
+
+        long aciertos = general.aciertos.get() + porUsuario.aciertos.get();
+        long consultas = aciertos + general.fallos.get() + porUsuario.fallos.get();
+        estadisticas.put("tasaAciertos", consultas > 0 ? (double) aciertos / consultas : 0.0);
+        return estadisticas;
+    }
+
+    private static int huella(String contexto) {
+        return contexto != null ? contexto.hashCode() : 0;
+    }
+
+    private record ClaveUsuario(int idUsuario, String pregunta, int huellaContexto) {
+    }
+
+    private record Entrada(String respuesta, long expira) {
+    }
+
+    private static final class Nivel<K> {
+        private final int maxEntradas;
+        private final long ttlMs;
+        private final AtomicLong aciertos = new AtomicLong();
+        private final AtomicLong fallos = new AtomicLong();
+        private final AtomicLong desalojos = new AtomicLong();
+
+        // Orden de acceso: el primer elemento es el menos usado recientemente
+        private final LinkedHashMap<K, Entrada> entradas;
+
+        private Nivel(int maxEntradas, long ttlMs) {
+            this.maxEntradas = maxEntradas;
+            this.ttlMs = ttlMs;
+            this.entradas = new LinkedHashMap<>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, Entrada> eldest) {
+                    if (size() > Nivel.this.maxEntradas) {
+                        desalojos.incrementAndGet();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        private String obtener(K clave) {
+            long ahora = System.currentTimeMillis();
+            synchronized (entradas) {
+                Entrada entrada = entradas.get(clave);
+                if (entrada != null && entrada.expira() > ahora) {
+                    aciertos.incrementAndGet();
+                    return entrada.respuesta();
+                }
+                if (entrada != null) {
+                    entradas.remove(clave);
+                }
+            }
+            fallos.incrementAndGet();
+            return null;
+        }
+
+        private void guardar(K clave, String respuesta) {
+            synchronized (entradas) {
+                entradas.put(clave, new Entrada(respuesta, System.currentTimeMillis() + ttlMs));
+            }
+        }
+
+        private void eliminarSi(Predicate<K> condicion) {
+            synchronized (entradas) {
+                entradas.keySet().removeIf(condicion);
+            }
+        }
+
+        private Map<String, Object> estadisticas() {
+            long totalAciertos = aciertos.get();
+            long totalConsultas = totalAciertos + fallos.get();
+
+            Map<String, Object> estadisticas = new HashMap<>();
+            synchronized (entradas) {
+                estadisticas.put("entradas", entradas.size());
+            }
+            estadisticas.put("maxEntradas", maxEntradas);
+            estadisticas.put("ttlMs", ttlMs);
+            estadisticas.put("aciertos", totalAciertos);
+            estadisticas.put("fallos", fallos.get());
+            estadisticas.put("tasaAciertos", totalConsultas > 0 ? (double) totalAciertos / totalConsultas : 0.0);
+            estadisticas.put("desalojosPorTamano", desalojos.get());
+            return estadisticas;
+        }
+    }
+}
@@ -0,0 +1,363 @@
+package com.app.financiera.service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.app.financiera.repository.NotificacionRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Distribuye por Server-Sent Events las notificaciones entregadas y el conteo de no leídas
+ * a las conexiones abiertas de cada usuario.
+ * El contador del usuario se instala junto con su primera conexión, antes de consultar el conteo
+ * a la base de datos; los eventos que llegan mientras se cuenta invalidan esa carga y se vuelve
+ * a contar. Después se mantiene en memoria con los eventos de creación, lectura y eliminación,
+ * y se reconcilia periódicamente con la base de datos.
+ * Cada conexión tiene un búfer acotado y se envía desde su propio hilo virtual, de modo que
+ * un cliente lento nunca bloquea al resto; si el búfer se llena se descarta y se pide al
+ * cliente que se resincronice.
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+@Component
+public class CentroNotificacionesSse {
+
+    private static final Logger logger = LoggerFactory.getLogger(CentroNotificacionesSse.class);
+
+    private static final int MAX_INTENTOS_CONTEO = 3;
+
+    @Autowired
+    private NotificacionRepository notificacionRepository;
+
+    @Value("${notificacion.sse.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${notificacion.sse.heartbeat-segundos:25}")
+    private long heartbeatSegundos;
+
+    @Value("${notificacion.sse.buffer-eventos:32}")
+    private int bufferEventos;
+
+    @Value("${notificacion.sse.max-conexiones-usuario:5}")
+    private int maxConexionesUsuario;
+
+    @Value("${notificacion.sse.reconciliar-segundos:300}")
+    private long reconciliarSegundos;
+
+    private final Map<Integer, List<Conexion>> conexiones = new ConcurrentHashMap<>();
+    // Solo existe para usuarios con al menos una conexión abierta; se crea y se quita junto con la lista
+    private final Map<Integer, ContadorNoLeidas> noLeidas = new ConcurrentHashMap<>();
+
+    private final AtomicLong eventosEnviados = new AtomicLong();
+    private final AtomicLong desbordes = new AtomicLong();
+
+    private ExecutorService emisores;
+    private ScheduledExecutorService latidos;
+
+    @PostConstruct
+    public void iniciar() {
+        emisores = Executors.newVirtualThreadPerTaskExecutor();
+        latidos = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "sse-latido");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        latidos.scheduleAtFixedRate(this::enviarLatidos, heartbeatSegundos, heartbeatSegundos, TimeUnit.SECONDS);
+        // Las consultas corren en un hilo virtual para no retrasar los latidos
+        latidos.scheduleAtFixedRate(() -> emisores.execute(this::reconciliarConteos),
+                reconciliarSegundos, reconciliarSegundos, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void detener() {
+        latidos.shutdownNow();
+        conexiones.values().forEach(lista -> lista.forEach(Conexion::cerrar));
+        emisores.shutdownNow();
+    }
+
+    /**
+     * Abre una conexión para el usuario. El conteo inicial se carga fuera del hilo de la petición
+     * para que la conexión SSE, que dura minutos, nunca retenga una conexión del pool.
+     */
+    public SseEmitter suscribir(int idUsuario) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Conexion conexion = new Conexion(idUsuario, emitter);
+
+        emitter.onCompletion(() -> quitar(conexion));
+        emitter.onTimeout(() -> quitar(conexion));
+        emitter.onError(error -> quitar(conexion));
+
+        // compute es atómico por usuario frente a quitar(), que elimina la lista vacía y el contador.
+        // El contador se instala aquí, antes de contar: ningún evento posterior se pierde
+        ContadorNoLeidas[] instalado = new ContadorNoLeidas[1];
+        List<Conexion> delUsuario = conexiones.compute(idUsuario, (id, lista) -> {
+            List<Conexion> resultado = lista != null ? lista : new CopyOnWriteArrayList<>();
+            resultado.add(conexion);
+            instalado[0] = noLeidas.computeIfAbsent(id, clave -> new ContadorNoLeidas());
+            return resultado;
+        });
+        ContadorNoLeidas contador = instalado[0];
+        while (delUsuario.size() > maxConexionesUsuario) {
+            delUsuario.get(0).cerrar();
+        }
+
+        emisores.execute(() -> {
+            try {
+                conexion.encolar(eventoNoLeidas(cargar(idUsuario, contador)));
+            } catch (Exception e) {
+                logger.error("Error al cargar notificaciones no leídas del usuario {}: {}", idUsuario, e.getMessage());
+            }
+        });
+        return emitter;
+    }
+
+    /**
+     * Conteo de no leídas en memoria, o null si el usuario no tiene conexiones abiertas
+     */
+    public Long noLeidasEnCache(int idUsuario) {
+        ContadorNoLeidas contador = noLeidas.get(idUsuario);
+        return contador != null ? contador.valor() : null;
+    }
+
+    // Después del commit: solo se publica lo que quedó confirmado
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alCambiarNotificacion(NotificacionCambiadaEvent evento) {
+        int idUsuario = evento.getIdUsuario();
+        List<Conexion> delUsuario = conexiones.get(idUsuario);
+        if (delUsuario == null || delUsuario.isEmpty()) {
+            return;
+        }
+
+        ContadorNoLeidas contador = noLeidas.get(idUsuario);
+        Long total = null;
+        if (contador != null && evento.isNoLeida()) {
+            total = switch (evento.getTipo()) {
+                case CREADA -> contador.aplicar(1);
+                case LEIDA, ELIMINADA -> contador.aplicar(-1);
+                case ENVIADA -> null;
+            };
+        }
+
+        for (Conexion conexion : delUsuario) {
+            // La notificación se muestra cuando el despachador la entrega, no al quedar pendiente
+            if (evento.getTipo() == NotificacionCambiadaEvent.Tipo.ENVIADA) {
+                conexion.encolar(SseEmitter.event().name("notificacion").data(evento.getNotificacion()));
+            }
+            if (total != null) {
+                conexion.encolar(eventoNoLeidas(total));
+            }
+        }
+    }
+
+    public HashMap<String, Object> obtenerEstadisticas() {
+        int totalConexiones = 0;
+        for (List<Conexion> lista : conexiones.values()) {
+            totalConexiones += lista.size();
+        }
+
+        HashMap<String, Object> estadisticas = new HashMap<>();
+        estadisticas.put("usuariosConectados", conexiones.size());
+        estadisticas.put("conexionesActivas", totalConexiones);
+        estadisticas.put("eventosEnviados", eventosEnviados.get());
+        estadisticas.put("desbordesBuffer", desbordes.get());
+        estadisticas.put("bufferEventos", bufferEventos);
+        return estadisticas;
+    }
+
+    // Conteo del usuario; si aún no está cargado lo consulta. Si un evento cambia el contador
+    // mientras se cuenta, el resultado ya no es fiable y se vuelve a contar
+    private long cargar(int idUsuario, ContadorNoLeidas contador) {
+        Long actual = contador.valor();
+        if (actual != null) {
+            return actual;
+        }
+        for (int intento = 1; ; intento++) {
+            long version = contador.version();
+            long total = notificacionRepository.countNotificacionesNoLeidas(idUsuario);
+            // Con eventos incesantes se acepta el último conteo; la reconciliación lo corrige
+            Long cargado = contador.cargar(version, total, intento >= MAX_INTENTOS_CONTEO);
+            if (cargado != null) {
+                return cargado;
+            }
+        }
+    }
+
+    // Corrige los contadores que se hayan desviado de la base de datos y avisa a las conexiones
+    private void reconciliarConteos() {
+        for (Map.Entry<Integer, ContadorNoLeidas> entrada : noLeidas.entrySet()) {
+            int idUsuario = entrada.getKey();
+            ContadorNoLeidas contador = entrada.getValue();
+            try {
+                long version = contador.version();
+                long total = notificacionRepository.countNotificacionesNoLeidas(idUsuario);
+                if (contador.reconciliar(version, total)) {
+                    List<Conexion> delUsuario = conexiones.getOrDefault(idUsuario, List.of());
+                    for (Conexion conexion : delUsuario) {
+                        conexion.encolar(eventoNoLeidas(total));
+                    }
+                }
+            } catch (Exception e) {
+                logger.error("Error al reconciliar no leídas del usuario {}: {}", idUsuario, e.getMessage());
+            }
+        }
+    }
+
+    private void quitar(Conexion conexion) {
+        conexion.cerrada = true;
+        conexiones.computeIfPresent(conexion.idUsuario, (id, lista) -> {
+            lista.remove(conexion);
+            if (lista.isEmpty()) {
+                noLeidas.remove(id);
+                return null;
+            }
+            return lista;
+        });
+    }
+
+    private void enviarLatidos() {
+        for (List<Conexion> lista : conexiones.values()) {
+            for (Conexion conexion : lista) {
+                conexion.encolar(SseEmitter.event().comment("ping"));
+            }
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder eventoNoLeidas(long total) {
+        return SseEmitter.event().name("noLeidas").data(Map.of("total", total));
+    }
+
+    /**
+     * Conteo de no leídas de un usuario. "version" cambia con cada evento aplicado, de modo que
+     * un conteo consultado antes de un evento no sobrescribe el valor si ese evento llegó después
+     */
+    private static final class ContadorNoLeidas {
+        private long valor;
+        private boolean cargado;
+        private long version;
+
+        private synchronized long version() {
+            return version;
+        }
+
+        private synchronized Long valor() {
+            return cargado ? valor : null;
+        }
+
+        // Retorna el valor vigente, o null si la carga quedó invalidada por un evento
+        private synchronized Long cargar(long versionInicial, long total, boolean forzar) {
+            if (cargado) {
+                return valor;
+            }
+            if (version != versionInicial && !forzar) {
+                return null;
+            }
+            valor = total;
+            cargado = true;
+            return valor;
+        }
+
+        // Aplica un evento; retorna el nuevo total o null si el conteo inicial aún no se cargó
+        private synchronized Long aplicar(long delta) {
+            version++;
+            if (!cargado) {
+                return null;
+            }
+            valor = Math.max(0, valor + delta);
+            return valor;
+        }
+
+        // true si el total de la base de datos corrigió el valor en memoria
+        private synchronized boolean reconciliar(long versionInicial, long total) {
+            if (version != versionInicial || (cargado && valor == total)) {
+                return false;
+            }
+            valor = total;
+            cargado = true;
+            return true;
+        }
+    }
+
+    private final class Conexion {
+        private final int idUsuario;
+        private final SseEmitter emitter;
+        private final ArrayBlockingQueue<SseEmitter.SseEventBuilder> cola;
+        private final AtomicBoolean enviando = new AtomicBoolean();
+        private volatile boolean cerrada;
+
+        private Conexion(int idUsuario, SseEmitter emitter) {
+            this.idUsuario = idUsuario;
+            this.emitter = emitter;
+            this.cola = new ArrayBlockingQueue<>(bufferEventos);
+        }
+
+        private void encolar(SseEmitter.SseEventBuilder evento) {
+            if (cerrada) {
+                return;
+            }
+            if (!cola.offer(evento)) {
+                // Cliente demasiado lento: se descarta lo pendiente y se le pide recargar
+                desbordes.incrementAndGet();
+                cola.clear();
+                cola.offer(SseEmitter.event().name("resincronizar").data(Map.of()));
+            }
+            programarEnvio();
+        }
+
+        private void programarEnvio() {
+            if (enviando.compareAndSet(false, true)) {
+                try {
+                    emisores.execute(this::vaciar);
+                } catch (Exception e) {
+                    enviando.set(false);
+                }
+            }
+        }
+
+        private void vaciar() {
+            try {
+                SseEmitter.SseEventBuilder evento;
+                while (!cerrada && (evento = cola.poll()) != null) {
+                    emitter.send(evento);
+                    eventosEnviados.incrementAndGet();
+                }
+            } catch (Exception e) {
+                logger.debug("Conexión SSE del usuario {} cerrada: {}", idUsuario, e.getMessage());
+                cerrar();
+            } finally {
+                enviando.set(false);
+            }
+            if (!cerrada && !cola.isEmpty()) {
+                programarEnvio();
+            }
+        }
+
+        private void cerrar() {
+            boolean yaCerrada = cerrada;
+            quitar(this);
+            if (!yaCerrada) {
+                emitter.complete();
+            }
+        }
+    }
+}
@@ -1,10 +1,29 @@
 package com.app.financiera.service;
 
+import java.util.HashMap;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
 public interface ChatBotService {
 
-    String procesarMensaje(String mensaje, Integer idUsuario);
+    // sessionId agrupa los turnos de una conversación; con él se arma el contexto de las preguntas de seguimiento
+    String procesarMensaje(String mensaje, Integer idUsuario, String sessionId);
+
+    // Eventos SSE: "fragmento" por cada parte del texto, "fin" con la respuesta completa y el sessionId, o "error"
+    SseEmitter procesarMensajeStream(String mensaje, Integer idUsuario, String sessionId);
 
     boolean solicitarContactoAsesor(Integer idUsuario, String motivo);
 
     String obtenerContextoUsuario(Integer idUsuario);
+
+    // Contexto del usuario con su tamaño estimado en tokens y el del prompt base
+    HashMap<String, Object> obtenerContextoConTokens(int idUsuario);
+
+    HashMap<String, Object> obtenerEstadisticasContexto();
+
+    HashMap<String, Object> obtenerEstadisticasCache();
+
+    HashMap<String, Object> obtenerEstadisticasCircuito();
+
+    HashMap<String, Object> obtenerEstadisticasConversaciones();
 }
\ No newline at end of file
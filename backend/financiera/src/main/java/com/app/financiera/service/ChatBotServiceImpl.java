@@ -1,31 +1,59 @@
 package com.app.financiera.service;
 
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.app.financiera.entity.Usuario;
-import com.app.financiera.entity.AportePension;
-import com.app.financiera.entity.Seguro;
 import com.app.financiera.repository.UsuarioRepository;
 import com.app.financiera.repository.SaldoPensionRepository;
 import com.app.financiera.repository.AportePensionRepository;
 import com.app.financiera.repository.SeguroRepository;
-import com.google.genai.Client;
-import com.google.genai.types.GenerateContentResponse;
+import com.app.financiera.util.EstimadorTokens;
+
+import jakarta.annotation.PreDestroy;
 
 @Service
 public class ChatBotServiceImpl implements ChatBotService {
 
     private static final Logger logger = LoggerFactory.getLogger(ChatBotServiceImpl.class);
 
-    @Value("${gemini.api.key}")
-    private String geminiApiKey;
+    @Value("${chatbot.stream.timeout-ms:60000}")
+    private long streamTimeoutMs;
+
+    @Autowired
+    private ClienteGemini clienteGemini;
+
+    @Autowired
+    private CacheRespuestasChatBot cacheRespuestas;
+
+    @Autowired
+    private ClasificadorIntenciones clasificador;
+
+    @Autowired
+    private CircuitoGemini circuitoGemini;
+
+    @Autowired
+    private LimitadorChatBot limitador;
+
+    @Autowired
+    private HistorialConversaciones historialConversaciones;
+
+    @Autowired
+    private ContextoChatBot contextoChatBot;
+
+    @Autowired
+    private EscritorConversaciones escritorConversaciones;
 
     @Autowired
     private UsuarioRepository usuarioRepository;
@@ -66,74 +94,385 @@ public class ChatBotServiceImpl implements ChatBotService {
         "Lo siento, solo puedo ayudarte con consultas sobre pensiones y seguros. ¿Necesitas hablar con un asesor?"
         """;
 
-    @Override
-    public String procesarMensaje(String mensaje, Integer idUsuario) {
-        try {
-            String contextoUsuario = obtenerContextoUsuario(idUsuario);
+    private static final String CONTEXTO_GENERAL = "Pregunta general: responde sin usar datos personales del usuario";
 
-            String promptCompleto = PROMPT_SISTEMA + "\n\n" +
-                    "CONTEXTO DEL USUARIO:\n" + contextoUsuario + "\n\n" +
-                    "PREGUNTA DEL USUARIO: " + mensaje;
+    private static final int TOKENS_PROMPT_SISTEMA = EstimadorTokens.estimar(PROMPT_SISTEMA);
 
-            System.out.println("GOOGLE_API_KEY: " + geminiApiKey);
+    // Origen de cada respuesta, tal como se guarda en chat_mensaje.accion_generada
+    private static final String ORIGEN_MODELO = "Modelo";
+    private static final String ORIGEN_CACHE = "Cache";
+    private static final String ORIGEN_DATOS = "Datos";
+    private static final String ORIGEN_LOCAL = "Local";
 
-            Client client = new Client();
+    // Las respuestas en streaming se generan fuera del hilo de la petición
+    private final ExecutorService generadores = Executors.newVirtualThreadPerTaskExecutor();
 
-            GenerateContentResponse response =
-                    client.models.generateContent("gemini-2.5-flash", promptCompleto, null);
+    private final AtomicLong respuestasConDatos = new AtomicLong();
+    private final AtomicLong respuestasSinModelo = new AtomicLong();
+    private final AtomicLong promptsEnviados = new AtomicLong();
+    private final AtomicLong tokensEnviados = new AtomicLong();
+    private final AtomicLong tokensPromptMaximo = new AtomicLong();
 
-            String respuesta = response.text();
-            if (respuesta == null || respuesta.isEmpty()) {
-                respuesta = generarRespuestaBasica(mensaje, contextoUsuario);
-            }
+    @PreDestroy
+    public void detener() {
+        generadores.shutdownNow();
+    }
 
-            return respuesta;
+    @Override
+    public String procesarMensaje(String mensaje, Integer idUsuario, String sessionId) {
+        try {
+            Consulta consulta = prepararConsulta(mensaje, idUsuario, sessionId);
+            Respuesta respuesta = respuestaSinLlamada(consulta);
+            if (respuesta == null) {
+                respuesta = generarConModelo(consulta, mensaje);
+            }
+            registrarTurno(consulta, mensaje, respuesta);
+            return respuesta.texto();
 
+        } catch (LimiteExcedidoException e) {
+            throw e;
         } catch (Exception e) {
-            logger.error("Error generando respuesta con Gemini: {}", e.getMessage());
+            logger.error("Error procesando mensaje del chatbot: {}", e.getMessage());
             return "Lo siento, ocurrió un error al generar la respuesta.";
         }
     }
 
+    @Override
+    public SseEmitter procesarMensajeStream(String mensaje, Integer idUsuario, String sessionId) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        // El contexto y las respuestas locales se arman en el hilo de la petición (sesión JPA abierta);
+        // solo el modelo corre aparte
+        Consulta consulta = prepararConsulta(mensaje, idUsuario, sessionId);
+        Respuesta inmediata = respuestaSinLlamada(consulta);
+        // Si hay que llamar al modelo, el lugar se reserva aquí para poder responder 429 antes de abrir el stream
+        LimitadorChatBot.Permiso permiso = inmediata == null ? reservarModelo() : null;
+
+        try {
+            generadores.execute(() -> {
+                long inicio = System.nanoTime();
+                long[] primerFragmento = { -1 };
+                try {
+                    if (inmediata != null) {
+                        enviarRespuestaCompleta(emitter, consulta, inmediata.texto());
+                        registrarTurno(consulta, mensaje, inmediata);
+                        return;
+                    }
+
+                    String respuesta;
+                    try {
+                        respuesta = clienteGemini.generarStream(construirPrompt(mensaje, consulta), fragmento -> {
+                            if (primerFragmento[0] < 0) {
+                                // En streaming la latencia que percibe el usuario es la del primer fragmento
+                                primerFragmento[0] = System.nanoTime() - inicio;
+                                circuitoGemini.registrarExito(primerFragmento[0] / 1_000_000);
+                            }
+                            enviarEvento(emitter, "fragmento", Map.of("texto", fragmento));
+                        });
+                    } catch (ClienteDesconectadoException e) {
+                        throw e;
+                    } catch (Exception e) {
+                        if (primerFragmento[0] >= 0) {
+                            throw e;
+                        }
+                        // Nada se envió todavía: se responde con el camino local
+                        circuitoGemini.registrarFallo();
+                        logger.error("Error generando respuesta en streaming con Gemini: {}", e.getMessage());
+                        String local = responderSinModelo(consulta);
+                        enviarRespuestaCompleta(emitter, consulta, local);
+                        registrarTurno(consulta, mensaje, new Respuesta(local, ORIGEN_LOCAL));
+                        return;
+                    }
+
+                    String origen = ORIGEN_MODELO;
+                    if (respuesta.isEmpty()) {
+                        if (primerFragmento[0] < 0) {
+                            circuitoGemini.registrarExito((System.nanoTime() - inicio) / 1_000_000);
+                        }
+                        respuesta = responderSinModelo(consulta);
+                        origen = ORIGEN_LOCAL;
+                        enviarEvento(emitter, "fragmento", Map.of("texto", respuesta));
+                    } else {
+                        guardarEnCache(consulta, respuesta);
+                    }
+
+                    enviarFin(emitter, consulta, respuesta);
+                    emitter.complete();
+                    registrarTurno(consulta, mensaje, new Respuesta(respuesta, origen));
+
+                    logger.info("Respuesta en streaming para usuario {}: primer fragmento {} ms, total {} ms", idUsuario,
+                            primerFragmento[0] < 0 ? -1 : primerFragmento[0] / 1_000_000,
+                            (System.nanoTime() - inicio) / 1_000_000);
+                } catch (ClienteDesconectadoException e) {
+                    logger.debug("Streaming del chatbot cancelado para usuario {}: {}", idUsuario, e.getMessage());
+                    emitter.completeWithError(e);
+                } catch (Exception e) {
+                    logger.error("Error generando respuesta en streaming con Gemini: {}", e.getMessage());
+                    try {
+                        enviarEvento(emitter, "error", Map.of("mensaje", "Lo siento, ocurrió un error al generar la respuesta."));
+                        emitter.complete();
+                    } catch (Exception ignorada) {
+                        emitter.completeWithError(e);
+                    }
+                } finally {
+                    if (permiso != null) {
+                        permiso.close();
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            // El ejecutor rechazó la tarea (aplicación deteniéndose): el lugar no llegará a usarse
+            if (permiso != null) {
+                permiso.close();
+            }
+            throw e;
+        }
+
+        return emitter;
+    }
+
+    @Override
+    public HashMap<String, Object> obtenerEstadisticasCache() {
+        return cacheRespuestas.obtenerEstadisticas();
+    }
 
     @Override
-    public String obtenerContextoUsuario(Integer idUsuario) {
-        StringBuilder contexto = new StringBuilder();
+    public HashMap<String, Object> obtenerEstadisticasCircuito() {
+        HashMap<String, Object> estadisticas = circuitoGemini.obtenerEstadisticas();
+        estadisticas.put("clasificador", clasificador.obtenerEstadisticas());
+        estadisticas.put("respuestasConDatos", respuestasConDatos.get());
+        estadisticas.put("respuestasSinModelo", respuestasSinModelo.get());
+        return estadisticas;
+    }
+
+    @Override
+    public HashMap<String, Object> obtenerEstadisticasConversaciones() {
+        HashMap<String, Object> estadisticas = new HashMap<>();
+        estadisticas.put("historial", historialConversaciones.obtenerEstadisticas());
+        estadisticas.put("persistencia", escritorConversaciones.obtenerEstadisticas());
+        return estadisticas;
+    }
 
+    // Respuesta que no necesita al modelo (datos del usuario, caché o circuito abierto); null si hay que llamarlo
+    private Respuesta respuestaSinLlamada(Consulta consulta) {
+        if (consulta.conDatos()) {
+            return new Respuesta(responderConDatos(consulta), ORIGEN_DATOS);
+        }
+        String enCache = buscarEnCache(consulta);
+        if (enCache != null) {
+            return new Respuesta(enCache, ORIGEN_CACHE);
+        }
+        if (!circuitoGemini.permitirLlamada()) {
+            return new Respuesta(responderSinModelo(consulta), ORIGEN_LOCAL);
+        }
+        return null;
+    }
+
+    // Lugar en el límite de llamadas concurrentes al modelo; si no se obtiene, el circuito no espera su resultado
+    private LimitadorChatBot.Permiso reservarModelo() {
         try {
-            Optional<Usuario> usuarioOpt = usuarioRepository.findById(idUsuario);
-            if (usuarioOpt.isPresent()) {
-                Usuario usuario = usuarioOpt.get();
+            return limitador.adquirirLlamada();
+        } catch (LimiteExcedidoException e) {
+            circuitoGemini.cancelarLlamada();
+            throw e;
+        }
+    }
 
-                contexto.append("- Régimen: ").append(usuario.getTipoRegimen() != null ? usuario.getTipoRegimen() : "No especificado").append("\n");
-                contexto.append("- AFP: ").append(usuario.getAfp() != null ? usuario.getAfp().getNombre() : "No afiliado").append("\n");
+    private Respuesta generarConModelo(Consulta consulta, String mensaje) {
+        String respuesta;
+        LimitadorChatBot.Permiso permiso = reservarModelo();
+        long inicio = System.nanoTime();
+        try {
+            respuesta = clienteGemini.generar(construirPrompt(mensaje, consulta));
+            circuitoGemini.registrarExito((System.nanoTime() - inicio) / 1_000_000);
+        } catch (Exception e) {
+            circuitoGemini.registrarFallo();
+            logger.error("Error generando respuesta con Gemini: {}", e.getMessage());
+            return new Respuesta(responderSinModelo(consulta), ORIGEN_LOCAL);
+        } finally {
+            permiso.close();
+        }
 
-                // Saldo
-                Double saldoTotal = saldoPensionRepository.sumSaldosUsuario(idUsuario);
-                if (saldoTotal != null && saldoTotal > 0) {
-                    contexto.append("- Saldo total: S/ ").append(String.format("%.2f", saldoTotal)).append("\n");
-                }
+        if (respuesta == null || respuesta.isEmpty()) {
+            return new Respuesta(responderSinModelo(consulta), ORIGEN_LOCAL);
+        }
+        guardarEnCache(consulta, respuesta);
+        return new Respuesta(respuesta, ORIGEN_MODELO);
+    }
 
-                // Aportes
-                List<AportePension> aportes = aportePensionRepository.findByUsuarioId(idUsuario);
-                if (!aportes.isEmpty()) {
-                    contexto.append("- Total aportes registrados: ").append(aportes.size()).append("\n");
-                }
+    // El turno queda en la ventana de la sesión al instante y se guarda en la base en segundo plano
+    private void registrarTurno(Consulta consulta, String mensaje, Respuesta respuesta) {
+        historialConversaciones.agregar(consulta.idUsuario(), consulta.sessionId(), mensaje, respuesta.texto());
+        if (consulta.idUsuario() != null) {
+            escritorConversaciones.encolar(consulta.idUsuario(), consulta.sessionId(), mensaje, respuesta.texto(),
+                    consulta.intencion().name(), consulta.general() ? null : consulta.contexto(), respuesta.origen());
+        }
+    }
+
+    // Las preguntas generales se responden sin datos del usuario para poder compartir la respuesta;
+    // las intenciones deterministas no necesitan el contexto del modelo.
+    // Una pregunta general solo lleva la conversación previa si es de seguimiento, y las de seguimiento
+    // no usan la caché porque su respuesta depende de lo conversado
+    private Consulta prepararConsulta(String mensaje, Integer idUsuario, String sessionId) {
+        String pregunta = CacheRespuestasChatBot.normalizar(mensaje);
+        ClasificadorIntenciones.Clasificacion clasificacion = clasificador.clasificar(pregunta);
+        if (idUsuario != null && clasificacion.concluyente()) {
+            return new Consulta(idUsuario, sessionId, pregunta, false, null, "", false, clasificacion.intencion());
+        }
+
+        String ventana = historialConversaciones.ventana(idUsuario, sessionId);
+        boolean seguimiento = !ventana.isEmpty() && HistorialConversaciones.esSeguimiento(pregunta);
+        boolean general = idUsuario == null || cacheRespuestas.esGeneral(pregunta);
+        String contexto = general ? CONTEXTO_GENERAL : obtenerContextoUsuario(idUsuario);
+        String historial = general && !seguimiento ? "" : ventana;
+        return new Consulta(idUsuario, sessionId, pregunta, general, contexto, historial, !seguimiento,
+                clasificacion.intencion());
+    }
+
+    private String buscarEnCache(Consulta consulta) {
+        if (!consulta.cacheable()) {
+            return null;
+        }
+        return consulta.general()
+                ? cacheRespuestas.buscarGeneral(consulta.pregunta())
+                : cacheRespuestas.buscarUsuario(consulta.idUsuario(), consulta.pregunta(), consulta.contexto());
+    }
+
+    private void guardarEnCache(Consulta consulta, String respuesta) {
+        if (!consulta.cacheable()) {
+            return;
+        }
+        if (consulta.general()) {
+            cacheRespuestas.guardarGeneral(consulta.pregunta(), respuesta);
+        } else {
+            cacheRespuestas.guardarUsuario(consulta.idUsuario(), consulta.pregunta(), consulta.contexto(), respuesta);
+        }
+    }
+
+    private record Consulta(Integer idUsuario, String sessionId, String pregunta, boolean general, String contexto,
+                            String historial, boolean cacheable, ClasificadorIntenciones.Intencion intencion) {
 
-                // Seguros
-                List<Seguro> seguros = seguroRepository.findByUsuario(idUsuario);
-                if (!seguros.isEmpty()) {
-                    long segurosActivos = seguros.stream()
-                            .filter(s -> "Activo".equals(s.getEstado()) || "Vigente".equals(s.getEstado()))
-                            .count();
-                    contexto.append("- Seguros activos: ").append(segurosActivos).append("\n");
+        // Sin contexto armado: la intención es determinista y se responde con los datos del usuario
+        private boolean conDatos() {
+            return contexto == null;
+        }
+    }
+
+    private String responderConDatos(Consulta consulta) {
+        respuestasConDatos.incrementAndGet();
+        int idUsuario = consulta.idUsuario();
+        switch (consulta.intencion()) {
+            case SALDO: {
+                Double saldo = saldoPensionRepository.sumSaldosUsuario(idUsuario);
+                if (saldo == null || saldo <= 0) {
+                    return "Aún no tienes saldos de pensión registrados. Cuando se registren podrás verlos en 'Gestión de Pensiones'.";
+                }
+                return String.format("Tu saldo total acumulado es S/ %.2f. Puedes ver el detalle por fondo y tus proyecciones en 'Gestión de Pensiones'.", saldo);
+            }
+            case NUMERO_APORTES: {
+                long aportes = aportePensionRepository.countByUsuarioId(idUsuario);
+                if (aportes == 0) {
+                    return "Todavía no tienes aportes registrados. Puedes registrarlos en 'Gestión de Pensiones'.";
+                }
+                return String.format("Tienes %d %s registrados. Puedes revisarlos en 'Gestión de Pensiones'.",
+                        aportes, aportes == 1 ? "aporte" : "aportes");
+            }
+            case SEGUROS_ACTIVOS: {
+                long seguros = seguroRepository.countActivosByUsuario(idUsuario);
+                if (seguros == 0) {
+                    return "No tienes seguros activos en este momento. Puedes comparar opciones en la sección 'Comparador'.";
                 }
+                return String.format("Tienes %d %s. Puedes ver sus detalles y vencimientos en 'Gestión de Seguros'.",
+                        seguros, seguros == 1 ? "seguro activo" : "seguros activos");
             }
+            default:
+                return generarRespuestaBasica(consulta.intencion());
+        }
+    }
+
+    // Camino local cuando el modelo no responde o el circuito está abierto
+    private String responderSinModelo(Consulta consulta) {
+        respuestasSinModelo.incrementAndGet();
+        if (consulta.idUsuario() != null && consulta.intencion().isDeterminista()) {
+            return responderConDatos(consulta);
+        }
+        return generarRespuestaBasica(consulta.intencion());
+    }
+
+    private record Respuesta(String texto, String origen) {
+    }
+
+    private static void enviarRespuestaCompleta(SseEmitter emitter, Consulta consulta, String respuesta) {
+        enviarEvento(emitter, "fragmento", Map.of("texto", respuesta));
+        enviarFin(emitter, consulta, respuesta);
+        emitter.complete();
+    }
+
+    private static void enviarFin(SseEmitter emitter, Consulta consulta, String respuesta) {
+        HashMap<String, Object> fin = new HashMap<>();
+        fin.put("respuesta", respuesta);
+        fin.put("sessionId", consulta.sessionId());
+        enviarEvento(emitter, "fin", fin);
+    }
+
+    private String construirPrompt(String mensaje, Consulta consulta) {
+        StringBuilder prompt = new StringBuilder(PROMPT_SISTEMA.length() + 512);
+        prompt.append(PROMPT_SISTEMA).append("\n\n")
+                .append("CONTEXTO DEL USUARIO:\n").append(consulta.contexto()).append("\n\n");
+        if (!consulta.historial().isEmpty()) {
+            prompt.append("CONVERSACIÓN RECIENTE:\n").append(consulta.historial()).append('\n');
+        }
+        prompt.append("PREGUNTA DEL USUARIO: ").append(mensaje);
+
+        int tokens = EstimadorTokens.estimar(prompt);
+        promptsEnviados.incrementAndGet();
+        tokensEnviados.addAndGet(tokens);
+        tokensPromptMaximo.accumulateAndGet(tokens, Math::max);
+        logger.debug("Prompt de ~{} tokens (contexto {}, historial {})", tokens,
+                EstimadorTokens.estimar(consulta.contexto()), EstimadorTokens.estimar(consulta.historial()));
+        return prompt.toString();
+    }
+
+    private static void enviarEvento(SseEmitter emitter, String nombre, Object datos) {
+        try {
+            emitter.send(SseEmitter.event().name(nombre).data(datos));
         } catch (Exception e) {
-            logger.error("Error obteniendo contexto: {}", e.getMessage());
+            // El cliente cerró la conexión: se corta la generación
+            throw new ClienteDesconectadoException(e);
         }
+    }
 
-        return contexto.length() > 0 ? contexto.toString() : "Usuario sin datos registrados";
+    private static final class ClienteDesconectadoException extends IllegalStateException {
+        private ClienteDesconectadoException(Throwable causa) {
+            super("Conexión de streaming cerrada", causa);
+        }
+    }
+
+    @Override
+    public String obtenerContextoUsuario(Integer idUsuario) {
+        return contextoChatBot.obtener(idUsuario).texto();
+    }
+
+    @Override
+    public HashMap<String, Object> obtenerContextoConTokens(int idUsuario) {
+        ContextoChatBot.Instantanea instantanea = contextoChatBot.obtener(idUsuario);
+        HashMap<String, Object> contexto = new HashMap<>();
+        contexto.put("contexto", instantanea.texto());
+        contexto.put("tokensContexto", instantanea.tokens());
+        contexto.put("tokensPromptSistema", TOKENS_PROMPT_SISTEMA);
+        // Prompt sin historial ni pregunta: el mínimo que cuesta cada llamada personal al modelo
+        contexto.put("tokensPromptBase", TOKENS_PROMPT_SISTEMA + instantanea.tokens());
+        return contexto;
+    }
+
+    @Override
+    public HashMap<String, Object> obtenerEstadisticasContexto() {
+        long prompts = promptsEnviados.get();
+        HashMap<String, Object> estadisticas = new HashMap<>();
+        estadisticas.put("cache", contextoChatBot.obtenerEstadisticas());
+        estadisticas.put("promptsEnviados", prompts);
+        estadisticas.put("tokensPromptPromedio", prompts > 0 ? (double) tokensEnviados.get() / prompts : 0.0);
+        estadisticas.put("tokensPromptMaximo", tokensPromptMaximo.get());
+        return estadisticas;
     }
 
     @Override
@@ -197,25 +536,22 @@ public class ChatBotServiceImpl implements ChatBotService {
         }
     }
 
-    private String generarRespuestaBasica(String mensaje, String contextoUsuario) {
-        String mensajeLower = mensaje.toLowerCase();
-
-        if (mensajeLower.contains("onp") && mensajeLower.contains("afp")) {
-            return "ONP es un sistema público de pensiones con aporte solidario del 13%. AFP es privado con cuentas individuales y diferentes fondos de inversión. ¿Necesitas más detalles?";
+    private String generarRespuestaBasica(ClasificadorIntenciones.Intencion intencion) {
+        switch (intencion) {
+            case ONP_VS_AFP:
+                return "ONP es un sistema público de pensiones con aporte solidario del 13%. AFP es privado con cuentas individuales y diferentes fondos de inversión. ¿Necesitas más detalles?";
+            case SALDO:
+                return "Puedes consultar tu saldo en la sección 'Panel Financiero' o 'Gestión de Pensiones'. También puedes ver proyecciones de pensión. ¿Necesitas ayuda navegando?";
+            case NUMERO_APORTES:
+            case REGISTRAR_APORTE:
+                return "Puedes registrar aportes en 'Gestión de Pensiones'. Necesitas: período, monto, empleador y fecha. ¿Quieres que te guíe paso a paso?";
+            case SEGUROS_ACTIVOS:
+            case TIPOS_SEGURO:
+                return "Ofrecemos seguros vehiculares, de hogar, salud y vida. Puedes compararlos en la sección 'Comparador'. ¿Te interesa alguno en particular?";
+            case CONTACTAR_ASESOR:
+                return "Con gusto te ponemos en contacto con un asesor. Usa la opción 'Contactar con un asesor' del chat y te escribiremos pronto por correo o teléfono.";
+            default:
+                return "Puedo ayudarte con consultas sobre pensiones (ONP/AFP), aportes, saldos y seguros. ¿Sobre qué necesitas información?";
         }
-
-        if (mensajeLower.contains("saldo") || mensajeLower.contains("cuanto tengo")) {
-            return "Puedes consultar tu saldo en la sección 'Panel Financiero' o 'Gestión de Pensiones'. También puedes ver proyecciones de pensión. ¿Necesitas ayuda navegando?";
-        }
-
-        if (mensajeLower.contains("aporte") || mensajeLower.contains("registrar")) {
-            return "Puedes registrar aportes en 'Gestión de Pensiones'. Necesitas: período, monto, empleador y fecha. ¿Quieres que te guíe paso a paso?";
-        }
-
-        if (mensajeLower.contains("seguro")) {
-            return "Ofrecemos seguros vehiculares, de hogar, salud y vida. Puedes compararlos en la sección 'Comparador'. ¿Te interesa alguno en particular?";
-        }
-
-        return "Puedo ayudarte con consultas sobre pensiones (ONP/AFP), aportes, saldos y seguros. ¿Sobre qué necesitas información?";
     }
-}
\ No newline at end of file
+}
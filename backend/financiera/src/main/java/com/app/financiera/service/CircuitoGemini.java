@@ -0,0 +1,181 @@
+package com.app.financiera.service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Cortocircuito delante de Gemini. Guarda el resultado de las últimas llamadas en una ventana
+ * circular; una llamada que falla o que tarda más que latencia-lenta-ms cuenta como fallo.
+ * Cuando la proporción de fallos de la ventana alcanza el umbral el circuito se abre y, durante
+ * espera-abierto-ms, el chatbot responde solo con el camino local. Pasado ese tiempo se deja pasar
+ * una llamada de prueba: si es rápida y correcta el circuito se cierra, si no vuelve a abrirse.
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+@Component
+public class CircuitoGemini {
+
+    private static final Logger logger = LoggerFactory.getLogger(CircuitoGemini.class);
+
+    public enum Estado {
+        CERRADO, ABIERTO, SEMIABIERTO
+    }
+
+    @Value("${chatbot.circuito.ventana:20}")
+    private int tamanoVentana;
+
+    @Value("${chatbot.circuito.minimo-llamadas:10}")
+    private int minimoLlamadas;
+
+    @Value("${chatbot.circuito.umbral-fallos:0.5}")
+    private double umbralFallos;
+
+    @Value("${chatbot.circuito.latencia-lenta-ms:8000}")
+    private long latenciaLentaMs;
+
+    @Value("${chatbot.circuito.espera-abierto-ms:30000}")
+    private long esperaAbiertoMs;
+
+    private boolean[] ventana;
+    private int posicion;
+    private int llamadasEnVentana;
+    private int fallosEnVentana;
+
+    private Estado estado = Estado.CERRADO;
+    private long abiertoHasta;
+
+    private long aperturas;
+    private long rechazadas;
+    private long lentas;
+    private long errores;
+    private long ultimaLatenciaMs;
+
+    @PostConstruct
+    public void iniciar() {
+        ventana = new boolean[Math.max(1, tamanoVentana)];
+    }
+
+    /**
+     * true si la llamada puede ir al modelo; quien recibe true debe informar el resultado
+     * con registrarExito o registrarFallo
+     */
+    public synchronized boolean permitirLlamada() {
+        switch (estado) {
+            case CERRADO:
+                return true;
+            case ABIERTO:
+                if (System.currentTimeMillis() >= abiertoHasta) {
+                    estado = Estado.SEMIABIERTO;
+                    logger.info("Circuito de Gemini semiabierto: se envía una llamada de prueba");
+                    return true;
+                }
+                rechazadas++;
+                return false;
+            default:
+                // Semiabierto: la llamada de prueba ya está en curso
+                rechazadas++;
+                return false;
+        }
+    }
+
+    public synchronized void registrarExito(long latenciaMs) {
+        ultimaLatenciaMs = latenciaMs;
+        if (latenciaMs >= latenciaLentaMs) {
+            lentas++;
+            registrar(true);
+            return;
+        }
+        if (estado == Estado.SEMIABIERTO) {
+            cerrar();
+            return;
+        }
+        registrar(false);
+    }
+
+    public synchronized void registrarFallo() {
+        errores++;
+        registrar(true);
+    }
+
+    /**
+     * La llamada admitida no llegó a enviarse (por ejemplo, rechazada por el límite de concurrencia):
+     * no cuenta como resultado, pero si era la prueba del semiabierto otra llamada podrá hacerla
+     */
+    public synchronized void cancelarLlamada() {
+        if (estado == Estado.SEMIABIERTO) {
+            estado = Estado.ABIERTO;
+            abiertoHasta = System.currentTimeMillis();
+        }
+    }
+
+    public synchronized HashMap<String, Object> obtenerEstadisticas() {
+        HashMap<String, Object> estadisticas = new HashMap<>();
+        estadisticas.put("estado", estado.name());
+        estadisticas.put("llamadasEnVentana", llamadasEnVentana);
+        estadisticas.put("fallosEnVentana", fallosEnVentana);
+        estadisticas.put("tasaFallos", llamadasEnVentana > 0 ? (double) fallosEnVentana / llamadasEnVentana : 0.0);
+        estadisticas.put("umbralFallos", umbralFallos);
+        estadisticas.put("latenciaLentaMs", latenciaLentaMs);
+        estadisticas.put("ultimaLatenciaMs", ultimaLatenciaMs);
+        estadisticas.put("aperturas", aperturas);
+        estadisticas.put("llamadasRechazadas", rechazadas);
+        estadisticas.put("llamadasLentas", lentas);
+        estadisticas.put("llamadasConError", errores);
+        if (estado == Estado.ABIERTO) {
+            estadisticas.put("msHastaPrueba", Math.max(0, abiertoHasta - System.currentTimeMillis()));
+        }
+        return estadisticas;
+    }
+
+    private void registrar(boolean fallo) {
+        if (estado == Estado.SEMIABIERTO) {
+            // La llamada de prueba falló: otro periodo completo sin modelo
+            abrir();
+            return;
+        }
+
+        if (llamadasEnVentana == ventana.length) {
+            if (ventana[posicion]) {
+                fallosEnVentana--;
+            }
+        } else {
+            llamadasEnVentana++;
+        }
+        ventana[posicion] = fallo;
+        if (fallo) {
+            fallosEnVentana++;
+        }
+        posicion = (posicion + 1) % ventana.length;
+
+        if (estado == Estado.CERRADO && llamadasEnVentana >= minimoLlamadas
+                && (double) fallosEnVentana / llamadasEnVentana >= umbralFallos) {
+            abrir();
+        }
+    }
+
+    private void abrir() {
+        estado = Estado.ABIERTO;
+        abiertoHasta = System.currentTimeMillis() + esperaAbiertoMs;
+        aperturas++;
+        logger.warn("Circuito de Gemini abierto durante {} ms ({} de {} llamadas fallidas o lentas)",
+                esperaAbiertoMs, fallosEnVentana, llamadasEnVentana);
+    }
+
+    private void cerrar() {
+        estado = Estado.CERRADO;
+        // Se empieza con una ventana limpia para no reabrir por fallos anteriores a la prueba
+        Arrays.fill(ventana, false);
+        posicion = 0;
+        llamadasEnVentana = 0;
+        fallosEnVentana = 0;
+        logger.info("Circuito de Gemini cerrado: la llamada de prueba respondió en {} ms", ultimaLatenciaMs);
+    }
+}
@@ -0,0 +1,210 @@
+package com.app.financiera.service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Clasificador local de intenciones del chatbot. Al iniciar se compila un trie de palabras con las
+ * frases de cada tema soportado; una pregunta se clasifica recorriéndola una sola vez y tomando en
+ * cada posición la frase más larga que coincida. La confianza es la fracción de palabras
+ * significativas de la pregunta cubiertas por frases de la intención ganadora.
+ * Las intenciones deterministas se responden con los datos del usuario sin llamar al modelo.
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+@Component
+public class ClasificadorIntenciones {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClasificadorIntenciones.class);
+
+    public enum Intencion {
+        SALDO(true),
+        NUMERO_APORTES(true),
+        SEGUROS_ACTIVOS(true),
+        CONTACTAR_ASESOR(true),
+        ONP_VS_AFP(false),
+        REGISTRAR_APORTE(false),
+        TIPOS_SEGURO(false),
+        DESCONOCIDA(false);
+
+        private final boolean determinista;
+
+        Intencion(boolean determinista) {
+            this.determinista = determinista;
+        }
+
+        public boolean isDeterminista() {
+            return determinista;
+        }
+    }
+
+    /**
+     * concluyente: intención determinista con confianza suficiente para responder sin el modelo
+     */
+    public record Clasificacion(Intencion intencion, double confianza, boolean concluyente) {
+    }
+
+    // Palabras que no aportan al tema de la pregunta; se descartan en frases y preguntas por igual
+    private static final Set<String> RELLENO = Set.of(
+            "que", "cual", "es", "el", "la", "lo", "de", "del", "un", "una", "uno", "a", "al", "y", "o",
+            "con", "por", "para", "en", "actual", "actualmente", "hay", "son", "tiene", "quiero", "quisiera",
+            "saber", "ver", "consultar", "puedo", "podria", "como", "dime", "decir", "muestra", "muestrame",
+            "mostrar", "necesito", "ahora", "hoy");
+
+    private static final Map<Intencion, List<String>> FRASES = new EnumMap<>(Intencion.class);
+
+    static {
+        FRASES.put(Intencion.SALDO, List.of(
+                "saldo", "mi saldo", "saldo total", "cuanto tengo", "cuanto dinero tengo", "cuanto llevo ahorrado",
+                "cuanto tengo ahorrado", "fondo acumulado", "mi fondo"));
+        FRASES.put(Intencion.NUMERO_APORTES, List.of(
+                "cuantos aportes", "numero de aportes", "cantidad de aportes", "aportes registrados",
+                "mis aportes", "cuantos aportes tengo", "cuantas veces he aportado"));
+        FRASES.put(Intencion.SEGUROS_ACTIVOS, List.of(
+                "seguros activos", "seguros vigentes", "mis seguros", "cuantos seguros", "cuantos seguros tengo",
+                "polizas activas", "polizas vigentes", "mis polizas"));
+        FRASES.put(Intencion.CONTACTAR_ASESOR, List.of(
+                "asesor", "asesor humano", "hablar con un asesor", "contactar asesor", "contactar a un asesor",
+                "hablar con una persona", "atencion personalizada"));
+        FRASES.put(Intencion.ONP_VS_AFP, List.of(
+                "onp", "afp", "diferencia entre onp y afp", "onp o afp", "sistema privado", "sistema publico"));
+        FRASES.put(Intencion.REGISTRAR_APORTE, List.of(
+                "registrar aporte", "registrar un aporte", "nuevo aporte", "como aporto", "registrar"));
+        FRASES.put(Intencion.TIPOS_SEGURO, List.of(
+                "seguro", "tipos de seguro", "que seguros ofrecen", "poliza", "comparar seguros"));
+    }
+
+    @Value("${chatbot.intenciones.confianza-minima:0.6}")
+    private double confianzaMinima;
+
+    private Nodo raiz;
+    private int totalFrases;
+
+    @PostConstruct
+    public void iniciar() {
+        Nodo compilado = new Nodo();
+        int frases = 0;
+        for (Map.Entry<Intencion, List<String>> entrada : FRASES.entrySet()) {
+            for (String frase : entrada.getValue()) {
+                List<String> palabras = palabrasSignificativas(CacheRespuestasChatBot.normalizar(frase));
+                if (palabras.isEmpty()) {
+                    continue;
+                }
+                Nodo nodo = compilado;
+                for (String palabra : palabras) {
+                    nodo = nodo.hijos.computeIfAbsent(palabra, p -> new Nodo());
+                }
+                // Ante frases repetidas entre intenciones prevalece la primera registrada
+                if (nodo.intencion == null) {
+                    nodo.intencion = entrada.getKey();
+                }
+                frases++;
+            }
+        }
+        raiz = compilado;
+        totalFrases = frases;
+        logger.info("Clasificador de intenciones compilado con {} frases", frases);
+    }
+
+    /**
+     * Clasifica una pregunta ya normalizada con CacheRespuestasChatBot.normalizar
+     */
+    public Clasificacion clasificar(String preguntaNormalizada) {
+        List<String> palabras = palabrasSignificativas(preguntaNormalizada);
+        if (palabras.isEmpty()) {
+            return new Clasificacion(Intencion.DESCONOCIDA, 0, false);
+        }
+
+        int[] cubiertas = new int[Intencion.values().length];
+        int i = 0;
+        while (i < palabras.size()) {
+            // Coincidencia más larga que empieza en la posición i
+            Nodo nodo = raiz;
+            Intencion encontrada = null;
+            int largo = 0;
+            for (int j = i; j < palabras.size(); j++) {
+                nodo = nodo.hijos.get(palabras.get(j));
+                if (nodo == null) {
+                    break;
+                }
+                if (nodo.intencion != null) {
+                    encontrada = nodo.intencion;
+                    largo = j - i + 1;
+                }
+            }
+            if (encontrada != null) {
+                cubiertas[encontrada.ordinal()] += largo;
+                i += largo;
+            } else {
+                i++;
+            }
+        }
+
+        Intencion mejor = Intencion.DESCONOCIDA;
+        int maximo = 0;
+        boolean empate = false;
+        for (Intencion intencion : Intencion.values()) {
+            int valor = cubiertas[intencion.ordinal()];
+            if (valor > maximo) {
+                mejor = intencion;
+                maximo = valor;
+                empate = false;
+            } else if (valor > 0 && valor == maximo) {
+                empate = true;
+            }
+        }
+
+        double confianza = (double) maximo / palabras.size();
+        boolean concluyente = mejor.isDeterminista() && !empate && confianza >= confianzaMinima;
+        return new Clasificacion(mejor, confianza, concluyente);
+    }
+
+    public HashMap<String, Object> obtenerEstadisticas() {
+        HashMap<String, Object> estadisticas = new HashMap<>();
+        estadisticas.put("confianzaMinima", confianzaMinima);
+        estadisticas.put("frasesCompiladas", totalFrases);
+        return estadisticas;
+    }
+
+    private static List<String> palabrasSignificativas(String preguntaNormalizada) {
+        List<String> palabras = new ArrayList<>();
+        if (preguntaNormalizada == null || preguntaNormalizada.isEmpty()) {
+            return palabras;
+        }
+        for (String palabra : preguntaNormalizada.split(" ")) {
+            if (!palabra.isEmpty() && !RELLENO.contains(palabra)) {
+                palabras.add(singular(palabra));
+            }
+        }
+        return palabras;
+    }
+
+    // Singular aproximado para que "seguros activos" y "seguro activo" coincidan
+    private static String singular(String palabra) {
+        int largo = palabra.length();
+        if (largo > 4 && palabra.endsWith("es") && "rlnd".indexOf(palabra.charAt(largo - 3)) >= 0) {
+            return palabra.substring(0, largo - 2);
+        }
+        if (largo >= 3 && palabra.endsWith("s")) {
+            return palabra.substring(0, largo - 1);
+        }
+        return palabra;
+    }
+
+    private static final class Nodo {
+        private final Map<String, Nodo> hijos = new HashMap<>(4);
+        private Intencion intencion;
+    }
+}
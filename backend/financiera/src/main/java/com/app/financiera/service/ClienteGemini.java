@@ -0,0 +1,82 @@
+package com.app.financiera.service;
+
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.google.genai.Client;
+import com.google.genai.ResponseStream;
+import com.google.genai.types.GenerateContentResponse;
+import com.google.genai.types.HttpOptions;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Punto único de acceso a Gemini. El Client es seguro entre hilos y mantiene su propio
+ * pool de conexiones HTTP, así que se crea una sola vez y se comparte entre todas las peticiones.
+ * Con gemini.api.base-url se puede apuntar a un servidor local que simule el modelo.
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+@Component
+public class ClienteGemini {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClienteGemini.class);
+
+    @Value("${gemini.api.key}")
+    private String geminiApiKey;
+
+    @Value("${gemini.api.base-url:}")
+    private String baseUrl;
+
+    @Value("${gemini.modelo:gemini-2.5-flash}")
+    private String modelo;
+
+    @Value("${gemini.timeout-ms:30000}")
+    private int timeoutMs;
+
+    private Client client;
+
+    @PostConstruct
+    public void iniciar() {
+        HttpOptions.Builder opciones = HttpOptions.builder().timeout(timeoutMs);
+        if (baseUrl != null && !baseUrl.isBlank()) {
+            opciones.baseUrl(baseUrl);
+        }
+        client = Client.builder()
+                .apiKey(geminiApiKey)
+                .httpOptions(opciones.build())
+                .build();
+        logger.info("Cliente Gemini inicializado (modelo: {})", modelo);
+    }
+
+    /**
+     * Genera la respuesta completa; retorna null si el modelo no devolvió texto
+     */
+    public String generar(String prompt) {
+        GenerateContentResponse response = client.models.generateContent(modelo, prompt, null);
+        return response.text();
+    }
+
+    /**
+     * Entrega cada fragmento de texto apenas llega y retorna la respuesta completa
+     */
+    public String generarStream(String prompt, Consumer<String> alFragmento) {
+        StringBuilder completa = new StringBuilder();
+        try (ResponseStream<GenerateContentResponse> stream =
+                     client.models.generateContentStream(modelo, prompt, null)) {
+            for (GenerateContentResponse fragmento : stream) {
+                String texto = fragmento.text();
+                if (texto != null && !texto.isEmpty()) {
+                    completa.append(texto);
+                    alFragmento.accept(texto);
+                }
+            }
+        }
+        return completa.toString();
+    }
+}
@@ -1,8 +1,13 @@
 package com.app.financiera.service;
 
+import com.app.financiera.dto.ComparacionSegurosResponse;
+import com.app.financiera.dto.PaginaResponse;
+import com.app.financiera.dto.RecomendacionResponse;
 import com.app.financiera.entity.Seguro;
 import com.app.financiera.entity.TipoSeguro;
 import com.app.financiera.entity.CompaniaSeguro;
+import com.app.financiera.repository.SeguroRepositoryCustom;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -26,12 +31,30 @@ public interface ComparadorService {
     // Obtener seguros por compañía
     List<Seguro> obtenerSegurosPorCompania(int idCompania);
 
-    // Comparar seguros seleccionados
-    Map<String, Object> compararSeguros(List<Integer> idsPlanes);
+    // Página por cursor de los seguros por categoría, tipo o compañía (ordenados por prima), con los campos pedidos
+    PaginaResponse<Map<String, Object>> obtenerPaginaSeguros(SeguroRepositoryCustom.CriterioSeguros criterio, Object valor,
+                                                             String campos, String cursor, Integer limite);
 
-    // Filtrar seguros por criterios
+    // Comparar seguros seleccionados; orden: prima, primaDesc, cobertura, deducible o mejorValor (null = el pedido)
+    ComparacionSegurosResponse compararSeguros(List<Integer> idsPlanes, String orden);
+
+    // Comparar todos los planes activos de una categoría (estadísticas sobre todos, hasta "limite" planes en la lista)
+    ComparacionSegurosResponse compararCategoria(String categoria, String orden, int limite);
+
+    // Filtrar seguros por criterios (los null no filtran); resultado ordenado por prima mensual
     List<Seguro> filtrarSeguros(String categoria, Double primaMin, Double primaMax,
-                                Double coberturaMin, Double coberturaMax);
+                                Double coberturaMin, Double coberturaMax,
+                                Integer idCompania, Integer idTipoSeguro);
+
+    // Los k planes de la categoría que mejor se ajustan al usuario (idUsuario null = sin perfil)
+    RecomendacionResponse recomendarPlanes(String categoria, Integer idUsuario, int k,
+                                           Double coberturaDeseada, Double deducibleMaximo);
+
+    // Métricas del motor de recomendaciones
+    HashMap<String, Object> obtenerEstadisticasRecomendaciones();
+
+    // Métricas del índice en memoria del catálogo
+    HashMap<String, Object> obtenerEstadisticasIndice();
 
     // Obtener resumen de plan
     Map<String, Object> obtenerResumenPlan(int idSeguro);
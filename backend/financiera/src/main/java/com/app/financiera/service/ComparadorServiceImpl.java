@@ -1,16 +1,28 @@
 package com.app.financiera.service;
 
+import com.app.financiera.dto.ComparacionSegurosResponse;
+import com.app.financiera.dto.PaginaResponse;
+import com.app.financiera.dto.RecomendacionResponse;
 import com.app.financiera.entity.Seguro;
 import com.app.financiera.entity.TipoSeguro;
 import com.app.financiera.entity.CompaniaSeguro;
+import com.app.financiera.entity.Usuario;
+import com.app.financiera.repository.ParametrosPaginaSeguros;
 import com.app.financiera.repository.SeguroRepository;
+import com.app.financiera.repository.SeguroRepositoryCustom;
 import com.app.financiera.repository.TipoSeguroRepository;
 import com.app.financiera.repository.CompaniaSeguroRepository;
+import com.app.financiera.repository.UsuarioRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.ZoneId;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -19,6 +31,8 @@ public class ComparadorServiceImpl implements ComparadorService {
 
     private static final Logger logger = LoggerFactory.getLogger(ComparadorServiceImpl.class);
 
+    private static final int MAX_IDS_POR_CONSULTA = 1000;
+
     @Autowired
     private SeguroRepository seguroRepository;
 
@@ -28,6 +42,18 @@ public class ComparadorServiceImpl implements ComparadorService {
     @Autowired
     private CompaniaSeguroRepository companiaSeguroRepository;
 
+    @Autowired
+    private IndiceCatalogoSeguros indiceCatalogo;
+
+    @Autowired
+    private MotorRecomendaciones motorRecomendaciones;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Value("${recomendacion.max-k:50}")
+    private int maxRecomendaciones;
+
     @Override
     public List<String> obtenerCategorias() {
         logger.info("Obteniendo todas las categorías de seguros");
@@ -65,83 +91,256 @@ public class ComparadorServiceImpl implements ComparadorService {
     }
 
     @Override
-    public Map<String, Object> compararSeguros(List<Integer> idsPlanes) {
+    public PaginaResponse<Map<String, Object>> obtenerPaginaSeguros(SeguroRepositoryCustom.CriterioSeguros criterio,
+                                                                    Object valor, String campos, String cursor,
+                                                                    Integer limite) {
+        logger.info("Obteniendo página de seguros por {}: {}", criterio, valor);
+        return seguroRepository.buscarPagina(criterio, valor, SeguroRepositoryCustom.OrdenSeguros.PRIMA,
+                ParametrosPaginaSeguros.campos(campos), ParametrosPaginaSeguros.Cursor.decodificar(cursor), limite);
+    }
+
+    @Override
+    public ComparacionSegurosResponse compararSeguros(List<Integer> idsPlanes, String orden) {
         logger.info("Comparando {} planes de seguros", idsPlanes.size());
 
-        Map<String, Object> comparacion = new HashMap<>();
-        List<Map<String, Object>> planesComparados = new ArrayList<>();
-
-        for (Integer idPlan : idsPlanes) {
-            Optional<Seguro> seguroOpt = seguroRepository.findById(idPlan);
-            if (seguroOpt.isPresent()) {
-                Seguro seguro = seguroOpt.get();
-                Map<String, Object> planInfo = new HashMap<>();
-
-                planInfo.put("idSeguro", seguro.getIdSeguro());
-                planInfo.put("nombrePlan", seguro.getTipoSeguro().getNombre());
-                planInfo.put("compania", seguro.getCompania().getNombre());
-                planInfo.put("primaMensual", seguro.getPrimaMensual());
-                planInfo.put("primaAnual", seguro.getPrimaAnual());
-                planInfo.put("montoAsegurado", seguro.getMontoAsegurado());
-                planInfo.put("deducible", seguro.getDeducible());
-                planInfo.put("coberturas", seguro.getCoberturas());
-                planInfo.put("exclusiones", seguro.getExclusiones());
-                planInfo.put("formaPago", seguro.getFormaPago());
-                planInfo.put("numeroPoliza", seguro.getNumeroPoliza());
-
-                planesComparados.add(planInfo);
-            }
-        }
+        Comparator<ComparacionSegurosResponse.PlanComparado> comparador = resolverOrden(orden);
+        // Sin repetidos y en el orden pedido
+        int[] ids = new LinkedHashSet<>(idsPlanes).stream()
+                .filter(Objects::nonNull)
+                .mapToInt(Integer::intValue)
+                .toArray();
+        return comparar(cargarConDetalle(ids), comparador, ids.length);
+    }
+
+    @Override
+    public ComparacionSegurosResponse compararCategoria(String categoria, String orden, int limite) {
+        logger.info("Comparando planes de la categoría: {}", categoria);
+
+        Comparator<ComparacionSegurosResponse.PlanComparado> comparador = resolverOrden(orden != null ? orden : "prima");
+        int[] ids = indiceCatalogo.buscar(categoria, null, null, null, null, null, null);
+        return comparar(cargarConDetalle(ids), comparador, limite);
+    }
 
-        comparacion.put("planes", planesComparados);
-        comparacion.put("totalComparados", planesComparados.size());
+    @Override
+    public List<Seguro> filtrarSeguros(String categoria, Double primaMin, Double primaMax,
+                                       Double coberturaMin, Double coberturaMax,
+                                       Integer idCompania, Integer idTipoSeguro) {
+        logger.info("Filtrando seguros - Categoría: {}, Prima: {}-{}, Cobertura: {}-{}",
+                categoria, primaMin, primaMax, coberturaMin, coberturaMax);
 
-        // Calcular estadísticas de comparación
-        if (!planesComparados.isEmpty()) {
-            DoubleSummaryStatistics statsPrecios = planesComparados.stream()
-                    .mapToDouble(p -> (Double) p.get("primaMensual"))
-                    .summaryStatistics();
+        // El índice resuelve los filtros; a la base solo se piden los seguros que cumplen
+        int[] ids = indiceCatalogo.buscar(categoria, primaMin, primaMax, coberturaMin, coberturaMax,
+                idCompania, idTipoSeguro);
+        // Mismo orden que el índice (prima ascendente)
+        return cargarConDetalle(ids);
+    }
 
-            DoubleSummaryStatistics statsCoberturas = planesComparados.stream()
-                    .mapToDouble(p -> (Double) p.get("montoAsegurado"))
-                    .summaryStatistics();
+    @Override
+    public RecomendacionResponse recomendarPlanes(String categoria, Integer idUsuario, int k,
+                                                  Double coberturaDeseada, Double deducibleMaximo) {
+        if (k < 1 || k > maxRecomendaciones) {
+            throw new IllegalArgumentException("k debe estar entre 1 y " + maxRecomendaciones);
+        }
+        logger.info("Recomendando {} planes de la categoría {} para el usuario {}", k, categoria, idUsuario);
+
+        Integer edad = null;
+        Double salario = null;
+        Set<Integer> tiposContratados = Set.of();
+        if (idUsuario != null) {
+            Usuario usuario = usuarioRepository.findById(idUsuario)
+                    .orElseThrow(() -> new IllegalArgumentException("Usuario no encontrado: " + idUsuario));
+            edad = calcularEdad(usuario.getFechaNacimiento());
+            salario = usuario.getSalarioActual();
+            tiposContratados = new HashSet<>(seguroRepository.findTiposContratadosByUsuario(idUsuario));
+        }
+
+        IndiceCatalogoSeguros.Columnas columnas = indiceCatalogo.columnas(categoria);
+        if (columnas == null) {
+            return new RecomendacionResponse(new ArrayList<>(), 0, motorRecomendaciones.pesos(), edad, salario);
+        }
+
+        // El puntaje se calcula sobre las columnas del índice; a la base solo se piden los k elegidos
+        MotorRecomendaciones.Recomendacion[] recomendaciones = motorRecomendaciones.recomendar(columnas,
+                new MotorRecomendaciones.Perfil(edad, salario, tiposContratados, coberturaDeseada, deducibleMaximo), k);
+        int[] ids = new int[recomendaciones.length];
+        for (int i = 0; i < recomendaciones.length; i++) {
+            ids[i] = recomendaciones[i].idSeguro();
+        }
+        Map<Integer, Seguro> porId = new HashMap<>();
+        for (Seguro seguro : cargarConDetalle(ids)) {
+            porId.put(seguro.getIdSeguro(), seguro);
+        }
 
-            comparacion.put("precioMin", statsPrecios.getMin());
-            comparacion.put("precioMax", statsPrecios.getMax());
-            comparacion.put("precioPromedio", statsPrecios.getAverage());
-            comparacion.put("coberturaMin", statsCoberturas.getMin());
-            comparacion.put("coberturaMax", statsCoberturas.getMax());
-            comparacion.put("coberturaPromedio", statsCoberturas.getAverage());
+        List<RecomendacionResponse.PlanRecomendado> planes = new ArrayList<>(recomendaciones.length);
+        for (MotorRecomendaciones.Recomendacion recomendacion : recomendaciones) {
+            Seguro seguro = porId.get(recomendacion.idSeguro());
+            if (seguro == null) {
+                continue;
+            }
+            planes.add(new RecomendacionResponse.PlanRecomendado(
+                    seguro.getIdSeguro(),
+                    seguro.getTipoSeguro().getNombre(),
+                    seguro.getCompania() != null ? seguro.getCompania().getNombre() : null,
+                    seguro.getPrimaMensual(),
+                    seguro.getMontoAsegurado(),
+                    seguro.getDeducible(),
+                    recomendacion.puntaje(),
+                    recomendacion.criterios(),
+                    recomendacion.tipoContratado()));
         }
+        return new RecomendacionResponse(planes, columnas.ids().length, motorRecomendaciones.pesos(), edad, salario);
+    }
+
+    @Override
+    public HashMap<String, Object> obtenerEstadisticasRecomendaciones() {
+        return motorRecomendaciones.obtenerEstadisticas();
+    }
 
-        return comparacion;
+    // La fecha puede llegar como java.sql.Date, que no admite toInstant()
+    private static Integer calcularEdad(Date fechaNacimiento) {
+        if (fechaNacimiento == null) {
+            return null;
+        }
+        LocalDate nacimiento = Instant.ofEpochMilli(fechaNacimiento.getTime())
+                .atZone(ZoneId.systemDefault()).toLocalDate();
+        return Period.between(nacimiento, LocalDate.now()).getYears();
     }
 
     @Override
-    public List<Seguro> filtrarSeguros(String categoria, Double primaMin, Double primaMax,
-                                       Double coberturaMin, Double coberturaMax) {
-        logger.info("Filtrando seguros - Categoría: {}, Prima: {}-{}, Cobertura: {}-{}",
-                categoria, primaMin, primaMax, coberturaMin, coberturaMax);
+    public HashMap<String, Object> obtenerEstadisticasIndice() {
+        return indiceCatalogo.obtenerEstadisticas();
+    }
+
+    /**
+     * Arma la comparación con las estadísticas calculadas en una sola pasada sobre todos los planes
+     * (los valores null no cuentan) y devuelve hasta "limite" planes en el orden indicado
+     */
+    private ComparacionSegurosResponse comparar(List<Seguro> seguros,
+                                                Comparator<ComparacionSegurosResponse.PlanComparado> comparador,
+                                                int limite) {
+        List<ComparacionSegurosResponse.PlanComparado> planes = new ArrayList<>(seguros.size());
+
+        int conPrima = 0;
+        double primaMin = Double.POSITIVE_INFINITY;
+        double primaMax = Double.NEGATIVE_INFINITY;
+        double primaSuma = 0;
+        int conCobertura = 0;
+        double coberturaMin = Double.POSITIVE_INFINITY;
+        double coberturaMax = Double.NEGATIVE_INFINITY;
+        double coberturaSuma = 0;
+        Integer idMejorValor = null;
+        double mejorValor = Double.NEGATIVE_INFINITY;
+
+        for (Seguro seguro : seguros) {
+            Double prima = seguro.getPrimaMensual();
+            Double cobertura = seguro.getMontoAsegurado();
+            if (prima != null) {
+                double valor = prima;
+                conPrima++;
+                primaSuma += valor;
+                primaMin = Math.min(primaMin, valor);
+                primaMax = Math.max(primaMax, valor);
+            }
+            if (cobertura != null) {
+                double valor = cobertura;
+                conCobertura++;
+                coberturaSuma += valor;
+                coberturaMin = Math.min(coberturaMin, valor);
+                coberturaMax = Math.max(coberturaMax, valor);
+            }
+
+            Double coberturaPorSol = prima != null && cobertura != null && prima > 0 ? cobertura / prima : null;
+            if (coberturaPorSol != null && coberturaPorSol > mejorValor) {
+                mejorValor = coberturaPorSol;
+                idMejorValor = seguro.getIdSeguro();
+            }
+            planes.add(aPlanComparado(seguro, coberturaPorSol));
+        }
 
-        List<Seguro> seguros = seguroRepository.findByCategoria(categoria);
+        if (comparador != null) {
+            planes.sort(comparador);
+        }
+        int total = planes.size();
+        if (total > limite) {
+            planes = new ArrayList<>(planes.subList(0, limite));
+        }
 
-        return seguros.stream()
-                .filter(s -> {
-                    boolean cumplePrima = true;
-                    boolean cumpleCobertura = true;
+        return new ComparacionSegurosResponse(
+                planes,
+                total,
+                conPrima > 0 ? primaMin : null,
+                conPrima > 0 ? primaMax : null,
+                conPrima > 0 ? primaSuma / conPrima : null,
+                conCobertura > 0 ? coberturaMin : null,
+                conCobertura > 0 ? coberturaMax : null,
+                conCobertura > 0 ? coberturaSuma / conCobertura : null,
+                idMejorValor);
+    }
 
-                    if (primaMin != null && primaMax != null) {
-                        cumplePrima = s.getPrimaMensual() >= primaMin && s.getPrimaMensual() <= primaMax;
-                    }
+    private static ComparacionSegurosResponse.PlanComparado aPlanComparado(Seguro seguro, Double coberturaPorSol) {
+        return new ComparacionSegurosResponse.PlanComparado(
+                seguro.getIdSeguro(),
+                seguro.getTipoSeguro().getNombre(),
+                seguro.getCompania() != null ? seguro.getCompania().getNombre() : null,
+                seguro.getPrimaMensual(),
+                seguro.getPrimaAnual(),
+                seguro.getMontoAsegurado(),
+                seguro.getDeducible(),
+                seguro.getCoberturas(),
+                seguro.getExclusiones(),
+                seguro.getFormaPago(),
+                seguro.getNumeroPoliza(),
+                coberturaPorSol);
+    }
 
-                    if (coberturaMin != null && coberturaMax != null) {
-                        cumpleCobertura = s.getMontoAsegurado() >= coberturaMin &&
-                                s.getMontoAsegurado() <= coberturaMax;
-                    }
+    // Los planes sin el dato van al final; a igual valor, por id para que el orden sea estable
+    private static Comparator<ComparacionSegurosResponse.PlanComparado> resolverOrden(String orden) {
+        if (orden == null || orden.isBlank()) {
+            return null;
+        }
+        Comparator<ComparacionSegurosResponse.PlanComparado> comparador = switch (orden) {
+            case "prima" -> Comparator.comparing(ComparacionSegurosResponse.PlanComparado::primaMensual,
+                    Comparator.nullsLast(Comparator.naturalOrder()));
+            case "primaDesc" -> Comparator.comparing(ComparacionSegurosResponse.PlanComparado::primaMensual,
+                    Comparator.nullsLast(Comparator.<Double>reverseOrder()));
+            case "cobertura" -> Comparator.comparing(ComparacionSegurosResponse.PlanComparado::montoAsegurado,
+                    Comparator.nullsLast(Comparator.<Double>reverseOrder()));
+            case "deducible" -> Comparator.comparing(ComparacionSegurosResponse.PlanComparado::deducible,
+                    Comparator.nullsLast(Comparator.naturalOrder()));
+            case "mejorValor" -> Comparator.comparing(ComparacionSegurosResponse.PlanComparado::coberturaPorSol,
+                    Comparator.nullsLast(Comparator.<Double>reverseOrder()));
+            default -> throw new IllegalArgumentException(
+                    "Orden no válido: use prima, primaDesc, cobertura, deducible o mejorValor");
+        };
+        return comparador.thenComparingInt(ComparacionSegurosResponse.PlanComparado::idSeguro);
+    }
 
-                    return cumplePrima && cumpleCobertura;
-                })
-                .collect(Collectors.toList());
+    /**
+     * Seguros con tipo y compañía en el orden de "ids", con una consulta por cada bloque de ids
+     */
+    private List<Seguro> cargarConDetalle(int[] ids) {
+        if (ids.length == 0) {
+            return new ArrayList<>();
+        }
+
+        // Por bloques: PostgreSQL admite a lo sumo 32767 parámetros por sentencia
+        Map<Integer, Seguro> porId = new HashMap<>(ids.length * 2);
+        for (int desde = 0; desde < ids.length; desde += MAX_IDS_POR_CONSULTA) {
+            List<Integer> bloque = Arrays.stream(ids, desde, Math.min(ids.length, desde + MAX_IDS_POR_CONSULTA))
+                    .boxed().collect(Collectors.toList());
+            for (Seguro seguro : seguroRepository.findAllConDetalleByIds(bloque)) {
+                porId.put(seguro.getIdSeguro(), seguro);
+            }
+        }
+
+        List<Seguro> seguros = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            Seguro seguro = porId.get(id);
+            if (seguro != null) {
+                seguros.add(seguro);
+            }
+        }
+        return seguros;
     }
 
     @Override
@@ -183,34 +382,11 @@ public class ComparadorServiceImpl implements ComparadorService {
     public Map<String, Object> obtenerEstadisticasCategoria(String categoria) {
         logger.info("Obteniendo estadísticas para categoría: {}", categoria);
 
+        // Precalculadas por el índice del catálogo; se actualizan al cambiar un seguro de la categoría
+        Map<String, Object> precalculadas = indiceCatalogo.estadisticas(categoria);
         Map<String, Object> estadisticas = new HashMap<>();
-        List<Seguro> seguros = seguroRepository.findByCategoria(categoria);
-
-        if (!seguros.isEmpty()) {
-            DoubleSummaryStatistics statsPrecios = seguros.stream()
-                    .mapToDouble(Seguro::getPrimaMensual)
-                    .summaryStatistics();
-
-            DoubleSummaryStatistics statsCoberturas = seguros.stream()
-                    .mapToDouble(Seguro::getMontoAsegurado)
-                    .summaryStatistics();
-
-            // Agrupar por compañía
-            Map<String, Long> planesPorCompania = seguros.stream()
-                    .collect(Collectors.groupingBy(
-                            s -> s.getCompania().getNombre(),
-                            Collectors.counting()
-                    ));
-
-            estadisticas.put("totalPlanes", seguros.size());
-            estadisticas.put("primaMinima", statsPrecios.getMin());
-            estadisticas.put("primaMaxima", statsPrecios.getMax());
-            estadisticas.put("primaPromedio", statsPrecios.getAverage());
-            estadisticas.put("coberturaMinima", statsCoberturas.getMin());
-            estadisticas.put("coberturaMaxima", statsCoberturas.getMax());
-            estadisticas.put("coberturaPromedio", statsCoberturas.getAverage());
-            estadisticas.put("planesPorCompania", planesPorCompania);
-            estadisticas.put("companias", planesPorCompania.size());
+        if (precalculadas != null) {
+            estadisticas.putAll(precalculadas);
         } else {
             estadisticas.put("totalPlanes", 0);
             estadisticas.put("mensaje", "No hay planes disponibles en esta categoría");
@@ -218,4 +394,4 @@ public class ComparadorServiceImpl implements ComparadorService {
 
         return estadisticas;
     }
-}
\ No newline at end of file
+}
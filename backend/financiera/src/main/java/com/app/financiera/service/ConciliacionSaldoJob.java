@@ -0,0 +1,56 @@
+package com.app.financiera.service;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.app.financiera.dto.DescuadreSaldoProjection;
+import com.app.financiera.repository.SaldoPensionRepository;
+
+/**
+ * Tarea programada que verifica los saldos mantenidos de forma incremental
+ * contra la suma completa de aportes de cada usuario y reporta los descuadres
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+@Component
+public class ConciliacionSaldoJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConciliacionSaldoJob.class);
+
+    @Autowired
+    private SaldoPensionRepository saldoPensionRepository;
+
+    @Value("${saldo.conciliacion.tolerancia:0.01}")
+    private double tolerancia;
+
+    @Scheduled(cron = "${saldo.conciliacion.cron:0 0 3 * * *}", zone = "America/Lima")
+    public void conciliarSaldos() {
+        logger.info("Iniciando conciliación de saldos (tolerancia: S/ {})", tolerancia);
+
+        try {
+            List<DescuadreSaldoProjection> descuadres = saldoPensionRepository.findDescuadres(tolerancia);
+
+            for (DescuadreSaldoProjection d : descuadres) {
+                double registrado = d.getSaldoRegistrado() != null ? d.getSaldoRegistrado() : 0.0;
+                double calculado = d.getSaldoCalculado() != null ? d.getSaldoCalculado() : 0.0;
+                logger.warn("Descuadre de saldo para usuario {}: registrado S/ {}, suma de aportes S/ {}, diferencia S/ {}",
+                        d.getIdUsuario(), registrado, calculado, registrado - calculado);
+            }
+
+            if (descuadres.isEmpty()) {
+                logger.info("Conciliación de saldos completada sin descuadres");
+            } else {
+                logger.warn("Conciliación de saldos completada: {} usuario(s) con descuadre", descuadres.size());
+            }
+        } catch (Exception e) {
+            logger.error("Error en la conciliación de saldos: {}", e.getMessage(), e);
+        }
+    }
+}
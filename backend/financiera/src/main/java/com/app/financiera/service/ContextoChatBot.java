@@ -0,0 +1,146 @@
+package com.app.financiera.service;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.app.financiera.dto.ContextoChatBotProjection;
+import com.app.financiera.repository.UsuarioRepository;
+import com.app.financiera.util.EstimadorTokens;
+
+/**
+ * Instantánea del contexto que el chatbot envía al modelo sobre el usuario (régimen, AFP,
+ * saldo, aportes y seguros). Se arma con una sola consulta de conteos y sumas y se guarda por
+ * usuario mientras dura una conversación; se descarta cuando se publica un DatosUsuarioModificadosEvent.
+ * Cada instantánea lleva su tamaño estimado en tokens, de modo que el costo del prompt es predecible.
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+@Component
+public class ContextoChatBot {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContextoChatBot.class);
+
+    public static final String SIN_DATOS = "Usuario sin datos registrados";
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Value("${chatbot.contexto.ttl-minutos:30}")
+    private long ttlMinutos;
+
+    @Value("${chatbot.contexto.max-usuarios:2000}")
+    private int maxUsuarios;
+
+    private final AtomicLong aciertos = new AtomicLong();
+    private final AtomicLong fallos = new AtomicLong();
+    private final AtomicLong invalidaciones = new AtomicLong();
+    // Cambia con cada invalidación: una carga que empezó antes no se guarda
+    private final AtomicLong generacion = new AtomicLong();
+
+    // Orden de acceso: el primer elemento es el usuario menos usado recientemente
+    private final LinkedHashMap<Integer, Instantanea> instantaneas = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Instantanea> eldest) {
+            return size() > maxUsuarios;
+        }
+    };
+
+    /**
+     * texto: contexto listo para el prompt; tokens: su tamaño estimado
+     */
+    public record Instantanea(String texto, int tokens, long creada) {
+    }
+
+    public Instantanea obtener(int idUsuario) {
+        long ahora = System.currentTimeMillis();
+        synchronized (instantaneas) {
+            Instantanea instantanea = instantaneas.get(idUsuario);
+            if (instantanea != null && ahora - instantanea.creada() <= ttlMinutos * 60_000) {
+                aciertos.incrementAndGet();
+                return instantanea;
+            }
+        }
+
+        fallos.incrementAndGet();
+        long generacionInicial = generacion.get();
+        Instantanea cargada = cargar(idUsuario, ahora);
+        synchronized (instantaneas) {
+            if (generacion.get() == generacionInicial) {
+                instantaneas.put(idUsuario, cargada);
+            }
+        }
+        return cargada;
+    }
+
+    // Después del commit, para no guardar datos aún no confirmados
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alModificarDatos(DatosUsuarioModificadosEvent evento) {
+        synchronized (instantaneas) {
+            generacion.incrementAndGet();
+            if (instantaneas.remove(evento.getIdUsuario()) != null) {
+                invalidaciones.incrementAndGet();
+            }
+        }
+        logger.debug("Contexto del chatbot invalidado para usuario {} por cambio en {}", evento.getIdUsuario(), evento.getOrigen());
+    }
+
+    public HashMap<String, Object> obtenerEstadisticas() {
+        long totalAciertos = aciertos.get();
+        long totalConsultas = totalAciertos + fallos.get();
+
+        HashMap<String, Object> estadisticas = new HashMap<>();
+        synchronized (instantaneas) {
+            estadisticas.put("usuariosEnCache", instantaneas.size());
+        }
+        estadisticas.put("maxUsuarios", maxUsuarios);
+        estadisticas.put("ttlMinutos", ttlMinutos);
+        estadisticas.put("aciertos", totalAciertos);
+        estadisticas.put("fallos", fallos.get());
+        estadisticas.put("tasaAciertos", totalConsultas > 0 ? (double) totalAciertos / totalConsultas : 0.0);
+        estadisticas.put("invalidaciones", invalidaciones.get());
+        return estadisticas;
+    }
+
+    private Instantanea cargar(int idUsuario, long ahora) {
+        String texto = SIN_DATOS;
+        try {
+            ContextoChatBotProjection datos = usuarioRepository.obtenerContextoChatBot(idUsuario);
+            if (datos != null) {
+                texto = formatear(datos);
+            }
+        } catch (Exception e) {
+            logger.error("Error obteniendo contexto: {}", e.getMessage());
+            // Vencida desde el inicio: el próximo mensaje vuelve a intentarlo
+            return new Instantanea(texto, EstimadorTokens.estimar(texto), 0);
+        }
+        return new Instantanea(texto, EstimadorTokens.estimar(texto), ahora);
+    }
+
+    private static String formatear(ContextoChatBotProjection datos) {
+        StringBuilder contexto = new StringBuilder(160);
+        contexto.append("- Régimen: ").append(datos.getTipoRegimen() != null ? datos.getTipoRegimen() : "No especificado").append("\n");
+        contexto.append("- AFP: ").append(datos.getNombreAfp() != null ? datos.getNombreAfp() : "No afiliado").append("\n");
+
+        if (datos.getSaldoTotal() != null && datos.getSaldoTotal() > 0) {
+            contexto.append("- Saldo total: S/ ").append(String.format("%.2f", datos.getSaldoTotal())).append("\n");
+        }
+        if (datos.getTotalAportes() != null && datos.getTotalAportes() > 0) {
+            contexto.append("- Total aportes registrados: ").append(datos.getTotalAportes())
+                    .append(" (S/ ").append(String.format("%.2f", datos.getMontoAportes())).append(")\n");
+        }
+        if (datos.getSegurosActivos() != null && datos.getSegurosActivos() > 0) {
+            contexto.append("- Seguros activos: ").append(datos.getSegurosActivos()).append("\n");
+        }
+        return contexto.toString();
+    }
+}
@@ -0,0 +1,20 @@
+package com.app.financiera.service;
+
+/**
+ * Evento publicado cuando se registra un correo en la bandeja de salida
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+public class CorreoEncoladoEvent {
+
+    private final int idCorreo;
+
+    public CorreoEncoladoEvent(int idCorreo) {
+        this.idCorreo = idCorreo;
+    }
+
+    public int getIdCorreo() {
+        return idCorreo;
+    }
+}
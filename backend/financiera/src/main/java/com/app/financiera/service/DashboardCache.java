@@ -0,0 +1,135 @@
+package com.app.financiera.service;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Caché de instantáneas del dashboard por usuario, acotada por tamaño (LRU) y por tiempo de vida.
+ * Cada instantánea guarda las vistas ya calculadas del usuario (resumen, alertas, actividad,
+ * estadísticas) y se descarta completa cuando se publica un DatosUsuarioModificadosEvent.
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+@Component
+public class DashboardCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardCache.class);
+
+    @Value("${dashboard.cache.ttl-segundos:60}")
+    private long ttlSegundos;
+
+    @Value("${dashboard.cache.max-usuarios:1000}")
+    private int maxUsuarios;
+
+    private final AtomicLong aciertos = new AtomicLong();
+    private final AtomicLong fallos = new AtomicLong();
+    private final AtomicLong desalojosTamano = new AtomicLong();
+    private final AtomicLong desalojosExpiracion = new AtomicLong();
+    private final AtomicLong invalidaciones = new AtomicLong();
+
+    // Orden de acceso: el primer elemento es el usuario menos usado recientemente
+    private final LinkedHashMap<Integer, Instantanea> instantaneas = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Instantanea> eldest) {
+            if (size() > maxUsuarios) {
+                desalojosTamano.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    };
+
+    /**
+     * Retorna la vista en caché o la calcula con el cargador. Solo se guardan las respuestas
+     * que cumplen la condición (exitosas y completas).
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T obtener(int idUsuario, String vista, Supplier<T> cargador, Predicate<T> almacenable) {
+        Instantanea instantanea = instantaneaVigente(idUsuario);
+        T valor = (T) instantanea.vistas.get(vista);
+        if (valor != null) {
+            aciertos.incrementAndGet();
+            return valor;
+        }
+
+        fallos.incrementAndGet();
+        valor = cargador.get();
+        // Si el usuario se invalidó mientras se calculaba, la instantánea ya no está en el mapa
+        // y este valor se descarta junto con ella
+        if (valor != null && almacenable.test(valor)) {
+            instantanea.vistas.put(vista, valor);
+        }
+        return valor;
+    }
+
+    public void invalidar(int idUsuario) {
+        synchronized (instantaneas) {
+            if (instantaneas.remove(idUsuario) != null) {
+                invalidaciones.incrementAndGet();
+            }
+        }
+    }
+
+    // Después del commit, para no volver a llenar la caché con datos aún no confirmados
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alModificarDatos(DatosUsuarioModificadosEvent evento) {
+        logger.debug("Invalidando dashboard del usuario {} por cambio en {}", evento.getIdUsuario(), evento.getOrigen());
+        invalidar(evento.getIdUsuario());
+    }
+
+    public HashMap<String, Object> obtenerEstadisticas() {
+        long totalAciertos = aciertos.get();
+        long totalConsultas = totalAciertos + fallos.get();
+
+        HashMap<String, Object> estadisticas = new HashMap<>();
+        synchronized (instantaneas) {
+            estadisticas.put("usuariosEnCache", instantaneas.size());
+        }
+        estadisticas.put("maxUsuarios", maxUsuarios);
+        estadisticas.put("ttlSegundos", ttlSegundos);
+        estadisticas.put("aciertos", totalAciertos);
+        estadisticas.put("fallos", fallos.get());
+        estadisticas.put("tasaAciertos", totalConsultas > 0 ? (double) totalAciertos / totalConsultas : 0.0);
+        estadisticas.put("desalojosPorTamano", desalojosTamano.get());
+        estadisticas.put("desalojosPorExpiracion", desalojosExpiracion.get());
+        estadisticas.put("invalidaciones", invalidaciones.get());
+        return estadisticas;
+    }
+
+    private Instantanea instantaneaVigente(int idUsuario) {
+        long ahora = System.currentTimeMillis();
+        synchronized (instantaneas) {
+            Instantanea instantanea = instantaneas.get(idUsuario);
+            if (instantanea != null && ahora - instantanea.creada > ttlSegundos * 1000) {
+                desalojosExpiracion.incrementAndGet();
+                instantanea = null;
+            }
+            if (instantanea == null) {
+                instantanea = new Instantanea(ahora);
+                instantaneas.put(idUsuario, instantanea);
+            }
+            return instantanea;
+        }
+    }
+
+    private static final class Instantanea {
+        private final long creada;
+        private final Map<String, Object> vistas = new ConcurrentHashMap<>();
+
+        private Instantanea(long creada) {
+            this.creada = creada;
+        }
+    }
+}
@@ -2,6 +2,11 @@ package com.app.financiera.service;
 
 import java.util.HashMap;
 
+import com.app.financiera.dto.ActividadRecienteResponse;
+import com.app.financiera.dto.AlertasResponse;
+import com.app.financiera.dto.EstadisticasFinancierasResponse;
+import com.app.financiera.dto.ResumenDashboardResponse;
+
 /**
  * Servicio para gestión del Dashboard
  *
@@ -14,7 +19,7 @@ public interface DashboardService {
      * Obtiene el resumen completo del dashboard
      * Incluye información financiera, pensiones, seguros y alertas
      */
-    HashMap<String, Object> obtenerResumenCompleto(int idUsuario);
+    ResumenDashboardResponse obtenerResumenCompleto(int idUsuario);
 
     /**
      * Obtiene información del perfil del usuario
@@ -24,15 +29,15 @@ public interface DashboardService {
     /**
      * Obtiene las alertas activas del usuario
      */
-    HashMap<String, Object> obtenerAlertas(int idUsuario);
+    AlertasResponse obtenerAlertas(int idUsuario);
 
     /**
      * Obtiene la actividad reciente del usuario
      */
-    HashMap<String, Object> obtenerActividadReciente(int idUsuario, int limite);
+    ActividadRecienteResponse obtenerActividadReciente(int idUsuario, int limite);
 
     /**
      * Obtiene estadísticas financieras del usuario
      */
-    HashMap<String, Object> obtenerEstadisticasFinancieras(int idUsuario);
+    EstadisticasFinancierasResponse obtenerEstadisticasFinancieras(int idUsuario);
 }
\ No newline at end of file
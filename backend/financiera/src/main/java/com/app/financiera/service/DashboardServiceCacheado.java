@@ -0,0 +1,62 @@
+package com.app.financiera.service;
+
+import java.util.HashMap;
+
+import com.app.financiera.dto.ActividadRecienteResponse;
+import com.app.financiera.dto.AlertasResponse;
+import com.app.financiera.dto.EstadisticasFinancierasResponse;
+import com.app.financiera.dto.ResumenDashboardResponse;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+/**
+ * Servicio de Dashboard con caché por usuario delante de DashboardServiceImpl.
+ * El frontend consulta estos datos repetidamente y solo cambian cuando el usuario
+ * registra aportes, pólizas, pagos o trámites.
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+@Primary
+@Service
+public class DashboardServiceCacheado implements DashboardService {
+
+    @Autowired
+    private DashboardServiceImpl dashboardServiceImpl;
+
+    @Autowired
+    private DashboardCache dashboardCache;
+
+    @Override
+    public ResumenDashboardResponse obtenerResumenCompleto(int idUsuario) {
+        // Un resumen parcial no se guarda: la siguiente consulta vuelve a intentar las secciones faltantes
+        return dashboardCache.obtener(idUsuario, "resumen",
+                () -> dashboardServiceImpl.obtenerResumenCompleto(idUsuario),
+                r -> r.exitoso() && !Boolean.TRUE.equals(r.parcial()));
+    }
+
+    @Override
+    public HashMap<String, Object> obtenerPerfilUsuario(int idUsuario) {
+        return dashboardServiceImpl.obtenerPerfilUsuario(idUsuario);
+    }
+
+    @Override
+    public AlertasResponse obtenerAlertas(int idUsuario) {
+        return dashboardCache.obtener(idUsuario, "alertas",
+                () -> dashboardServiceImpl.obtenerAlertas(idUsuario), AlertasResponse::exitoso);
+    }
+
+    @Override
+    public ActividadRecienteResponse obtenerActividadReciente(int idUsuario, int limite) {
+        return dashboardCache.obtener(idUsuario, "actividad:" + limite,
+                () -> dashboardServiceImpl.obtenerActividadReciente(idUsuario, limite), ActividadRecienteResponse::exitoso);
+    }
+
+    @Override
+    public EstadisticasFinancierasResponse obtenerEstadisticasFinancieras(int idUsuario) {
+        return dashboardCache.obtener(idUsuario, "estadisticas",
+                () -> dashboardServiceImpl.obtenerEstadisticasFinancieras(idUsuario), EstadisticasFinancierasResponse::exitoso);
+    }
+}
@@ -2,15 +2,23 @@ package com.app.financiera.service;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.Future;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import com.app.financiera.dto.ActividadDashboardProjection;
+import com.app.financiera.dto.ActividadRecienteResponse;
+import com.app.financiera.dto.AlertasResponse;
+import com.app.financiera.dto.EstadisticasFinancierasResponse;
+import com.app.financiera.dto.ResumenDashboardProjection;
+import com.app.financiera.dto.ResumenDashboardResponse;
+import com.app.financiera.dto.SeccionDashboard;
+import com.app.financiera.dto.SeccionNoDisponible;
+import com.app.financiera.dto.TendenciaAportes;
 import com.app.financiera.entity.*;
 import com.app.financiera.repository.*;
 
@@ -29,149 +37,138 @@ public class DashboardServiceImpl implements DashboardService {
     private UsuarioRepository usuarioRepository;
 
     @Autowired
-    private AportePensionRepository aportePensionRepository;
+    private DashboardRepository dashboardRepository;
 
     @Autowired
-    private SaldoPensionRepository saldoPensionRepository;
+    private EnsambladorDashboard ensambladorDashboard;
 
     @Autowired
-    private SeguroRepository seguroRepository;
+    private TendenciaAportesService tendenciaAportesService;
 
-    @Autowired
-    private PagoSeguroRepository pagoSeguroRepository;
-
-    @Autowired
-    private TramiteSeguroRepository tramiteSeguroRepository;
-
-    @Autowired
-    private HistorialConsultasRepository historialConsultasRepository;
+    // Años que muestran el resumen y las estadísticas del dashboard
+    private static final int YEARS_TENDENCIA = 3;
 
     @Override
-    public HashMap<String, Object> obtenerResumenCompleto(int idUsuario) {
+    public ResumenDashboardResponse obtenerResumenCompleto(int idUsuario) {
         logger.info("Generando resumen completo de dashboard para usuario: {}", idUsuario);
 
-        HashMap<String, Object> resumen = new HashMap<>();
-
-        try {
-            // Información del usuario
-            Optional<Usuario> usuarioOpt = usuarioRepository.findById(idUsuario);
-            if (!usuarioOpt.isPresent()) {
-                resumen.put("exitoso", false);
-                resumen.put("mensaje", "Usuario no encontrado");
-                return resumen;
+        int yearActual = Calendar.getInstance().get(Calendar.YEAR);
+
+        // Las cargas son independientes: se lanzan juntas y cada sección se arma con lo que llegue
+        try (EnsambladorDashboard.Ejecucion ejecucion = ensambladorDashboard.nuevaEjecucion()) {
+            Future<Optional<Usuario>> usuarioFuturo = ejecucion.enviar("usuario",
+                    () -> dashboardRepository.findUsuarioConPerfil(idUsuario));
+            Future<ResumenDashboardProjection> cifrasFuturo = ejecucion.enviar("cifras",
+                    () -> obtenerCifras(idUsuario, yearActual));
+            Future<ActividadRecienteResponse> actividadFuturo = ejecucion.enviar("actividadReciente",
+                    () -> obtenerActividadReciente(idUsuario, 5));
+            Future<TendenciaAportes> tendenciaFuturo = ejecucion.enviar("estadisticasYear",
+                    () -> tendenciaAportesService.obtenerTendenciaAnual(idUsuario, YEARS_TENDENCIA));
+
+            Optional<Usuario> usuarioOpt = ejecucion.esperar("usuario", usuarioFuturo);
+            if (usuarioOpt != null && !usuarioOpt.isPresent()) {
+                return ResumenDashboardResponse.error("Usuario no encontrado", null);
             }
+            Usuario usuario = usuarioOpt != null ? usuarioOpt.get() : null;
+            ResumenDashboardProjection cifras = ejecucion.esperar("cifras", cifrasFuturo);
+            ActividadRecienteResponse actividad = ejecucion.esperar("actividadReciente", actividadFuturo);
+            TendenciaAportes tendencia = ejecucion.esperar("estadisticasYear", tendenciaFuturo);
+
+            List<ResumenDashboardResponse.EstadisticaYear> estadisticasYear = tendencia != null
+                    ? construirEstadisticasYear(tendencia)
+                    : new ArrayList<>();
+            logger.info("Estadísticas por año generadas: {}", estadisticasYear);
 
-            Usuario usuario = usuarioOpt.get();
-
-            // SECCIÓN 1: Información Personal
-            HashMap<String, Object> infoPersonal = new HashMap<>();
-            infoPersonal.put("nombre", usuario.getNombre() + " " + usuario.getApellido());
-            infoPersonal.put("dni", usuario.getDni());
-            infoPersonal.put("correo", usuario.getCorreo());
-            infoPersonal.put("telefono", usuario.getTelefono());
-            infoPersonal.put("fotoPerfil", usuario.getFotoPerfil());
-            infoPersonal.put("rol", usuario.getRol() != null ? usuario.getRol().getNombreRol() : "Usuario");
-            infoPersonal.put("ultimoAcceso", usuario.getUltimoAcceso());
-            resumen.put("infoPersonal", infoPersonal);
-
-            // SECCIÓN 2: Resumen Financiero
-            HashMap<String, Object> resumenFinanciero = new HashMap<>();
-
-            // Saldos de pensión
-            Double saldoTotal = saldoPensionRepository.sumSaldosUsuario(idUsuario);
-            Double saldoDisponible = saldoPensionRepository.sumSaldosDisponibles(idUsuario);
-            resumenFinanciero.put("saldoTotal", saldoTotal != null ? saldoTotal : 0);
-            resumenFinanciero.put("saldoDisponible", saldoDisponible != null ? saldoDisponible : 0);
-
-            // Aportes del año actual
-            int yearActual = Calendar.getInstance().get(Calendar.YEAR);
-            Double aportesYear = aportePensionRepository.sumAportesUsuarioYear(idUsuario, yearActual);
-            resumenFinanciero.put("aportesYearActual", aportesYear != null ? aportesYear : 0);
-
-            // Proyección de pensión mensual
-            Double proyeccionMensual = saldoTotal != null && saldoTotal > 0 ? saldoTotal / 240 : 0;
-            resumenFinanciero.put("proyeccionPensionMensual", proyeccionMensual);
-
-            // Rentabilidad promedio (simplificado)
-            resumenFinanciero.put("rentabilidadPromedio", 5.4);
-
-            resumen.put("resumenFinanciero", resumenFinanciero);
-
-            // SECCIÓN 3: Resumen de Seguros
-            HashMap<String, Object> resumenSeguros = new HashMap<>();
-
-            List<Seguro> seguros = seguroRepository.findByUsuario(idUsuario);
-            long segurosActivos = seguros.stream()
-                    .filter(s -> "Vigente".equals(s.getEstado()) || "Activo".equals(s.getEstado()))
-                    .count();
-
-            Double primaMensualTotal = seguros.stream()
-                    .filter(s -> "Vigente".equals(s.getEstado()) || "Activo".equals(s.getEstado()))
-                    .mapToDouble(s -> s.getPrimaMensual() != null ? s.getPrimaMensual() : 0)
-                    .sum();
-
-            Double coberturaTotal = seguros.stream()
-                    .filter(s -> "Vigente".equals(s.getEstado()) || "Activo".equals(s.getEstado()))
-                    .mapToDouble(s -> s.getMontoAsegurado() != null ? s.getMontoAsegurado() : 0)
-                    .sum();
-
-            resumenSeguros.put("totalSeguros", seguros.size());
-            resumenSeguros.put("segurosActivos", segurosActivos);
-            resumenSeguros.put("primaMensualTotal", primaMensualTotal);
-            resumenSeguros.put("coberturaTotal", coberturaTotal);
-
-            resumen.put("resumenSeguros", resumenSeguros);
-
-            // SECCIÓN 4: Alertas
-            HashMap<String, Object> alertas = obtenerAlertas(idUsuario);
-            resumen.put("alertas", alertas);
-
-            // SECCIÓN 5: Actividad Reciente
-            HashMap<String, Object> actividad = obtenerActividadReciente(idUsuario, 5);
-            resumen.put("actividadReciente", actividad);
-
-            // SECCIÓN 6: Estadísticas por Año
-            List<HashMap<String, Object>> estadisticasYear = new ArrayList<>();
-            for (int i = 2; i >= 0; i--) {
-                int year = yearActual - i;
-                Double totalYear = aportePensionRepository.sumAportesUsuarioYear(idUsuario, year);
-
-                HashMap<String, Object> yearData = new HashMap<>();
-                yearData.put("year", year);
-                yearData.put("total", totalYear != null ? totalYear : 0.0);
-                yearData.put("totalAportes", totalYear != null ? totalYear : 0.0); // Ambos nombres por compatibilidad
-                estadisticasYear.add(yearData);
+            List<String> noDisponibles = ejecucion.getNoDisponibles();
+            ResumenDashboardResponse resumen = new ResumenDashboardResponse(
+                    // SECCIÓN 1: Información Personal
+                    usuario != null ? construirInfoPersonal(usuario) : SeccionNoDisponible.INSTANCIA,
+                    // SECCIÓN 2: Resumen Financiero
+                    cifras != null ? construirResumenFinanciero(cifras) : SeccionNoDisponible.INSTANCIA,
+                    // SECCIÓN 3: Resumen de Seguros
+                    cifras != null ? construirResumenSeguros(cifras) : SeccionNoDisponible.INSTANCIA,
+                    // SECCIÓN 4: Alertas
+                    cifras != null ? construirAlertas(cifras) : SeccionNoDisponible.INSTANCIA,
+                    // SECCIÓN 5: Actividad Reciente
+                    actividad != null ? actividad : SeccionNoDisponible.INSTANCIA,
+                    // SECCIÓN 6: Estadísticas por Año
+                    estadisticasYear,
+                    // SECCIÓN 7: Información de Pensiones
+                    usuario != null ? construirInfoPensiones(usuario) : SeccionNoDisponible.INSTANCIA,
+                    !noDisponibles.isEmpty(),
+                    noDisponibles,
+                    ejecucion.getTiempos(),
+                    true,
+                    LocalDateTime.now(),
+                    null,
+                    null);
+
+            if (noDisponibles.isEmpty()) {
+                logger.info("Resumen de dashboard generado exitosamente para usuario: {}", idUsuario);
+            } else {
+                logger.warn("Resumen de dashboard parcial para usuario {}; no disponible: {}", idUsuario, noDisponibles);
             }
-            resumen.put("estadisticasYear", estadisticasYear);
+            return resumen;
 
-            logger.info("Estadísticas por año generadas: {}", estadisticasYear);
-
-            // SECCIÓN 7: Información de Pensiones
-            HashMap<String, Object> infoPensiones = new HashMap<>();
+        } catch (Exception e) {
+            logger.error("Error al generar resumen de dashboard: {}", e.getMessage(), e);
+            return ResumenDashboardResponse.error("Error al generar el resumen del dashboard", e.getMessage());
+        }
+    }
 
-            String tipoRegimen = usuario.getTipoRegimen();
-            String nombreAfp = usuario.getAfp() != null ? usuario.getAfp().getNombre() : "No afiliado";
+    private SeccionDashboard construirInfoPersonal(Usuario usuario) {
+        return new ResumenDashboardResponse.InfoPersonal(
+                usuario.getNombre() + " " + usuario.getApellido(),
+                usuario.getDni(),
+                usuario.getCorreo(),
+                usuario.getTelefono(),
+                usuario.getFotoPerfil(),
+                usuario.getRol() != null ? usuario.getRol().getNombreRol() : "Usuario",
+                usuario.getUltimoAcceso());
+    }
 
-            infoPensiones.put("tipoRegimen", tipoRegimen != null ? tipoRegimen : "No especificado");
-            infoPensiones.put("afp", nombreAfp);
-            infoPensiones.put("cuspp", usuario.getCuspp());
-            infoPensiones.put("fechaAfiliacion", usuario.getFechaAfiliacion());
+    private SeccionDashboard construirResumenFinanciero(ResumenDashboardProjection cifras) {
+        // Saldos de pensión
+        double saldoTotal = valor(cifras.getSaldoTotal());
 
-            resumen.put("infoPensiones", infoPensiones);
+        // Proyección de pensión mensual
+        double proyeccionMensual = saldoTotal > 0 ? saldoTotal / 240 : 0;
 
-            resumen.put("exitoso", true);
-            resumen.put("fechaGeneracion", LocalDateTime.now());
+        // Rentabilidad promedio (simplificado)
+        return new ResumenDashboardResponse.ResumenFinanciero(
+                saldoTotal,
+                valor(cifras.getSaldoDisponible()),
+                valor(cifras.getAportesYearActual()),
+                proyeccionMensual,
+                5.4);
+    }
 
-            logger.info("Resumen de dashboard generado exitosamente para usuario: {}", idUsuario);
+    private SeccionDashboard construirResumenSeguros(ResumenDashboardProjection cifras) {
+        return new ResumenDashboardResponse.ResumenSeguros(
+                valor(cifras.getSegurosActivos()),
+                valor(cifras.getSegurosActivos()),
+                valor(cifras.getPrimaMensualTotal()),
+                valor(cifras.getCoberturaTotal()));
+    }
 
-        } catch (Exception e) {
-            logger.error("Error al generar resumen de dashboard: {}", e.getMessage(), e);
-            resumen.put("exitoso", false);
-            resumen.put("mensaje", "Error al generar el resumen del dashboard");
-            resumen.put("error", e.getMessage());
+    private List<ResumenDashboardResponse.EstadisticaYear> construirEstadisticasYear(TendenciaAportes tendencia) {
+        List<ResumenDashboardResponse.EstadisticaYear> estadisticasYear = new ArrayList<>();
+        for (TendenciaAportes.Punto punto : tendencia.puntos()) {
+            // total y totalAportes: ambos nombres por compatibilidad
+            estadisticasYear.add(new ResumenDashboardResponse.EstadisticaYear(punto.year(), punto.total(), punto.total()));
         }
+        return estadisticasYear;
+    }
+
+    private SeccionDashboard construirInfoPensiones(Usuario usuario) {
+        String tipoRegimen = usuario.getTipoRegimen();
+        String nombreAfp = usuario.getAfp() != null ? usuario.getAfp().getNombre() : "No afiliado";
 
-        return resumen;
+        return new ResumenDashboardResponse.InfoPensiones(
+                tipoRegimen != null ? tipoRegimen : "No especificado",
+                nombreAfp,
+                usuario.getCuspp(),
+                usuario.getFechaAfiliacion());
     }
 
     @Override
@@ -222,238 +219,162 @@ public class DashboardServiceImpl implements DashboardService {
     }
 
     @Override
-    public HashMap<String, Object> obtenerAlertas(int idUsuario) {
-        HashMap<String, Object> resultado = new HashMap<>();
-        List<HashMap<String, Object>> alertas = new ArrayList<>();
-        int totalAlertas = 0;
-
+    public AlertasResponse obtenerAlertas(int idUsuario) {
         try {
-            // ALERTA 1: Seguros próximos a vencer (30 días)
-            List<Seguro> segurosProximosVencer = seguroRepository.findByUsuario(idUsuario).stream()
-                    .filter(s -> {
-                        if (s.getFechaVencimiento() != null &&
-                                ("Vigente".equals(s.getEstado()) || "Activo".equals(s.getEstado()))) {
-                            LocalDate fechaVenc = s.getFechaVencimiento().toLocalDate();
-                            LocalDate hoy = LocalDate.now();
-                            long diasParaVencer = ChronoUnit.DAYS.between(hoy, fechaVenc);
-                            return diasParaVencer >= 0 && diasParaVencer <= 30;
-                        }
-                        return false;
-                    })
-                    .collect(Collectors.toList());
-
-            if (!segurosProximosVencer.isEmpty()) {
-                HashMap<String, Object> alerta = new HashMap<>();
-                alerta.put("tipo", "warning");
-                alerta.put("titulo", "Seguros próximos a vencer");
-                alerta.put("mensaje", segurosProximosVencer.size() + " seguro(s) vencen en los próximos 30 días");
-                alerta.put("cantidad", segurosProximosVencer.size());
-                alerta.put("icono", "AlertTriangle");
-                alertas.add(alerta);
-                totalAlertas += segurosProximosVencer.size();
-            }
-
-            // ALERTA 2: Pagos pendientes
-            List<PagoSeguro> pagosPendientes = pagoSeguroRepository.findPendientesByUsuario(idUsuario);
-            if (!pagosPendientes.isEmpty()) {
-                Double montoPendiente = pagosPendientes.stream()
-                        .mapToDouble(p -> p.getMontoPagado() != null ? p.getMontoPagado() : 0)
-                        .sum();
-
-                HashMap<String, Object> alerta = new HashMap<>();
-                alerta.put("tipo", "danger");
-                alerta.put("titulo", "Pagos pendientes");
-                alerta.put("mensaje", "Tienes " + pagosPendientes.size() + " pago(s) pendiente(s)");
-                alerta.put("cantidad", pagosPendientes.size());
-                alerta.put("monto", montoPendiente);
-                alerta.put("icono", "CreditCard");
-                alertas.add(alerta);
-                totalAlertas += pagosPendientes.size();
-            }
-
-            // ALERTA 3: Trámites pendientes
-            long tramitesPendientes = tramiteSeguroRepository.countPendientesByUsuario(idUsuario);
-            if (tramitesPendientes > 0) {
-                HashMap<String, Object> alerta = new HashMap<>();
-                alerta.put("tipo", "info");
-                alerta.put("titulo", "Trámites en proceso");
-                alerta.put("mensaje", tramitesPendientes + " trámite(s) en proceso o pendiente(s)");
-                alerta.put("cantidad", tramitesPendientes);
-                alerta.put("icono", "FileText");
-                alertas.add(alerta);
-                totalAlertas += tramitesPendientes;
-            }
-
-            // ALERTA 4: Sin aportes recientes (últimos 3 meses)
-            LocalDate hace3Meses = LocalDate.now().minusMonths(3);
-            List<AportePension> aportesRecientes = aportePensionRepository.findByUsuarioId(idUsuario).stream()
-                    .filter(a -> a.getFechaAporte() != null && a.getFechaAporte().isAfter(hace3Meses))
-                    .collect(Collectors.toList());
-
-            if (aportesRecientes.isEmpty()) {
-                HashMap<String, Object> alerta = new HashMap<>();
-                alerta.put("tipo", "warning");
-                alerta.put("titulo", "Sin aportes recientes");
-                alerta.put("mensaje", "No se han registrado aportes en los últimos 3 meses");
-                alerta.put("icono", "AlertCircle");
-                alertas.add(alerta);
-                totalAlertas++;
-            }
-
-            resultado.put("alertas", alertas);
-            resultado.put("totalAlertas", totalAlertas);
-            resultado.put("exitoso", true);
-
+            int yearActual = Calendar.getInstance().get(Calendar.YEAR);
+            return construirAlertas(obtenerCifras(idUsuario, yearActual));
         } catch (Exception e) {
             logger.error("Error al obtener alertas: {}", e.getMessage(), e);
-            resultado.put("exitoso", false);
-            resultado.put("mensaje", "Error al obtener alertas");
+            return AlertasResponse.error("Error al obtener alertas");
         }
-
-        return resultado;
     }
 
     @Override
-    public HashMap<String, Object> obtenerActividadReciente(int idUsuario, int limite) {
-        HashMap<String, Object> resultado = new HashMap<>();
-        List<HashMap<String, Object>> actividades = new ArrayList<>();
-
+    public ActividadRecienteResponse obtenerActividadReciente(int idUsuario, int limite) {
         try {
-            // Combinar diferentes fuentes de actividad
-            List<HistorialConsultas> historial = historialConsultasRepository.findByUsuarioId(idUsuario);
-
-            // Convertir historial a actividades
-            for (HistorialConsultas h : historial) {
-                if (actividades.size() >= limite) break;
-
-                HashMap<String, Object> actividad = new HashMap<>();
-                actividad.put("tipo", h.getTipoConsulta());
-                actividad.put("descripcion", h.getDetalleConsulta());
-                actividad.put("fecha", h.getFecha());
-                actividad.put("resultado", h.getResultado());
-                actividad.put("icono", getIconoActividad(h.getTipoConsulta()));
-                actividades.add(actividad);
-            }
-
-            // Agregar aportes recientes
-            List<AportePension> aportesRecientes = aportePensionRepository.findByUsuarioId(idUsuario);
-            for (int i = 0; i < Math.min(2, aportesRecientes.size()); i++) {
-                if (actividades.size() >= limite) break;
-
-                AportePension a = aportesRecientes.get(i);
-                HashMap<String, Object> actividad = new HashMap<>();
-                actividad.put("tipo", "Aporte");
-                actividad.put("descripcion", "Aporte registrado: " + a.getPeriodo());
-                actividad.put("fecha", a.getFechaAporte());
-                actividad.put("monto", a.getMontoAporte());
-                actividad.put("icono", "DollarSign");
-                actividades.add(actividad);
-            }
-
-            // Ordenar por fecha descendente
-            actividades.sort((a1, a2) -> {
-                Object fecha1 = a1.get("fecha");
-                Object fecha2 = a2.get("fecha");
-                if (fecha1 instanceof LocalDateTime && fecha2 instanceof LocalDateTime) {
-                    return ((LocalDateTime) fecha2).compareTo((LocalDateTime) fecha1);
-                } else if (fecha1 instanceof LocalDate && fecha2 instanceof LocalDate) {
-                    return ((LocalDate) fecha2).compareTo((LocalDate) fecha1);
+            // Historial y aportes recientes ya combinados y ordenados por fecha descendente
+            List<ActividadDashboardProjection> filas = dashboardRepository.obtenerActividad(idUsuario, limite);
+            List<ActividadRecienteResponse.Actividad> actividades = new ArrayList<>(filas.size());
+
+            for (ActividadDashboardProjection fila : filas) {
+                if ("Aporte".equals(fila.getOrigen())) {
+                    actividades.add(new ActividadRecienteResponse.Actividad(
+                            fila.getTipo(),
+                            fila.getDescripcion(),
+                            fila.getFecha() != null ? fila.getFecha().toLocalDate() : null,
+                            fila.getMonto(),
+                            null,
+                            "DollarSign"));
+                } else {
+                    actividades.add(new ActividadRecienteResponse.Actividad(
+                            fila.getTipo(),
+                            fila.getDescripcion(),
+                            fila.getFecha(),
+                            null,
+                            fila.getResultado(),
+                            getIconoActividad(fila.getTipo())));
                 }
-                return 0;
-            });
-
-            // Limitar resultados
-            if (actividades.size() > limite) {
-                actividades = actividades.subList(0, limite);
             }
 
-            resultado.put("actividades", actividades);
-            resultado.put("total", actividades.size());
-            resultado.put("exitoso", true);
+            return new ActividadRecienteResponse(actividades, actividades.size(), true, null);
 
         } catch (Exception e) {
             logger.error("Error al obtener actividad reciente: {}", e.getMessage(), e);
-            resultado.put("exitoso", false);
-            resultado.put("mensaje", "Error al obtener actividad reciente");
+            return ActividadRecienteResponse.error("Error al obtener actividad reciente");
         }
-
-        return resultado;
     }
 
     @Override
-    public HashMap<String, Object> obtenerEstadisticasFinancieras(int idUsuario) {
-        HashMap<String, Object> estadisticas = new HashMap<>();
-
+    public EstadisticasFinancierasResponse obtenerEstadisticasFinancieras(int idUsuario) {
         try {
             int yearActual = Calendar.getInstance().get(Calendar.YEAR);
+            ResumenDashboardProjection cifras = obtenerCifras(idUsuario, yearActual);
 
             // Aportes por sistema
-            List<AportePension> aportesONP = aportePensionRepository
-                    .findByUsuarioAndSistema(idUsuario, "Pensiones");
-            List<AportePension> aportesAFP = aportePensionRepository
-                    .findByUsuarioAndSistema(idUsuario, "Financiera");
-
-            Double montoONP = aportesONP.stream()
-                    .mapToDouble(a -> a.getMontoAporte() != null ? a.getMontoAporte() : 0)
-                    .sum();
+            double montoONP = valor(cifras.getMontoOnp());
+            double montoAFP = valor(cifras.getMontoAfp());
 
-            Double montoAFP = aportesAFP.stream()
-                    .mapToDouble(a -> a.getMontoAporte() != null ? a.getMontoAporte() : 0)
-                    .sum();
-
-            Double totalAportes = montoONP + montoAFP;
+            double totalAportes = montoONP + montoAFP;
 
             // Distribución de aportes
-            HashMap<String, Object> distribucion = new HashMap<>();
-            distribucion.put("onp", montoONP);
-            distribucion.put("afp", montoAFP);
-            distribucion.put("total", totalAportes);
-            distribucion.put("porcentajeONP", totalAportes > 0 ? (montoONP / totalAportes) * 100 : 0);
-            distribucion.put("porcentajeAFP", totalAportes > 0 ? (montoAFP / totalAportes) * 100 : 0);
-
-            estadisticas.put("distribucionAportes", distribucion);
-
-            // Tendencia de aportes (últimos 3 años)
-            List<HashMap<String, Object>> tendencia = new ArrayList<>();
-            for (int i = 2; i >= 0; i--) {
-                int year = yearActual - i;
-                Double total = aportePensionRepository.sumAportesUsuarioYear(idUsuario, year);
-
-                HashMap<String, Object> yearData = new HashMap<>();
-                yearData.put("year", year);
-                yearData.put("total", total != null ? total : 0);
-                tendencia.add(yearData);
+            EstadisticasFinancierasResponse.DistribucionAportes distribucion =
+                    new EstadisticasFinancierasResponse.DistribucionAportes(
+                            montoONP,
+                            montoAFP,
+                            totalAportes,
+                            totalAportes > 0 ? (montoONP / totalAportes) * 100 : 0,
+                            totalAportes > 0 ? (montoAFP / totalAportes) * 100 : 0);
+
+            // Tendencia de aportes (últimos 3 años), agrupada en la base de datos
+            TendenciaAportes tendenciaAportes = tendenciaAportesService.obtenerTendenciaAnual(idUsuario, YEARS_TENDENCIA);
+            List<EstadisticasFinancierasResponse.TendenciaYear> tendencia = new ArrayList<>();
+            for (TendenciaAportes.Punto punto : tendenciaAportes.puntos()) {
+                tendencia.add(new EstadisticasFinancierasResponse.TendenciaYear(punto.year(), punto.total()));
             }
-            estadisticas.put("tendenciaAportes", tendencia);
 
             // Comparativo año actual vs anterior
-            Double aportesYearActual = aportePensionRepository
-                    .sumAportesUsuarioYear(idUsuario, yearActual);
-            Double aportesYearAnterior = aportePensionRepository
-                    .sumAportesUsuarioYear(idUsuario, yearActual - 1);
-
-            HashMap<String, Object> comparativo = new HashMap<>();
-            comparativo.put("yearActual", yearActual);
-            comparativo.put("montoYearActual", aportesYearActual != null ? aportesYearActual : 0);
-            comparativo.put("yearAnterior", yearActual - 1);
-            comparativo.put("montoYearAnterior", aportesYearAnterior != null ? aportesYearAnterior : 0);
-
-            if (aportesYearAnterior != null && aportesYearAnterior > 0 && aportesYearActual != null) {
-                double variacion = ((aportesYearActual - aportesYearAnterior) / aportesYearAnterior) * 100;
-                comparativo.put("variacionPorcentual", variacion);
-                comparativo.put("tendencia", variacion >= 0 ? "positiva" : "negativa");
+            double aportesYearActual = tendenciaAportes.ultimo().total();
+            double aportesYearAnterior = tendenciaAportes.penultimo().total();
+
+            Double variacion = null;
+            String tendenciaVariacion = null;
+            if (aportesYearAnterior > 0) {
+                variacion = ((aportesYearActual - aportesYearAnterior) / aportesYearAnterior) * 100;
+                tendenciaVariacion = variacion >= 0 ? "positiva" : "negativa";
             }
 
-            estadisticas.put("comparativoAnual", comparativo);
-            estadisticas.put("exitoso", true);
+            EstadisticasFinancierasResponse.ComparativoAnual comparativo =
+                    new EstadisticasFinancierasResponse.ComparativoAnual(
+                            yearActual, aportesYearActual, yearActual - 1, aportesYearAnterior,
+                            variacion, tendenciaVariacion);
+
+            return new EstadisticasFinancierasResponse(distribucion, tendencia, comparativo, true, null);
 
         } catch (Exception e) {
             logger.error("Error al obtener estadísticas financieras: {}", e.getMessage(), e);
-            estadisticas.put("exitoso", false);
-            estadisticas.put("mensaje", "Error al obtener estadísticas financieras");
+            return EstadisticasFinancierasResponse.error("Error al obtener estadísticas financieras");
+        }
+    }
+
+    /**
+     * Ejecuta la consulta agregada del dashboard para el usuario
+     */
+    private ResumenDashboardProjection obtenerCifras(int idUsuario, int yearActual) {
+        LocalDate hoy = LocalDate.now();
+        return dashboardRepository.obtenerResumen(idUsuario, yearActual, hoy, hoy.plusDays(30), hoy.minusMonths(3));
+    }
+
+    /**
+     * Construye las alertas del usuario a partir de las cifras agregadas
+     */
+    private AlertasResponse construirAlertas(ResumenDashboardProjection cifras) {
+        List<AlertasResponse.Alerta> alertas = new ArrayList<>();
+        long totalAlertas = 0;
+
+        // ALERTA 1: Seguros próximos a vencer (30 días)
+        long segurosPorVencer = valor(cifras.getSegurosPorVencer());
+        if (segurosPorVencer > 0) {
+            alertas.add(new AlertasResponse.Alerta("warning", "Seguros próximos a vencer",
+                    segurosPorVencer + " seguro(s) vencen en los próximos 30 días",
+                    segurosPorVencer, null, "AlertTriangle"));
+            totalAlertas += segurosPorVencer;
+        }
+
+        // ALERTA 2: Pagos pendientes
+        long pagosPendientes = valor(cifras.getPagosPendientes());
+        if (pagosPendientes > 0) {
+            alertas.add(new AlertasResponse.Alerta("danger", "Pagos pendientes",
+                    "Tienes " + pagosPendientes + " pago(s) pendiente(s)",
+                    pagosPendientes, valor(cifras.getMontoPendiente()), "CreditCard"));
+            totalAlertas += pagosPendientes;
         }
 
-        return estadisticas;
+        // ALERTA 3: Trámites pendientes
+        long tramitesPendientes = valor(cifras.getTramitesPendientes());
+        if (tramitesPendientes > 0) {
+            alertas.add(new AlertasResponse.Alerta("info", "Trámites en proceso",
+                    tramitesPendientes + " trámite(s) en proceso o pendiente(s)",
+                    tramitesPendientes, null, "FileText"));
+            totalAlertas += tramitesPendientes;
+        }
+
+        // ALERTA 4: Sin aportes recientes (últimos 3 meses)
+        if (valor(cifras.getAportesRecientes()) == 0) {
+            alertas.add(new AlertasResponse.Alerta("warning", "Sin aportes recientes",
+                    "No se han registrado aportes en los últimos 3 meses",
+                    null, null, "AlertCircle"));
+            totalAlertas++;
+        }
+
+        return new AlertasResponse(alertas, totalAlertas, true, null);
+    }
+
+    private static double valor(Double numero) {
+        return numero != null ? numero : 0.0;
+    }
+
+    private static long valor(Long numero) {
+        return numero != null ? numero : 0L;
     }
 
     /**
@@ -468,4 +389,4 @@ public class DashboardServiceImpl implements DashboardService {
             default: return "Activity";
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,27 @@
+package com.app.financiera.service;
+
+/**
+ * Evento publicado cuando cambian datos que alimentan el dashboard de un usuario
+ * (perfil, saldos, aportes, pólizas, pagos, trámites, consultas o historial de consultas)
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+public class DatosUsuarioModificadosEvent {
+
+    private final int idUsuario;
+    private final String origen;
+
+    public DatosUsuarioModificadosEvent(int idUsuario, String origen) {
+        this.idUsuario = idUsuario;
+        this.origen = origen;
+    }
+
+    public int getIdUsuario() {
+        return idUsuario;
+    }
+
+    public String getOrigen() {
+        return origen;
+    }
+}
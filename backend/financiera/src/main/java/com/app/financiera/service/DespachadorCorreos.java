@@ -0,0 +1,344 @@
+package com.app.financiera.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.app.financiera.entity.CorreoSaliente;
+import com.app.financiera.repository.CorreoSalienteRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.internet.MimeMessage;
+
+/**
+ * Envía en segundo plano los correos de la bandeja de salida (tabla correo_saliente).
+ * Un hilo coordinador toma lotes de correos listos con FOR UPDATE SKIP LOCKED y los reparte
+ * entre un grupo acotado de hilos de envío; cada lote se envía por una sola conexión SMTP.
+ * Los envíos fallidos se reintentan con espera exponencial hasta el máximo de intentos.
+ * Ningún hilo de envío mantiene una conexión a la base de datos mientras habla con el servidor SMTP.
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+@Component
+public class DespachadorCorreos {
+
+    private static final Logger logger = LoggerFactory.getLogger(DespachadorCorreos.class);
+
+    private static final int MAX_LONGITUD_ERROR = 500;
+    private static final Duration INTERVALO_DEPURACION = Duration.ofHours(1);
+
+    @Autowired
+    private CorreoSalienteRepository correoSalienteRepository;
+
+    @Autowired
+    private JavaMailSender mailSender;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${spring.mail.username:noreply@financiera.com}")
+    private String fromEmail;
+
+    @Value("${correo.despacho.hilos:2}")
+    private int hilos;
+
+    // Correos enviados por cada conexión SMTP
+    @Value("${correo.despacho.tamano-lote:20}")
+    private int tamanoLote;
+
+    @Value("${correo.despacho.intervalo-ms:5000}")
+    private long intervaloMs;
+
+    @Value("${correo.despacho.max-intentos:5}")
+    private int maxIntentos;
+
+    @Value("${correo.despacho.espera-base-segundos:30}")
+    private long esperaBaseSegundos;
+
+    // Tiempo tras el cual un correo "Enviando" se considera abandonado y se vuelve a tomar
+    @Value("${correo.despacho.bloqueo-minutos:10}")
+    private long bloqueoMinutos;
+
+    @Value("${correo.despacho.retencion-dias:7}")
+    private int retencionDias;
+
+    private final AtomicLong enviados = new AtomicLong();
+    private final AtomicLong reintentos = new AtomicLong();
+    private final AtomicLong fallidosDefinitivos = new AtomicLong();
+    private final AtomicLong sumaLatenciaMs = new AtomicLong();
+    private final AtomicLong maxLatenciaMs = new AtomicLong();
+
+    private final Semaphore senal = new Semaphore(0);
+
+    private TransactionTemplate transactionTemplate;
+    private ExecutorService trabajadores;
+    private Thread coordinador;
+    private volatile boolean activo;
+    private LocalDateTime ultimaDepuracion = LocalDateTime.MIN;
+
+    @PostConstruct
+    public void iniciar() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        AtomicInteger contador = new AtomicInteger();
+        trabajadores = Executors.newFixedThreadPool(hilos, tarea -> {
+            Thread hilo = new Thread(tarea, "correo-envio-" + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+
+        activo = true;
+        coordinador = new Thread(this::ciclo, "correo-despachador");
+        coordinador.setDaemon(true);
+        coordinador.start();
+    }
+
+    @PreDestroy
+    public void detener() throws InterruptedException {
+        activo = false;
+        coordinador.interrupt();
+        trabajadores.shutdown();
+        if (!trabajadores.awaitTermination(10, TimeUnit.SECONDS)) {
+            trabajadores.shutdownNow();
+        }
+    }
+
+    // Después del commit: el correo recién registrado ya es visible para el coordinador
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alEncolarCorreo(CorreoEncoladoEvent evento) {
+        despertar();
+    }
+
+    public void despertar() {
+        if (senal.availablePermits() == 0) {
+            senal.release();
+        }
+    }
+
+    public HashMap<String, Object> obtenerEstadisticas() {
+        long totalEnviados = enviados.get();
+
+        HashMap<String, Object> estadisticas = new HashMap<>();
+        estadisticas.put("pendientes", correoSalienteRepository.countByEstado("Pendiente"));
+        estadisticas.put("enviando", correoSalienteRepository.countByEstado("Enviando"));
+        estadisticas.put("fallidos", correoSalienteRepository.countByEstado("Fallido"));
+        estadisticas.put("enviadosDesdeInicio", totalEnviados);
+        estadisticas.put("reintentosProgramados", reintentos.get());
+        estadisticas.put("fallidosDefinitivos", fallidosDefinitivos.get());
+        estadisticas.put("latenciaPromedioMs", totalEnviados > 0 ? sumaLatenciaMs.get() / totalEnviados : 0);
+        estadisticas.put("latenciaMaximaMs", maxLatenciaMs.get());
+        estadisticas.put("hilos", hilos);
+        estadisticas.put("tamanoLote", tamanoLote);
+        return estadisticas;
+    }
+
+    private void ciclo() {
+        while (activo) {
+            try {
+                senal.tryAcquire(intervaloMs, TimeUnit.MILLISECONDS);
+                senal.drainPermits();
+
+                // Mientras se llenen las rondas completas probablemente quedan más correos listos
+                while (activo && despacharRonda()) {
+                    // continuar drenando
+                }
+                depurarEnviados();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                logger.error("Error en el despacho de correos: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Toma hasta hilos × tamanoLote correos, los envía y registra el resultado.
+     * Retorna true si la ronda se llenó.
+     */
+    private boolean despacharRonda() throws InterruptedException {
+        int capacidad = hilos * tamanoLote;
+
+        List<CorreoSaliente> correos = transactionTemplate.execute(status -> {
+            LocalDateTime ahora = LocalDateTime.now();
+            List<Integer> ids = correoSalienteRepository.bloquearListos(
+                    ahora, ahora.minusMinutes(bloqueoMinutos), capacidad);
+            if (ids.isEmpty()) {
+                return List.<CorreoSaliente>of();
+            }
+            correoSalienteRepository.marcarEnviando(ids, ahora);
+            return correoSalienteRepository.findAllById(ids);
+        });
+
+        if (correos == null || correos.isEmpty()) {
+            return false;
+        }
+
+        List<Future<ResultadoLote>> tareas = new ArrayList<>();
+        for (int desde = 0; desde < correos.size(); desde += tamanoLote) {
+            List<CorreoSaliente> lote = correos.subList(desde, Math.min(desde + tamanoLote, correos.size()));
+            tareas.add(trabajadores.submit(() -> enviarLote(lote)));
+        }
+
+        List<CorreoSaliente> exitosos = new ArrayList<>();
+        Map<CorreoSaliente, String> errores = new IdentityHashMap<>();
+        for (Future<ResultadoLote> tarea : tareas) {
+            try {
+                ResultadoLote resultado = tarea.get();
+                exitosos.addAll(resultado.exitosos);
+                errores.putAll(resultado.errores);
+            } catch (ExecutionException e) {
+                // Los correos de ese lote quedan "Enviando" y se retoman cuando venza el bloqueo
+                logger.error("Error inesperado al enviar un lote de correos: {}", e.getCause().getMessage());
+            }
+        }
+
+        registrarResultados(exitosos, errores);
+        return correos.size() == capacidad;
+    }
+
+    private ResultadoLote enviarLote(List<CorreoSaliente> lote) {
+        ResultadoLote resultado = new ResultadoLote();
+        Map<MimeMessage, CorreoSaliente> porMensaje = new IdentityHashMap<>();
+
+        for (CorreoSaliente correo : lote) {
+            try {
+                porMensaje.put(construirMensaje(correo), correo);
+            } catch (Exception e) {
+                resultado.errores.put(correo, e.getMessage());
+            }
+        }
+
+        if (!porMensaje.isEmpty()) {
+            try {
+                // JavaMailSender abre una sola conexión SMTP para todos los mensajes del arreglo
+                mailSender.send(porMensaje.keySet().toArray(new MimeMessage[0]));
+            } catch (MailSendException e) {
+                Map<Object, Exception> fallidos = e.getFailedMessages();
+                if (fallidos.isEmpty()) {
+                    porMensaje.values().forEach(correo -> resultado.errores.put(correo, e.getMessage()));
+                } else {
+                    fallidos.forEach((mensaje, error) -> {
+                        CorreoSaliente correo = porMensaje.get(mensaje);
+                        if (correo != null) {
+                            resultado.errores.put(correo, error.getMessage());
+                        }
+                    });
+                }
+            } catch (MailException e) {
+                porMensaje.values().forEach(correo -> resultado.errores.put(correo, e.getMessage()));
+            }
+
+            for (CorreoSaliente correo : porMensaje.values()) {
+                if (!resultado.errores.containsKey(correo)) {
+                    resultado.exitosos.add(correo);
+                }
+            }
+        }
+        return resultado;
+    }
+
+    private MimeMessage construirMensaje(CorreoSaliente correo) throws Exception {
+        MimeMessage mimeMessage = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, correo.isEsHtml(), "UTF-8");
+        helper.setFrom(fromEmail);
+        helper.setTo(correo.getDestinatario());
+        helper.setSubject(correo.getAsunto());
+        helper.setText(correo.getContenido(), correo.isEsHtml());
+        return mimeMessage;
+    }
+
+    private void registrarResultados(List<CorreoSaliente> exitosos, Map<CorreoSaliente, String> errores) {
+        LocalDateTime ahora = LocalDateTime.now();
+
+        List<Integer> idsEnviados = new ArrayList<>(exitosos.size());
+        for (CorreoSaliente correo : exitosos) {
+            idsEnviados.add(correo.getIdCorreo());
+            long latencia = Duration.between(correo.getFechaCreacion(), ahora).toMillis();
+            sumaLatenciaMs.addAndGet(latencia);
+            maxLatenciaMs.accumulateAndGet(latencia, Math::max);
+        }
+
+        List<CorreoSaliente> fallidos = new ArrayList<>(errores.size());
+        errores.forEach((correo, error) -> {
+            int intentos = correo.getIntentos() + 1;
+            correo.setIntentos(intentos);
+            correo.setUltimoError(error != null && error.length() > MAX_LONGITUD_ERROR
+                    ? error.substring(0, MAX_LONGITUD_ERROR) : error);
+            if (intentos >= maxIntentos) {
+                correo.setEstado("Fallido");
+                fallidosDefinitivos.incrementAndGet();
+                logger.error("Correo {} a {} descartado tras {} intentos: {}",
+                        correo.getIdCorreo(), correo.getDestinatario(), intentos, error);
+            } else {
+                long espera = esperaBaseSegundos * (1L << Math.min(intentos - 1, 10));
+                correo.setEstado("Pendiente");
+                correo.setProximoIntento(ahora.plusSeconds(espera));
+                reintentos.incrementAndGet();
+                logger.warn("Error al enviar correo {} a {} (intento {}), reintento en {} s: {}",
+                        correo.getIdCorreo(), correo.getDestinatario(), intentos, espera, error);
+            }
+            fallidos.add(correo);
+        });
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!idsEnviados.isEmpty()) {
+                correoSalienteRepository.marcarEnviados(idsEnviados, ahora);
+            }
+            if (!fallidos.isEmpty()) {
+                correoSalienteRepository.saveAll(fallidos);
+            }
+        });
+
+        enviados.addAndGet(idsEnviados.size());
+        if (!idsEnviados.isEmpty()) {
+            logger.info("Correos enviados: {}, con error: {}", idsEnviados.size(), fallidos.size());
+        }
+    }
+
+    private void depurarEnviados() {
+        LocalDateTime ahora = LocalDateTime.now();
+        if (ultimaDepuracion.plus(INTERVALO_DEPURACION).isAfter(ahora)) {
+            return;
+        }
+        ultimaDepuracion = ahora;
+
+        Integer eliminados = transactionTemplate.execute(status ->
+                correoSalienteRepository.eliminarEnviadosAntesDe(ahora.minusDays(retencionDias)));
+        if (eliminados != null && eliminados > 0) {
+            logger.info("Depuración de la bandeja de salida: {} correos enviados eliminados", eliminados);
+        }
+    }
+
+    private static final class ResultadoLote {
+        private final List<CorreoSaliente> exitosos = new ArrayList<>();
+        private final Map<CorreoSaliente, String> errores = new IdentityHashMap<>();
+    }
+}
@@ -0,0 +1,283 @@
+package com.app.financiera.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.app.financiera.dto.NotificacionEvento;
+import com.app.financiera.entity.Notificacion;
+import com.app.financiera.repository.NotificacionRepository;
+import com.app.financiera.util.CubetaTokens;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Tarea programada que despacha las notificaciones pendientes.
+ * Cada lote se toma con FOR UPDATE SKIP LOCKED (varias instancias pueden ejecutarla a la vez),
+ * se ordena por prioridad y se entrega por canal respetando el límite de envíos por segundo
+ * de cada canal. Las que superan el límite quedan pendientes para el siguiente ciclo.
+ * El estado de todo el lote se actualiza con una sentencia por estado resultante, y cada entrega
+ * se publica como NotificacionCambiadaEvent (ENVIADA) para mostrarse por SSE tras el commit.
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+@Component
+public class DespachadorNotificaciones {
+
+    private static final Logger logger = LoggerFactory.getLogger(DespachadorNotificaciones.class);
+
+    public static final String CANAL_EMAIL = "Email";
+    public static final String CANAL_SISTEMA = "Sistema";
+
+    // Evita que un ciclo con muchos lotes llenos se prolongue indefinidamente
+    private static final int MAX_LOTES_POR_CICLO = 50;
+
+    private static final Comparator<Notificacion> POR_PRIORIDAD = Comparator
+            .comparingInt((Notificacion n) -> rangoPrioridad(n.getPrioridad()))
+            .thenComparing(Notificacion::getFechaEnvio, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    @Autowired
+    private NotificacionRepository notificacionRepository;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${notificacion.despacho.tamano-lote:100}")
+    private int tamanoLote;
+
+    @Value("${notificacion.despacho.email-por-segundo:5}")
+    private double emailPorSegundo;
+
+    @Value("${notificacion.despacho.sistema-por-segundo:200}")
+    private double sistemaPorSegundo;
+
+    @Value("${notificacion.despacho.intervalo-ms:5000}")
+    private long intervaloMs;
+
+    private final AtomicLong enviadas = new AtomicLong();
+    private final AtomicLong errores = new AtomicLong();
+    private final AtomicLong diferidas = new AtomicLong();
+    private final long inicioNanos = System.nanoTime();
+
+    private volatile double tasaUltimoCiclo;
+    private volatile long lagPromedioUltimoCicloMs;
+    private volatile long lagMaximoUltimoCicloMs;
+
+    private TransactionTemplate transactionTemplate;
+    private TransactionTemplate entregaAislada;
+    private Map<String, CubetaTokens> limites;
+
+    @PostConstruct
+    public void iniciar() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        // Cada entrega por correo corre en un savepoint: si falla el registro en la bandeja de salida
+        // solo se deshace esa entrega y el resto del lote se confirma
+        entregaAislada = new TransactionTemplate(transactionManager);
+        entregaAislada.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+        // La ráfaga cubre un intervalo completo entre ciclos: los tokens que se recargan mientras
+        // el despachador espera se gastan en el ciclo siguiente y el canal sostiene su tasa nominal
+        double segundosPorCiclo = intervaloMs / 1000d;
+        limites = Map.of(
+                CANAL_EMAIL, new CubetaTokens(Math.max(1, emailPorSegundo * segundosPorCiclo), emailPorSegundo),
+                CANAL_SISTEMA, new CubetaTokens(Math.max(1, sistemaPorSegundo * segundosPorCiclo), sistemaPorSegundo));
+    }
+
+    @Scheduled(fixedDelayString = "${notificacion.despacho.intervalo-ms:5000}")
+    public void despachar() {
+        long inicio = System.nanoTime();
+        ResultadoLote total = new ResultadoLote();
+
+        try {
+            for (int i = 0; i < MAX_LOTES_POR_CICLO; i++) {
+                ResultadoLote lote = transactionTemplate.execute(status -> despacharLote());
+                if (lote == null || lote.tomadas == 0) {
+                    break;
+                }
+                total.acumular(lote);
+                enviadas.addAndGet(lote.enviadas);
+                errores.addAndGet(lote.errores);
+                diferidas.addAndGet(lote.diferidas);
+                // Si hubo diferidas o el lote no se llenó, no hay más trabajo útil en este ciclo
+                if (lote.diferidas > 0 || lote.tomadas < tamanoLote) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Error en el despacho de notificaciones: {}", e.getMessage(), e);
+        }
+
+        int procesadas = total.enviadas + total.errores;
+        if (total.tomadas > 0) {
+            double segundos = Math.max(1e-3, (System.nanoTime() - inicio) / 1_000_000_000d);
+            tasaUltimoCiclo = procesadas / segundos;
+            lagPromedioUltimoCicloMs = procesadas > 0 ? total.sumaLagMs / procesadas : 0;
+            lagMaximoUltimoCicloMs = total.maxLagMs;
+            logger.info("Notificaciones despachadas: {} enviadas, {} con error, {} diferidas por límite de canal",
+                    total.enviadas, total.errores, total.diferidas);
+        }
+    }
+
+    public HashMap<String, Object> obtenerEstadisticas() {
+        long totalProcesadas = enviadas.get() + errores.get();
+        double segundosActivo = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - inicioNanos));
+
+        HashMap<String, Object> estadisticas = new HashMap<>();
+        estadisticas.put("pendientes", notificacionRepository.countByEstado("Pendiente"));
+        estadisticas.put("enviadas", enviadas.get());
+        estadisticas.put("errores", errores.get());
+        estadisticas.put("diferidasPorLimite", diferidas.get());
+        estadisticas.put("notificacionesPorSegundoUltimoCiclo", tasaUltimoCiclo);
+        estadisticas.put("notificacionesPorSegundoPromedio", totalProcesadas / segundosActivo);
+        estadisticas.put("lagPromedioMs", lagPromedioUltimoCicloMs);
+        estadisticas.put("lagMaximoMs", lagMaximoUltimoCicloMs);
+        estadisticas.put("limiteEmailPorSegundo", emailPorSegundo);
+        estadisticas.put("limiteSistemaPorSegundo", sistemaPorSegundo);
+        return estadisticas;
+    }
+
+    // Se ejecuta dentro de una transacción: los bloqueos se liberan al confirmar
+    private ResultadoLote despacharLote() {
+        ResultadoLote resultado = new ResultadoLote();
+        LocalDateTime ahora = LocalDateTime.now();
+
+        List<Integer> ids = notificacionRepository.bloquearPendientes(ahora, tamanoLote);
+        if (ids.isEmpty()) {
+            return resultado;
+        }
+        resultado.tomadas = ids.size();
+
+        List<Notificacion> notificaciones = new ArrayList<>(notificacionRepository.findConUsuarioByIds(ids));
+        notificaciones.sort(POR_PRIORIDAD);
+
+        List<Notificacion> entregadas = new ArrayList<>();
+        List<Integer> idsEnviadas = new ArrayList<>();
+        List<Integer> idsError = new ArrayList<>();
+
+        for (Notificacion notificacion : notificaciones) {
+            String canal = normalizarCanal(notificacion.getCanal());
+            CubetaTokens limite = limites.get(canal);
+            if (limite == null) {
+                logger.warn("Notificación {} con canal no soportado: {}", notificacion.getIdNotificacion(), notificacion.getCanal());
+                idsError.add(notificacion.getIdNotificacion());
+                continue;
+            }
+            if (!limite.intentarConsumir()) {
+                resultado.diferidas++;
+                continue;
+            }
+
+            try {
+                if (CANAL_EMAIL.equals(canal)) {
+                    entregaAislada.executeWithoutResult(status -> entregar(notificacion, canal));
+                } else {
+                    entregar(notificacion, canal);
+                }
+                entregadas.add(notificacion);
+                idsEnviadas.add(notificacion.getIdNotificacion());
+            } catch (Exception e) {
+                logger.error("Error al entregar la notificación {}: {}", notificacion.getIdNotificacion(), e.getMessage());
+                idsError.add(notificacion.getIdNotificacion());
+            }
+
+            if (notificacion.getFechaEnvio() != null) {
+                long lag = Math.max(0, Duration.between(notificacion.getFechaEnvio(), ahora).toMillis());
+                resultado.sumaLagMs += lag;
+                resultado.maxLagMs = Math.max(resultado.maxLagMs, lag);
+            }
+        }
+
+        if (!idsEnviadas.isEmpty()) {
+            notificacionRepository.actualizarEstado(idsEnviadas, "Enviada");
+            // Los listeners de transacción lo reciben solo si el lote se confirma
+            for (Notificacion notificacion : entregadas) {
+                eventPublisher.publishEvent(new NotificacionCambiadaEvent(notificacion.getUsuario().getIdUsuario(),
+                        NotificacionCambiadaEvent.Tipo.ENVIADA, NotificacionEvento.de(notificacion),
+                        notificacion.getFechaLectura() == null));
+            }
+        }
+        if (!idsError.isEmpty()) {
+            notificacionRepository.actualizarEstado(idsError, "Error");
+        }
+
+        resultado.enviadas = idsEnviadas.size();
+        resultado.errores = idsError.size();
+        return resultado;
+    }
+
+    private void entregar(Notificacion notificacion, String canal) {
+        if (CANAL_EMAIL.equals(canal)) {
+            String correo = notificacion.getUsuario().getCorreo();
+            if (correo == null || correo.isBlank()) {
+                throw new IllegalStateException("El usuario no tiene correo registrado");
+            }
+            // Se registra en la bandeja de salida dentro del savepoint de esta entrega
+            String asunto = notificacion.getAsunto() != null ? notificacion.getAsunto() : notificacion.getTipoNotificacion();
+            emailService.enviarCorreoSimple(correo, asunto, notificacion.getMensaje());
+        }
+        // Canal Sistema: la notificación queda visible en la aplicación al marcarse como Enviada
+    }
+
+    private static String normalizarCanal(String canal) {
+        if (canal == null || canal.isBlank() || "Push".equalsIgnoreCase(canal) || CANAL_SISTEMA.equalsIgnoreCase(canal)) {
+            return CANAL_SISTEMA;
+        }
+        if (CANAL_EMAIL.equalsIgnoreCase(canal)) {
+            return CANAL_EMAIL;
+        }
+        return canal;
+    }
+
+    private static int rangoPrioridad(String prioridad) {
+        if (prioridad == null) {
+            return 3;
+        }
+        return switch (prioridad) {
+            case "Urgente" -> 0;
+            case "Alta" -> 1;
+            case "Media" -> 2;
+            default -> 3;
+        };
+    }
+
+    private static final class ResultadoLote {
+        private int tomadas;
+        private int enviadas;
+        private int errores;
+        private int diferidas;
+        private long sumaLagMs;
+        private long maxLagMs;
+
+        private void acumular(ResultadoLote otro) {
+            tomadas += otro.tomadas;
+            enviadas += otro.enviadas;
+            errores += otro.errores;
+            diferidas += otro.diferidas;
+            sumaLagMs += otro.sumaLagMs;
+            maxLagMs = Math.max(maxLagMs, otro.maxLagMs);
+        }
+    }
+}
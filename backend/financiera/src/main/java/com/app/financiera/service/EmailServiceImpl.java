@@ -1,80 +1,73 @@
 package com.app.financiera.service;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.Map;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
-import jakarta.mail.internet.MimeMessage;
-
+import com.app.financiera.entity.CorreoSaliente;
+import com.app.financiera.repository.CorreoSalienteRepository;
+
+/**
+ * Los correos no se envían en el hilo de la petición: se registran en la bandeja de salida
+ * (en la transacción del llamador, si existe) y DespachadorCorreos los envía en segundo plano.
+ * Los cuerpos HTML salen de las plantillas precompiladas de MotorPlantillasCorreo.
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
 @Service
 public class EmailServiceImpl implements EmailService {
 
     private static final Logger logger = LoggerFactory.getLogger(EmailServiceImpl.class);
 
     @Autowired
-    private JavaMailSender mailSender;
+    private CorreoSalienteRepository correoSalienteRepository;
 
-    @Value("${spring.mail.username:noreply@financiera.com}")
-    private String fromEmail;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MotorPlantillasCorreo motorPlantillas;
 
     @Override
     public void enviarCorreoSimple(String destinatario, String asunto, String mensaje) {
-        try {
-            SimpleMailMessage mailMessage = new SimpleMailMessage();
-            mailMessage.setFrom(fromEmail);
-            mailMessage.setTo(destinatario);
-            mailMessage.setSubject(asunto);
-            mailMessage.setText(mensaje);
-
-            mailSender.send(mailMessage);
-            logger.info("Correo enviado exitosamente a: {}", destinatario);
-        } catch (Exception e) {
-            logger.error("Error al enviar correo a {}: {}", destinatario, e.getMessage());
-        }
+        encolar(destinatario, asunto, mensaje, false);
     }
 
     @Override
     public void enviarCorreoHTML(String destinatario, String asunto, String contenidoHTML) {
-        try {
-            MimeMessage mimeMessage = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
-
-            helper.setFrom(fromEmail);
-            helper.setTo(destinatario);
-            helper.setSubject(asunto);
-            helper.setText(contenidoHTML, true);
-
-            mailSender.send(mimeMessage);
-            logger.info("Correo HTML enviado exitosamente a: {}", destinatario);
-        } catch (Exception e) {
-            logger.error("Error al enviar correo HTML a {}: {}", destinatario, e.getMessage());
-        }
+        encolar(destinatario, asunto, contenidoHTML, true);
+    }
+
+    // Si el registro falla la excepción se propaga: tragarla dejaría la transacción del llamador
+    // marcada como rollback-only y el llamador creería que el correo quedó encolado
+    private void encolar(String destinatario, String asunto, String contenido, boolean esHtml) {
+        CorreoSaliente correo = new CorreoSaliente();
+        correo.setDestinatario(destinatario);
+        correo.setAsunto(asunto);
+        correo.setContenido(contenido);
+        correo.setEsHtml(esHtml);
+
+        correoSalienteRepository.save(correo);
+        eventPublisher.publishEvent(new CorreoEncoladoEvent(correo.getIdCorreo()));
+        logger.info("Correo encolado para: {}", destinatario);
     }
 
     @Override
     public void enviarNotificacionVencimientoSeguro(String destinatario, String nombreUsuario,
                                                     String tipoSeguro, String fechaVencimiento) {
         String asunto = "⚠️ Recordatorio: Vencimiento de Seguro";
-        String contenido = String.format("""
-            <html>
-            <body style="font-family: Arial, sans-serif;">
-                <h2 style="color: #ff6b6b;">Recordatorio de Vencimiento</h2>
-                <p>Estimado/a <strong>%s</strong>,</p>
-                <p>Le recordamos que su <strong>%s</strong> está próximo a vencer.</p>
-                <p><strong>Fecha de vencimiento:</strong> %s</p>
-                <p>Por favor, renueve su póliza para mantener su cobertura activa.</p>
-                <hr>
-                <p style="font-size: 12px; color: #666;">
-                    Este es un mensaje automático del Sistema Financiero.
-                </p>
-            </body>
-            </html>
-            """, nombreUsuario, tipoSeguro, fechaVencimiento);
+        String contenido = motorPlantillas.renderizar("vencimiento-seguro", valores(
+                "nombreUsuario", nombreUsuario,
+                "tipoSeguro", tipoSeguro,
+                "fechaVencimiento", fechaVencimiento));
 
         enviarCorreoHTML(destinatario, asunto, contenido);
     }
@@ -83,24 +76,10 @@ public class EmailServiceImpl implements EmailService {
     public void enviarNotificacionPagoPendiente(String destinatario, String nombreUsuario,
                                                 String concepto, Double monto) {
         String asunto = "💳 Pago Pendiente - Sistema Financiero";
-        String contenido = String.format("""
-            <html>
-            <body style="font-family: Arial, sans-serif;">
-                <h2 style="color: #4CAF50;">Pago Pendiente</h2>
-                <p>Estimado/a <strong>%s</strong>,</p>
-                <p>Tiene un pago pendiente:</p>
-                <ul>
-                    <li><strong>Concepto:</strong> %s</li>
-                    <li><strong>Monto:</strong> S/ %.2f</li>
-                </ul>
-                <p>Por favor, realice el pago a la brevedad posible.</p>
-                <hr>
-                <p style="font-size: 12px; color: #666;">
-                    Sistema Financiero - Gestión de Pensiones y Seguros
-                </p>
-            </body>
-            </html>
-            """, nombreUsuario, concepto, monto);
+        String contenido = motorPlantillas.renderizar("pago-pendiente", valores(
+                "nombreUsuario", nombreUsuario,
+                "concepto", concepto,
+                "monto", formatearMonto(monto)));
 
         enviarCorreoHTML(destinatario, asunto, contenido);
     }
@@ -109,24 +88,10 @@ public class EmailServiceImpl implements EmailService {
     public void enviarNotificacionAporteRegistrado(String destinatario, String nombreUsuario,
                                                    Double monto, String periodo) {
         String asunto = "✅ Aporte Registrado Exitosamente";
-        String contenido = String.format("""
-            <html>
-            <body style="font-family: Arial, sans-serif;">
-                <h2 style="color: #2196F3;">Aporte Registrado</h2>
-                <p>Estimado/a <strong>%s</strong>,</p>
-                <p>Su aporte ha sido registrado exitosamente:</p>
-                <ul>
-                    <li><strong>Monto:</strong> S/ %.2f</li>
-                    <li><strong>Periodo:</strong> %s</li>
-                </ul>
-                <p>Puede consultar el detalle en su panel financiero.</p>
-                <hr>
-                <p style="font-size: 12px; color: #666;">
-                    Sistema Financiero - Gestión de Pensiones
-                </p>
-            </body>
-            </html>
-            """, nombreUsuario, monto, periodo);
+        String contenido = motorPlantillas.renderizar("aporte-registrado", valores(
+                "nombreUsuario", nombreUsuario,
+                "monto", formatearMonto(monto),
+                "periodo", periodo));
 
         enviarCorreoHTML(destinatario, asunto, contenido);
     }
@@ -135,24 +100,10 @@ public class EmailServiceImpl implements EmailService {
     public void enviarNotificacionAsesoramiento(String destinatario, String nombreUsuario,
                                                 String tipoAsesoramiento, String fechaHora) {
         String asunto = "📅 Asesoramiento Programado";
-        String contenido = String.format("""
-            <html>
-            <body style="font-family: Arial, sans-serif;">
-                <h2 style="color: #9C27B0;">Asesoramiento Programado</h2>
-                <p>Estimado/a <strong>%s</strong>,</p>
-                <p>Su asesoramiento ha sido programado:</p>
-                <ul>
-                    <li><strong>Tipo:</strong> %s</li>
-                    <li><strong>Fecha y Hora:</strong> %s</li>
-                </ul>
-                <p>Un asesor se pondrá en contacto con usted en la fecha indicada.</p>
-                <hr>
-                <p style="font-size: 12px; color: #666;">
-                    Sistema Financiero - Asesoramiento Personalizado
-                </p>
-            </body>
-            </html>
-            """, nombreUsuario, tipoAsesoramiento, fechaHora);
+        String contenido = motorPlantillas.renderizar("asesoramiento", valores(
+                "nombreUsuario", nombreUsuario,
+                "tipoAsesoramiento", tipoAsesoramiento,
+                "fechaHora", fechaHora));
 
         enviarCorreoHTML(destinatario, asunto, contenido);
     }
@@ -161,25 +112,25 @@ public class EmailServiceImpl implements EmailService {
     public void enviarNotificacionTramite(String destinatario, String nombreUsuario,
                                           String tipoTramite, String nuevoEstado) {
         String asunto = "📄 Actualización de Trámite";
-        String contenido = String.format("""
-            <html>
-            <body style="font-family: Arial, sans-serif;">
-                <h2 style="color: #FF9800;">Actualización de Trámite</h2>
-                <p>Estimado/a <strong>%s</strong>,</p>
-                <p>Su trámite ha sido actualizado:</p>
-                <ul>
-                    <li><strong>Tipo:</strong> %s</li>
-                    <li><strong>Nuevo Estado:</strong> %s</li>
-                </ul>
-                <p>Puede consultar más detalles en su panel de trámites.</p>
-                <hr>
-                <p style="font-size: 12px; color: #666;">
-                    Sistema Financiero - Gestión de Trámites
-                </p>
-            </body>
-            </html>
-            """, nombreUsuario, tipoTramite, nuevoEstado);
+        String contenido = motorPlantillas.renderizar("tramite", valores(
+                "nombreUsuario", nombreUsuario,
+                "tipoTramite", tipoTramite,
+                "nuevoEstado", nuevoEstado));
 
         enviarCorreoHTML(destinatario, asunto, contenido);
     }
+
+    // Pares clave/valor; admite valores nulos (se renderizan vacíos)
+    private static Map<String, Object> valores(Object... pares) {
+        Map<String, Object> mapa = new HashMap<>(pares.length);
+        for (int i = 0; i < pares.length; i += 2) {
+            mapa.put((String) pares[i], pares[i + 1]);
+        }
+        return mapa;
+    }
+
+    // Mismo formato que "%.2f", sin volver a interpretar una cadena de formato
+    private static String formatearMonto(Double monto) {
+        return monto != null ? BigDecimal.valueOf(monto).setScale(2, RoundingMode.HALF_UP).toPlainString() : null;
+    }
 }
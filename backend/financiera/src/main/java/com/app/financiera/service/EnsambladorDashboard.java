@@ -0,0 +1,126 @@
+package com.app.financiera.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Ejecuta en paralelo, sobre hilos virtuales, las cargas independientes del dashboard.
+ * Cada carga tiene un tiempo máximo; si falla o se demora, la sección se marca como
+ * no disponible y el resto del dashboard se entrega igual. El número de cargas que
+ * consultan la base de datos al mismo tiempo se limita para no agotar el pool de Hikari.
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+@Component
+public class EnsambladorDashboard {
+
+    private static final Logger logger = LoggerFactory.getLogger(EnsambladorDashboard.class);
+
+    @Value("${dashboard.seccion.timeout-ms:2000}")
+    private long timeoutMs;
+
+    // Debe ser menor que spring.datasource.hikari.maximum-pool-size
+    @Value("${dashboard.paralelo.max-consultas:2}")
+    private int maxConsultas;
+
+    private ExecutorService executor;
+    private Semaphore consultas;
+
+    @PostConstruct
+    public void iniciar() {
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        consultas = new Semaphore(maxConsultas, true);
+    }
+
+    @PreDestroy
+    public void detener() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Abre una ejecución; al cerrarla se cancelan las cargas que sigan pendientes
+     */
+    public Ejecucion nuevaEjecucion() {
+        return new Ejecucion();
+    }
+
+    public class Ejecucion implements AutoCloseable {
+
+        // Todas las cargas se envían al inicio, así que comparten el mismo plazo
+        private final long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        private final List<Future<?>> tareas = new ArrayList<>();
+        private final Map<String, Long> tiempos = new ConcurrentHashMap<>();
+        private final List<String> noDisponibles = new ArrayList<>();
+
+        public <T> Future<T> enviar(String seccion, Callable<T> cargador) {
+            Future<T> tarea = executor.submit(() -> {
+                long inicio = System.nanoTime();
+                // El permiso también tiene tiempo máximo: nunca se espera al pool indefinidamente
+                if (!consultas.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS)) {
+                    throw new TimeoutException("Sin conexión disponible para la sección " + seccion);
+                }
+                try {
+                    return cargador.call();
+                } finally {
+                    consultas.release();
+                    tiempos.put(seccion, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+                }
+            });
+            tareas.add(tarea);
+            return tarea;
+        }
+
+        /**
+         * Espera el resultado de la carga; retorna null si falló o superó el tiempo máximo
+         */
+        public <T> T esperar(String seccion, Future<T> tarea) {
+            try {
+                return tarea.get(Math.max(0, limite - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                tarea.cancel(true);
+                logger.warn("Sección {} del dashboard superó {} ms", seccion, timeoutMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                tarea.cancel(true);
+            } catch (Exception e) {
+                logger.error("Error al cargar la sección {} del dashboard: {}", seccion, e.getMessage());
+            }
+            noDisponibles.add(seccion);
+            return null;
+        }
+
+        public Map<String, Long> getTiempos() {
+            return new LinkedHashMap<>(tiempos);
+        }
+
+        public List<String> getNoDisponibles() {
+            return noDisponibles;
+        }
+
+        @Override
+        public void close() {
+            for (Future<?> tarea : tareas) {
+                tarea.cancel(true);
+            }
+        }
+    }
+}
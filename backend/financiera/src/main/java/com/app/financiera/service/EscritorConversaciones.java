@@ -0,0 +1,203 @@
+package com.app.financiera.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.app.financiera.entity.ChatMensaje;
+import com.app.financiera.entity.Usuario;
+import com.app.financiera.repository.ChatMensajeRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Guarda las conversaciones del chatbot en chat_mensaje fuera del hilo de la petición.
+ * Los turnos se encolan en memoria y un único hilo los inserta por lotes, cada lote en una
+ * transacción con inserciones agrupadas (JDBC batching). Si un lote falla se reintenta turno por
+ * turno para no perder los válidos. Si la cola se llena el turno se descarta y se contabiliza:
+ * la respuesta al usuario nunca espera a la base de datos.
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+@Component
+public class EscritorConversaciones {
+
+    private static final Logger logger = LoggerFactory.getLogger(EscritorConversaciones.class);
+
+    @Autowired
+    private ChatMensajeRepository chatMensajeRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${chatbot.conversacion.tamano-lote:50}")
+    private int tamanoLote;
+
+    // Espera máxima para completar un lote antes de escribir lo que haya
+    @Value("${chatbot.conversacion.intervalo-ms:2000}")
+    private long intervaloMs;
+
+    @Value("${chatbot.conversacion.capacidad-cola:10000}")
+    private int capacidadCola;
+
+    private final AtomicLong guardados = new AtomicLong();
+    private final AtomicLong descartados = new AtomicLong();
+    private final AtomicLong lotes = new AtomicLong();
+    private final AtomicLong erroresLote = new AtomicLong();
+    private final AtomicLong omitidos = new AtomicLong();
+
+    private BlockingQueue<TurnoPendiente> cola;
+    private TransactionTemplate transactionTemplate;
+    private Thread escritor;
+    private volatile boolean activo;
+
+    @PostConstruct
+    public void iniciar() {
+        cola = new ArrayBlockingQueue<>(capacidadCola);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        activo = true;
+        escritor = new Thread(this::ciclo, "chat-escritor");
+        escritor.setDaemon(true);
+        escritor.start();
+    }
+
+    @PreDestroy
+    public void detener() throws InterruptedException {
+        activo = false;
+        escritor.interrupt();
+        escritor.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    /**
+     * Registra un turno para guardarlo en segundo plano; no bloquea
+     */
+    public void encolar(int idUsuario, String sessionId, String mensaje, String respuesta,
+                        String tipoConsulta, String contexto, String accion) {
+        TurnoPendiente turno = new TurnoPendiente(idUsuario, sessionId, mensaje, respuesta, tipoConsulta,
+                contexto, accion, LocalDateTime.now());
+        if (!cola.offer(turno)) {
+            long total = descartados.incrementAndGet();
+            // Un aviso por cada mil descartes para no inundar el log en una saturación
+            if (total % 1000 == 1) {
+                logger.warn("Cola de conversaciones llena: {} turnos descartados en total", total);
+            }
+        }
+    }
+
+    public HashMap<String, Object> obtenerEstadisticas() {
+        HashMap<String, Object> estadisticas = new HashMap<>();
+        estadisticas.put("enCola", cola.size());
+        estadisticas.put("capacidadCola", capacidadCola);
+        estadisticas.put("guardados", guardados.get());
+        estadisticas.put("descartados", descartados.get());
+        estadisticas.put("lotes", lotes.get());
+        estadisticas.put("erroresLote", erroresLote.get());
+        estadisticas.put("omitidos", omitidos.get());
+        estadisticas.put("tamanoLote", tamanoLote);
+        return estadisticas;
+    }
+
+    private void ciclo() {
+        List<TurnoPendiente> lote = new ArrayList<>(tamanoLote);
+        while (activo) {
+            try {
+                TurnoPendiente primero = cola.poll(intervaloMs, TimeUnit.MILLISECONDS);
+                if (primero == null) {
+                    continue;
+                }
+                lote.add(primero);
+                cola.drainTo(lote, tamanoLote - 1);
+                guardar(lote);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                lote.clear();
+            }
+        }
+
+        // Al detener la aplicación se guarda lo que quedó en la cola
+        while (cola.drainTo(lote, tamanoLote) > 0) {
+            guardar(lote);
+            lote.clear();
+        }
+    }
+
+    private void guardar(List<TurnoPendiente> lote) {
+        try {
+            insertar(lote);
+            guardados.addAndGet(lote.size());
+            lotes.incrementAndGet();
+        } catch (Exception e) {
+            erroresLote.incrementAndGet();
+            logger.error("Error al guardar lote de {} mensajes del chatbot, se reintenta uno por uno: {}",
+                    lote.size(), e.getMessage());
+            guardarUnoPorUno(lote);
+        }
+    }
+
+    // Un turno inválido (por ejemplo, de un usuario que ya no existe) hace fallar todo el lote;
+    // se reintenta cada turno en su propia transacción y solo se pierden los que vuelven a fallar
+    private void guardarUnoPorUno(List<TurnoPendiente> lote) {
+        for (TurnoPendiente turno : lote) {
+            try {
+                insertar(List.of(turno));
+                guardados.incrementAndGet();
+            } catch (Exception e) {
+                omitidos.incrementAndGet();
+                logger.warn("Turno del chatbot omitido (usuario {}, sesión {}): {}",
+                        turno.idUsuario(), turno.sessionId(), e.getMessage());
+            }
+        }
+    }
+
+    private void insertar(List<TurnoPendiente> turnos) {
+        transactionTemplate.executeWithoutResult(status -> {
+            try {
+                List<ChatMensaje> mensajes = new ArrayList<>(turnos.size());
+                for (TurnoPendiente turno : turnos) {
+                    ChatMensaje mensaje = new ChatMensaje();
+                    mensaje.setUsuario(entityManager.getReference(Usuario.class, turno.idUsuario()));
+                    mensaje.setSessionId(turno.sessionId());
+                    mensaje.setMensajeUsuario(turno.mensaje());
+                    mensaje.setRespuestaAsistente(turno.respuesta());
+                    mensaje.setTipoConsulta(turno.tipoConsulta());
+                    mensaje.setContextoConversacion(turno.contexto());
+                    mensaje.setAccionGenerada(turno.accion());
+                    mensaje.setFechaMensaje(turno.fecha());
+                    mensajes.add(mensaje);
+                }
+                chatMensajeRepository.saveAll(mensajes);
+                entityManager.flush();
+            } finally {
+                // Tras un fallo el contexto queda con entidades a medio insertar
+                entityManager.clear();
+            }
+        });
+    }
+
+    private record TurnoPendiente(int idUsuario, String sessionId, String mensaje, String respuesta,
+                                  String tipoConsulta, String contexto, String accion, LocalDateTime fecha) {
+    }
+}
@@ -0,0 +1,231 @@
+package com.app.financiera.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import com.app.financiera.entity.ChatMensaje;
+import com.app.financiera.repository.ChatMensajeRepository;
+import com.app.financiera.util.EstimadorTokens;
+
+/**
+ * Últimos turnos de cada sesión del chatbot, en memoria, para dar contexto a las preguntas de seguimiento.
+ * Cada sesión guarda sus turnos en un búfer circular de tamaño fijo; la ventana que se envía al modelo
+ * toma los turnos más recientes que caben en el presupuesto de tokens.
+ * La base de datos solo se lee la primera vez que se ve una sesión (por ejemplo, tras un reinicio).
+ * Las sesiones se acotan en número (LRU) y se descartan tras un periodo de inactividad.
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+@Component
+public class HistorialConversaciones {
+
+    private static final Logger logger = LoggerFactory.getLogger(HistorialConversaciones.class);
+
+    // Palabras con las que suele empezar una pregunta que depende de la anterior
+    private static final Set<String> INICIOS_SEGUIMIENTO = Set.of(
+            "y", "entonces", "pero", "tambien", "ademas", "eso", "esa", "ese", "esto", "esta", "este",
+            "aquel", "aquella", "otro", "otra", "ambos", "ambas", "ok", "vale", "si", "no");
+
+    @Autowired
+    private ChatMensajeRepository chatMensajeRepository;
+
+    @Value("${chatbot.historial.max-turnos:10}")
+    private int maxTurnos;
+
+    @Value("${chatbot.historial.presupuesto-tokens:600}")
+    private int presupuestoTokens;
+
+    @Value("${chatbot.historial.max-sesiones:5000}")
+    private int maxSesiones;
+
+    @Value("${chatbot.historial.inactividad-minutos:30}")
+    private long inactividadMinutos;
+
+    private final AtomicLong cargasDesdeBase = new AtomicLong();
+    private final AtomicLong desalojos = new AtomicLong();
+
+    // Orden de acceso: el primer elemento es la sesión usada hace más tiempo
+    private final LinkedHashMap<ClaveSesion, Sesion> sesiones = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ClaveSesion, Sesion> eldest) {
+            if (size() > maxSesiones) {
+                desalojos.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    };
+
+    /**
+     * true si la pregunta normalizada parece continuar la anterior ("¿y en AFP?", "¿esa cuánto cuesta?")
+     */
+    public static boolean esSeguimiento(String preguntaNormalizada) {
+        if (preguntaNormalizada.isEmpty()) {
+            return false;
+        }
+        int espacio = preguntaNormalizada.indexOf(' ');
+        String primera = espacio < 0 ? preguntaNormalizada : preguntaNormalizada.substring(0, espacio);
+        return INICIOS_SEGUIMIENTO.contains(primera) || preguntaNormalizada.contains("anterior");
+    }
+
+    /**
+     * Conversación reciente de la sesión como texto para el prompt; vacío si no hay turnos previos
+     */
+    public String ventana(Integer idUsuario, String sessionId) {
+        if (sessionId == null) {
+            return "";
+        }
+        Sesion sesion = obtenerSesion(new ClaveSesion(idUsuario, sessionId));
+        List<Turno> turnos = sesion.recientes(presupuestoTokens);
+        if (turnos.isEmpty()) {
+            return "";
+        }
+
+        StringBuilder texto = new StringBuilder();
+        for (Turno turno : turnos) {
+            texto.append("Usuario: ").append(turno.pregunta()).append('\n');
+            texto.append("Asistente: ").append(turno.respuesta()).append('\n');
+        }
+        return texto.toString();
+    }
+
+    public void agregar(Integer idUsuario, String sessionId, String pregunta, String respuesta) {
+        if (sessionId == null) {
+            return;
+        }
+        obtenerSesion(new ClaveSesion(idUsuario, sessionId)).agregar(new Turno(pregunta, respuesta));
+    }
+
+    public HashMap<String, Object> obtenerEstadisticas() {
+        HashMap<String, Object> estadisticas = new HashMap<>();
+        synchronized (sesiones) {
+            estadisticas.put("sesionesEnMemoria", sesiones.size());
+        }
+        estadisticas.put("maxSesiones", maxSesiones);
+        estadisticas.put("maxTurnosPorSesion", maxTurnos);
+        estadisticas.put("presupuestoTokens", presupuestoTokens);
+        estadisticas.put("cargasDesdeBase", cargasDesdeBase.get());
+        estadisticas.put("desalojosPorTamano", desalojos.get());
+        return estadisticas;
+    }
+
+    private Sesion obtenerSesion(ClaveSesion clave) {
+        long ahora = System.currentTimeMillis();
+        long limiteInactividad = ahora - inactividadMinutos * 60_000;
+
+        Sesion sesion;
+        synchronized (sesiones) {
+            sesion = sesiones.get(clave);
+            if (sesion != null && sesion.ultimoUso >= limiteInactividad) {
+                sesion.ultimoUso = ahora;
+                return sesion;
+            }
+            sesion = new Sesion(maxTurnos);
+            sesion.ultimoUso = ahora;
+            sesiones.put(clave, sesion);
+        }
+
+        // Sesión nueva en esta instancia: se recuperan sus últimos turnos una sola vez
+        if (clave.idUsuario() != null) {
+            cargarDesdeBase(clave, sesion);
+        }
+        return sesion;
+    }
+
+    private void cargarDesdeBase(ClaveSesion clave, Sesion sesion) {
+        try {
+            List<ChatMensaje> recientes = chatMensajeRepository.findRecientesBySesion(
+                    clave.idUsuario(), clave.sessionId(), PageRequest.of(0, maxTurnos));
+            if (recientes.isEmpty()) {
+                return;
+            }
+            List<Turno> turnos = new ArrayList<>(recientes.size());
+            for (int i = recientes.size() - 1; i >= 0; i--) {
+                ChatMensaje mensaje = recientes.get(i);
+                turnos.add(new Turno(mensaje.getMensajeUsuario(), Objects.toString(mensaje.getRespuestaAsistente(), "")));
+            }
+            sesion.precargar(turnos);
+            cargasDesdeBase.incrementAndGet();
+        } catch (Exception e) {
+            logger.error("Error al cargar el historial de la sesión {}: {}", clave.sessionId(), e.getMessage());
+        }
+    }
+
+    private record ClaveSesion(Integer idUsuario, String sessionId) {
+    }
+
+    private record Turno(String pregunta, String respuesta) {
+        private int tokens() {
+            return EstimadorTokens.estimar(pregunta.length() + respuesta.length());
+        }
+    }
+
+    private static final class Sesion {
+        private final Turno[] turnos;
+        private int siguiente;
+        private int cantidad;
+        private volatile long ultimoUso;
+
+        private Sesion(int capacidad) {
+            this.turnos = new Turno[Math.max(1, capacidad)];
+        }
+
+        private synchronized void agregar(Turno turno) {
+            turnos[siguiente] = turno;
+            siguiente = (siguiente + 1) % turnos.length;
+            cantidad = Math.min(cantidad + 1, turnos.length);
+        }
+
+        // Los turnos cargados de la base van antes de cualquiera agregado mientras se cargaban
+        private synchronized void precargar(List<Turno> anteriores) {
+            List<Turno> actuales = enOrden();
+            siguiente = 0;
+            cantidad = 0;
+            for (Turno turno : anteriores) {
+                agregar(turno);
+            }
+            for (Turno turno : actuales) {
+                agregar(turno);
+            }
+        }
+
+        // Del más reciente hacia atrás mientras quepa en el presupuesto; se devuelven en orden cronológico
+        private synchronized List<Turno> recientes(int presupuestoTokens) {
+            List<Turno> seleccion = new ArrayList<>();
+            int restante = presupuestoTokens;
+            for (int i = 1; i <= cantidad; i++) {
+                Turno turno = turnos[Math.floorMod(siguiente - i, turnos.length)];
+                restante -= turno.tokens();
+                if (restante < 0) {
+                    break;
+                }
+                seleccion.add(turno);
+            }
+            Collections.reverse(seleccion);
+            return seleccion;
+        }
+
+        private List<Turno> enOrden() {
+            List<Turno> orden = new ArrayList<>(cantidad);
+            for (int i = cantidad; i >= 1; i--) {
+                orden.add(turnos[Math.floorMod(siguiente - i, turnos.length)]);
+            }
+            return orden;
+        }
+    }
+}
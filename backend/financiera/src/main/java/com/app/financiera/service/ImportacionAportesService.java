@@ -0,0 +1,10 @@
+package com.app.financiera.service;
+
+import java.io.InputStream;
+import java.util.HashMap;
+
+public interface ImportacionAportesService {
+
+    // Importa aportes desde un CSV (cabecera obligatoria) en lotes y ajusta los saldos una vez por usuario
+    HashMap<String, Object> importarAportesCsv(InputStream contenido);
+}
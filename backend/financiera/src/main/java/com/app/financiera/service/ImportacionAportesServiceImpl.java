@@ -0,0 +1,373 @@
+package com.app.financiera.service;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.app.financiera.entity.AportePension;
+import com.app.financiera.entity.Institucion;
+import com.app.financiera.entity.TipoFondo;
+import com.app.financiera.entity.Usuario;
+import com.app.financiera.repository.AportePensionRepository;
+import com.app.financiera.repository.TipoFondoRepository;
+import com.app.financiera.repository.UsuarioRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Importación masiva de aportes de pensión desde archivos CSV.
+ * El archivo se lee en streaming y se persiste por lotes, cada uno en su propia
+ * transacción, de modo que las inserciones viajan agrupadas (JDBC batching) y el
+ * contexto de persistencia no crece con el tamaño del archivo.
+ * El saldo de cada usuario del lote se ajusta en la misma transacción que sus aportes:
+ * si la lectura se interrumpe a mitad del archivo, lo ya guardado queda cuadrado.
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+@Service
+public class ImportacionAportesServiceImpl implements ImportacionAportesService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportacionAportesServiceImpl.class);
+
+    private static final int MAX_ERRORES_REPORTADOS = 100;
+    private static final Pattern PATRON_PERIODO = Pattern.compile("\\d{4}-(0[1-9]|1[0-2])");
+
+    private static final String[] COLUMNAS_OBLIGATORIAS = {
+            "id_usuario", "periodo", "monto_aporte", "fecha_aporte", "id_tipo_fondo"
+    };
+
+    @Value("${aportes.importacion.tamano-lote:500}")
+    private int tamanoLote;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private AportePensionRepository aportePensionRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private InstitucionCache institucionCache;
+
+    @Autowired
+    private TipoFondoRepository tipoFondoRepository;
+
+    @Autowired
+    private SaldoPensionService saldoPensionService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public HashMap<String, Object> importarAportesCsv(InputStream contenido) {
+        HashMap<String, Object> resultado = new HashMap<>();
+        EstadoImportacion estado = new EstadoImportacion();
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+
+        try (BufferedReader lector = new BufferedReader(new InputStreamReader(contenido, StandardCharsets.UTF_8))) {
+            String cabecera = lector.readLine();
+            if (cabecera == null) {
+                resultado.put("exitoso", false);
+                resultado.put("mensaje", "El archivo está vacío");
+                return resultado;
+            }
+
+            char separador = cabecera.indexOf(';') >= 0 && cabecera.indexOf(',') < 0 ? ';' : ',';
+            Map<String, Integer> columnas = mapearColumnas(cabecera, separador);
+            for (String obligatoria : COLUMNAS_OBLIGATORIAS) {
+                if (!columnas.containsKey(obligatoria)) {
+                    resultado.put("exitoso", false);
+                    resultado.put("mensaje", "Falta la columna obligatoria: " + obligatoria);
+                    return resultado;
+                }
+            }
+
+            // Tipos de fondo: se cargan una sola vez por archivo (las instituciones vienen de InstitucionCache)
+            for (TipoFondo tipoFondo : tipoFondoRepository.findAll()) {
+                estado.tiposFondo.put(tipoFondo.getIdTipoFondo(), tipoFondo);
+            }
+
+            List<FilaAporte> lote = new ArrayList<>(tamanoLote);
+            String linea;
+            int numeroFila = 1;
+            while ((linea = lector.readLine()) != null) {
+                numeroFila++;
+                if (linea.isBlank()) {
+                    continue;
+                }
+                estado.totalFilas++;
+
+                FilaAporte fila = interpretarFila(numeroFila, dividir(linea, separador), columnas, estado);
+                if (fila == null) {
+                    continue;
+                }
+
+                lote.add(fila);
+                if (lote.size() >= tamanoLote) {
+                    procesarLote(lote, estado, transaccion);
+                    lote.clear();
+                }
+            }
+            if (!lote.isEmpty()) {
+                procesarLote(lote, estado, transaccion);
+            }
+
+        } catch (Exception e) {
+            logger.error("Error al importar aportes: {}", e.getMessage(), e);
+            resultado.put("exitoso", false);
+            resultado.put("mensaje", "Error al leer el archivo: " + e.getMessage());
+            agregarResumen(resultado, estado);
+            return resultado;
+        }
+
+        logger.info("Importación finalizada: {} filas, {} importadas, {} rechazadas, {} usuarios actualizados",
+                estado.totalFilas, estado.importadas, estado.rechazadas, estado.usuariosActualizados.size());
+
+        resultado.put("exitoso", estado.importadas > 0 || estado.rechazadas == 0);
+        resultado.put("mensaje", "Importación finalizada");
+        agregarResumen(resultado, estado);
+        return resultado;
+    }
+
+    private void procesarLote(List<FilaAporte> lote, EstadoImportacion estado, TransactionTemplate transaccion) {
+        Set<Integer> idsUsuario = new HashSet<>();
+        for (FilaAporte fila : lote) {
+            idsUsuario.add(fila.idUsuario);
+        }
+
+        List<FilaAporte> rechazadasLote = new ArrayList<>();
+        Set<Integer> usuariosLote = new HashSet<>();
+
+        try {
+            transaccion.executeWithoutResult(status -> {
+                Map<Integer, Usuario> usuarios = new HashMap<>();
+                for (Usuario usuario : usuarioRepository.findConAfpByIds(idsUsuario)) {
+                    usuarios.put(usuario.getIdUsuario(), usuario);
+                }
+
+                List<AportePension> aportes = new ArrayList<>(lote.size());
+                Map<Integer, Double> variaciones = new LinkedHashMap<>();
+                Map<Integer, TipoFondo> tipoFondoPorUsuario = new HashMap<>();
+                for (FilaAporte fila : lote) {
+                    Usuario usuario = usuarios.get(fila.idUsuario);
+                    if (usuario == null) {
+                        fila.motivoRechazo = "Usuario " + fila.idUsuario + " no existe";
+                        rechazadasLote.add(fila);
+                        continue;
+                    }
+
+                    // id_institucion es obligatorio: sin institución se rechaza la fila, no el lote
+                    Institucion institucion = institucionCache.resolver(usuario);
+                    if (institucion == null) {
+                        fila.motivoRechazo = "Usuario " + fila.idUsuario
+                                + " no tiene una institución asociada a su régimen de pensiones";
+                        rechazadasLote.add(fila);
+                        continue;
+                    }
+
+                    AportePension aporte = fila.aporte;
+                    aporte.setUsuario(usuario);
+                    aporte.setInstitucion(institucion);
+                    aportes.add(aporte);
+
+                    variaciones.merge(fila.idUsuario, aporte.getMontoAporte(), Double::sum);
+                    tipoFondoPorUsuario.put(fila.idUsuario, aporte.getTipoFondo());
+                }
+
+                aportePensionRepository.saveAll(aportes);
+                entityManager.flush();
+
+                // Un ajuste de saldo por usuario del lote, con la suma de sus aportes
+                for (Map.Entry<Integer, Double> variacion : variaciones.entrySet()) {
+                    int idUsuario = variacion.getKey();
+                    saldoPensionService.aplicarVariacion(usuarios.get(idUsuario), tipoFondoPorUsuario.get(idUsuario),
+                            variacion.getValue());
+                    eventPublisher.publishEvent(new DatosUsuarioModificadosEvent(idUsuario, "Aporte"));
+                }
+                entityManager.flush();
+                entityManager.clear();
+
+                usuariosLote.addAll(variaciones.keySet());
+            });
+        } catch (Exception e) {
+            logger.error("Error al guardar lote de {} aportes: {}", lote.size(), e.getMessage());
+            estado.rechazadas += lote.size();
+            for (FilaAporte fila : lote) {
+                registrarError(estado, fila.numero, "Lote no guardado: " + e.getMessage());
+            }
+            return;
+        }
+
+        for (FilaAporte fila : rechazadasLote) {
+            estado.rechazadas++;
+            registrarError(estado, fila.numero, fila.motivoRechazo);
+        }
+        estado.importadas += lote.size() - rechazadasLote.size();
+        estado.usuariosActualizados.addAll(usuariosLote);
+    }
+
+    private FilaAporte interpretarFila(int numeroFila, List<String> valores, Map<String, Integer> columnas,
+            EstadoImportacion estado) {
+        try {
+            FilaAporte fila = new FilaAporte();
+            fila.numero = numeroFila;
+            fila.idUsuario = Integer.parseInt(obligatorio(valores, columnas, "id_usuario"));
+
+            String periodo = obligatorio(valores, columnas, "periodo");
+            if (!PATRON_PERIODO.matcher(periodo).matches()) {
+                throw new IllegalArgumentException("Periodo inválido (se espera yyyy-MM): " + periodo);
+            }
+
+            double monto = Double.parseDouble(obligatorio(valores, columnas, "monto_aporte"));
+            if (monto <= 0) {
+                throw new IllegalArgumentException("El monto debe ser mayor a cero");
+            }
+
+            int idTipoFondo = Integer.parseInt(obligatorio(valores, columnas, "id_tipo_fondo"));
+            TipoFondo tipoFondo = estado.tiposFondo.get(idTipoFondo);
+            if (tipoFondo == null) {
+                throw new IllegalArgumentException("Tipo de fondo " + idTipoFondo + " no existe");
+            }
+
+            AportePension aporte = new AportePension();
+            aporte.setPeriodo(periodo);
+            aporte.setMontoAporte(monto);
+            aporte.setFechaAporte(LocalDate.parse(obligatorio(valores, columnas, "fecha_aporte")));
+            aporte.setTipoFondo(tipoFondo);
+            aporte.setAporteTrabajador(decimal(valores, columnas, "aporte_trabajador"));
+            aporte.setAporteEmpleador(decimal(valores, columnas, "aporte_empleador"));
+            aporte.setComisionCobrada(decimal(valores, columnas, "comision_cobrada"));
+            aporte.setSeguroInvalidez(decimal(valores, columnas, "seguro_invalidez"));
+            aporte.setSalarioDeclarado(decimal(valores, columnas, "salario_declarado"));
+            String dias = opcional(valores, columnas, "dias_trabajados");
+            aporte.setDiasTrabajados(dias != null ? Integer.valueOf(dias) : null);
+            aporte.setEmpleador(opcional(valores, columnas, "empleador"));
+            aporte.setRucEmpleador(opcional(valores, columnas, "ruc_empleador"));
+            aporte.setCuspp(opcional(valores, columnas, "cuspp"));
+            aporte.setEstado("Registrado");
+
+            fila.aporte = aporte;
+            return fila;
+        } catch (Exception e) {
+            estado.rechazadas++;
+            registrarError(estado, numeroFila, e.getMessage());
+            return null;
+        }
+    }
+
+    private Map<String, Integer> mapearColumnas(String cabecera, char separador) {
+        Map<String, Integer> columnas = new LinkedHashMap<>();
+        List<String> nombres = dividir(cabecera.replace("\uFEFF", ""), separador);
+        for (int i = 0; i < nombres.size(); i++) {
+            columnas.put(nombres.get(i).trim().toLowerCase(), i);
+        }
+        return columnas;
+    }
+
+    // Separa una línea CSV respetando campos entre comillas dobles ("" = comilla literal)
+    private List<String> dividir(String linea, char separador) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder actual = new StringBuilder();
+        boolean entreComillas = false;
+
+        for (int i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (c == '"') {
+                if (entreComillas && i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+                    actual.append('"');
+                    i++;
+                } else {
+                    entreComillas = !entreComillas;
+                }
+            } else if (c == separador && !entreComillas) {
+                campos.add(actual.toString());
+                actual.setLength(0);
+            } else {
+                actual.append(c);
+            }
+        }
+        campos.add(actual.toString());
+        return campos;
+    }
+
+    private String obligatorio(List<String> valores, Map<String, Integer> columnas, String columna) {
+        String valor = opcional(valores, columnas, columna);
+        if (valor == null) {
+            throw new IllegalArgumentException("Falta el valor de " + columna);
+        }
+        return valor;
+    }
+
+    private String opcional(List<String> valores, Map<String, Integer> columnas, String columna) {
+        Integer indice = columnas.get(columna);
+        if (indice == null || indice >= valores.size()) {
+            return null;
+        }
+        String valor = valores.get(indice).trim();
+        return valor.isEmpty() ? null : valor;
+    }
+
+    private Double decimal(List<String> valores, Map<String, Integer> columnas, String columna) {
+        String valor = opcional(valores, columnas, columna);
+        return valor != null ? Double.valueOf(valor) : null;
+    }
+
+    private void registrarError(EstadoImportacion estado, int numeroFila, String mensaje) {
+        if (estado.errores.size() < MAX_ERRORES_REPORTADOS) {
+            HashMap<String, Object> error = new HashMap<>();
+            error.put("fila", numeroFila);
+            error.put("error", mensaje);
+            estado.errores.add(error);
+        }
+    }
+
+    private void agregarResumen(HashMap<String, Object> resultado, EstadoImportacion estado) {
+        resultado.put("totalFilas", estado.totalFilas);
+        resultado.put("importadas", estado.importadas);
+        resultado.put("rechazadas", estado.rechazadas);
+        resultado.put("usuariosActualizados", estado.usuariosActualizados.size());
+        resultado.put("errores", estado.errores);
+    }
+
+    private static class FilaAporte {
+        int numero;
+        int idUsuario;
+        AportePension aporte;
+        String motivoRechazo;
+    }
+
+    private static class EstadoImportacion {
+        int totalFilas;
+        int importadas;
+        int rechazadas;
+        Set<Integer> usuariosActualizados = new HashSet<>();
+        List<HashMap<String, Object>> errores = new ArrayList<>();
+        Map<Integer, TipoFondo> tiposFondo = new HashMap<>();
+    }
+}
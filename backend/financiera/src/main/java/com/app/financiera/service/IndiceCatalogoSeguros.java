@@ -0,0 +1,487 @@
+package com.app.financiera.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.app.financiera.dto.FilaCatalogoProjection;
+import com.app.financiera.repository.SeguroRepository;
+
+/**
+ * Índice en memoria del catálogo de seguros activos para los filtros del comparador.
+ * Por categoría guarda arreglos primitivos ordenados por prima y por cobertura (los rangos se
+ * resuelven con búsqueda binaria) y un bitset por compañía y por tipo. Las consultas leen una
+ * instantánea inmutable sin bloqueos ni Hibernate; solo devuelven los ids que cumplen.
+ * Cada categoría guarda también sus estadísticas de mercado (precios, percentiles, histograma y
+ * promedios por compañía), calculadas al construirla y con un número de versión.
+ * Al cambiar un seguro se vuelve a leer esa fila y se reconstruye solo su categoría; además
+ * el índice completo se recarga periódicamente por si hubo cambios fuera de la aplicación.
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+@Component
+public class IndiceCatalogoSeguros {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndiceCatalogoSeguros.class);
+
+    private static final int[] SIN_RESULTADOS = new int[0];
+
+    @Autowired
+    private SeguroRepository seguroRepository;
+
+    @Value("${comparador.estadisticas.barras-histograma:10}")
+    private int barrasHistograma;
+
+    private final AtomicLong consultas = new AtomicLong();
+    private final AtomicLong nanosConsultas = new AtomicLong();
+    private final AtomicLong actualizaciones = new AtomicLong();
+    private final AtomicLong recargas = new AtomicLong();
+    // Versión de las estadísticas: crece con cada categoría reconstruida
+    private final AtomicLong versiones = new AtomicLong();
+
+    // Instantánea que leen las consultas; se reemplaza completa en cada cambio
+    private volatile Map<String, Categoria> categorias;
+
+    // Estado de escritura (protegido por this): filas por categoría y categoría actual de cada seguro
+    private final Map<String, Map<Integer, Fila>> filasPorCategoria = new HashMap<>();
+    private final Map<Integer, String> categoriaPorSeguro = new HashMap<>();
+
+    /**
+     * Ids de los seguros activos de la categoría que cumplen todos los filtros, ordenados por prima mensual.
+     * Los filtros null no se aplican; un rango puede tener solo mínimo o solo máximo.
+     */
+    public int[] buscar(String categoria, Double primaMin, Double primaMax, Double coberturaMin, Double coberturaMax,
+                        Integer idCompania, Integer idTipoSeguro) {
+        long inicio = System.nanoTime();
+        Categoria indice = obtenerCategorias().get(categoria);
+        int[] ids = indice == null ? SIN_RESULTADOS
+                : indice.buscar(primaMin, primaMax, coberturaMin, coberturaMax, idCompania, idTipoSeguro);
+        nanosConsultas.addAndGet(System.nanoTime() - inicio);
+        consultas.incrementAndGet();
+        return ids;
+    }
+
+    /**
+     * Columnas de la categoría para recorrerlas completas (por ejemplo, para puntuar planes); null si no existe
+     */
+    Columnas columnas(String categoria) {
+        Categoria indice = obtenerCategorias().get(categoria);
+        return indice == null ? null : indice.columnas;
+    }
+
+    /**
+     * Estadísticas de mercado de la categoría, ya calculadas; null si no tiene seguros activos
+     */
+    public Map<String, Object> estadisticas(String categoria) {
+        Categoria indice = obtenerCategorias().get(categoria);
+        return indice == null || indice.tamano() == 0 ? null : indice.estadisticas;
+    }
+
+    // Después del commit: la fila que se lee ya es la confirmada
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void alModificarSeguro(SeguroModificadoEvent evento) {
+        if (categorias == null) {
+            // Aún no se cargó: la primera consulta leerá el catálogo completo
+            return;
+        }
+        int idSeguro = evento.getIdSeguro();
+        try {
+            FilaCatalogoProjection fila = seguroRepository.findFilaCatalogo(idSeguro);
+
+            Map<String, Categoria> nuevas = new HashMap<>(categorias);
+            String anterior = categoriaPorSeguro.remove(idSeguro);
+            if (anterior != null) {
+                Map<Integer, Fila> filas = filasPorCategoria.get(anterior);
+                filas.remove(idSeguro);
+                nuevas.put(anterior, construir(filas.values()));
+            }
+            if (fila != null) {
+                filasPorCategoria.computeIfAbsent(fila.getCategoria(), c -> new HashMap<>()).put(idSeguro, Fila.de(fila));
+                categoriaPorSeguro.put(idSeguro, fila.getCategoria());
+                nuevas.put(fila.getCategoria(), construir(filasPorCategoria.get(fila.getCategoria()).values()));
+            }
+            categorias = Map.copyOf(nuevas);
+            actualizaciones.incrementAndGet();
+        } catch (Exception e) {
+            // Sin la fila no se puede saber dónde quedó el seguro: se recarga todo en la próxima consulta
+            logger.error("Error actualizando el índice del catálogo para el seguro {}: {}", idSeguro, e.getMessage());
+            categorias = null;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${comparador.indice.recarga-ms:900000}", initialDelayString = "${comparador.indice.recarga-ms:900000}")
+    public synchronized void recargar() {
+        long inicio = System.nanoTime();
+        List<FilaCatalogoProjection> filas = seguroRepository.findFilasCatalogo();
+
+        filasPorCategoria.clear();
+        categoriaPorSeguro.clear();
+        for (FilaCatalogoProjection fila : filas) {
+            filasPorCategoria.computeIfAbsent(fila.getCategoria(), c -> new HashMap<>()).put(fila.getIdSeguro(), Fila.de(fila));
+            categoriaPorSeguro.put(fila.getIdSeguro(), fila.getCategoria());
+        }
+
+        Map<String, Categoria> nuevas = new HashMap<>();
+        filasPorCategoria.forEach((categoria, filasCategoria) -> nuevas.put(categoria, construir(filasCategoria.values())));
+        categorias = Map.copyOf(nuevas);
+        recargas.incrementAndGet();
+
+        logger.info("Índice del catálogo de seguros cargado: {} seguros en {} categorías ({} ms)",
+                filas.size(), nuevas.size(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    public HashMap<String, Object> obtenerEstadisticas() {
+        Map<String, Categoria> actuales = categorias;
+        long totalConsultas = consultas.get();
+
+        HashMap<String, Object> estadisticas = new HashMap<>();
+        estadisticas.put("cargado", actuales != null);
+        if (actuales != null) {
+            HashMap<String, Integer> segurosPorCategoria = new HashMap<>();
+            actuales.forEach((categoria, indice) -> segurosPorCategoria.put(categoria, indice.tamano()));
+            estadisticas.put("segurosPorCategoria", segurosPorCategoria);
+        }
+        estadisticas.put("consultas", totalConsultas);
+        estadisticas.put("consultaPromedioMicros", totalConsultas > 0 ? nanosConsultas.get() / 1_000d / totalConsultas : 0.0);
+        estadisticas.put("actualizacionesIncrementales", actualizaciones.get());
+        estadisticas.put("recargasCompletas", recargas.get());
+        estadisticas.put("versionEstadisticas", versiones.get());
+        return estadisticas;
+    }
+
+    private Categoria construir(Collection<Fila> filas) {
+        return Categoria.construir(filas, barrasHistograma, versiones.incrementAndGet());
+    }
+
+    private Map<String, Categoria> obtenerCategorias() {
+        Map<String, Categoria> actuales = categorias;
+        if (actuales == null) {
+            synchronized (this) {
+                if (categorias == null) {
+                    recargar();
+                }
+                actuales = categorias;
+            }
+        }
+        return actuales;
+    }
+
+    /**
+     * Valores de cada seguro de una categoría por posición (orden por prima); NaN donde la columna es null.
+     * Son de solo lectura: pertenecen a la instantánea del índice.
+     */
+    record Columnas(int[] ids, double[] primas, double[] coberturas, double[] deducibles, int[] tipos) {
+    }
+
+    // prima, cobertura y deducible en NaN cuando la columna es null
+    private record Fila(int idSeguro, int idCompania, String compania, int idTipoSeguro, double prima, double cobertura,
+                        double deducible) {
+        private static Fila de(FilaCatalogoProjection fila) {
+            return new Fila(fila.getIdSeguro(),
+                    fila.getIdCompania() != null ? fila.getIdCompania() : -1,
+                    fila.getNombreCompania(),
+                    fila.getIdTipoSeguro(),
+                    fila.getPrimaMensual() != null ? fila.getPrimaMensual() : Double.NaN,
+                    fila.getMontoAsegurado() != null ? fila.getMontoAsegurado() : Double.NaN,
+                    fila.getDeducible() != null ? fila.getDeducible() : Double.NaN);
+        }
+    }
+
+    /**
+     * Índice inmutable de una categoría. Cada seguro tiene una posición: su lugar en el orden por prima
+     * (los que no tienen prima van al final). Los bitsets y el orden por cobertura se expresan en esas posiciones.
+     */
+    private static final class Categoria {
+        // Por posición: id y prima, ordenados por prima ascendente
+        private final int[] ids;
+        private final double[] primas;
+        // Posiciones con prima (las demás no entran en un filtro por prima)
+        private final int conPrima;
+        // Coberturas no nulas ordenadas ascendente y la posición del seguro al que pertenece cada una
+        private final double[] coberturas;
+        private final int[] posicionPorCobertura;
+        private final Map<Integer, long[]> porCompania;
+        private final Map<Integer, long[]> porTipo;
+        private final Map<String, Object> estadisticas;
+        private final Columnas columnas;
+
+        private Categoria(int[] ids, double[] primas, int conPrima, double[] coberturas, int[] posicionPorCobertura,
+                          Map<Integer, long[]> porCompania, Map<Integer, long[]> porTipo, Map<String, Object> estadisticas,
+                          Columnas columnas) {
+            this.ids = ids;
+            this.primas = primas;
+            this.conPrima = conPrima;
+            this.coberturas = coberturas;
+            this.posicionPorCobertura = posicionPorCobertura;
+            this.porCompania = porCompania;
+            this.porTipo = porTipo;
+            this.estadisticas = estadisticas;
+            this.columnas = columnas;
+        }
+
+        private static Categoria construir(Collection<Fila> filas, int barrasHistograma, long version) {
+            Fila[] ordenadas = filas.toArray(new Fila[0]);
+            // Double.compare deja los NaN (sin prima) al final; a igual prima, por id para un orden estable
+            Arrays.sort(ordenadas, (a, b) -> {
+                int porPrima = Double.compare(a.prima(), b.prima());
+                return porPrima != 0 ? porPrima : Integer.compare(a.idSeguro(), b.idSeguro());
+            });
+
+            int n = ordenadas.length;
+            int[] ids = new int[n];
+            double[] primas = new double[n];
+            double[] coberturaPorPosicion = new double[n];
+            double[] deduciblePorPosicion = new double[n];
+            int[] tipoPorPosicion = new int[n];
+            int conPrima = 0;
+            int conCobertura = 0;
+            Map<Integer, long[]> porCompania = new HashMap<>();
+            Map<Integer, long[]> porTipo = new HashMap<>();
+            for (int i = 0; i < n; i++) {
+                Fila fila = ordenadas[i];
+                ids[i] = fila.idSeguro();
+                primas[i] = fila.prima();
+                coberturaPorPosicion[i] = fila.cobertura();
+                deduciblePorPosicion[i] = fila.deducible();
+                tipoPorPosicion[i] = fila.idTipoSeguro();
+                if (!Double.isNaN(fila.prima())) {
+                    conPrima++;
+                }
+                if (!Double.isNaN(fila.cobertura())) {
+                    conCobertura++;
+                }
+                marcar(porCompania.computeIfAbsent(fila.idCompania(), c -> new long[palabras(n)]), i);
+                marcar(porTipo.computeIfAbsent(fila.idTipoSeguro(), t -> new long[palabras(n)]), i);
+            }
+
+            // Orden por cobertura: posiciones de los seguros con cobertura, ordenadas por su monto
+            Integer[] posiciones = new Integer[conCobertura];
+            int k = 0;
+            for (int i = 0; i < n; i++) {
+                if (!Double.isNaN(ordenadas[i].cobertura())) {
+                    posiciones[k++] = i;
+                }
+            }
+            Arrays.sort(posiciones, (a, b) -> Double.compare(ordenadas[a].cobertura(), ordenadas[b].cobertura()));
+            double[] coberturas = new double[conCobertura];
+            int[] posicionPorCobertura = new int[conCobertura];
+            for (int i = 0; i < conCobertura; i++) {
+                posicionPorCobertura[i] = posiciones[i];
+                coberturas[i] = ordenadas[posiciones[i]].cobertura();
+            }
+
+            Map<String, Object> estadisticas = calcularEstadisticas(ordenadas, primas, conPrima, coberturas,
+                    barrasHistograma, version);
+            return new Categoria(ids, primas, conPrima, coberturas, posicionPorCobertura,
+                    Map.copyOf(porCompania), Map.copyOf(porTipo), estadisticas,
+                    new Columnas(ids, primas, coberturaPorPosicion, deduciblePorPosicion, tipoPorPosicion));
+        }
+
+        /**
+         * Mismas claves que calculaba el comparador sobre la lista de seguros, más percentiles de prima,
+         * histograma de primas y prima promedio por compañía. Los valores null no cuentan.
+         */
+        private static Map<String, Object> calcularEstadisticas(Fila[] ordenadas, double[] primas, int conPrima,
+                                                                double[] coberturas, int barrasHistograma, long version) {
+            HashMap<String, Object> estadisticas = new HashMap<>();
+            estadisticas.put("totalPlanes", ordenadas.length);
+            estadisticas.put("version", version);
+            estadisticas.put("actualizado", LocalDateTime.now());
+
+            if (conPrima > 0) {
+                double suma = 0;
+                for (int i = 0; i < conPrima; i++) {
+                    suma += primas[i];
+                }
+                estadisticas.put("primaMinima", primas[0]);
+                estadisticas.put("primaMaxima", primas[conPrima - 1]);
+                estadisticas.put("primaPromedio", suma / conPrima);
+                estadisticas.put("primaP25", percentil(primas, conPrima, 0.25));
+                estadisticas.put("primaP50", percentil(primas, conPrima, 0.50));
+                estadisticas.put("primaP75", percentil(primas, conPrima, 0.75));
+                estadisticas.put("histogramaPrimas", histograma(primas, conPrima, Math.max(1, barrasHistograma)));
+            }
+
+            if (coberturas.length > 0) {
+                double suma = 0;
+                for (double cobertura : coberturas) {
+                    suma += cobertura;
+                }
+                estadisticas.put("coberturaMinima", coberturas[0]);
+                estadisticas.put("coberturaMaxima", coberturas[coberturas.length - 1]);
+                estadisticas.put("coberturaPromedio", suma / coberturas.length);
+            }
+
+            // Por compañía: cantidad de planes, y suma y cantidad de primas para el promedio
+            Map<String, Long> planesPorCompania = new TreeMap<>();
+            Map<String, double[]> primasPorCompania = new TreeMap<>();
+            for (Fila fila : ordenadas) {
+                if (fila.compania() == null) {
+                    continue;
+                }
+                planesPorCompania.merge(fila.compania(), 1L, Long::sum);
+                if (!Double.isNaN(fila.prima())) {
+                    double[] acumulado = primasPorCompania.computeIfAbsent(fila.compania(), c -> new double[2]);
+                    acumulado[0] += fila.prima();
+                    acumulado[1]++;
+                }
+            }
+            Map<String, Double> primaPromedioPorCompania = new TreeMap<>();
+            primasPorCompania.forEach((compania, acumulado) -> primaPromedioPorCompania.put(compania, acumulado[0] / acumulado[1]));
+
+            estadisticas.put("planesPorCompania", Collections.unmodifiableMap(planesPorCompania));
+            estadisticas.put("primaPromedioPorCompania", Collections.unmodifiableMap(primaPromedioPorCompania));
+            estadisticas.put("companias", planesPorCompania.size());
+            return Collections.unmodifiableMap(estadisticas);
+        }
+
+        // Interpolación lineal entre los dos valores vecinos del arreglo ordenado
+        private static double percentil(double[] ordenados, int cantidad, double p) {
+            double posicion = p * (cantidad - 1);
+            int inferior = (int) Math.floor(posicion);
+            int superior = Math.min(inferior + 1, cantidad - 1);
+            return ordenados[inferior] + (ordenados[superior] - ordenados[inferior]) * (posicion - inferior);
+        }
+
+        // Barras de igual ancho entre la prima mínima y la máxima; la última incluye el máximo
+        private static List<Map<String, Object>> histograma(double[] ordenados, int cantidad, int barras) {
+            double minimo = ordenados[0];
+            double maximo = ordenados[cantidad - 1];
+            double ancho = (maximo - minimo) / barras;
+
+            int[] conteos = new int[barras];
+            for (int i = 0; i < cantidad; i++) {
+                int barra = ancho > 0 ? (int) ((ordenados[i] - minimo) / ancho) : 0;
+                conteos[Math.min(barra, barras - 1)]++;
+            }
+
+            List<Map<String, Object>> histograma = new ArrayList<>(barras);
+            for (int i = 0; i < barras; i++) {
+                histograma.add(Map.of(
+                        "desde", minimo + ancho * i,
+                        "hasta", i == barras - 1 ? maximo : minimo + ancho * (i + 1),
+                        "planes", conteos[i]));
+                if (ancho == 0) {
+                    // Todas las primas iguales: una sola barra
+                    break;
+                }
+            }
+            return Collections.unmodifiableList(histograma);
+        }
+
+        private int tamano() {
+            return ids.length;
+        }
+
+        private int[] buscar(Double primaMin, Double primaMax, Double coberturaMin, Double coberturaMax,
+                             Integer idCompania, Integer idTipoSeguro) {
+            // Rango de posiciones por prima
+            int desde = 0;
+            int hasta = ids.length;
+            if (primaMin != null || primaMax != null) {
+                hasta = conPrima;
+                if (primaMin != null) {
+                    desde = primerMayorOIgual(primas, 0, hasta, primaMin);
+                }
+                if (primaMax != null) {
+                    hasta = primerMayor(primas, desde, hasta, primaMax);
+                }
+            }
+            if (desde >= hasta) {
+                return SIN_RESULTADOS;
+            }
+
+            // Los demás filtros se combinan como bitsets sobre las posiciones
+            long[] filtro = null;
+            if (coberturaMin != null || coberturaMax != null) {
+                int inicio = coberturaMin != null ? primerMayorOIgual(coberturas, 0, coberturas.length, coberturaMin) : 0;
+                int fin = coberturaMax != null ? primerMayor(coberturas, inicio, coberturas.length, coberturaMax) : coberturas.length;
+                filtro = new long[palabras(ids.length)];
+                for (int i = inicio; i < fin; i++) {
+                    marcar(filtro, posicionPorCobertura[i]);
+                }
+            }
+            if (idCompania != null) {
+                filtro = intersectar(filtro, porCompania.get(idCompania));
+            }
+            if (idTipoSeguro != null) {
+                filtro = intersectar(filtro, porTipo.get(idTipoSeguro));
+            }
+
+            if (filtro == null) {
+                return Arrays.copyOfRange(ids, desde, hasta);
+            }
+            int[] resultado = new int[hasta - desde];
+            int cantidad = 0;
+            for (int i = desde; i < hasta; i++) {
+                if ((filtro[i >>> 6] & (1L << i)) != 0) {
+                    resultado[cantidad++] = ids[i];
+                }
+            }
+            return cantidad == resultado.length ? resultado : Arrays.copyOf(resultado, cantidad);
+        }
+
+        // null como filtro significa "sin filtrar"; un bitset ausente significa "ningún seguro"
+        private long[] intersectar(long[] filtro, long[] bits) {
+            if (bits == null) {
+                return new long[palabras(ids.length)];
+            }
+            if (filtro == null) {
+                return bits;
+            }
+            long[] resultado = new long[filtro.length];
+            for (int i = 0; i < filtro.length; i++) {
+                resultado[i] = filtro[i] & bits[i];
+            }
+            return resultado;
+        }
+
+        private static int primerMayorOIgual(double[] valores, int desde, int hasta, double clave) {
+            while (desde < hasta) {
+                int medio = (desde + hasta) >>> 1;
+                if (valores[medio] < clave) {
+                    desde = medio + 1;
+                } else {
+                    hasta = medio;
+                }
+            }
+            return desde;
+        }
+
+        private static int primerMayor(double[] valores, int desde, int hasta, double clave) {
+            while (desde < hasta) {
+                int medio = (desde + hasta) >>> 1;
+                if (valores[medio] <= clave) {
+                    desde = medio + 1;
+                } else {
+                    hasta = medio;
+                }
+            }
+            return desde;
+        }
+
+        private static int palabras(int bits) {
+            return (bits + 63) >>> 6;
+        }
+
+        private static void marcar(long[] bits, int posicion) {
+            bits[posicion >>> 6] |= 1L << posicion;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.app.financiera.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.app.financiera.entity.Afp;
+import com.app.financiera.entity.Institucion;
+import com.app.financiera.entity.Usuario;
+import com.app.financiera.repository.AfpRepository;
+import com.app.financiera.repository.InstitucionRepository;
+
+/**
+ * Caché en memoria de instituciones usada para asignar la institución de cada aporte.
+ * El índice es inmutable: se construye una sola vez a partir de las tablas institucion y afp
+ * y se reemplaza completo cuando se crea, actualiza o elimina una AFP.
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+@Component
+public class InstitucionCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(InstitucionCache.class);
+
+    public static final String TIPO_PENSIONES = "Pensiones";
+    public static final String TIPO_FINANCIERA = "Financiera";
+
+    @Autowired
+    private InstitucionRepository institucionRepository;
+
+    @Autowired
+    private AfpRepository afpRepository;
+
+    private volatile IndiceInstituciones indice;
+
+    // Cambia con cada invalidación: un índice que empezó a construirse antes no se publica
+    private final AtomicLong generacion = new AtomicLong();
+    private final Object publicacion = new Object();
+
+    /**
+     * ONP: la institución de tipo "Pensiones".
+     * AFP: la institución "Financiera" cuyo nombre contiene el de la AFP, o cualquier "Financiera".
+     * Retorna null si el usuario no tiene régimen o no hay institución adecuada.
+     */
+    public Institucion resolver(Usuario usuario) {
+        IndiceInstituciones actual = obtenerIndice();
+
+        if ("ONP".equalsIgnoreCase(usuario.getTipoRegimen())) {
+            return actual.primeraDeTipo(TIPO_PENSIONES);
+        }
+
+        if ("AFP".equalsIgnoreCase(usuario.getTipoRegimen()) && usuario.getAfp() != null) {
+            Institucion porAfp = actual.porIdAfp.get(usuario.getAfp().getIdAfp());
+            return porAfp != null ? porAfp : actual.primeraDeTipo(TIPO_FINANCIERA);
+        }
+
+        return null;
+    }
+
+    public List<Institucion> obtenerPorTipo(String tipo) {
+        return obtenerIndice().porTipo.getOrDefault(normalizar(tipo), Collections.emptyList());
+    }
+
+    public Institucion obtenerPorNombreAfp(String nombreAfp) {
+        return obtenerIndice().porNombreAfp.get(normalizar(nombreAfp));
+    }
+
+    // Se llama desde las escrituras de AFP; el índice se reconstruye en el siguiente acceso
+    public void invalidar() {
+        synchronized (publicacion) {
+            generacion.incrementAndGet();
+            indice = null;
+        }
+        logger.info("Caché de instituciones invalidada");
+    }
+
+    private IndiceInstituciones obtenerIndice() {
+        IndiceInstituciones actual = indice;
+        if (actual == null) {
+            synchronized (this) {
+                actual = indice;
+                if (actual == null) {
+                    long generacionInicial = generacion.get();
+                    actual = construirIndice();
+                    // Si una AFP cambió durante la construcción, este índice ya nació viejo: se usa
+                    // para esta llamada y el siguiente acceso lo vuelve a construir
+                    synchronized (publicacion) {
+                        if (generacion.get() == generacionInicial) {
+                            indice = actual;
+                        }
+                    }
+                }
+            }
+        }
+        return actual;
+    }
+
+    private IndiceInstituciones construirIndice() {
+        List<Institucion> instituciones = institucionRepository.findAll();
+        List<Afp> afps = afpRepository.findAll();
+
+        Map<String, List<Institucion>> porTipo = new HashMap<>();
+        for (Institucion institucion : instituciones) {
+            porTipo.computeIfAbsent(normalizar(institucion.getTipo()), t -> new ArrayList<>()).add(institucion);
+        }
+        porTipo.replaceAll((tipo, lista) -> List.copyOf(lista));
+
+        // La coincidencia por nombre se resuelve aquí, una vez por AFP, y no en cada aporte
+        List<Institucion> financieras = porTipo.getOrDefault(normalizar(TIPO_FINANCIERA), Collections.emptyList());
+        Map<String, Institucion> porNombreAfp = new HashMap<>();
+        Map<Integer, Institucion> porIdAfp = new HashMap<>();
+        for (Afp afp : afps) {
+            String nombreAfp = normalizar(afp.getNombre());
+            if (nombreAfp.isEmpty()) {
+                continue;
+            }
+            for (Institucion institucion : financieras) {
+                if (normalizar(institucion.getNombre()).contains(nombreAfp)) {
+                    porNombreAfp.put(nombreAfp, institucion);
+                    porIdAfp.put(afp.getIdAfp(), institucion);
+                    break;
+                }
+            }
+        }
+
+        logger.info("Caché de instituciones construida: {} instituciones, {} AFP asociadas",
+                instituciones.size(), porIdAfp.size());
+        return new IndiceInstituciones(Map.copyOf(porTipo), Map.copyOf(porNombreAfp), Map.copyOf(porIdAfp));
+    }
+
+    private static String normalizar(String texto) {
+        return texto != null ? texto.trim().toUpperCase() : "";
+    }
+
+    private static final class IndiceInstituciones {
+        private final Map<String, List<Institucion>> porTipo;
+        private final Map<String, Institucion> porNombreAfp;
+        private final Map<Integer, Institucion> porIdAfp;
+
+        private IndiceInstituciones(Map<String, List<Institucion>> porTipo, Map<String, Institucion> porNombreAfp,
+                Map<Integer, Institucion> porIdAfp) {
+            this.porTipo = porTipo;
+            this.porNombreAfp = porNombreAfp;
+            this.porIdAfp = porIdAfp;
+        }
+
+        private Institucion primeraDeTipo(String tipo) {
+            List<Institucion> lista = porTipo.get(normalizar(tipo));
+            return lista != null && !lista.isEmpty() ? lista.get(0) : null;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.app.financiera.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.app.financiera.util.CubetaTokens;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Protege al resto de la aplicación del costo de las llamadas al modelo:
+ * - Tasa por usuario: una cubeta de tokens sin bloqueos por cada usuario del JWT.
+ * - Compartimento de concurrencia: como máximo N llamadas al modelo a la vez; las demás esperan
+ *   en cola hasta espera-cola-ms y, si no obtienen lugar, se rechazan. Así los hilos de Tomcat
+ *   nunca quedan todos detenidos en el chatbot y el dashboard sigue respondiendo.
+ * Ambos rechazos se informan como 429 con Retry-After.
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+@Component
+public class LimitadorChatBot {
+
+    private static final Logger logger = LoggerFactory.getLogger(LimitadorChatBot.class);
+
+    @Value("${chatbot.limite.mensajes-por-minuto:20}")
+    private double mensajesPorMinuto;
+
+    @Value("${chatbot.limite.rafaga:5}")
+    private double rafaga;
+
+    @Value("${chatbot.limite.llamadas-concurrentes:8}")
+    private int llamadasConcurrentes;
+
+    @Value("${chatbot.limite.espera-cola-ms:2000}")
+    private long esperaColaMs;
+
+    private final Map<String, CubetaTokens> cubetas = new ConcurrentHashMap<>();
+
+    private final AtomicLong rechazosTasa = new AtomicLong();
+    private final AtomicLong rechazosConcurrencia = new AtomicLong();
+    private final AtomicLong llamadasAdmitidas = new AtomicLong();
+    private final AtomicLong esperaTotalNanos = new AtomicLong();
+    private final AtomicLong esperaMaximaNanos = new AtomicLong();
+
+    private Semaphore compartimento;
+
+    @PostConstruct
+    public void iniciar() {
+        // Justo: las llamadas en cola obtienen lugar en orden de llegada
+        compartimento = new Semaphore(llamadasConcurrentes, true);
+    }
+
+    /**
+     * Consume un mensaje de la cubeta del cliente o lanza LimiteExcedidoException
+     */
+    public void verificarTasa(String cliente) {
+        CubetaTokens cubeta = cubetas.computeIfAbsent(cliente, c -> new CubetaTokens(rafaga, mensajesPorMinuto / 60d));
+        long esperaNanos = cubeta.consumirOEsperar();
+        if (esperaNanos > 0) {
+            rechazosTasa.incrementAndGet();
+            throw new LimiteExcedidoException("Demasiados mensajes al asistente, espera un momento",
+                    (long) Math.ceil(esperaNanos / 1_000_000_000d));
+        }
+    }
+
+    /**
+     * Reserva un lugar para llamar al modelo; se libera cerrando el permiso (una sola vez)
+     */
+    public Permiso adquirirLlamada() {
+        long inicio = System.nanoTime();
+        boolean admitida;
+        try {
+            admitida = compartimento.tryAcquire(esperaColaMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admitida = false;
+        }
+
+        long espera = System.nanoTime() - inicio;
+        esperaTotalNanos.addAndGet(espera);
+        esperaMaximaNanos.accumulateAndGet(espera, Math::max);
+
+        if (!admitida) {
+            rechazosConcurrencia.incrementAndGet();
+            logger.warn("Asistente saturado: {} llamadas al modelo en curso, petición rechazada tras {} ms en cola",
+                    llamadasConcurrentes, TimeUnit.NANOSECONDS.toMillis(espera));
+            throw new LimiteExcedidoException("El asistente está atendiendo muchas consultas, intenta nuevamente",
+                    TimeUnit.MILLISECONDS.toSeconds(esperaColaMs) + 1);
+        }
+        llamadasAdmitidas.incrementAndGet();
+        return new Permiso();
+    }
+
+    // Una cubeta llena equivale a una nueva: se descartan para no acumular usuarios inactivos
+    @Scheduled(fixedDelayString = "${chatbot.limite.limpieza-ms:300000}")
+    public void limpiarCubetas() {
+        cubetas.values().removeIf(CubetaTokens::estaLlena);
+    }
+
+    public HashMap<String, Object> obtenerEstadisticas() {
+        long admitidas = llamadasAdmitidas.get();
+        long esperas = admitidas + rechazosConcurrencia.get();
+
+        HashMap<String, Object> estadisticas = new HashMap<>();
+        estadisticas.put("mensajesPorMinuto", mensajesPorMinuto);
+        estadisticas.put("rafaga", rafaga);
+        estadisticas.put("clientesConCubeta", cubetas.size());
+        estadisticas.put("rechazosPorTasa", rechazosTasa.get());
+        estadisticas.put("llamadasConcurrentes", llamadasConcurrentes);
+        estadisticas.put("llamadasEnCurso", llamadasConcurrentes - compartimento.availablePermits());
+        estadisticas.put("llamadasEnCola", compartimento.getQueueLength());
+        estadisticas.put("llamadasAdmitidas", admitidas);
+        estadisticas.put("rechazosPorConcurrencia", rechazosConcurrencia.get());
+        estadisticas.put("esperaColaPromedioMs", esperas > 0 ? esperaTotalNanos.get() / 1_000_000d / esperas : 0.0);
+        estadisticas.put("esperaColaMaximaMs", esperaMaximaNanos.get() / 1_000_000d);
+        return estadisticas;
+    }
+
+    public final class Permiso implements AutoCloseable {
+        private final AtomicBoolean liberado = new AtomicBoolean();
+
+        private Permiso() {
+        }
+
+        @Override
+        public void close() {
+            if (liberado.compareAndSet(false, true)) {
+                compartimento.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.app.financiera.service;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Petición rechazada por límite de tasa o de concurrencia.
+ * Se resuelve como 429 Too Many Requests con la cabecera Retry-After.
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+public class LimiteExcedidoException extends ResponseStatusException {
+
+    private final long reintentarEnSegundos;
+
+    public LimiteExcedidoException(String motivo, long reintentarEnSegundos) {
+        super(HttpStatus.TOO_MANY_REQUESTS, motivo);
+        this.reintentarEnSegundos = Math.max(1, reintentarEnSegundos);
+    }
+
+    public long getReintentarEnSegundos() {
+        return reintentarEnSegundos;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(reintentarEnSegundos));
+        return headers;
+    }
+}
@@ -0,0 +1,105 @@
+package com.app.financiera.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Carga y compila al iniciar las plantillas de correo de classpath:plantillas/correo.
+ * El archivo nombre.html es la versión en español; las variantes por idioma se agregan
+ * como nombre_en.html o nombre_en_US.html, se compilan junto con las demás y se eligen
+ * según el Locale solicitado.
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+@Component
+public class MotorPlantillasCorreo {
+
+    private static final Logger logger = LoggerFactory.getLogger(MotorPlantillasCorreo.class);
+
+    private static final String UBICACION = "classpath:plantillas/correo/*.html";
+    private static final int CAPACIDAD_INICIAL = 2048;
+    private static final int CAPACIDAD_MAXIMA_RETENIDA = 64 * 1024;
+
+    public static final Locale LOCALE_PREDETERMINADO = Locale.forLanguageTag("es-PE");
+
+    // Un búfer por hilo, reutilizado entre correos
+    private static final ThreadLocal<StringBuilder> BUFER =
+            ThreadLocal.withInitial(() -> new StringBuilder(CAPACIDAD_INICIAL));
+
+    private Map<String, PlantillaCorreo> plantillas = Map.of();
+
+    @PostConstruct
+    public void cargar() throws IOException {
+        cargar(UBICACION);
+    }
+
+    void cargar(String ubicacion) throws IOException {
+        Map<String, PlantillaCorreo> compiladas = new HashMap<>();
+        Resource[] recursos = new PathMatchingResourcePatternResolver().getResources(ubicacion);
+        for (Resource recurso : recursos) {
+            String archivo = recurso.getFilename();
+            if (archivo == null) {
+                continue;
+            }
+            try (InputStream entrada = recurso.getInputStream()) {
+                String texto = StreamUtils.copyToString(entrada, StandardCharsets.UTF_8);
+                compiladas.put(archivo.substring(0, archivo.length() - ".html".length()), PlantillaCorreo.compilar(texto));
+            }
+        }
+        plantillas = Map.copyOf(compiladas);
+        logger.info("Plantillas de correo compiladas: {}", plantillas.keySet());
+    }
+
+    public String renderizar(String nombre, Map<String, ?> valores) {
+        return renderizar(nombre, LOCALE_PREDETERMINADO, valores);
+    }
+
+    public String renderizar(String nombre, Locale locale, Map<String, ?> valores) {
+        PlantillaCorreo plantilla = buscar(nombre, locale);
+        if (plantilla == null) {
+            throw new IllegalArgumentException("No existe la plantilla de correo: " + nombre);
+        }
+
+        StringBuilder bufer = BUFER.get();
+        bufer.setLength(0);
+        plantilla.renderizar(valores, bufer);
+        String resultado = bufer.toString();
+
+        // No retener búferes que crecieron por un correo excepcionalmente grande
+        if (bufer.capacity() > CAPACIDAD_MAXIMA_RETENIDA) {
+            BUFER.remove();
+        }
+        return resultado;
+    }
+
+    // nombre_es_PE, luego nombre_es, luego nombre
+    private PlantillaCorreo buscar(String nombre, Locale locale) {
+        if (locale != null && !locale.getLanguage().isEmpty()) {
+            if (!locale.getCountry().isEmpty()) {
+                PlantillaCorreo porPais = plantillas.get(nombre + "_" + locale.getLanguage() + "_" + locale.getCountry());
+                if (porPais != null) {
+                    return porPais;
+                }
+            }
+            PlantillaCorreo porIdioma = plantillas.get(nombre + "_" + locale.getLanguage());
+            if (porIdioma != null) {
+                return porIdioma;
+            }
+        }
+        return plantillas.get(nombre);
+    }
+}
@@ -0,0 +1,390 @@
+package com.app.financiera.service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Puntúa todos los planes de una categoría contra el perfil del usuario y devuelve los k mejores.
+ * Cada plan recibe un puntaje entre 0 y 1 por criterio (prima frente al sueldo, cobertura frente a la
+ * deseada, deducible y cobertura por sol de prima) y el total es su promedio ponderado; los planes de
+ * un tipo que el usuario ya tiene contratado se penalizan.
+ * Recorre las columnas del índice del catálogo (sin Hibernate) en paralelo con fork-join; cada
+ * tramo guarda solo sus k mejores en un montículo acotado y los montículos se combinan al unir,
+ * así no se ordena la categoría completa.
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+@Component
+public class MotorRecomendaciones {
+
+    public static final String CRITERIO_PRIMA = "prima";
+    public static final String CRITERIO_COBERTURA = "cobertura";
+    public static final String CRITERIO_DEDUCIBLE = "deducible";
+    public static final String CRITERIO_VALOR = "valor";
+
+    // Edad hasta la que se supone que el usuario seguirá percibiendo su sueldo
+    private static final int EDAD_RETIRO = 65;
+
+    @Value("${recomendacion.peso.prima:0.35}")
+    private double pesoPrima;
+
+    @Value("${recomendacion.peso.cobertura:0.30}")
+    private double pesoCobertura;
+
+    @Value("${recomendacion.peso.deducible:0.15}")
+    private double pesoDeducible;
+
+    @Value("${recomendacion.peso.valor:0.20}")
+    private double pesoValor;
+
+    // Parte del sueldo mensual que se considera razonable destinar a la prima
+    @Value("${recomendacion.porcentaje-ingreso-max:0.05}")
+    private double porcentajeIngresoMax;
+
+    @Value("${recomendacion.penalizacion-tipo-contratado:0.5}")
+    private double penalizacionTipoContratado;
+
+    // Por debajo de esta cantidad de planes un tramo se puntúa sin dividirlo
+    @Value("${recomendacion.umbral-secuencial:2048}")
+    private int umbralSecuencial;
+
+    private final AtomicLong recomendaciones = new AtomicLong();
+    private final AtomicLong planesEvaluados = new AtomicLong();
+    private final AtomicLong nanosTotales = new AtomicLong();
+
+    /**
+     * edad y salarioMensual pueden ser null; coberturaDeseada y deducibleMaximo también (se usa la
+     * referencia de la categoría o, para la cobertura, una estimada con la edad y el sueldo)
+     */
+    public record Perfil(Integer edad, Double salarioMensual, Set<Integer> tiposContratados,
+                         Double coberturaDeseada, Double deducibleMaximo) {
+    }
+
+    /**
+     * posicion: índice del plan en las columnas; criterios: puntaje de cada criterio antes de ponderar
+     */
+    public record Recomendacion(int idSeguro, int posicion, double puntaje, Map<String, Double> criterios,
+                                boolean tipoContratado) {
+    }
+
+    public Recomendacion[] recomendar(IndiceCatalogoSeguros.Columnas columnas, Perfil perfil, int k) {
+        long inicio = System.nanoTime();
+        int n = columnas.ids().length;
+        if (n == 0 || k <= 0) {
+            return new Recomendacion[0];
+        }
+
+        Puntuador puntuador = new Puntuador(columnas, perfil);
+        TopK mejores = ForkJoinPool.commonPool().invoke(new TareaPuntaje(puntuador, 0, n, k));
+
+        int[] posiciones = mejores.posicionesOrdenadas();
+        Recomendacion[] resultado = new Recomendacion[posiciones.length];
+        for (int i = 0; i < posiciones.length; i++) {
+            int posicion = posiciones[i];
+            resultado[i] = new Recomendacion(columnas.ids()[posicion], posicion, puntuador.puntaje(posicion),
+                    puntuador.criterios(posicion), puntuador.tipoContratado(posicion));
+        }
+
+        recomendaciones.incrementAndGet();
+        planesEvaluados.addAndGet(n);
+        nanosTotales.addAndGet(System.nanoTime() - inicio);
+        return resultado;
+    }
+
+    public Map<String, Double> pesos() {
+        Map<String, Double> pesos = new LinkedHashMap<>();
+        pesos.put(CRITERIO_PRIMA, pesoPrima);
+        pesos.put(CRITERIO_COBERTURA, pesoCobertura);
+        pesos.put(CRITERIO_DEDUCIBLE, pesoDeducible);
+        pesos.put(CRITERIO_VALOR, pesoValor);
+        return pesos;
+    }
+
+    public HashMap<String, Object> obtenerEstadisticas() {
+        long total = recomendaciones.get();
+
+        HashMap<String, Object> estadisticas = new HashMap<>();
+        estadisticas.put("recomendaciones", total);
+        estadisticas.put("planesEvaluados", planesEvaluados.get());
+        estadisticas.put("tiempoPromedioMicros", total > 0 ? nanosTotales.get() / 1_000d / total : 0.0);
+        estadisticas.put("paralelismo", ForkJoinPool.commonPool().getParallelism());
+        estadisticas.put("pesos", pesos());
+        return estadisticas;
+    }
+
+    /**
+     * Puntaje de un plan por posición. Los rangos de la categoría se calculan una vez al crearlo;
+     * después solo lee arreglos, por lo que varios hilos lo usan a la vez sin coordinarse.
+     */
+    private final class Puntuador {
+        private final IndiceCatalogoSeguros.Columnas columnas;
+        private final Perfil perfil;
+        private final Set<Integer> tiposContratados;
+        private final double sumaPesos;
+
+        private double primaMin = Double.POSITIVE_INFINITY;
+        private double primaMax = Double.NEGATIVE_INFINITY;
+        private double coberturaMin = Double.POSITIVE_INFINITY;
+        private double coberturaMax = Double.NEGATIVE_INFINITY;
+        private double deducibleMin = Double.POSITIVE_INFINITY;
+        private double deducibleMax = Double.NEGATIVE_INFINITY;
+        private double valorMax = 0;
+        // Cobertura a la que se compara cada plan; NaN si no hay referencia del usuario
+        private final double coberturaObjetivo;
+
+        private Puntuador(IndiceCatalogoSeguros.Columnas columnas, Perfil perfil) {
+            this.columnas = columnas;
+            this.perfil = perfil;
+            this.tiposContratados = perfil.tiposContratados() != null ? perfil.tiposContratados() : Set.of();
+            this.sumaPesos = pesoPrima + pesoCobertura + pesoDeducible + pesoValor;
+
+            double[] primas = columnas.primas();
+            double[] coberturas = columnas.coberturas();
+            double[] deducibles = columnas.deducibles();
+            for (int i = 0; i < primas.length; i++) {
+                // Las comparaciones con NaN son falsas: los valores null no mueven los rangos
+                if (primas[i] < primaMin) {
+                    primaMin = primas[i];
+                }
+                if (primas[i] > primaMax) {
+                    primaMax = primas[i];
+                }
+                if (coberturas[i] < coberturaMin) {
+                    coberturaMin = coberturas[i];
+                }
+                if (coberturas[i] > coberturaMax) {
+                    coberturaMax = coberturas[i];
+                }
+                if (deducibles[i] < deducibleMin) {
+                    deducibleMin = deducibles[i];
+                }
+                if (deducibles[i] > deducibleMax) {
+                    deducibleMax = deducibles[i];
+                }
+                double valor = coberturas[i] / primas[i];
+                if (primas[i] > 0 && valor > valorMax) {
+                    valorMax = valor;
+                }
+            }
+            this.coberturaObjetivo = calcularCoberturaObjetivo(perfil);
+        }
+
+        private double puntaje(int i) {
+            double total = (pesoPrima * prima(i) + pesoCobertura * cobertura(i)
+                    + pesoDeducible * deducible(i) + pesoValor * valor(i)) / sumaPesos;
+            return tipoContratado(i) ? total * (1 - penalizacionTipoContratado) : total;
+        }
+
+        private Map<String, Double> criterios(int i) {
+            Map<String, Double> criterios = new LinkedHashMap<>();
+            criterios.put(CRITERIO_PRIMA, prima(i));
+            criterios.put(CRITERIO_COBERTURA, cobertura(i));
+            criterios.put(CRITERIO_DEDUCIBLE, deducible(i));
+            criterios.put(CRITERIO_VALOR, valor(i));
+            return criterios;
+        }
+
+        private boolean tipoContratado(int i) {
+            return tiposContratados.contains(columnas.tipos()[i]);
+        }
+
+        // Con sueldo: 1 si la prima es gratuita, 0.5 en el porcentaje máximo del ingreso, 0 al doble
+        private double prima(int i) {
+            double prima = columnas.primas()[i];
+            if (Double.isNaN(prima)) {
+                return 0;
+            }
+            Double salario = perfil.salarioMensual();
+            if (salario != null && salario > 0) {
+                return acotar(1 - prima / salario / (2 * porcentajeIngresoMax));
+            }
+            return 1 - normalizar(prima, primaMin, primaMax);
+        }
+
+        private double cobertura(int i) {
+            double cobertura = columnas.coberturas()[i];
+            if (Double.isNaN(cobertura)) {
+                return 0;
+            }
+            if (!Double.isNaN(coberturaObjetivo)) {
+                return acotar(cobertura / coberturaObjetivo);
+            }
+            return normalizar(cobertura, coberturaMin, coberturaMax);
+        }
+
+        private double deducible(int i) {
+            double deducible = columnas.deducibles()[i];
+            if (Double.isNaN(deducible)) {
+                // Sin dato: ni favorece ni perjudica
+                return 0.5;
+            }
+            Double maximo = perfil.deducibleMaximo();
+            if (maximo != null) {
+                return deducible <= maximo ? 1 : maximo / deducible;
+            }
+            return 1 - normalizar(deducible, deducibleMin, deducibleMax);
+        }
+
+        private double valor(int i) {
+            double prima = columnas.primas()[i];
+            double cobertura = columnas.coberturas()[i];
+            if (!(prima > 0) || Double.isNaN(cobertura) || valorMax <= 0) {
+                return 0;
+            }
+            return acotar(cobertura / prima / valorMax);
+        }
+    }
+
+    /**
+     * La deseada si se indicó; si no, el sueldo de varios años según los que le quedan hasta el retiro
+     * (entre 2 y 10 sueldos anuales), como referencia habitual para seguros de vida y salud
+     */
+    private static double calcularCoberturaObjetivo(Perfil perfil) {
+        if (perfil.coberturaDeseada() != null && perfil.coberturaDeseada() > 0) {
+            return perfil.coberturaDeseada();
+        }
+        if (perfil.salarioMensual() != null && perfil.salarioMensual() > 0 && perfil.edad() != null) {
+            double anios = Math.max(2, Math.min(10, (EDAD_RETIRO - perfil.edad()) / 5.0));
+            return perfil.salarioMensual() * 12 * anios;
+        }
+        return Double.NaN;
+    }
+
+    private static double normalizar(double valor, double minimo, double maximo) {
+        return maximo > minimo ? (valor - minimo) / (maximo - minimo) : 1;
+    }
+
+    private static double acotar(double valor) {
+        return Math.max(0, Math.min(1, valor));
+    }
+
+    private final class TareaPuntaje extends RecursiveTask<TopK> {
+        private final Puntuador puntuador;
+        private final int desde;
+        private final int hasta;
+        private final int k;
+
+        private TareaPuntaje(Puntuador puntuador, int desde, int hasta, int k) {
+            this.puntuador = puntuador;
+            this.desde = desde;
+            this.hasta = hasta;
+            this.k = k;
+        }
+
+        @Override
+        protected TopK compute() {
+            if (hasta - desde <= umbralSecuencial) {
+                TopK mejores = new TopK(k);
+                for (int i = desde; i < hasta; i++) {
+                    mejores.ofrecer(puntuador.puntaje(i), i);
+                }
+                return mejores;
+            }
+            int medio = (desde + hasta) >>> 1;
+            TareaPuntaje izquierda = new TareaPuntaje(puntuador, desde, medio, k);
+            izquierda.fork();
+            TopK derecha = new TareaPuntaje(puntuador, medio, hasta, k).compute();
+            TopK mejores = izquierda.join();
+            mejores.unir(derecha);
+            return mejores;
+        }
+    }
+
+    /**
+     * Montículo acotado a k elementos con el peor en la raíz: un plan entra solo si supera a ese peor.
+     * A igual puntaje gana la posición menor (la prima más baja).
+     */
+    private static final class TopK {
+        private final double[] puntajes;
+        private final int[] posiciones;
+        private int tamano;
+
+        private TopK(int k) {
+            this.puntajes = new double[k];
+            this.posiciones = new int[k];
+        }
+
+        private void ofrecer(double puntaje, int posicion) {
+            if (tamano < puntajes.length) {
+                puntajes[tamano] = puntaje;
+                posiciones[tamano] = posicion;
+                subir(tamano++);
+            } else if (mejor(puntaje, posicion, puntajes[0], posiciones[0])) {
+                puntajes[0] = puntaje;
+                posiciones[0] = posicion;
+                bajar(0);
+            }
+        }
+
+        private void unir(TopK otro) {
+            for (int i = 0; i < otro.tamano; i++) {
+                ofrecer(otro.puntajes[i], otro.posiciones[i]);
+            }
+        }
+
+        // Del mejor al peor
+        private int[] posicionesOrdenadas() {
+            Integer[] orden = new Integer[tamano];
+            for (int i = 0; i < tamano; i++) {
+                orden[i] = i;
+            }
+            Arrays.sort(orden, (a, b) -> mejor(puntajes[a], posiciones[a], puntajes[b], posiciones[b]) ? -1
+                    : mejor(puntajes[b], posiciones[b], puntajes[a], posiciones[a]) ? 1 : 0);
+            int[] resultado = new int[tamano];
+            for (int i = 0; i < tamano; i++) {
+                resultado[i] = posiciones[orden[i]];
+            }
+            return resultado;
+        }
+
+        private static boolean mejor(double puntajeA, int posicionA, double puntajeB, int posicionB) {
+            return puntajeA > puntajeB || (puntajeA == puntajeB && posicionA < posicionB);
+        }
+
+        private void subir(int i) {
+            while (i > 0) {
+                int padre = (i - 1) >>> 1;
+                if (!mejor(puntajes[padre], posiciones[padre], puntajes[i], posiciones[i])) {
+                    break;
+                }
+                intercambiar(i, padre);
+                i = padre;
+            }
+        }
+
+        private void bajar(int i) {
+            while (true) {
+                int peor = i;
+                for (int hijo = 2 * i + 1; hijo <= 2 * i + 2 && hijo < tamano; hijo++) {
+                    if (mejor(puntajes[peor], posiciones[peor], puntajes[hijo], posiciones[hijo])) {
+                        peor = hijo;
+                    }
+                }
+                if (peor == i) {
+                    return;
+                }
+                intercambiar(i, peor);
+                i = peor;
+            }
+        }
+
+        private void intercambiar(int a, int b) {
+            double puntaje = puntajes[a];
+            puntajes[a] = puntajes[b];
+            puntajes[b] = puntaje;
+            int posicion = posiciones[a];
+            posiciones[a] = posiciones[b];
+            posiciones[b] = posicion;
+        }
+    }
+}
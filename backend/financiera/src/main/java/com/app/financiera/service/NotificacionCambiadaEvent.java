@@ -0,0 +1,45 @@
+package com.app.financiera.service;
+
+import com.app.financiera.dto.NotificacionEvento;
+
+/**
+ * Evento publicado cuando se crea, se entrega, se lee o se elimina una notificación de un usuario.
+ * CREADA se publica al registrarla como "Pendiente" (cuenta como no leída desde ese momento);
+ * ENVIADA, cuando DespachadorNotificaciones la marca como "Enviada" y puede mostrarse al usuario.
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+public class NotificacionCambiadaEvent {
+
+    public enum Tipo { CREADA, ENVIADA, LEIDA, ELIMINADA }
+
+    private final int idUsuario;
+    private final Tipo tipo;
+    private final NotificacionEvento notificacion;
+    // Si la notificación contaba (o cuenta) como no leída
+    private final boolean noLeida;
+
+    public NotificacionCambiadaEvent(int idUsuario, Tipo tipo, NotificacionEvento notificacion, boolean noLeida) {
+        this.idUsuario = idUsuario;
+        this.tipo = tipo;
+        this.notificacion = notificacion;
+        this.noLeida = noLeida;
+    }
+
+    public int getIdUsuario() {
+        return idUsuario;
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    public NotificacionEvento getNotificacion() {
+        return notificacion;
+    }
+
+    public boolean isNoLeida() {
+        return noLeida;
+    }
+}
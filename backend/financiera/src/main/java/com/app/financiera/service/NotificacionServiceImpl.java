@@ -0,0 +1,151 @@
+package com.app.financiera.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.app.financiera.dto.NotificacionEvento;
+import com.app.financiera.entity.Notificacion;
+import com.app.financiera.entity.Usuario;
+import com.app.financiera.repository.NotificacionRepository;
+import com.app.financiera.repository.UsuarioRepository;
+
+/**
+ * Las notificaciones se registran como "Pendiente"; DespachadorNotificaciones
+ * las envía por su canal, actualiza su estado y publica la entrega. Cada cambio se publica como
+ * NotificacionCambiadaEvent para el canal SSE y el conteo de no leídas en memoria.
+ * Los métodos notificar* se invocan dentro de la transacción del servicio que origina el aviso,
+ * de modo que la notificación se confirma o se descarta junto con el cambio que la produjo.
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+@Service
+public class NotificacionServiceImpl implements NotificacionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificacionServiceImpl.class);
+
+    @Autowired
+    private NotificacionRepository notificacionRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CentroNotificacionesSse centroNotificaciones;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Override
+    @Transactional
+    public Notificacion crearYEnviarNotificacion(Notificacion notificacion) {
+        Notificacion guardada = notificacionRepository.save(notificacion);
+        eventPublisher.publishEvent(new NotificacionCambiadaEvent(guardada.getUsuario().getIdUsuario(),
+                NotificacionCambiadaEvent.Tipo.CREADA, NotificacionEvento.de(guardada), guardada.getFechaLectura() == null));
+        logger.info("Notificación {} registrada para despacho por {}", guardada.getIdNotificacion(), guardada.getCanal());
+        return guardada;
+    }
+
+    @Override
+    public List<Notificacion> obtenerNotificacionesUsuario(int idUsuario) {
+        return notificacionRepository.findByUsuarioIdOrderByFechaEnvioDesc(idUsuario);
+    }
+
+    @Override
+    public List<Notificacion> obtenerNotificacionesNoLeidas(int idUsuario) {
+        return notificacionRepository.findNotificacionesNoLeidas(idUsuario);
+    }
+
+    @Override
+    @Transactional
+    public Notificacion marcarComoLeida(int idNotificacion) {
+        Notificacion notificacion = notificacionRepository.findById(idNotificacion)
+                .orElseThrow(() -> new RuntimeException("Notificación no encontrada"));
+
+        if (notificacion.getFechaLectura() == null) {
+            notificacion.setFechaLectura(LocalDateTime.now());
+            notificacion.setEstado("Leída");
+            notificacion = notificacionRepository.save(notificacion);
+            eventPublisher.publishEvent(new NotificacionCambiadaEvent(notificacion.getUsuario().getIdUsuario(),
+                    NotificacionCambiadaEvent.Tipo.LEIDA, null, true));
+        }
+        return notificacion;
+    }
+
+    @Override
+    public long contarNotificacionesNoLeidas(int idUsuario) {
+        // Con una conexión SSE abierta el conteo se mantiene en memoria
+        Long enCache = centroNotificaciones.noLeidasEnCache(idUsuario);
+        return enCache != null ? enCache : notificacionRepository.countNotificacionesNoLeidas(idUsuario);
+    }
+
+    @Override
+    public List<Notificacion> obtenerNotificacionesPorTipo(int idUsuario, String tipo) {
+        return notificacionRepository.findByUsuarioAndTipo(idUsuario, tipo);
+    }
+
+    @Override
+    @Transactional
+    public void eliminarNotificacion(int idNotificacion) {
+        notificacionRepository.findById(idNotificacion).ifPresent(notificacion -> {
+            notificacionRepository.delete(notificacion);
+            eventPublisher.publishEvent(new NotificacionCambiadaEvent(notificacion.getUsuario().getIdUsuario(),
+                    NotificacionCambiadaEvent.Tipo.ELIMINADA, null, notificacion.getFechaLectura() == null));
+        });
+    }
+
+    @Override
+    public void notificarVencimientoSeguro(int idUsuario, String tipoSeguro, String fechaVencimiento) {
+        registrar(idUsuario, "Alerta", "Alta", "Recordatorio: Vencimiento de Seguro",
+                String.format("Su %s vence el %s. Renueve su póliza para mantener su cobertura activa.",
+                        tipoSeguro, fechaVencimiento));
+    }
+
+    @Override
+    public void notificarPagoPendiente(int idUsuario, String concepto, Double monto) {
+        registrar(idUsuario, "Recordatorio", "Alta", "Pago Pendiente",
+                String.format("Tiene un pago pendiente por %s: S/ %.2f", concepto, monto));
+    }
+
+    @Override
+    public void notificarAporteRegistrado(int idUsuario, Double monto, String periodo) {
+        registrar(idUsuario, "Informativa", "Media", "Aporte Registrado",
+                String.format("Su aporte de S/ %.2f del periodo %s ha sido registrado.", monto, periodo));
+    }
+
+    @Override
+    public void notificarAsesoramiento(int idUsuario, String tipoAsesoramiento, String fechaHora) {
+        registrar(idUsuario, "Recordatorio", "Media", "Asesoramiento Programado",
+                String.format("Su asesoramiento de %s está programado para %s.", tipoAsesoramiento, fechaHora));
+    }
+
+    @Override
+    public void notificarTramite(int idUsuario, String tipoTramite, String nuevoEstado) {
+        registrar(idUsuario, "Informativa", "Media", "Actualización de Trámite",
+                String.format("Su trámite de %s cambió a: %s", tipoTramite, nuevoEstado));
+    }
+
+    // Canal Email si el usuario lo aceptó; en otro caso solo dentro del sistema.
+    // Los errores se propagan: tragarlos dejaría la transacción del llamador marcada como rollback-only
+    private void registrar(int idUsuario, String tipo, String prioridad, String asunto, String mensaje) {
+        Usuario usuario = usuarioRepository.findById(idUsuario)
+                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+
+        Notificacion notificacion = new Notificacion();
+        notificacion.setUsuario(usuario);
+        notificacion.setTipoNotificacion(tipo);
+        notificacion.setPrioridad(prioridad);
+        notificacion.setAsunto(asunto);
+        notificacion.setMensaje(mensaje);
+        notificacion.setCanal(usuario.isNotificacionesEmail() ? "Email" : "Sistema");
+
+        crearYEnviarNotificacion(notificacion);
+    }
+}
@@ -2,6 +2,7 @@ package com.app.financiera.service;
 
 import java.util.HashMap;
 import java.util.List;
+import com.app.financiera.dto.ResumenPensionesResponse;
 import com.app.financiera.entity.AportePension;
 import com.app.financiera.entity.SaldoPension;
 import com.app.financiera.entity.ConsultaAportes;
@@ -10,7 +11,7 @@ import com.app.financiera.entity.HistorialConsultas;
 public interface PensionesService {
 
     // RESUMEN GENERAL
-    HashMap<String, Object> obtenerResumenPensiones(int idUsuario);
+    ResumenPensionesResponse obtenerResumenPensiones(int idUsuario);
 
     // APORTES
     List<AportePension> obtenerAportes(int idUsuario);
@@ -4,7 +4,9 @@ import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import com.app.financiera.dto.ResumenPensionesResponse;
 import com.app.financiera.entity.AportePension;
 import com.app.financiera.entity.SaldoPension;
 import com.app.financiera.entity.ConsultaAportes;
@@ -31,10 +33,12 @@ public class PensionesServiceImpl implements PensionesService {
     @Autowired
     private HistorialConsultasRepository historialConsultasRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Override
-    public HashMap<String, Object> obtenerResumenPensiones(int idUsuario) {
+    public ResumenPensionesResponse obtenerResumenPensiones(int idUsuario) {
         logger.info("Generando resumen de pensiones para usuario: {}", idUsuario);
-        HashMap<String, Object> resumen = new HashMap<>();
 
         try {
             Double saldoTotal = saldoPensionService.obtenerSaldoTotalUsuario(idUsuario);
@@ -50,22 +54,21 @@ public class PensionesServiceImpl implements PensionesService {
 
             Integer años = obtenerAñosAportados(idUsuario);
 
-            resumen.put("saldoTotal", saldoTotal != null ? saldoTotal : 0);
-            resumen.put("saldoDisponible", saldoDisponible != null ? saldoDisponible : 0);
-            resumen.put("estadoAFP", obtenerEstadoAFP(idUsuario));
-            resumen.put("estadoONP", obtenerEstadoONP(idUsuario));
-            resumen.put("aportesONP12m", montoONP);
-            resumen.put("aportesAFP12m", montoAFP);
-            resumen.put("años", años);
-            resumen.put("exitoso", true);
+            return new ResumenPensionesResponse(
+                    saldoTotal != null ? saldoTotal : 0.0,
+                    saldoDisponible != null ? saldoDisponible : 0.0,
+                    obtenerEstadoAFP(idUsuario),
+                    obtenerEstadoONP(idUsuario),
+                    montoONP,
+                    montoAFP,
+                    años,
+                    true,
+                    null);
 
         } catch (Exception e) {
             logger.error("Error generando resumen de pensiones para usuario {}: {}", idUsuario, e.getMessage());
-            resumen.put("exitoso", false);
-            resumen.put("error", e.getMessage());
+            return ResumenPensionesResponse.error(e.getMessage());
         }
-
-        return resumen;
     }
 
     @Override
@@ -150,7 +153,9 @@ public class PensionesServiceImpl implements PensionesService {
     public ConsultaAportes registrarConsulta(ConsultaAportes consulta) {
         consulta.setFechaConsulta(LocalDateTime.now());
         logger.info("Registrando consulta para usuario: {}", consulta.getUsuario().getIdUsuario());
-        return consultaAportesRepository.save(consulta);
+        ConsultaAportes guardada = consultaAportesRepository.save(consulta);
+        eventPublisher.publishEvent(new DatosUsuarioModificadosEvent(consulta.getUsuario().getIdUsuario(), "Consulta"));
+        return guardada;
     }
 
     @Override
@@ -167,7 +172,10 @@ public class PensionesServiceImpl implements PensionesService {
     public HistorialConsultas registrarHistorial(HistorialConsultas historial) {
         historial.setFecha(LocalDateTime.now());
         logger.info("Registrando en historial para usuario: {}", historial.getUsuario().getIdUsuario());
-        return historialConsultasRepository.save(historial);
+        HistorialConsultas guardado = historialConsultasRepository.save(historial);
+        // El historial aparece en la actividad reciente del dashboard
+        eventPublisher.publishEvent(new DatosUsuarioModificadosEvent(historial.getUsuario().getIdUsuario(), "Historial"));
+        return guardado;
     }
 
     @Override
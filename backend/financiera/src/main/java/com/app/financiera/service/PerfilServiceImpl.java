@@ -8,6 +8,7 @@ import com.app.financiera.repository.AfpRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,6 +25,9 @@ public class PerfilServiceImpl implements PerfilService {
     @Autowired
     private AfpRepository afpRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Override
     public PerfilUsuarioDTO obtenerPerfil(int idUsuario) {
         logger.info("Obteniendo perfil del usuario ID: {}", idUsuario);
@@ -114,6 +118,8 @@ public class PerfilServiceImpl implements PerfilService {
         }
 
         Usuario actualizado = usuarioRepository.save(usuario);
+        // El dashboard muestra el perfil, la AFP y el régimen del usuario
+        eventPublisher.publishEvent(new DatosUsuarioModificadosEvent(idUsuario, "Perfil"));
         logger.info("Perfil actualizado exitosamente para usuario ID: {}", idUsuario);
 
         return actualizado;
@@ -135,6 +141,7 @@ public class PerfilServiceImpl implements PerfilService {
         usuario.setFotoPerfil(fotoPerfil);
 
         Usuario actualizado = usuarioRepository.save(usuario);
+        eventPublisher.publishEvent(new DatosUsuarioModificadosEvent(idUsuario, "Perfil"));
         logger.info("Foto de perfil actualizada exitosamente para usuario ID: {}", idUsuario);
 
         return actualizado;
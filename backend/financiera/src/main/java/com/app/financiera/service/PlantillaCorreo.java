@@ -0,0 +1,90 @@
+package com.app.financiera.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plantilla de correo ya compilada: el texto se separa una sola vez en segmentos literales
+ * y variables {{nombre}}. Al renderizar solo se copian los literales y los valores escapados.
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+public final class PlantillaCorreo {
+
+    private static final String APERTURA = "{{";
+    private static final String CIERRE = "}}";
+
+    // literales.length == variables.length + 1
+    private final String[] literales;
+    private final String[] variables;
+    private final int longitudLiterales;
+
+    private PlantillaCorreo(String[] literales, String[] variables) {
+        this.literales = literales;
+        this.variables = variables;
+        int total = 0;
+        for (String literal : literales) {
+            total += literal.length();
+        }
+        this.longitudLiterales = total;
+    }
+
+    public static PlantillaCorreo compilar(String texto) {
+        List<String> literales = new ArrayList<>();
+        List<String> variables = new ArrayList<>();
+
+        int posicion = 0;
+        while (true) {
+            int inicio = texto.indexOf(APERTURA, posicion);
+            if (inicio < 0) {
+                break;
+            }
+            int fin = texto.indexOf(CIERRE, inicio + APERTURA.length());
+            if (fin < 0) {
+                throw new IllegalArgumentException("Variable sin cerrar en la posición " + inicio);
+            }
+            literales.add(texto.substring(posicion, inicio));
+            variables.add(texto.substring(inicio + APERTURA.length(), fin).trim());
+            posicion = fin + CIERRE.length();
+        }
+        literales.add(texto.substring(posicion));
+
+        return new PlantillaCorreo(literales.toArray(new String[0]), variables.toArray(new String[0]));
+    }
+
+    /**
+     * Agrega la plantilla al destino reemplazando cada variable por su valor escapado para HTML.
+     * Una variable sin valor se deja vacía.
+     */
+    public void renderizar(Map<String, ?> valores, StringBuilder destino) {
+        destino.ensureCapacity(destino.length() + longitudLiterales + variables.length * 16);
+        for (int i = 0; i < variables.length; i++) {
+            destino.append(literales[i]);
+            Object valor = valores.get(variables[i]);
+            if (valor != null) {
+                escaparHtml(valor.toString(), destino);
+            }
+        }
+        destino.append(literales[variables.length]);
+    }
+
+    public List<String> getVariables() {
+        return List.of(variables);
+    }
+
+    static void escaparHtml(String texto, StringBuilder destino) {
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            switch (c) {
+                case '&' -> destino.append("&amp;");
+                case '<' -> destino.append("&lt;");
+                case '>' -> destino.append("&gt;");
+                case '"' -> destino.append("&quot;");
+                case '\'' -> destino.append("&#39;");
+                default -> destino.append(c);
+            }
+        }
+    }
+}
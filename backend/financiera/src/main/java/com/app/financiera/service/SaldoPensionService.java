@@ -2,6 +2,8 @@ package com.app.financiera.service;
 
 import java.util.List;
 import com.app.financiera.entity.SaldoPension;
+import com.app.financiera.entity.TipoFondo;
+import com.app.financiera.entity.Usuario;
 
 public interface SaldoPensionService {
 
@@ -22,4 +24,7 @@ public interface SaldoPensionService {
     void eliminarSaldo(int idSaldo);
 
     List<SaldoPension> obtenerTodos();
+
+    // Suma (o resta) una variación de aportes al saldo activo del usuario; lo crea si no existe
+    void aplicarVariacion(Usuario usuario, TipoFondo tipoFondo, double variacion);
 }
\ No newline at end of file
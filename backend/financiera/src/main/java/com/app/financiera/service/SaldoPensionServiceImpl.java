@@ -1,18 +1,43 @@
 package com.app.financiera.service;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import com.app.financiera.entity.SaldoPension;
+import com.app.financiera.entity.TipoFondo;
+import com.app.financiera.entity.Usuario;
+import com.app.financiera.repository.AportePensionRepository;
 import com.app.financiera.repository.SaldoPensionRepository;
 
 @Service
 public class SaldoPensionServiceImpl implements SaldoPensionService {
 
+    private static final Logger logger = LoggerFactory.getLogger(SaldoPensionServiceImpl.class);
+
+    // Distribución del saldo total
+    private static final double PORCENTAJE_DISPONIBLE = 0.9;   // 90% disponible
+    private static final double PORCENTAJE_CIC = 0.6;          // 60% en CIC
+    private static final double PORCENTAJE_CV = 0.4;           // 40% en CV
+    private static final double PORCENTAJE_RENTABILIDAD = 0.05; // 5% anual acumulado
+
+    // Primer argumento del bloqueo consultivo, para no chocar con otros usos de pg_advisory_lock
+    private static final int BLOQUEO_SALDO = 0x53414c44;
+
     @Autowired
     private SaldoPensionRepository saldoPensionRepository;
 
+    @Autowired
+    private AportePensionRepository aportePensionRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Override
     public List<SaldoPension> obtenerSaldosUsuario(int idUsuario) {
         return saldoPensionRepository.findByUsuarioId(idUsuario);
@@ -42,21 +67,95 @@ public class SaldoPensionServiceImpl implements SaldoPensionService {
 
     @Override
     public SaldoPension guardarSaldo(SaldoPension saldo) {
-        return saldoPensionRepository.save(saldo);
+        SaldoPension guardado = saldoPensionRepository.save(saldo);
+        publicarModificacion(guardado);
+        return guardado;
     }
 
     @Override
     public SaldoPension actualizarSaldo(SaldoPension saldo) {
-        return saldoPensionRepository.save(saldo);
+        SaldoPension actualizado = saldoPensionRepository.save(saldo);
+        publicarModificacion(actualizado);
+        return actualizado;
     }
 
     @Override
     public void eliminarSaldo(int idSaldo) {
+        Optional<SaldoPension> saldo = saldoPensionRepository.findById(idSaldo);
         saldoPensionRepository.deleteById(idSaldo);
+        saldo.ifPresent(this::publicarModificacion);
+    }
+
+    // Escrituras directas del saldo (las variaciones por aporte las publica quien registra el aporte)
+    private void publicarModificacion(SaldoPension saldo) {
+        if (saldo.getUsuario() != null) {
+            eventPublisher.publishEvent(new DatosUsuarioModificadosEvent(saldo.getUsuario().getIdUsuario(), "Saldo"));
+        }
     }
 
     @Override
     public List<SaldoPension> obtenerTodos() {
         return saldoPensionRepository.findAll();
     }
-}
\ No newline at end of file
+
+    @Override
+    @Transactional
+    public void aplicarVariacion(Usuario usuario, TipoFondo tipoFondo, double variacion) {
+        int idUsuario = usuario.getIdUsuario();
+        Integer idSaldo = saldoPensionRepository.findIdSaldoActivo(idUsuario);
+
+        if (idSaldo == null) {
+            // Dos primeros aportes simultáneos crearían dos saldos activos: el segundo espera al primero
+            // y, al volver a consultar, encuentra el saldo ya creado y solo le suma su variación
+            saldoPensionRepository.bloquearCreacionSaldo(BLOQUEO_SALDO, idUsuario);
+            idSaldo = saldoPensionRepository.findIdSaldoActivo(idUsuario);
+            if (idSaldo == null) {
+                crearSaldoInicial(usuario, tipoFondo);
+                return;
+            }
+        }
+
+        if (variacion == 0) {
+            return;
+        }
+
+        saldoPensionRepository.aplicarVariacion(idSaldo,
+                variacion,
+                variacion * PORCENTAJE_DISPONIBLE,
+                variacion * PORCENTAJE_CIC,
+                variacion * PORCENTAJE_CV,
+                variacion * PORCENTAJE_RENTABILIDAD,
+                LocalDate.now());
+        logger.info("Saldo {} del usuario {} ajustado en S/ {}", idSaldo, idUsuario, variacion);
+    }
+
+    private void crearSaldoInicial(Usuario usuario, TipoFondo tipoFondo) {
+        int idUsuario = usuario.getIdUsuario();
+
+        // Único punto donde se suma el historial completo, en la base de datos
+        Double total = aportePensionRepository.sumAportesUsuario(idUsuario);
+        double saldoTotal = total != null ? total : 0.0;
+
+        if (saldoTotal == 0) {
+            logger.info("Usuario {} no tiene aportes, no se crea saldo", idUsuario);
+            return;
+        }
+
+        logger.info("Creando nuevo saldo para usuario: {}", idUsuario);
+
+        SaldoPension saldo = new SaldoPension();
+        saldo.setUsuario(usuario);
+        saldo.setEstado("Activo");
+        saldo.setTipoFondo(tipoFondo);
+        saldo.setSaldoTotal(saldoTotal);
+        saldo.setSaldoDisponible(saldoTotal * PORCENTAJE_DISPONIBLE);
+        saldo.setSaldoCIC(saldoTotal * PORCENTAJE_CIC);
+        saldo.setSaldoCV(saldoTotal * PORCENTAJE_CV);
+        saldo.setRentabilidadAcumulada(saldoTotal * PORCENTAJE_RENTABILIDAD);
+        saldo.setFechaCorte(LocalDate.now());
+        saldo.setFechaActualizacion(LocalDate.now());
+
+        saldoPensionRepository.save(saldo);
+        logger.info("Saldo creado exitosamente. Total: S/ {}", saldoTotal);
+    }
+}
@@ -0,0 +1,21 @@
+package com.app.financiera.service;
+
+/**
+ * Evento publicado cuando se crea, actualiza o cancela un seguro
+ * (mantiene al día las estructuras en memoria del comparador)
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+public class SeguroModificadoEvent {
+
+    private final int idSeguro;
+
+    public SeguroModificadoEvent(int idSeguro) {
+        this.idSeguro = idSeguro;
+    }
+
+    public int getIdSeguro() {
+        return idSeguro;
+    }
+}
@@ -2,6 +2,9 @@ package com.app.financiera.service;
 
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import com.app.financiera.dto.PaginaResponse;
+import com.app.financiera.dto.ResumenSegurosResponse;
 import com.app.financiera.entity.Seguro;
 import com.app.financiera.entity.TramiteSeguro;
 import com.app.financiera.entity.BeneficiarioSeguro;
@@ -10,7 +13,7 @@ import com.app.financiera.entity.PagoSeguro;
 public interface SegurosService {
 
     // RESUMEN ADMINISTRATIVO
-    HashMap<String, Object> obtenerResumenAdministrativo(int idUsuario);
+    ResumenSegurosResponse obtenerResumenAdministrativo(int idUsuario);
 
     // SEGUROS (PÓLIZAS)
     List<Seguro> obtenerSegurosUsuario(int idUsuario);
@@ -20,6 +23,8 @@ public interface SegurosService {
     Seguro actualizarSeguro(Seguro seguro);
     void eliminarSeguro(int idSeguro);
     List<Seguro> obtenerSegurosProximosVencer(int idUsuario, int dias);
+    // Página por cursor de las pólizas del usuario (más recientes primero), con los campos pedidos
+    PaginaResponse<Map<String, Object>> obtenerPaginaPolizas(int idUsuario, String campos, String cursor, Integer limite);
 
     // BENEFICIARIOS
     List<BeneficiarioSeguro> obtenerBeneficiariosPorSeguro(int idSeguro);
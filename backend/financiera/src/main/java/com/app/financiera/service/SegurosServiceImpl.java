@@ -4,14 +4,22 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import com.app.financiera.dto.PaginaResponse;
+import com.app.financiera.dto.ResumenSegurosResponse;
 import com.app.financiera.entity.Seguro;
 import com.app.financiera.entity.TramiteSeguro;
 import com.app.financiera.entity.BeneficiarioSeguro;
 import com.app.financiera.entity.PagoSeguro;
+import com.app.financiera.entity.Usuario;
+import com.app.financiera.repository.ParametrosPaginaSeguros;
 import com.app.financiera.repository.SeguroRepository;
+import com.app.financiera.repository.SeguroRepositoryCustom;
 import com.app.financiera.repository.TramiteSeguroRepository;
 import com.app.financiera.repository.BeneficiarioSeguroRepository;
 import com.app.financiera.repository.PagoSeguroRepository;
@@ -35,12 +43,16 @@ public class SegurosServiceImpl implements SegurosService {
     @Autowired
     private PagoSeguroRepository pagoRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private NotificacionService notificacionService;
+
     @Override
-    public HashMap<String, Object> obtenerResumenAdministrativo(int idUsuario) {
+    public ResumenSegurosResponse obtenerResumenAdministrativo(int idUsuario) {
         logger.info("Generando resumen administrativo de seguros para usuario: {}", idUsuario);
 
-        HashMap<String, Object> resumen = new HashMap<>();
-
         try {
             List<Seguro> segurosActivos = obtenerSegurosActivos(idUsuario);
             long totalBeneficiarios = segurosActivos.stream()
@@ -54,21 +66,20 @@ public class SegurosServiceImpl implements SegurosService {
             long alertasVencimiento = obtenerSegurosProximosVencer(idUsuario, 30).size();
             long totalAlertas = alertasVencimiento + tramitesPendientes;
 
-            resumen.put("polizasActivas", segurosActivos.size());
-            resumen.put("beneficiariosRegistrados", totalBeneficiarios);
-            resumen.put("pagosPendientes", pagosPendientes != null ? pagosPendientes : 0);
-            resumen.put("alertas", totalAlertas);
-            resumen.put("alertasVencimiento", alertasVencimiento);
-            resumen.put("tramitesPendientes", tramitesPendientes);
-            resumen.put("exitoso", true);
+            return new ResumenSegurosResponse(
+                    segurosActivos.size(),
+                    totalBeneficiarios,
+                    pagosPendientes != null ? pagosPendientes : 0.0,
+                    totalAlertas,
+                    alertasVencimiento,
+                    tramitesPendientes,
+                    true,
+                    null);
 
         } catch (Exception e) {
             logger.error("Error generando resumen administrativo: {}", e.getMessage());
-            resumen.put("exitoso", false);
-            resumen.put("error", e.getMessage());
+            return ResumenSegurosResponse.error(e.getMessage());
         }
-
-        return resumen;
     }
 
     @Override
@@ -83,6 +94,14 @@ public class SegurosServiceImpl implements SegurosService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public PaginaResponse<Map<String, Object>> obtenerPaginaPolizas(int idUsuario, String campos, String cursor,
+                                                                    Integer limite) {
+        return seguroRepository.buscarPagina(SeguroRepositoryCustom.CriterioSeguros.USUARIO, idUsuario,
+                SeguroRepositoryCustom.OrdenSeguros.RECIENTES, ParametrosPaginaSeguros.campos(campos),
+                ParametrosPaginaSeguros.Cursor.decodificar(cursor), limite);
+    }
+
     @Override
     public Seguro obtenerSeguroPorId(int idSeguro) {
         return seguroRepository.findById(idSeguro).orElse(null);
@@ -94,13 +113,19 @@ public class SegurosServiceImpl implements SegurosService {
         if (seguro.getFechaRegistro() == null) {
             seguro.setFechaRegistro(new java.sql.Timestamp(System.currentTimeMillis()));
         }
-        return seguroRepository.save(seguro);
+        Seguro guardado = seguroRepository.save(seguro);
+        publicarCambio(guardado.getUsuario(), "Seguro");
+        eventPublisher.publishEvent(new SeguroModificadoEvent(guardado.getIdSeguro()));
+        return guardado;
     }
 
     @Override
     public Seguro actualizarSeguro(Seguro seguro) {
         logger.info("Actualizando seguro ID: {}", seguro.getIdSeguro());
-        return seguroRepository.save(seguro);
+        Seguro actualizado = seguroRepository.save(seguro);
+        publicarCambioSeguro(actualizado.getIdSeguro(), "Seguro");
+        eventPublisher.publishEvent(new SeguroModificadoEvent(actualizado.getIdSeguro()));
+        return actualizado;
     }
 
     @Override
@@ -110,6 +135,8 @@ public class SegurosServiceImpl implements SegurosService {
         if (seguro != null) {
             seguro.setEstado("Cancelado");
             seguroRepository.save(seguro);
+            publicarCambio(seguro.getUsuario(), "Seguro");
+            eventPublisher.publishEvent(new SeguroModificadoEvent(idSeguro));
         }
     }
 
@@ -193,13 +220,19 @@ public class SegurosServiceImpl implements SegurosService {
         if (pago.getEstado() == null) {
             pago.setEstado("Pagado");
         }
-        return pagoRepository.save(pago);
+        PagoSeguro guardado = pagoRepository.save(pago);
+        publicarCambioSeguro(pago.getSeguro().getIdSeguro(), "Pago");
+        return guardado;
     }
 
     @Override
     public PagoSeguro actualizarPago(PagoSeguro pago) {
         logger.info("Actualizando pago ID: {}", pago.getIdPago());
-        return pagoRepository.save(pago);
+        PagoSeguro actualizado = pagoRepository.save(pago);
+        if (actualizado.getSeguro() != null) {
+            publicarCambioSeguro(actualizado.getSeguro().getIdSeguro(), "Pago");
+        }
+        return actualizado;
     }
 
     @Override
@@ -229,19 +262,37 @@ public class SegurosServiceImpl implements SegurosService {
         if (tramite.getPrioridad() == null) {
             tramite.setPrioridad("Media");
         }
-        return tramiteRepository.save(tramite);
+        TramiteSeguro guardado = tramiteRepository.save(tramite);
+        publicarCambio(guardado.getUsuario(), "Tramite");
+        return guardado;
     }
 
     @Override
+    @Transactional
     public TramiteSeguro actualizarTramite(TramiteSeguro tramite) {
         logger.info("Actualizando trámite ID: {}", tramite.getIdTramite());
-        return tramiteRepository.save(tramite);
+        String estadoAnterior = tramiteRepository.findEstadoByTramite(tramite.getIdTramite());
+        TramiteSeguro actualizado = tramiteRepository.save(tramite);
+
+        // Solo un cambio de estado se avisa al usuario; se confirma junto con el trámite
+        if (actualizado.getEstado() != null && !actualizado.getEstado().equals(estadoAnterior)
+                && actualizado.getUsuario() != null) {
+            notificacionService.notificarTramite(actualizado.getUsuario().getIdUsuario(),
+                    actualizado.getTipoTramite(), actualizado.getEstado());
+        }
+
+        publicarCambio(actualizado.getUsuario(), "Tramite");
+        return actualizado;
     }
 
     @Override
     public void eliminarTramite(int idTramite) {
         logger.info("Eliminando trámite ID: {}", idTramite);
+        Integer idUsuario = tramiteRepository.findIdUsuarioByTramite(idTramite);
         tramiteRepository.deleteById(idTramite);
+        if (idUsuario != null) {
+            eventPublisher.publishEvent(new DatosUsuarioModificadosEvent(idUsuario, "Tramite"));
+        }
     }
 
     @Override
@@ -270,4 +321,20 @@ public class SegurosServiceImpl implements SegurosService {
 
         return stats;
     }
-}
\ No newline at end of file
+
+    /**
+     * Avisa que cambiaron datos del dashboard del usuario (invalida su caché)
+     */
+    private void publicarCambio(Usuario usuario, String origen) {
+        if (usuario != null) {
+            eventPublisher.publishEvent(new DatosUsuarioModificadosEvent(usuario.getIdUsuario(), origen));
+        }
+    }
+
+    private void publicarCambioSeguro(int idSeguro, String origen) {
+        Integer idUsuario = seguroRepository.findIdUsuarioBySeguro(idSeguro);
+        if (idUsuario != null) {
+            eventPublisher.publishEvent(new DatosUsuarioModificadosEvent(idUsuario, origen));
+        }
+    }
+}
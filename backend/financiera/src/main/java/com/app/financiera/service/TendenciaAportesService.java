@@ -0,0 +1,23 @@
+package com.app.financiera.service;
+
+import com.app.financiera.dto.TendenciaAportes;
+
+/**
+ * Tendencia de aportes calculada en la base de datos con una sola consulta agrupada,
+ * para cualquier tamaño de ventana
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+public interface TendenciaAportesService {
+
+    /**
+     * Totales de los últimos "years" años calendario, incluyendo el actual
+     */
+    TendenciaAportes obtenerTendenciaAnual(int idUsuario, int years);
+
+    /**
+     * Totales de los últimos "meses" meses calendario, incluyendo el actual
+     */
+    TendenciaAportes obtenerTendenciaMensual(int idUsuario, int meses);
+}
@@ -0,0 +1,105 @@
+package com.app.financiera.service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.app.financiera.dto.TendenciaAportes;
+import com.app.financiera.dto.TotalAportesPeriodoProjection;
+import com.app.financiera.repository.AportePensionRepository;
+
+@Service
+public class TendenciaAportesServiceImpl implements TendenciaAportesService {
+
+    // Límite de seguridad para la ventana solicitada por los clientes
+    private static final int MAX_YEARS = 50;
+    private static final int MAX_MESES = MAX_YEARS * 12;
+
+    @Autowired
+    private AportePensionRepository aportePensionRepository;
+
+    @Override
+    public TendenciaAportes obtenerTendenciaAnual(int idUsuario, int years) {
+        int ventana = Math.max(1, Math.min(years, MAX_YEARS));
+        int yearActual = LocalDate.now().getYear();
+        int yearInicial = yearActual - ventana + 1;
+
+        // Rango de fechas en lugar de YEAR(fecha_aporte) para poder usar el índice de fecha_aporte
+        List<TotalAportesPeriodoProjection> filas = aportePensionRepository.sumAportesPorYear(idUsuario,
+                LocalDate.of(yearInicial, 1, 1), LocalDate.of(yearActual + 1, 1, 1));
+
+        Acumulador[] acumuladores = new Acumulador[ventana];
+        for (TotalAportesPeriodoProjection fila : filas) {
+            int indice = fila.getYear() - yearInicial;
+            if (indice >= 0 && indice < ventana) {
+                acumular(acumuladores, indice, fila);
+            }
+        }
+
+        List<TendenciaAportes.Punto> puntos = new ArrayList<>(ventana);
+        for (int i = 0; i < ventana; i++) {
+            puntos.add(punto(acumuladores[i], yearInicial + i, null));
+        }
+        return new TendenciaAportes(puntos);
+    }
+
+    @Override
+    public TendenciaAportes obtenerTendenciaMensual(int idUsuario, int meses) {
+        int ventana = Math.max(1, Math.min(meses, MAX_MESES));
+        YearMonth mesActual = YearMonth.now();
+        YearMonth mesInicial = mesActual.minusMonths(ventana - 1);
+
+        List<TotalAportesPeriodoProjection> filas = aportePensionRepository.sumAportesPorMes(idUsuario,
+                mesInicial.atDay(1), mesActual.plusMonths(1).atDay(1));
+
+        Acumulador[] acumuladores = new Acumulador[ventana];
+        for (TotalAportesPeriodoProjection fila : filas) {
+            int indice = (fila.getYear() - mesInicial.getYear()) * 12 + fila.getMes() - mesInicial.getMonthValue();
+            if (indice >= 0 && indice < ventana) {
+                acumular(acumuladores, indice, fila);
+            }
+        }
+
+        List<TendenciaAportes.Punto> puntos = new ArrayList<>(ventana);
+        for (int i = 0; i < ventana; i++) {
+            YearMonth mes = mesInicial.plusMonths(i);
+            puntos.add(punto(acumuladores[i], mes.getYear(), mes.getMonthValue()));
+        }
+        return new TendenciaAportes(puntos);
+    }
+
+    private void acumular(Acumulador[] acumuladores, int indice, TotalAportesPeriodoProjection fila) {
+        Acumulador acumulador = acumuladores[indice];
+        if (acumulador == null) {
+            acumulador = new Acumulador();
+            acumuladores[indice] = acumulador;
+        }
+        double total = fila.getTotal() != null ? fila.getTotal() : 0.0;
+        acumulador.total += total;
+        acumulador.cantidad += fila.getCantidad() != null ? fila.getCantidad() : 0;
+        if ("Pensiones".equals(fila.getSistema())) {
+            acumulador.onp += total;
+        } else if ("Financiera".equals(fila.getSistema())) {
+            acumulador.afp += total;
+        }
+    }
+
+    private TendenciaAportes.Punto punto(Acumulador acumulador, int year, Integer mes) {
+        if (acumulador == null) {
+            return new TendenciaAportes.Punto(year, mes, 0, 0, 0, 0);
+        }
+        return new TendenciaAportes.Punto(year, mes, acumulador.total, acumulador.onp, acumulador.afp,
+                acumulador.cantidad);
+    }
+
+    private static final class Acumulador {
+        double total;
+        double onp;
+        double afp;
+        long cantidad;
+    }
+}
@@ -3,6 +3,7 @@ package com.app.financiera.service;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import com.app.financiera.entity.RolUsuario;
@@ -19,6 +20,9 @@ public class UsuarioServiceImpl implements UsuarioService {
     @Autowired
     private RolUsuarioRepository rolUsuarioRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Override
     public Usuario buscarPorDni(String dni) {
         return repository.findByDni(dni);
@@ -69,7 +73,10 @@ public class UsuarioServiceImpl implements UsuarioService {
 
     @Override
     public Usuario actualizaUsuario(Usuario obj) {
-        return repository.save(obj);
+        Usuario actualizado = repository.save(obj);
+        // Edición desde administración: el dashboard cacheado del usuario ya no vale
+        eventPublisher.publishEvent(new DatosUsuarioModificadosEvent(actualizado.getIdUsuario(), "Usuario"));
+        return actualizado;
     }
 
     @Override
@@ -0,0 +1,66 @@
+package com.app.financiera.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limitador de tasa por cubeta de tokens: admite ráfagas de hasta "capacidad"
+ * y se recarga a "tokensPorSegundo". Es seguro para uso entre hilos y no usa bloqueos:
+ * el estado es un único instante teórico de llegada (algoritmo GCRA, equivalente a la cubeta)
+ * que se actualiza con compareAndSet.
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+public final class CubetaTokens {
+
+    // Nanosegundos que tarda en recargarse un token
+    private final long intervalo;
+    // Adelanto máximo permitido respecto del reloj: la ráfaga completa
+    private final long tolerancia;
+
+    // Instante en que la cubeta volvería a estar llena si no hubiera más consumos
+    private final AtomicLong llegadaTeorica;
+
+    public CubetaTokens(double capacidad, double tokensPorSegundo) {
+        if (capacidad < 1 || tokensPorSegundo <= 0) {
+            throw new IllegalArgumentException("La cubeta necesita capacidad >= 1 y una tasa positiva");
+        }
+        this.intervalo = Math.max(1, Math.round(1_000_000_000d / tokensPorSegundo));
+        this.tolerancia = Math.round(capacidad * intervalo);
+        this.llegadaTeorica = new AtomicLong(System.nanoTime());
+    }
+
+    public boolean intentarConsumir() {
+        return consumirOEsperar() == 0;
+    }
+
+    /**
+     * Consume un token y retorna 0, o no consume nada y retorna los nanosegundos
+     * que faltan para que haya un token disponible
+     */
+    public long consumirOEsperar() {
+        while (true) {
+            long ahora = System.nanoTime();
+            long actual = llegadaTeorica.get();
+            long siguiente = Math.max(actual, ahora) + intervalo;
+            long exceso = siguiente - ahora - tolerancia;
+            if (exceso > 0) {
+                return exceso;
+            }
+            if (llegadaTeorica.compareAndSet(actual, siguiente)) {
+                return 0;
+            }
+        }
+    }
+
+    // Nanosegundos que faltan para que haya un token disponible (0 si ya lo hay)
+    public long nanosHastaDisponible() {
+        long ahora = System.nanoTime();
+        return Math.max(0, Math.max(llegadaTeorica.get(), ahora) + intervalo - ahora - tolerancia);
+    }
+
+    // Sin consumos pendientes de recarga: la cubeta está llena y puede descartarse
+    public boolean estaLlena() {
+        return llegadaTeorica.get() - System.nanoTime() <= 0;
+    }
+}
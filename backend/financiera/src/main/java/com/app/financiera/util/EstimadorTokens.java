@@ -0,0 +1,25 @@
+package com.app.financiera.util;
+
+/**
+ * Estimación del número de tokens de un texto para el modelo de lenguaje, sin tokenizar:
+ * en español se aproxima a un token por cada 4 caracteres. Sirve para acotar el tamaño
+ * del prompt (y con él su costo y latencia) antes de enviarlo.
+ *
+ * @author Sistema Financiero
+ * @version 1.0
+ */
+public final class EstimadorTokens {
+
+    private static final int CARACTERES_POR_TOKEN = 4;
+
+    private EstimadorTokens() {
+    }
+
+    public static int estimar(CharSequence texto) {
+        return texto == null ? 0 : estimar(texto.length());
+    }
+
+    public static int estimar(int caracteres) {
+        return (caracteres + CARACTERES_POR_TOKEN - 1) / CARACTERES_POR_TOKEN;
+    }
+}
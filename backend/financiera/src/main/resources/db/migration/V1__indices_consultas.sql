@@ -0,0 +1,71 @@
+-- Índices para las rutas de acceso de los repositorios.
+-- El esquema original solo declara claves primarias; cada consulta frecuente filtra por
+-- usuario (o seguro/AFP) y por estado o fecha, así que estos índices evitan los seq scan.
+
+-- aporte_pension: resumen del dashboard, tendencias por año/mes, rangos de fechas y actividad reciente
+CREATE INDEX IF NOT EXISTS idx_aporte_pension_usuario_fecha
+    ON public.aporte_pension (id_usuario, fecha_aporte DESC)
+    INCLUDE (monto_aporte, id_institucion);
+
+-- seguro: pólizas del usuario filtradas por estado ('Activo', 'Vigente')
+CREATE INDEX IF NOT EXISTS idx_seguro_usuario_estado
+    ON public.seguro (id_usuario, estado);
+
+-- pago_seguro: cronograma de la póliza ordenado por cuota
+CREATE INDEX IF NOT EXISTS idx_pago_seguro_seguro_cuota
+    ON public.pago_seguro (id_seguro, numero_cuota);
+
+-- pago_seguro: pagos pendientes (fracción pequeña de la tabla)
+CREATE INDEX IF NOT EXISTS idx_pago_seguro_pendiente
+    ON public.pago_seguro (id_seguro)
+    INCLUDE (monto_pagado)
+    WHERE estado = 'Pendiente';
+
+-- tramite_seguro: trámites del usuario del más reciente al más antiguo
+CREATE INDEX IF NOT EXISTS idx_tramite_seguro_usuario_fecha
+    ON public.tramite_seguro (id_usuario, fecha_solicitud DESC);
+
+-- tramite_seguro: trámites abiertos
+CREATE INDEX IF NOT EXISTS idx_tramite_seguro_pendiente
+    ON public.tramite_seguro (id_usuario)
+    WHERE estado IN ('Pendiente', 'En proceso');
+
+-- historial_consultas: actividad reciente del usuario
+CREATE INDEX IF NOT EXISTS idx_historial_consultas_usuario_fecha
+    ON public.historial_consultas (id_usuario, fecha DESC);
+
+-- notificacion: bandeja del usuario ordenada por fecha de envío
+CREATE INDEX IF NOT EXISTS idx_notificacion_usuario_fecha_envio
+    ON public.notificacion (id_usuario, fecha_envio DESC);
+
+-- notificacion: no leídas (conteo y listado)
+CREATE INDEX IF NOT EXISTS idx_notificacion_no_leida
+    ON public.notificacion (id_usuario, fecha_envio DESC)
+    WHERE fecha_lectura IS NULL;
+
+-- notificacion: pendientes de envío cuya fecha ya llegó
+CREATE INDEX IF NOT EXISTS idx_notificacion_pendiente_envio
+    ON public.notificacion (fecha_envio)
+    WHERE estado = 'Pendiente';
+
+-- historial_rentabilidad: serie de una AFP y tipo de fondo, del periodo más reciente hacia atrás
+CREATE INDEX IF NOT EXISTS idx_historial_rentabilidad_afp_fondo_periodo
+    ON public.historial_rentabilidad (id_afp, id_tipo_fondo, periodo DESC);
+
+-- historial_rentabilidad: ranking de AFP en un periodo y tipo de fondo
+CREATE INDEX IF NOT EXISTS idx_historial_rentabilidad_fondo_periodo
+    ON public.historial_rentabilidad (id_tipo_fondo, periodo);
+
+-- saldo_pension: saldo activo del usuario
+CREATE INDEX IF NOT EXISTS idx_saldo_pension_usuario_activo
+    ON public.saldo_pension (id_usuario)
+    WHERE estado = 'Activo';
+
+ANALYZE public.aporte_pension;
+ANALYZE public.seguro;
+ANALYZE public.pago_seguro;
+ANALYZE public.tramite_seguro;
+ANALYZE public.historial_consultas;
+ANALYZE public.notificacion;
+ANALYZE public.historial_rentabilidad;
+ANALYZE public.saldo_pension;
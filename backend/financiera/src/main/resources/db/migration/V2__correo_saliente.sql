@@ -0,0 +1,27 @@
+-- Bandeja de salida de correos: la petición registra el correo en su misma transacción
+-- y el DespachadorCorreos lo envía en segundo plano.
+
+CREATE TABLE IF NOT EXISTS public.correo_saliente (
+    id_correo serial PRIMARY KEY,
+    destinatario character varying(150) NOT NULL,
+    asunto character varying(255) NOT NULL,
+    contenido text NOT NULL,
+    es_html boolean DEFAULT false NOT NULL,
+    estado character varying(20) DEFAULT 'Pendiente'::character varying NOT NULL,
+    intentos integer DEFAULT 0 NOT NULL,
+    proximo_intento timestamp without time zone DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    fecha_creacion timestamp without time zone DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    fecha_bloqueo timestamp without time zone,
+    fecha_envio timestamp without time zone,
+    ultimo_error character varying(500)
+);
+
+-- Correos listos para enviar (y los que quedaron bloqueados por un despacho interrumpido)
+CREATE INDEX IF NOT EXISTS idx_correo_saliente_pendiente
+    ON public.correo_saliente (proximo_intento)
+    WHERE estado IN ('Pendiente', 'Enviando');
+
+-- Depuración de enviados antiguos
+CREATE INDEX IF NOT EXISTS idx_correo_saliente_enviado
+    ON public.correo_saliente (fecha_envio)
+    WHERE estado = 'Enviado';
@@ -0,0 +1,5 @@
+-- Columnas que la entidad Notificacion ya mapea y que faltaban en la tabla
+
+ALTER TABLE public.notificacion ADD COLUMN IF NOT EXISTS asunto character varying(255);
+ALTER TABLE public.notificacion ADD COLUMN IF NOT EXISTS url_accion character varying(500);
+ALTER TABLE public.notificacion ADD COLUMN IF NOT EXISTS datos_adicionales text;
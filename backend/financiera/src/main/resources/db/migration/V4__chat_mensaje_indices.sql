@@ -0,0 +1,3 @@
+-- Historial del chatbot: al reabrir una sesión se leen solo sus últimos turnos
+CREATE INDEX IF NOT EXISTS idx_chat_mensaje_sesion
+    ON public.chat_mensaje (id_usuario, session_id, fecha_mensaje DESC);
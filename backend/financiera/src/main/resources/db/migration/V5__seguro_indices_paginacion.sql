@@ -0,0 +1,15 @@
+-- Listas paginadas por cursor del comparador: seguros activos de un tipo o de una compañía
+-- en el orden (prima_mensual, id_seguro), para que cada página sea un recorrido corto del índice
+CREATE INDEX IF NOT EXISTS idx_seguro_tipo_prima_activo
+    ON public.seguro (id_tipo_seguro, prima_mensual, id_seguro)
+    WHERE estado = 'Activo';
+
+CREATE INDEX IF NOT EXISTS idx_seguro_compania_prima_activo
+    ON public.seguro (id_compania, prima_mensual, id_seguro)
+    WHERE estado = 'Activo';
+
+-- Pólizas del usuario de la más reciente a la más antigua
+CREATE INDEX IF NOT EXISTS idx_seguro_usuario_id
+    ON public.seguro (id_usuario, id_seguro DESC);
+
+ANALYZE public.seguro;
@@ -0,0 +1,5 @@
+-- ChatMensaje reserva ids de 50 en 50 (allocationSize = 50) para que las inserciones del
+-- escritor de conversaciones viajen agrupadas; la secuencia debe avanzar en el mismo paso.
+-- Hibernate usa el valor devuelto como el extremo superior del bloque, así que los ids
+-- ya asignados no se repiten.
+ALTER SEQUENCE public.chat_mensaje_id_mensaje_seq INCREMENT BY 50;
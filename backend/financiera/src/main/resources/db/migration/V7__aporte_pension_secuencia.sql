@@ -0,0 +1,5 @@
+-- AportePension reserva ids de 50 en 50 (allocationSize = 50) para que la importación masiva
+-- inserte por lotes sin pedir un nextval por fila; la secuencia debe avanzar en el mismo paso.
+-- Hibernate usa el valor devuelto como el extremo superior del bloque, así que los ids
+-- ya asignados no se repiten.
+ALTER SEQUENCE public.aporte_pension_id_aporte_seq INCREMENT BY 50;
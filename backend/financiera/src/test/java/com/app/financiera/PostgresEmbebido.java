@@ -0,0 +1,158 @@
+package com.app.financiera;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * PostgreSQL 17 embebido compartido por las pruebas que necesitan la base real. Arranca una sola
+ * vez por JVM, carga baseDeDatos.txt (pg_dump de producción: esquema y datos de ejemplo) y aplica
+ * las migraciones de Flyway igual que al iniciar la aplicación. Las pruebas de JPA se revierten con
+ * su transacción; las que cargan volumen usan una base propia.
+ */
+public final class PostgresEmbebido {
+
+    // El volcado está en la raíz del repositorio; Maven ejecuta las pruebas desde backend/financiera
+    private static final Path ESQUEMA = Path.of("../../baseDeDatos.txt");
+
+    private static final String BASE_PREDETERMINADA = "postgres";
+
+    private static EmbeddedPostgres postgres;
+    private static final Set<String> preparadas = new HashSet<>();
+
+    private PostgresEmbebido() {
+    }
+
+    public static DataSource dataSource() {
+        return dataSource(BASE_PREDETERMINADA);
+    }
+
+    /**
+     * Base con el esquema y las migraciones aplicadas. Una prueba que carga muchos datos usa su
+     * propia base para no alterar los conteos de las demás.
+     */
+    public static synchronized DataSource dataSource(String baseDatos) {
+        if (postgres == null) {
+            postgres = iniciar();
+        }
+        if (preparadas.add(baseDatos)) {
+            preparar(baseDatos);
+        }
+        return postgres.getDatabase("postgres", baseDatos);
+    }
+
+    public static String jdbcUrl() {
+        dataSource();
+        return postgres.getJdbcUrl("postgres", BASE_PREDETERMINADA);
+    }
+
+    // Para @DynamicPropertySource: reemplaza la base de Aiven de application.properties
+    public static void registrar(DynamicPropertyRegistry registro) {
+        registro.add("spring.datasource.url", PostgresEmbebido::jdbcUrl);
+        registro.add("spring.datasource.username", () -> "postgres");
+        registro.add("spring.datasource.password", () -> "postgres");
+    }
+
+    private static EmbeddedPostgres iniciar() {
+        try {
+            EmbeddedPostgres iniciado = EmbeddedPostgres.builder().start();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    iniciado.close();
+                } catch (IOException e) {
+                    // la JVM ya está terminando
+                }
+            }));
+
+            // El volcado asigna los objetos al rol de producción
+            try (Connection conexion = iniciado.getPostgresDatabase().getConnection();
+                 Statement sentencia = conexion.createStatement()) {
+                sentencia.execute("CREATE ROLE avnadmin");
+            }
+            return iniciado;
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo iniciar PostgreSQL embebido", e);
+        } catch (SQLException e) {
+            throw new IllegalStateException("No se pudo crear el rol avnadmin", e);
+        }
+    }
+
+    private static void preparar(String baseDatos) {
+        try {
+            if (!BASE_PREDETERMINADA.equals(baseDatos)) {
+                try (Connection conexion = postgres.getPostgresDatabase().getConnection();
+                     Statement sentencia = conexion.createStatement()) {
+                    sentencia.execute("CREATE DATABASE " + baseDatos);
+                }
+            }
+
+            DataSource dataSource = postgres.getDatabase("postgres", baseDatos);
+            try (Connection conexion = dataSource.getConnection()) {
+                cargarVolcado(conexion);
+            }
+
+            Flyway.configure()
+                    .dataSource(dataSource)
+                    .locations("classpath:db/migration")
+                    .baselineOnMigrate(true)
+                    .baselineVersion("0")
+                    .load()
+                    .migrate();
+        } catch (SQLException | IOException e) {
+            throw new IllegalStateException("No se pudo cargar el esquema de " + ESQUEMA + " en " + baseDatos, e);
+        }
+    }
+
+    // Las sentencias van por ScriptUtils; los bloques COPY ... FROM stdin con los datos de ejemplo
+    // solo se pueden enviar con la API de COPY del driver
+    private static void cargarVolcado(Connection conexion) throws IOException, SQLException {
+        CopyManager copia = conexion.unwrap(PGConnection.class).getCopyAPI();
+        StringBuilder sentencias = new StringBuilder();
+        try (BufferedReader lector = Files.newBufferedReader(ESQUEMA, StandardCharsets.UTF_8)) {
+            String linea;
+            while ((linea = lector.readLine()) != null) {
+                if (!linea.startsWith("COPY ")) {
+                    sentencias.append(linea).append('\n');
+                    continue;
+                }
+                ejecutar(conexion, sentencias);
+
+                StringBuilder filas = new StringBuilder();
+                String fila;
+                while ((fila = lector.readLine()) != null && !fila.equals("\\.")) {
+                    filas.append(fila).append('\n');
+                }
+                copia.copyIn(linea.substring(0, linea.length() - 1), new StringReader(filas.toString()));
+            }
+        }
+        ejecutar(conexion, sentencias);
+    }
+
+    private static void ejecutar(Connection conexion, StringBuilder sentencias) {
+        if (!sentencias.toString().isBlank()) {
+            ScriptUtils.executeSqlScript(conexion,
+                    new ByteArrayResource(sentencias.toString().getBytes(StandardCharsets.UTF_8)));
+        }
+        sentencias.setLength(0);
+    }
+}
@@ -0,0 +1,148 @@
+package com.app.financiera.repository;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import com.app.financiera.PostgresEmbebido;
+
+/**
+ * Verifica con EXPLAIN que las consultas del dashboard y de aportes usan los índices de
+ * V1__indices_consultas.sql. Corre sobre PostgreSQL embebido con el esquema de baseDeDatos.txt,
+ * las migraciones de Flyway y un volumen de datos realista, con la configuración por defecto del
+ * planificador: si un índice falta o deja de servir, el plan vuelve a recorrer la tabla completa
+ * y la prueba falla.
+ */
+class IndicesConsultasTest {
+
+    private static final Pattern PARAMETRO = Pattern.compile("(?<!:):(\\w+)");
+
+    private static final Map<String, String> VALORES = Map.of(
+            "idUsuario", "1017",
+            "year", "2024",
+            "hoy", "DATE '2024-06-01'",
+            "limiteVencimiento", "DATE '2024-07-01'",
+            "hace3Meses", "DATE '2024-03-01'",
+            "limite", "10",
+            "desde", "DATE '2020-01-01'",
+            "hasta", "DATE '2025-01-01'");
+
+    private static DataSource dataSource;
+
+    // Base propia: los datos de volumen no deben alterar los conteos de otras pruebas
+    @BeforeAll
+    static void cargarVolumen() throws SQLException {
+        dataSource = PostgresEmbebido.dataSource("indices_consultas");
+        try (Connection conexion = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(conexion, new ClassPathResource("db/volumen-consultas.sql"));
+        }
+    }
+
+    @Test
+    void resumenDelDashboardUsaLosIndicesPorUsuario() throws SQLException {
+        String plan = explicar(consulta(DashboardRepository.class, "obtenerResumen"));
+
+        assertTrue(plan.contains("idx_aporte_pension_usuario_fecha"), plan);
+        assertTrue(plan.contains("idx_saldo_pension_usuario_activo"), plan);
+        // seguro puede resolverse con idx_seguro_usuario_estado o con idx_seguro_usuario_id de V5
+        assertTrue(plan.contains("idx_seguro_usuario_"), plan);
+        assertSinSeqScan(plan, "aporte_pension", "saldo_pension", "seguro", "pago_seguro", "tramite_seguro");
+    }
+
+    @Test
+    void actividadRecienteUsaLosIndicesPorFecha() throws SQLException {
+        String plan = explicar(consulta(DashboardRepository.class, "obtenerActividad"));
+
+        assertTrue(plan.contains("idx_historial_consultas_usuario_fecha"), plan);
+        assertTrue(plan.contains("idx_aporte_pension_usuario_fecha"), plan);
+        assertSinSeqScan(plan, "historial_consultas", "aporte_pension");
+    }
+
+    @Test
+    void totalesDeAportesPorPeriodoUsanElIndiceDeAportes() throws SQLException {
+        for (String metodo : new String[] { "sumAportesPorYear", "sumAportesPorMes" }) {
+            String plan = explicar(consulta(AportePensionRepository.class, metodo));
+
+            assertTrue(plan.contains("idx_aporte_pension_usuario_fecha"), metodo + "\n" + plan);
+            assertSinSeqScan(plan, "aporte_pension");
+        }
+    }
+
+    // Control de la prueba: sin el índice, la misma consulta recorre la tabla completa
+    @Test
+    void sinElIndiceDeAportesElPlanRecorreLaTabla() throws SQLException {
+        try (Connection conexion = dataSource.getConnection()) {
+            conexion.setAutoCommit(false);
+            try (Statement sentencia = conexion.createStatement()) {
+                sentencia.execute("DROP INDEX idx_aporte_pension_usuario_fecha");
+                String plan = explicar(conexion, consulta(AportePensionRepository.class, "sumAportesPorYear"));
+
+                assertTrue(plan.contains("Seq Scan on aporte_pension"), plan);
+            } finally {
+                conexion.rollback();
+            }
+        }
+    }
+
+    // SQL nativo del repositorio, con los parámetros reemplazados por literales
+    private static String consulta(Class<?> repositorio, String metodo) {
+        Method encontrado = Arrays.stream(repositorio.getMethods())
+                .filter(m -> m.getName().equals(metodo))
+                .findFirst()
+                .orElseThrow();
+        String sql = encontrado.getAnnotation(Query.class).value();
+
+        Matcher parametros = PARAMETRO.matcher(sql);
+        StringBuilder resultado = new StringBuilder();
+        while (parametros.find()) {
+            String valor = VALORES.get(parametros.group(1));
+            if (valor == null) {
+                throw new IllegalArgumentException("Sin valor de prueba para :" + parametros.group(1));
+            }
+            parametros.appendReplacement(resultado, Matcher.quoteReplacement(valor));
+        }
+        parametros.appendTail(resultado);
+        return resultado.toString();
+    }
+
+    private static String explicar(String sql) throws SQLException {
+        try (Connection conexion = dataSource.getConnection()) {
+            return explicar(conexion, sql);
+        }
+    }
+
+    private static String explicar(Connection conexion, String sql) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (Statement sentencia = conexion.createStatement();
+             ResultSet filas = sentencia.executeQuery("EXPLAIN " + sql)) {
+            while (filas.next()) {
+                plan.append(filas.getString(1)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+
+    private static void assertSinSeqScan(String plan, String... tablas) {
+        for (String tabla : tablas) {
+            assertFalse(Pattern.compile("Seq Scan on " + tabla + "\\b").matcher(plan).find(),
+                    "Seq Scan sobre " + tabla + "\n" + plan);
+        }
+    }
+}
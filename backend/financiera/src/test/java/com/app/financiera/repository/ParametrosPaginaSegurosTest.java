@@ -0,0 +1,60 @@
+package com.app.financiera.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.app.financiera.repository.ParametrosPaginaSeguros.Cursor;
+
+class ParametrosPaginaSegurosTest {
+
+    @Test
+    void elCursorConPrimaSeDecodificaIgualQueSeCodifico() {
+        for (Cursor cursor : List.of(new Cursor(129.9, 42), new Cursor(0.0, 1), new Cursor(1.0E-7, 7),
+                new Cursor(12_345_678.25, Integer.MAX_VALUE))) {
+            assertEquals(cursor, Cursor.decodificar(cursor.codificar()));
+        }
+    }
+
+    @Test
+    void elCursorSinPrimaConservaLaPrimaNula() {
+        Cursor decodificado = Cursor.decodificar(new Cursor(null, 15).codificar());
+
+        assertNull(decodificado.prima());
+        assertEquals(15, decodificado.id());
+    }
+
+    @Test
+    void sinCursorEsLaPrimeraPagina() {
+        assertNull(Cursor.decodificar(null));
+        assertNull(Cursor.decodificar(""));
+        assertNull(Cursor.decodificar("   "));
+    }
+
+    @Test
+    void unCursorAlteradoSeRechazaComoArgumentoInvalido() {
+        for (String cursor : List.of("%%%", base64("sin-separador"), base64("10.5|"), base64("10.5|abc"),
+                base64("diez|3"), base64("|"))) {
+            IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                    () -> Cursor.decodificar(cursor), cursor);
+            assertEquals("Cursor no válido", error.getMessage());
+        }
+    }
+
+    @Test
+    void losCamposSeValidanYConservanElOrdenPedido() {
+        assertEquals(List.of("compania", "idSeguro"), ParametrosPaginaSeguros.campos(" compania, idSeguro,compania,"));
+        assertEquals(ParametrosPaginaSeguros.campos(null), ParametrosPaginaSeguros.campos(" , "));
+        assertThrows(IllegalArgumentException.class, () -> ParametrosPaginaSeguros.campos("idSeguro,usuario"));
+    }
+
+    private static String base64(String texto) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+    }
+}
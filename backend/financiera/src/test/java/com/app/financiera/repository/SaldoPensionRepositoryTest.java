@@ -0,0 +1,154 @@
+package com.app.financiera.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.app.financiera.PostgresEmbebido;
+import com.app.financiera.dto.DescuadreSaldoProjection;
+
+/**
+ * Consulta de descuadres que ejecuta ConciliacionSaldoJob y la actualización por variación del
+ * saldo, en PostgreSQL embebido. Los usuarios de prueba se crean en la transacción de cada prueba;
+ * de los resultados solo se miran los suyos, porque los datos de ejemplo pueden tener descuadres.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class SaldoPensionRepositoryTest {
+
+    private static final int PRIMER_USUARIO = 9201;
+    private static final int USUARIOS = 6;
+    private static final double TOLERANCIA = 0.01;
+
+    // Tipo de fondo e institución de los datos de ejemplo de baseDeDatos.txt
+    private static final int ID_TIPO_FONDO = 2;
+    private static final int ID_INSTITUCION = 1;
+
+    @Autowired
+    private SaldoPensionRepository saldoPensionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private int siguienteAporte = 920_001;
+
+    @DynamicPropertySource
+    static void baseDeDatos(DynamicPropertyRegistry registro) {
+        PostgresEmbebido.registrar(registro);
+    }
+
+    @BeforeEach
+    void crearUsuarios() {
+        for (int i = 0; i < USUARIOS; i++) {
+            int idUsuario = PRIMER_USUARIO + i;
+            jdbcTemplate.update("INSERT INTO usuario (id_usuario, id_rol, nombre, apellido, dni, correo, estado)"
+                    + " VALUES (?, 2, 'Prueba', 'Conciliación', ?, ?, 'Activo')",
+                    idUsuario, "9200000" + i, "conciliacion" + i + "@prueba.com");
+        }
+    }
+
+    @Test
+    void soloSeReportanLosSaldosFueraDeLaTolerancia() {
+        // Cuadrado: dos aportes y su saldo
+        aporte(9201, 700.0);
+        aporte(9201, 300.0);
+        saldo(9201, 1000.0, "Activo");
+        // Un céntimo de diferencia: dentro de la tolerancia
+        aporte(9202, 500.0);
+        saldo(9202, 500.01, "Activo");
+        // Dos céntimos: fuera
+        aporte(9203, 500.0);
+        saldo(9203, 500.02, "Activo");
+        // Aportes sin saldo registrado
+        aporte(9204, 250.0);
+        // Saldo sin aportes
+        saldo(9205, 80.0, "Activo");
+        // Un saldo inactivo no cuenta: el activo cuadra con los aportes
+        aporte(9206, 400.0);
+        saldo(9206, 400.0, "Activo");
+        saldo(9206, 999.0, "Inactivo");
+
+        Map<Integer, List<Double>> descuadres = descuadres();
+
+        assertEquals(Map.of(
+                9203, List.of(500.02, 500.0),
+                9204, List.of(0.0, 250.0),
+                9205, List.of(80.0, 0.0)), descuadres);
+    }
+
+    @Test
+    void variosSaldosActivosSeSumanAntesDeComparar() {
+        aporte(9201, 600.0);
+        saldo(9201, 400.0, "Activo");
+        saldo(9201, 200.0, "Activo");
+
+        assertEquals(Map.of(), descuadres());
+    }
+
+    @Test
+    void laVariacionSeAplicaATodasLasColumnasEnUnaSentencia() {
+        int idSaldo = saldo(9201, 1000.0, "Activo");
+
+        int filas = saldoPensionRepository.aplicarVariacion(idSaldo, -200.0, -180.0, -120.0, -80.0, -10.0,
+                LocalDate.of(2025, 3, 31));
+
+        assertEquals(1, filas);
+        assertEquals(List.of(800.0, 720.0, 480.0, 320.0, 40.0), columnas(idSaldo));
+        assertEquals(LocalDate.of(2025, 3, 31), jdbcTemplate.queryForObject(
+                "SELECT fecha_corte FROM saldo_pension WHERE id_saldo = ?", LocalDate.class, idSaldo));
+    }
+
+    @Test
+    void laVariacionSobreColumnasNulasParteDeCero() {
+        Integer idSaldo = jdbcTemplate.queryForObject("INSERT INTO saldo_pension (id_usuario, id_tipo_fondo, estado)"
+                + " VALUES (?, ?, 'Activo') RETURNING id_saldo", Integer.class, 9201, ID_TIPO_FONDO);
+
+        saldoPensionRepository.aplicarVariacion(idSaldo, 100.0, 90.0, 60.0, 40.0, 5.0, LocalDate.of(2025, 3, 31));
+
+        assertEquals(List.of(100.0, 90.0, 60.0, 40.0, 5.0), columnas(idSaldo));
+    }
+
+    // Usuario de prueba -> [saldo registrado, suma de aportes]
+    private Map<Integer, List<Double>> descuadres() {
+        Map<Integer, List<Double>> propios = new TreeMap<>();
+        for (DescuadreSaldoProjection d : saldoPensionRepository.findDescuadres(TOLERANCIA)) {
+            if (d.getIdUsuario() >= PRIMER_USUARIO && d.getIdUsuario() < PRIMER_USUARIO + USUARIOS) {
+                propios.put(d.getIdUsuario(), List.of(d.getSaldoRegistrado(), d.getSaldoCalculado()));
+            }
+        }
+        return propios;
+    }
+
+    private void aporte(int idUsuario, double monto) {
+        jdbcTemplate.update("INSERT INTO aporte_pension (id_aporte, id_usuario, id_institucion, id_tipo_fondo, periodo,"
+                        + " monto_aporte, fecha_aporte, estado) VALUES (?, ?, ?, ?, '2025-01', ?, '2025-01-31', 'Registrado')",
+                siguienteAporte++, idUsuario, ID_INSTITUCION, ID_TIPO_FONDO, monto);
+    }
+
+    private int saldo(int idUsuario, double total, String estado) {
+        return jdbcTemplate.queryForObject("INSERT INTO saldo_pension (id_usuario, id_tipo_fondo, saldo_total,"
+                        + " saldo_disponible, saldo_cic, saldo_cv, rentabilidad_acumulada, fecha_corte, estado)"
+                        + " VALUES (?, ?, ?, ?, ?, ?, ?, '2025-01-31', ?) RETURNING id_saldo",
+                Integer.class, idUsuario, ID_TIPO_FONDO, total, total * 0.9, total * 0.6, total * 0.4, total * 0.05, estado);
+    }
+
+    private List<Double> columnas(int idSaldo) {
+        Map<String, Object> fila = jdbcTemplate.queryForMap("SELECT saldo_total::float8 AS total,"
+                + " saldo_disponible::float8 AS disponible, saldo_cic::float8 AS cic, saldo_cv::float8 AS cv,"
+                + " rentabilidad_acumulada::float8 AS rentabilidad FROM saldo_pension WHERE id_saldo = ?", idSaldo);
+        return List.of((Double) fila.get("total"), (Double) fila.get("disponible"), (Double) fila.get("cic"),
+                (Double) fila.get("cv"), (Double) fila.get("rentabilidad"));
+    }
+}
@@ -0,0 +1,171 @@
+package com.app.financiera.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.app.financiera.PostgresEmbebido;
+import com.app.financiera.dto.PaginaResponse;
+import com.app.financiera.repository.ParametrosPaginaSeguros.Cursor;
+import com.app.financiera.repository.SeguroRepositoryCustom.CriterioSeguros;
+import com.app.financiera.repository.SeguroRepositoryCustom.OrdenSeguros;
+
+/**
+ * Recorre el catálogo página a página en PostgreSQL embebido y verifica que cada seguro aparece una
+ * sola vez, en orden, incluido el paso del tramo con prima al tramo final sin prima (NULLS LAST).
+ * Los seguros se crean en una categoría propia dentro de la transacción de cada prueba, que se revierte.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class SeguroRepositoryCustomImplTest {
+
+    private static final String CATEGORIA = "Prueba paginación";
+    private static final int ID_TIPO = 3000;
+    private static final int ID_COMPANIA = 3000;
+
+    // Usuario e institución de los datos de ejemplo de baseDeDatos.txt
+    private static final int ID_USUARIO = 2;
+    private static final int ID_INSTITUCION = 2;
+
+    @Autowired
+    private SeguroRepository seguroRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void baseDeDatos(DynamicPropertyRegistry registro) {
+        PostgresEmbebido.registrar(registro);
+    }
+
+    @BeforeEach
+    void crearCatalogo() {
+        jdbcTemplate.update("INSERT INTO tipo_seguro (id_tipo_seguro, nombre, categoria, estado) VALUES (?, ?, ?, 'Activo')",
+                ID_TIPO, "Plan de prueba", CATEGORIA);
+        jdbcTemplate.update("INSERT INTO compania_seguro (id_compania, id_institucion, nombre, estado) VALUES (?, ?, ?, 'Activo')",
+                ID_COMPANIA, ID_INSTITUCION, "Aseguradora de prueba");
+    }
+
+    @Test
+    void elOrdenPorPrimaPasaAlTramoSinPrimaSinRepetirNiSaltarFilas() {
+        // Primas repetidas y cinco seguros sin prima, con ids intercalados
+        Double[] primas = { 30.0, null, 10.0, 20.0, null, 10.0, 40.0, null, 20.0, null, 30.0, null, 10.0 };
+        for (int i = 0; i < primas.length; i++) {
+            seguro(3001 + i, primas[i], "Activo");
+        }
+
+        assertEquals(List.of(3003, 3006, 3013, 3004, 3009, 3001, 3011, 3007, 3002, 3005, 3008, 3010, 3012),
+                recorrer(OrdenSeguros.PRIMA, 3));
+    }
+
+    @Test
+    void elCursorDeUnaFilaSinPrimaNoEnviaLaPrima() {
+        seguro(3001, 10.0, "Activo");
+        seguro(3002, null, "Activo");
+        seguro(3003, null, "Activo");
+        seguro(3004, null, "Activo");
+
+        PaginaResponse<Map<String, Object>> primera = pagina(OrdenSeguros.PRIMA, null, 2);
+        Cursor cursor = Cursor.decodificar(primera.siguienteCursor());
+        assertNull(cursor.prima());
+        assertEquals(3002, cursor.id());
+
+        PaginaResponse<Map<String, Object>> segunda = pagina(OrdenSeguros.PRIMA, cursor, 2);
+        assertEquals(List.of(3003, 3004), ids(segunda));
+        assertFalse(segunda.hayMas());
+        assertNull(segunda.siguienteCursor());
+    }
+
+    @Test
+    void elOrdenRecientesRecorreLosIdsDeMayorAMenor() {
+        for (int id = 3001; id <= 3007; id++) {
+            seguro(id, id % 2 == 0 ? null : 5.0, "Activo");
+        }
+
+        assertEquals(List.of(3007, 3006, 3005, 3004, 3003, 3002, 3001), recorrer(OrdenSeguros.RECIENTES, 3));
+    }
+
+    @Test
+    void unaPaginaExactaNoAnunciaOtra() {
+        seguro(3001, 10.0, "Activo");
+        seguro(3002, 20.0, "Activo");
+        seguro(3003, 15.0, "Cancelado");
+
+        PaginaResponse<Map<String, Object>> pagina = pagina(OrdenSeguros.PRIMA, null, 2);
+
+        assertEquals(List.of(3001, 3002), ids(pagina));
+        assertFalse(pagina.hayMas());
+        assertNull(pagina.siguienteCursor());
+    }
+
+    @Test
+    void unSeguroNuevoAntesDelCursorNoDesplazaLaPaginaSiguiente() {
+        seguro(3001, 10.0, "Activo");
+        seguro(3002, 20.0, "Activo");
+        seguro(3003, 30.0, "Activo");
+        seguro(3004, 40.0, "Activo");
+
+        PaginaResponse<Map<String, Object>> primera = pagina(OrdenSeguros.PRIMA, null, 2);
+        assertTrue(primera.hayMas());
+
+        // Con OFFSET este seguro empujaría 3002 a la segunda página
+        seguro(3005, 5.0, "Activo");
+
+        PaginaResponse<Map<String, Object>> segunda = pagina(OrdenSeguros.PRIMA, Cursor.decodificar(primera.siguienteCursor()), 2);
+        assertEquals(List.of(3003, 3004), ids(segunda));
+    }
+
+    @Test
+    void soloSeLeenLosCamposPedidos() {
+        seguro(3001, 12.5, "Activo");
+
+        PaginaResponse<Map<String, Object>> pagina = seguroRepository.buscarPagina(CriterioSeguros.CATEGORIA, CATEGORIA,
+                OrdenSeguros.PRIMA, List.of("nombrePlan", "compania", "primaMensual"), null, 10);
+
+        assertEquals(List.of(Map.of("nombrePlan", "Plan de prueba", "compania", "Aseguradora de prueba",
+                "primaMensual", 12.5)), pagina.items());
+    }
+
+    private void seguro(int idSeguro, Double prima, String estado) {
+        jdbcTemplate.update("INSERT INTO seguro (id_seguro, id_usuario, id_tipo_seguro, id_compania, numero_poliza,"
+                        + " prima_mensual, estado) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                idSeguro, ID_USUARIO, ID_TIPO, ID_COMPANIA, "POL-PRUEBA-" + idSeguro, prima, estado);
+    }
+
+    private List<Integer> recorrer(OrdenSeguros orden, int limite) {
+        List<Integer> recorridos = new ArrayList<>();
+        Cursor cursor = null;
+        for (int paginas = 0; paginas < 20; paginas++) {
+            PaginaResponse<Map<String, Object>> pagina = pagina(orden, cursor, limite);
+            recorridos.addAll(ids(pagina));
+            if (!pagina.hayMas()) {
+                return recorridos;
+            }
+            // El cursor viaja codificado, como lo recibiría el cliente
+            cursor = Cursor.decodificar(pagina.siguienteCursor());
+        }
+        throw new AssertionError("La paginación no terminó: " + recorridos);
+    }
+
+    private PaginaResponse<Map<String, Object>> pagina(OrdenSeguros orden, Cursor cursor, int limite) {
+        return seguroRepository.buscarPagina(CriterioSeguros.CATEGORIA, CATEGORIA, orden, List.of("idSeguro"), cursor, limite);
+    }
+
+    private static List<Integer> ids(PaginaResponse<Map<String, Object>> pagina) {
+        return pagina.items().stream().map(item -> (Integer) item.get("idSeguro")).toList();
+    }
+}
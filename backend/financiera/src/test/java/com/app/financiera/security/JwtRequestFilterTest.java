@@ -0,0 +1,94 @@
+package com.app.financiera.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * El filtro obtiene DNI, usuario y rol de una sola llamada a verificar, sin volver a parsear el token
+ * por cada claim.
+ */
+@ExtendWith(MockitoExtension.class)
+class JwtRequestFilterTest {
+
+    @Spy
+    private JwtUtil jwtUtil = conCache();
+
+    @InjectMocks
+    private JwtRequestFilter filtro;
+
+    @AfterEach
+    void limpiarContexto() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void unTokenValidoSeVerificaUnaSolaVez() throws Exception {
+        String token = jwtUtil.generateToken("45678912", 2, 1);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/notificaciones/2");
+        request.addHeader("Authorization", "Bearer " + token);
+        MockFilterChain cadena = new MockFilterChain();
+
+        filtro.doFilter(request, new MockHttpServletResponse(), cadena);
+
+        verify(jwtUtil).generateToken("45678912", 2, 1);
+        verify(jwtUtil, times(1)).verificar(token);
+        verifyNoMoreInteractions(jwtUtil);
+
+        assertEquals("45678912", request.getAttribute("dni"));
+        assertEquals(2, request.getAttribute("idUsuario"));
+        assertEquals(1, request.getAttribute("idRol"));
+        Authentication autenticacion = SecurityContextHolder.getContext().getAuthentication();
+        assertEquals("45678912", autenticacion.getName());
+        assertEquals("ROLE_1", autenticacion.getAuthorities().iterator().next().getAuthority());
+        assertNotNull(cadena.getRequest());
+    }
+
+    @Test
+    void unTokenInvalidoNoAutenticaPeroContinuaLaCadena() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/notificaciones/2");
+        request.addHeader("Authorization", "Bearer no.es.un-token");
+        MockFilterChain cadena = new MockFilterChain();
+
+        filtro.doFilter(request, new MockHttpServletResponse(), cadena);
+
+        verify(jwtUtil, times(1)).verificar("no.es.un-token");
+        assertNull(request.getAttribute("idUsuario"));
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertNotNull(cadena.getRequest());
+    }
+
+    @Test
+    void sinEncabezadoNoSeVerificaNada() throws Exception {
+        MockFilterChain cadena = new MockFilterChain();
+
+        filtro.doFilter(new MockHttpServletRequest("GET", "/api/auth/login"), new MockHttpServletResponse(), cadena);
+
+        verify(jwtUtil, never()).verificar(anyString());
+        assertNotNull(cadena.getRequest());
+    }
+
+    private static JwtUtil conCache() {
+        JwtUtil util = new JwtUtil();
+        ReflectionTestUtils.setField(util, "maxTokens", 100);
+        return util;
+    }
+}
@@ -0,0 +1,155 @@
+package com.app.financiera.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Caché LRU de tokens verificados: un token vencido sale de la caché y se vuelve a validar, un token
+ * alterado nunca se acepta y la caché no pasa de jwt.cache.max-tokens.
+ */
+class JwtUtilTest {
+
+    private static final int MAX_TOKENS = 3;
+
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void configurar() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "maxTokens", MAX_TOKENS);
+    }
+
+    @Test
+    void unTokenEnCacheSeRespondeSinVolverAVerificar() {
+        String token = jwtUtil.generateToken("45678912", 2, 1);
+
+        TokenVerificado primero = jwtUtil.verificar(token);
+        TokenVerificado segundo = jwtUtil.verificar(token);
+
+        assertEquals(new TokenVerificado("45678912", 2, 1, primero.expiracion()), primero);
+        assertSame(primero, segundo);
+        assertEquals(1, enCache());
+    }
+
+    @Test
+    void unTokenEnCacheQueExpiraSeQuitaYSeRechaza() throws InterruptedException {
+        // exp viaja en segundos: se redondea hacia abajo, así que vence a lo sumo en 1.5 s
+        String token = token("45678912", 2, System.currentTimeMillis() + 1500);
+        TokenVerificado verificado = jwtUtil.verificar(token);
+        assertEquals(1, enCache());
+
+        while (System.currentTimeMillis() <= verificado.expiracion()) {
+            Thread.sleep(50);
+        }
+
+        // La entrada vencida no se devuelve: se vuelve a parsear y jjwt rechaza el exp
+        assertThrows(ExpiredJwtException.class, () -> jwtUtil.verificar(token));
+        assertEquals(0, enCache());
+        assertFalse(jwtUtil.validateToken(token));
+    }
+
+    @Test
+    void unTokenAlteradoSeRechazaAunqueElOriginalEsteEnCache() {
+        String token = jwtUtil.generateToken("45678912", 2, 1);
+        jwtUtil.verificar(token);
+
+        // Mismo encabezado y firma, con el usuario cambiado en el cuerpo
+        String[] partes = token.split("\\.");
+        String cuerpo = new String(Base64.getUrlDecoder().decode(partes[1]), StandardCharsets.UTF_8)
+                .replace("\"idUsuario\":2", "\"idUsuario\":7");
+        String alterado = partes[0] + "." + Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(cuerpo.getBytes(StandardCharsets.UTF_8)) + "." + partes[2];
+
+        assertThrows(JwtException.class, () -> jwtUtil.verificar(alterado));
+        assertFalse(jwtUtil.validateToken(alterado));
+        assertEquals(1, enCache());
+    }
+
+    @Test
+    void unTokenFirmadoConOtraClaveSeRechaza() {
+        Key otraClave = Keys.hmacShaKeyFor(
+                "otra_clave_secreta_de_al_menos_treinta_y_dos_bytes_para_hs256".getBytes(StandardCharsets.UTF_8));
+        String ajeno = Jwts.builder()
+                .setClaims(Map.of("idUsuario", 2, "idRol", 1))
+                .setSubject("45678912")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(otraClave, SignatureAlgorithm.HS256)
+                .compact();
+
+        assertThrows(JwtException.class, () -> jwtUtil.verificar(ajeno));
+        assertEquals(0, enCache());
+    }
+
+    @Test
+    void laCacheNoPasaDelMaximoYDesalojaElMenosUsado() {
+        String[] tokens = new String[5];
+        TokenVerificado[] verificados = new TokenVerificado[5];
+        for (int i = 0; i < tokens.length; i++) {
+            tokens[i] = jwtUtil.generateToken("4567891" + i, 10 + i, 1);
+            verificados[i] = jwtUtil.verificar(tokens[i]);
+            assertTrue(enCache() <= MAX_TOKENS);
+        }
+        assertEquals(MAX_TOKENS, enCache());
+
+        // Quedan los tres últimos; el primero fue desalojado y se verifica de nuevo
+        assertSame(verificados[2], jwtUtil.verificar(tokens[2]));
+        assertSame(verificados[4], jwtUtil.verificar(tokens[4]));
+        assertNotSame(verificados[0], jwtUtil.verificar(tokens[0]));
+
+        // Al volver tokens[0] sale el menos usado, tokens[3]
+        assertEquals(MAX_TOKENS, enCache());
+        assertNotSame(verificados[3], jwtUtil.verificar(tokens[3]));
+    }
+
+    @Test
+    void unTokenSinExpiracionNoSeGuarda() {
+        String token = Jwts.builder()
+                .setClaims(Map.of("idUsuario", 2, "idRol", 1))
+                .setSubject("45678912")
+                .signWith(clave(), SignatureAlgorithm.HS256)
+                .compact();
+
+        assertEquals(Long.MAX_VALUE, jwtUtil.verificar(token).expiracion());
+        assertEquals(0, enCache());
+    }
+
+    private String token(String dni, int idUsuario, long expiraMs) {
+        return Jwts.builder()
+                .setClaims(Map.of("idUsuario", idUsuario, "idRol", 1))
+                .setSubject(dni)
+                .setExpiration(new Date(expiraMs))
+                .signWith(clave(), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    private Key clave() {
+        return (Key) ReflectionTestUtils.getField(jwtUtil, "signingKey");
+    }
+
+    private int enCache() {
+        Map<?, ?> verificados = (Map<?, ?>) ReflectionTestUtils.getField(jwtUtil, "verificados");
+        synchronized (verificados) {
+            return verificados.size();
+        }
+    }
+}
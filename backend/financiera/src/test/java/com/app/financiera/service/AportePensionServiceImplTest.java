@@ -0,0 +1,216 @@
+package com.app.financiera.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import com.app.financiera.PostgresEmbebido;
+import com.app.financiera.entity.AportePension;
+import com.app.financiera.entity.Institucion;
+import com.app.financiera.entity.TipoFondo;
+import com.app.financiera.entity.Usuario;
+
+/**
+ * Saldo incremental en PostgreSQL embebido: cada alta, cambio o baja de un aporte ajusta el saldo
+ * activo por +monto, nuevo − anterior o −monto, repartido en disponible (90 %), CIC (60 %), CV (40 %)
+ * y rentabilidad (5 %). Los usuarios se crean en la transacción de cada prueba, que se revierte.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ AportePensionServiceImpl.class, SaldoPensionServiceImpl.class, InstitucionCache.class })
+class AportePensionServiceImplTest {
+
+    private static final int USUARIO_A = 9101;
+    private static final int USUARIO_B = 9102;
+
+    // Tipo de fondo e institución de los datos de ejemplo de baseDeDatos.txt
+    private static final int ID_TIPO_FONDO = 2;
+    private static final int ID_INSTITUCION = 1;
+
+    @Autowired
+    private AportePensionService aportePensionService;
+
+    @Autowired
+    private SaldoPensionService saldoPensionService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private NotificacionService notificacionService;
+
+    @DynamicPropertySource
+    static void baseDeDatos(DynamicPropertyRegistry registro) {
+        PostgresEmbebido.registrar(registro);
+    }
+
+    @BeforeEach
+    void crearUsuarios() {
+        usuario(USUARIO_A, "90000001");
+        usuario(USUARIO_B, "90000002");
+    }
+
+    @Test
+    void elPrimerAporteCreaElSaldoConLaSumaDelHistorial() {
+        aporteExistente(910_001, USUARIO_A, 500.0);
+
+        aportePensionService.guardarAporte(nuevoAporte(USUARIO_A, 1000.0));
+
+        assertEquals(List.of(1500.0, 1350.0, 900.0, 600.0, 75.0), saldo(USUARIO_A));
+        assertEquals(1, saldosActivos(USUARIO_A));
+    }
+
+    @Test
+    void sinAportesNoSeCreaSaldo() {
+        saldoPensionService.aplicarVariacion(referencia(USUARIO_A), fondo(), 0.0);
+
+        assertEquals(0, saldosActivos(USUARIO_A));
+    }
+
+    @Test
+    void guardarSumaElMontoAlSaldoExistente() {
+        saldoExistente(USUARIO_A, 1000.0);
+
+        aportePensionService.guardarAporte(nuevoAporte(USUARIO_A, 250.0));
+
+        assertEquals(List.of(1250.0, 1125.0, 750.0, 500.0, 62.5), saldo(USUARIO_A));
+    }
+
+    @Test
+    void actualizarAplicaSoloLaDiferencia() {
+        aporteExistente(910_001, USUARIO_A, 1000.0);
+        saldoExistente(USUARIO_A, 1000.0);
+
+        aportePensionService.actualizarAporte(aporte(910_001, USUARIO_A, 600.0));
+
+        assertEquals(List.of(600.0, 540.0, 360.0, 240.0, 30.0), saldo(USUARIO_A));
+
+        aportePensionService.actualizarAporte(aporte(910_001, USUARIO_A, 700.0));
+
+        assertEquals(List.of(700.0, 630.0, 420.0, 280.0, 35.0), saldo(USUARIO_A));
+    }
+
+    @Test
+    void moverUnAporteAOtroUsuarioLoDescuentaDeUnoYLoSumaAlOtro() {
+        aporteExistente(910_001, USUARIO_A, 1000.0);
+        aporteExistente(910_002, USUARIO_A, 200.0);
+        aporteExistente(910_003, USUARIO_B, 500.0);
+        saldoExistente(USUARIO_A, 1200.0);
+        saldoExistente(USUARIO_B, 500.0);
+
+        // Cambia de usuario y de monto a la vez: al anterior se le resta el monto anterior
+        aportePensionService.actualizarAporte(aporte(910_001, USUARIO_B, 800.0));
+
+        assertEquals(List.of(200.0, 180.0, 120.0, 80.0, 10.0), saldo(USUARIO_A));
+        assertEquals(List.of(1300.0, 1170.0, 780.0, 520.0, 65.0), saldo(USUARIO_B));
+    }
+
+    @Test
+    void eliminarRestaElMontoDelSaldo() {
+        aporteExistente(910_001, USUARIO_A, 1000.0);
+        aporteExistente(910_002, USUARIO_A, 400.0);
+        saldoExistente(USUARIO_A, 1400.0);
+
+        aportePensionService.eliminarAporte(910_002);
+
+        assertEquals(List.of(1000.0, 900.0, 600.0, 400.0, 50.0), saldo(USUARIO_A));
+    }
+
+    @Test
+    void elSaldoIncrementalCoincideConLaSumaDeAportes() {
+        aportePensionService.guardarAporte(nuevoAporte(USUARIO_A, 1000.0));
+        AportePension segundo = aportePensionService.guardarAporte(nuevoAporte(USUARIO_A, 350.0));
+        AportePension tercero = aportePensionService.guardarAporte(nuevoAporte(USUARIO_A, 120.0));
+
+        aportePensionService.actualizarAporte(aporte(segundo.getIdAporte(), USUARIO_A, 300.0));
+        aportePensionService.eliminarAporte(tercero.getIdAporte());
+        entityManager.flush();
+
+        Double sumaAportes = jdbcTemplate.queryForObject(
+                "SELECT SUM(monto_aporte)::float8 FROM aporte_pension WHERE id_usuario = ?", Double.class, USUARIO_A);
+        assertEquals(1300.0, sumaAportes);
+        assertEquals(sumaAportes, saldo(USUARIO_A).get(0));
+        assertEquals(1, saldosActivos(USUARIO_A));
+    }
+
+    private void usuario(int idUsuario, String dni) {
+        jdbcTemplate.update("INSERT INTO usuario (id_usuario, id_rol, nombre, apellido, dni, correo, tipo_regimen,"
+                        + " notificaciones_email, notificaciones_sms, estado)"
+                        + " VALUES (?, 2, 'Prueba', 'Saldo', ?, ?, 'ONP', true, true, 'Activo')",
+                idUsuario, dni, dni + "@prueba.com");
+    }
+
+    private void aporteExistente(int idAporte, int idUsuario, double monto) {
+        jdbcTemplate.update("INSERT INTO aporte_pension (id_aporte, id_usuario, id_institucion, id_tipo_fondo, periodo,"
+                        + " monto_aporte, fecha_aporte, estado) VALUES (?, ?, ?, ?, '2025-01', ?, '2025-01-31', 'Registrado')",
+                idAporte, idUsuario, ID_INSTITUCION, ID_TIPO_FONDO, monto);
+    }
+
+    private void saldoExistente(int idUsuario, double total) {
+        jdbcTemplate.update("INSERT INTO saldo_pension (id_usuario, id_tipo_fondo, saldo_total, saldo_disponible, saldo_cic,"
+                        + " saldo_cv, rentabilidad_acumulada, fecha_corte, estado) VALUES (?, ?, ?, ?, ?, ?, ?, '2025-01-31', 'Activo')",
+                idUsuario, ID_TIPO_FONDO, total, total * 0.9, total * 0.6, total * 0.4, total * 0.05);
+    }
+
+    private AportePension nuevoAporte(int idUsuario, double monto) {
+        return aporte(0, idUsuario, monto);
+    }
+
+    // Aporte desacoplado, como llega desde el controlador en una petición nueva
+    private AportePension aporte(int idAporte, int idUsuario, double monto) {
+        entityManager.flush();
+        entityManager.clear();
+        AportePension aporte = new AportePension();
+        aporte.setIdAporte(idAporte);
+        aporte.setUsuario(referencia(idUsuario));
+        aporte.setInstitucion(entityManager.getEntityManager().getReference(Institucion.class, ID_INSTITUCION));
+        aporte.setTipoFondo(fondo());
+        aporte.setPeriodo("2025-02");
+        aporte.setMontoAporte(monto);
+        aporte.setFechaAporte(LocalDate.of(2025, 2, 28));
+        aporte.setEstado("Registrado");
+        return aporte;
+    }
+
+    private Usuario referencia(int idUsuario) {
+        return entityManager.find(Usuario.class, idUsuario);
+    }
+
+    private TipoFondo fondo() {
+        return entityManager.find(TipoFondo.class, ID_TIPO_FONDO);
+    }
+
+    // Total, disponible, CIC, CV y rentabilidad del saldo activo, leídos de la tabla
+    private List<Double> saldo(int idUsuario) {
+        entityManager.flush();
+        Map<String, Object> fila = jdbcTemplate.queryForMap("SELECT saldo_total::float8 AS total,"
+                + " saldo_disponible::float8 AS disponible, saldo_cic::float8 AS cic, saldo_cv::float8 AS cv,"
+                + " rentabilidad_acumulada::float8 AS rentabilidad FROM saldo_pension"
+                + " WHERE id_usuario = ? AND estado = 'Activo'", idUsuario);
+        return List.of((Double) fila.get("total"), (Double) fila.get("disponible"), (Double) fila.get("cic"),
+                (Double) fila.get("cv"), (Double) fila.get("rentabilidad"));
+    }
+
+    private int saldosActivos(int idUsuario) {
+        entityManager.flush();
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM saldo_pension WHERE id_usuario = ? AND estado = 'Activo'",
+                Integer.class, idUsuario);
+    }
+}
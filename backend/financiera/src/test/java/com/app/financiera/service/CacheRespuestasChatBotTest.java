@@ -0,0 +1,157 @@
+package com.app.financiera.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Normalización y separación entre el nivel general y el nivel por usuario, vencimiento, desalojo
+ * LRU, invalidación por cambio de datos y métricas de aciertos.
+ */
+class CacheRespuestasChatBotTest {
+
+    private static final String CONTEXTO = "Saldo: S/ 1,250.00";
+
+    private CacheRespuestasChatBot cache;
+
+    @BeforeEach
+    void configurar() {
+        cache = crear(3, 1440, 3, 10);
+    }
+
+    @Test
+    void normalizarQuitaTildesSignosYSaludos() {
+        assertEquals("que es una afp", CacheRespuestasChatBot.normalizar("Hola, ¿Qué es una AFP?"));
+        assertEquals("que es una afp", CacheRespuestasChatBot.normalizar("  que   ES una afp!!  gracias"));
+        assertEquals("cuanto tengo", CacheRespuestasChatBot.normalizar("¿Cuánto tengo?"));
+        assertEquals("", CacheRespuestasChatBot.normalizar(null));
+        assertEquals("", CacheRespuestasChatBot.normalizar("¡Buenos días!"));
+    }
+
+    @Test
+    void unaPreguntaSobreDatosPropiosNuncaEsGeneral() {
+        assertFalse(esGeneral("¿Cuánto tengo?"));
+        assertFalse(esGeneral("¿Cuál es mi saldo?"));
+        assertFalse(esGeneral("Mis seguros activos"));
+        assertFalse(esGeneral("¡Hola!"));
+
+        assertTrue(esGeneral("¿Qué es una AFP?"));
+        assertTrue(esGeneral("Diferencia entre ONP y AFP"));
+    }
+
+    @Test
+    void lasRespuestasPorUsuarioNoSeComparten() {
+        String pregunta = CacheRespuestasChatBot.normalizar("¿Cuánto tengo?");
+        cache.guardarUsuario(2, pregunta, CONTEXTO, "S/ 1,250.00");
+
+        assertEquals("S/ 1,250.00", cache.buscarUsuario(2, pregunta, CONTEXTO));
+        assertNull(cache.buscarUsuario(7, pregunta, CONTEXTO));
+        assertNull(cache.buscarGeneral(pregunta));
+    }
+
+    @Test
+    void unCambioDeContextoProduceOtraClave() {
+        String pregunta = CacheRespuestasChatBot.normalizar("¿Cuánto tengo?");
+        cache.guardarUsuario(2, pregunta, CONTEXTO, "S/ 1,250.00");
+
+        assertNull(cache.buscarUsuario(2, pregunta, "Saldo: S/ 1,300.00"));
+    }
+
+    @Test
+    void unaEntradaVencidaNoSeDevuelveYSeLibera() {
+        // Tiempo de vida nulo: la entrada vence en el mismo instante en que se guarda
+        cache = crear(3, 0, 3, 0);
+        cache.guardarGeneral("que es una afp", "Una administradora privada de fondos de pensiones");
+        cache.guardarUsuario(2, "cuanto tengo", CONTEXTO, "S/ 1,250.00");
+
+        assertNull(cache.buscarGeneral("que es una afp"));
+        assertNull(cache.buscarUsuario(2, "cuanto tengo", CONTEXTO));
+        assertEquals(0, nivel("general").get("entradas"));
+        assertEquals(0, nivel("porUsuario").get("entradas"));
+        assertEquals(1L, nivel("general").get("fallos"));
+    }
+
+    @Test
+    void alLlenarseSeDesalojaLaMenosUsada() {
+        cache.guardarGeneral("que es una afp", "AFP");
+        cache.guardarGeneral("que es la onp", "ONP");
+        cache.guardarGeneral("que es un seguro", "Seguro");
+
+        // La consulta renueva "que es una afp": la menos usada pasa a ser "que es la onp"
+        cache.buscarGeneral("que es una afp");
+        cache.guardarGeneral("que es una poliza", "Póliza");
+
+        assertNull(cache.buscarGeneral("que es la onp"));
+        assertEquals("AFP", cache.buscarGeneral("que es una afp"));
+        assertEquals("Seguro", cache.buscarGeneral("que es un seguro"));
+        assertEquals("Póliza", cache.buscarGeneral("que es una poliza"));
+        assertEquals(1L, nivel("general").get("desalojosPorTamano"));
+        assertEquals(3, nivel("general").get("entradas"));
+
+        // Reemplazar una clave existente no desaloja
+        cache.guardarGeneral("que es una afp", "AFP actualizada");
+        assertEquals(1L, nivel("general").get("desalojosPorTamano"));
+    }
+
+    @Test
+    void modificarLosDatosDeUnUsuarioSoloInvalidaSusRespuestas() {
+        cache.guardarUsuario(2, "cuanto tengo", CONTEXTO, "S/ 1,250.00");
+        cache.guardarUsuario(2, "mis seguros activos", CONTEXTO, "Seguro de vida");
+        cache.guardarUsuario(7, "cuanto tengo", CONTEXTO, "S/ 980.00");
+        cache.guardarGeneral("que es una afp", "AFP");
+
+        cache.alModificarDatos(new DatosUsuarioModificadosEvent(2, "aporte"));
+
+        assertNull(cache.buscarUsuario(2, "cuanto tengo", CONTEXTO));
+        assertNull(cache.buscarUsuario(2, "mis seguros activos", CONTEXTO));
+        assertEquals("S/ 980.00", cache.buscarUsuario(7, "cuanto tengo", CONTEXTO));
+        assertEquals("AFP", cache.buscarGeneral("que es una afp"));
+        assertEquals(1, nivel("porUsuario").get("entradas"));
+    }
+
+    @Test
+    void lasMetricasCuentanAciertosYFallosDeAmbosNiveles() {
+        assertEquals(0.0, cache.obtenerEstadisticas().get("tasaAciertos"));
+
+        cache.guardarGeneral("que es una afp", "AFP");
+        cache.guardarUsuario(2, "cuanto tengo", CONTEXTO, "S/ 1,250.00");
+        cache.buscarGeneral("que es una afp");
+        cache.buscarGeneral("que es una afp");
+        cache.buscarGeneral("que es la onp");
+        cache.buscarUsuario(2, "cuanto tengo", CONTEXTO);
+
+        assertEquals(2L, nivel("general").get("aciertos"));
+        assertEquals(1L, nivel("general").get("fallos"));
+        assertEquals(2.0 / 3, (double) nivel("general").get("tasaAciertos"), 1e-9);
+        assertEquals(1L, nivel("porUsuario").get("aciertos"));
+        assertEquals(0L, nivel("porUsuario").get("fallos"));
+        assertEquals(0.75, (double) cache.obtenerEstadisticas().get("tasaAciertos"), 1e-9);
+    }
+
+    private static CacheRespuestasChatBot crear(int maxGeneral, long ttlGeneralMinutos, int maxUsuario,
+            long ttlUsuarioMinutos) {
+        CacheRespuestasChatBot cache = new CacheRespuestasChatBot();
+        ReflectionTestUtils.setField(cache, "maxGeneral", maxGeneral);
+        ReflectionTestUtils.setField(cache, "ttlGeneralMinutos", ttlGeneralMinutos);
+        ReflectionTestUtils.setField(cache, "maxUsuario", maxUsuario);
+        ReflectionTestUtils.setField(cache, "ttlUsuarioMinutos", ttlUsuarioMinutos);
+        cache.iniciar();
+        return cache;
+    }
+
+    private boolean esGeneral(String pregunta) {
+        return cache.esGeneral(CacheRespuestasChatBot.normalizar(pregunta));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> nivel(String nombre) {
+        return (Map<String, Object>) cache.obtenerEstadisticas().get(nombre);
+    }
+}
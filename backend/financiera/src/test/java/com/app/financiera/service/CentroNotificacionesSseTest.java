@@ -0,0 +1,237 @@
+package com.app.financiera.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ExecutorService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.app.financiera.controller.NotificacionController;
+import com.app.financiera.dto.NotificacionEvento;
+import com.app.financiera.repository.NotificacionRepository;
+
+/**
+ * Conexiones SSE abiertas a través de NotificacionController con MockMvc, que escribe los eventos
+ * en la respuesta. Los hilos virtuales se reemplazan por una cola de tareas que la prueba ejecuta
+ * cuando quiere, así el orden entre la carga del conteo, los eventos y el envío es determinista.
+ */
+class CentroNotificacionesSseTest {
+
+    private static final int ID_USUARIO = 7;
+    private static final int BUFFER = 4;
+    private static final int MAX_CONEXIONES = 2;
+
+    private final Queue<Runnable> tareas = new ArrayDeque<>();
+
+    private NotificacionRepository notificacionRepository;
+    private CentroNotificacionesSse centro;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void configurar() {
+        ExecutorService emisores = mock(ExecutorService.class);
+        doAnswer(invocacion -> tareas.add(invocacion.getArgument(0))).when(emisores).execute(any());
+
+        notificacionRepository = mock(NotificacionRepository.class);
+        centro = new CentroNotificacionesSse();
+        ReflectionTestUtils.setField(centro, "notificacionRepository", notificacionRepository);
+        ReflectionTestUtils.setField(centro, "timeoutMs", 60_000L);
+        ReflectionTestUtils.setField(centro, "bufferEventos", BUFFER);
+        ReflectionTestUtils.setField(centro, "maxConexionesUsuario", MAX_CONEXIONES);
+        ReflectionTestUtils.setField(centro, "emisores", emisores);
+
+        NotificacionController controller = new NotificacionController();
+        ReflectionTestUtils.setField(controller, "centroNotificaciones", centro);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void elConteoSeCargaAlConectarYSeMantieneConLosEventos() throws Exception {
+        when(notificacionRepository.countNotificacionesNoLeidas(ID_USUARIO)).thenReturn(3L);
+
+        MvcResult conexion = conectar();
+        assertNull(centro.noLeidasEnCache(ID_USUARIO));
+        ejecutarTareas();
+        assertEquals(3L, centro.noLeidasEnCache(ID_USUARIO));
+
+        publicar(NotificacionCambiadaEvent.Tipo.CREADA, true);
+        publicar(NotificacionCambiadaEvent.Tipo.CREADA, true);
+        publicar(NotificacionCambiadaEvent.Tipo.LEIDA, true);
+        // Una notificación ya leída que se elimina no cambia el conteo
+        publicar(NotificacionCambiadaEvent.Tipo.ELIMINADA, false);
+        ejecutarTareas();
+
+        assertEquals(4L, centro.noLeidasEnCache(ID_USUARIO));
+        assertEquals(
+                "event:noLeidas\ndata:{\"total\":3}\n\n"
+                        + "event:noLeidas\ndata:{\"total\":4}\n\n"
+                        + "event:noLeidas\ndata:{\"total\":5}\n\n"
+                        + "event:noLeidas\ndata:{\"total\":4}\n\n",
+                contenido(conexion));
+        verify(notificacionRepository, times(1)).countNotificacionesNoLeidas(ID_USUARIO);
+    }
+
+    @Test
+    void unEventoDuranteElConteoObligaAContarDeNuevo() throws Exception {
+        // La primera consulta no ve la notificación creada mientras contaba; la segunda sí
+        when(notificacionRepository.countNotificacionesNoLeidas(ID_USUARIO))
+                .thenAnswer(invocacion -> {
+                    publicar(NotificacionCambiadaEvent.Tipo.CREADA, true);
+                    return 3L;
+                })
+                .thenReturn(4L);
+
+        MvcResult conexion = conectar();
+        ejecutarTareas();
+
+        assertEquals(4L, centro.noLeidasEnCache(ID_USUARIO));
+        assertEquals("event:noLeidas\ndata:{\"total\":4}\n\n", contenido(conexion));
+        verify(notificacionRepository, times(2)).countNotificacionesNoLeidas(ID_USUARIO);
+    }
+
+    @Test
+    void conEventosIncesantesSeAceptaElTercerConteo() throws Exception {
+        when(notificacionRepository.countNotificacionesNoLeidas(ID_USUARIO)).thenAnswer(invocacion -> {
+            publicar(NotificacionCambiadaEvent.Tipo.CREADA, true);
+            return 10L;
+        });
+
+        conectar();
+        ejecutarTareas();
+
+        assertEquals(10L, centro.noLeidasEnCache(ID_USUARIO));
+        verify(notificacionRepository, times(3)).countNotificacionesNoLeidas(ID_USUARIO);
+    }
+
+    @Test
+    void laReconciliacionCorrigeUnConteoDesviado() throws Exception {
+        when(notificacionRepository.countNotificacionesNoLeidas(ID_USUARIO)).thenReturn(3L, 5L, 5L);
+        MvcResult conexion = conectar();
+        ejecutarTareas();
+
+        reconciliar();
+        assertEquals(5L, centro.noLeidasEnCache(ID_USUARIO));
+
+        // Sin diferencia no se envía nada
+        reconciliar();
+
+        assertEquals("event:noLeidas\ndata:{\"total\":3}\n\n" + "event:noLeidas\ndata:{\"total\":5}\n\n",
+                contenido(conexion));
+    }
+
+    @Test
+    void laReconciliacionNoPisaUnEventoLlegadoMientrasContaba() throws Exception {
+        when(notificacionRepository.countNotificacionesNoLeidas(ID_USUARIO))
+                .thenReturn(3L)
+                .thenAnswer(invocacion -> {
+                    publicar(NotificacionCambiadaEvent.Tipo.CREADA, true);
+                    return 3L;
+                });
+        conectar();
+        ejecutarTareas();
+
+        reconciliar();
+
+        assertEquals(4L, centro.noLeidasEnCache(ID_USUARIO));
+    }
+
+    @Test
+    void unBufferLlenoSeReemplazaPorUnSoloResincronizar() throws Exception {
+        when(notificacionRepository.countNotificacionesNoLeidas(ID_USUARIO)).thenReturn(0L);
+        MvcResult conexion = conectar();
+        ejecutarTareas();
+        String inicial = contenido(conexion);
+
+        // El cliente no recibe nada mientras llegan una notificación más de las que caben
+        for (int i = 0; i <= BUFFER; i++) {
+            publicar(NotificacionCambiadaEvent.Tipo.ENVIADA, false);
+        }
+        ejecutarTareas();
+
+        assertEquals("event:resincronizar\ndata:{}\n\n", contenido(conexion).substring(inicial.length()));
+        assertEquals(1L, centro.obtenerEstadisticas().get("desbordesBuffer"));
+    }
+
+    @Test
+    void alSuperarElMaximoDeConexionesSeCierraLaMasAntigua() throws Exception {
+        when(notificacionRepository.countNotificacionesNoLeidas(ID_USUARIO)).thenReturn(1L);
+        MvcResult primera = conectar();
+        MvcResult segunda = conectar();
+        MvcResult tercera = conectar();
+        ejecutarTareas();
+
+        assertEquals(MAX_CONEXIONES, centro.obtenerEstadisticas().get("conexionesActivas"));
+
+        publicar(NotificacionCambiadaEvent.Tipo.ENVIADA, false);
+        ejecutarTareas();
+
+        assertFalse(contenido(primera).contains("event:notificacion"));
+        assertTrue(contenido(segunda).contains("event:notificacion"));
+        assertTrue(contenido(tercera).contains("event:notificacion"));
+    }
+
+    @Test
+    void alCerrarseLaUltimaConexionSeOlvidaElContador() throws Exception {
+        when(notificacionRepository.countNotificacionesNoLeidas(ID_USUARIO)).thenReturn(2L);
+        conectar();
+        ejecutarTareas();
+        assertEquals(2L, centro.noLeidasEnCache(ID_USUARIO));
+
+        // La segunda y la tercera desplazan a la primera; al completar las dos restantes no queda ninguna
+        MvcResult segunda = conectar();
+        MvcResult tercera = conectar();
+        ejecutarTareas();
+        segunda.getRequest().getAsyncContext().complete();
+        tercera.getRequest().getAsyncContext().complete();
+
+        assertNull(centro.noLeidasEnCache(ID_USUARIO));
+        assertEquals(0, centro.obtenerEstadisticas().get("usuariosConectados"));
+    }
+
+    private MvcResult conectar() throws Exception {
+        return mockMvc.perform(get("/api/notificaciones/stream").requestAttr("idUsuario", ID_USUARIO))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    private void publicar(NotificacionCambiadaEvent.Tipo tipo, boolean noLeida) {
+        NotificacionEvento notificacion = new NotificacionEvento(1, "Aporte", "Aporte registrado", "Se registró su aporte",
+                "Media", null, null);
+        centro.alCambiarNotificacion(new NotificacionCambiadaEvent(ID_USUARIO, tipo, notificacion, noLeida));
+    }
+
+    private void reconciliar() {
+        ReflectionTestUtils.invokeMethod(centro, "reconciliarConteos");
+        ejecutarTareas();
+    }
+
+    // Las tareas pueden programar otras (la carga del conteo encola un envío)
+    private void ejecutarTareas() {
+        Runnable tarea;
+        while ((tarea = tareas.poll()) != null) {
+            tarea.run();
+        }
+    }
+
+    private static String contenido(MvcResult resultado) throws Exception {
+        return resultado.getResponse().getContentAsString();
+    }
+}
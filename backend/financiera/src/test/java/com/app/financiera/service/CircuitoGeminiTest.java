@@ -0,0 +1,174 @@
+package com.app.financiera.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Apertura por proporción de fallos en la ventana, llamadas lentas contadas como fallo y la llamada
+ * de prueba del estado semiabierto.
+ */
+class CircuitoGeminiTest {
+
+    private static final long LATENCIA_LENTA_MS = 1000;
+
+    private CircuitoGemini circuito;
+
+    @BeforeEach
+    void configurar() {
+        circuito = new CircuitoGemini();
+        ReflectionTestUtils.setField(circuito, "tamanoVentana", 10);
+        ReflectionTestUtils.setField(circuito, "minimoLlamadas", 4);
+        ReflectionTestUtils.setField(circuito, "umbralFallos", 0.5);
+        ReflectionTestUtils.setField(circuito, "latenciaLentaMs", LATENCIA_LENTA_MS);
+        ReflectionTestUtils.setField(circuito, "esperaAbiertoMs", 60_000L);
+        circuito.iniciar();
+    }
+
+    @Test
+    void noSeAbreAntesDelMinimoDeLlamadas() {
+        circuito.registrarFallo();
+        circuito.registrarFallo();
+        circuito.registrarFallo();
+
+        // Tres de tres fallidas, pero la ventana aún no tiene el mínimo de llamadas
+        assertEquals("CERRADO", estado());
+        assertTrue(circuito.permitirLlamada());
+    }
+
+    @Test
+    void seAbreAlAlcanzarElUmbralConElMinimoDeLlamadas() {
+        circuito.registrarFallo();
+        circuito.registrarExito(10);
+        circuito.registrarFallo();
+        assertEquals("CERRADO", estado());
+
+        // Cuarta llamada: 2 de 4 fallidas alcanza el umbral de 0.5
+        circuito.registrarExito(10);
+
+        assertEquals("ABIERTO", estado());
+        assertFalse(circuito.permitirLlamada());
+        assertEquals(1L, circuito.obtenerEstadisticas().get("llamadasRechazadas"));
+        assertEquals(1L, circuito.obtenerEstadisticas().get("aperturas"));
+    }
+
+    @Test
+    void porDebajoDelUmbralSigueCerrado() {
+        circuito.registrarFallo();
+        circuito.registrarExito(10);
+        circuito.registrarExito(10);
+        circuito.registrarExito(10);
+
+        assertEquals("CERRADO", estado());
+    }
+
+    @Test
+    void unaRespuestaLentaCuentaComoFallo() {
+        circuito.registrarExito(LATENCIA_LENTA_MS);
+        circuito.registrarExito(10);
+        circuito.registrarExito(LATENCIA_LENTA_MS + 500);
+        assertEquals("CERRADO", estado());
+
+        circuito.registrarExito(10);
+
+        assertEquals("ABIERTO", estado());
+        assertEquals(2L, circuito.obtenerEstadisticas().get("llamadasLentas"));
+        assertEquals(0L, circuito.obtenerEstadisticas().get("llamadasConError"));
+    }
+
+    @Test
+    void laVentanaDescartaLosResultadosMasAntiguos() {
+        // Ventana llena de 10 con un solo fallo, en la cuarta posición
+        for (int i = 0; i < 10; i++) {
+            if (i == 3) {
+                circuito.registrarFallo();
+            } else {
+                circuito.registrarExito(10);
+            }
+        }
+
+        // Tres fallos nuevos reemplazan éxitos: 4 de 10
+        for (int i = 0; i < 3; i++) {
+            circuito.registrarFallo();
+        }
+        assertEquals(4, circuito.obtenerEstadisticas().get("fallosEnVentana"));
+
+        // El siguiente reemplaza al fallo antiguo: siguen siendo 4 de 10
+        circuito.registrarFallo();
+        assertEquals(4, circuito.obtenerEstadisticas().get("fallosEnVentana"));
+        assertEquals("CERRADO", estado());
+
+        circuito.registrarFallo();
+        assertEquals("ABIERTO", estado());
+    }
+
+    @Test
+    void laPruebaRapidaCierraElCircuitoConLaVentanaLimpia() {
+        abrirConPruebaInmediata();
+
+        assertTrue(circuito.permitirLlamada());
+        assertEquals("SEMIABIERTO", estado());
+        // Solo una llamada de prueba a la vez
+        assertFalse(circuito.permitirLlamada());
+
+        circuito.registrarExito(10);
+
+        assertEquals("CERRADO", estado());
+        assertEquals(0, circuito.obtenerEstadisticas().get("llamadasEnVentana"));
+        assertTrue(circuito.permitirLlamada());
+    }
+
+    @Test
+    void unaPruebaFallidaOLentaReabreElCircuito() {
+        abrirConPruebaInmediata();
+
+        assertTrue(circuito.permitirLlamada());
+        circuito.registrarFallo();
+        assertEquals("ABIERTO", estado());
+
+        assertTrue(circuito.permitirLlamada());
+        circuito.registrarExito(LATENCIA_LENTA_MS);
+        assertEquals("ABIERTO", estado());
+        assertEquals(3L, circuito.obtenerEstadisticas().get("aperturas"));
+    }
+
+    @Test
+    void cancelarLaPruebaPermiteQueOtraLlamadaLaHaga() {
+        abrirConPruebaInmediata();
+        assertTrue(circuito.permitirLlamada());
+        assertFalse(circuito.permitirLlamada());
+
+        // La llamada de prueba no llegó a enviarse
+        circuito.cancelarLlamada();
+
+        assertTrue(circuito.permitirLlamada());
+        assertEquals("SEMIABIERTO", estado());
+        circuito.registrarExito(10);
+        assertEquals("CERRADO", estado());
+    }
+
+    @Test
+    void cancelarConElCircuitoCerradoNoCambiaNada() {
+        circuito.cancelarLlamada();
+
+        assertEquals("CERRADO", estado());
+        assertEquals(0, circuito.obtenerEstadisticas().get("llamadasEnVentana"));
+    }
+
+    // Abre el circuito con una espera nula: la siguiente llamada ya es la de prueba
+    private void abrirConPruebaInmediata() {
+        ReflectionTestUtils.setField(circuito, "esperaAbiertoMs", 0L);
+        for (int i = 0; i < 4; i++) {
+            circuito.registrarFallo();
+        }
+        assertEquals("ABIERTO", estado());
+    }
+
+    private Object estado() {
+        return circuito.obtenerEstadisticas().get("estado");
+    }
+}
@@ -0,0 +1,93 @@
+package com.app.financiera.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.app.financiera.service.ClasificadorIntenciones.Clasificacion;
+import com.app.financiera.service.ClasificadorIntenciones.Intencion;
+
+/**
+ * Clasificación de preguntas reales, normalizadas como en el chatbot, con la confianza mínima
+ * de application.properties.
+ */
+class ClasificadorIntencionesTest {
+
+    private ClasificadorIntenciones clasificador;
+
+    @BeforeEach
+    void configurar() {
+        clasificador = new ClasificadorIntenciones();
+        ReflectionTestUtils.setField(clasificador, "confianzaMinima", 0.6);
+        clasificador.iniciar();
+    }
+
+    @Test
+    void unaPreguntaPorElSaldoEsConcluyente() {
+        Clasificacion clasificacion = clasificar("¿Cuál es mi saldo?");
+
+        assertEquals(Intencion.SALDO, clasificacion.intencion());
+        assertEquals(1.0, clasificacion.confianza());
+        assertTrue(clasificacion.concluyente());
+    }
+
+    @Test
+    void unaPreguntaConOtroTemaNoEsConcluyente() {
+        // "cuanto tengo" cubre dos de cuatro palabras; "afp" apunta a otra intención
+        Clasificacion clasificacion = clasificar("¿Cuánto tengo en mi AFP?");
+
+        assertEquals(Intencion.SALDO, clasificacion.intencion());
+        assertEquals(0.5, clasificacion.confianza());
+        assertFalse(clasificacion.concluyente());
+    }
+
+    @Test
+    void losPluralesCoincidenConLosSingulares() {
+        Clasificacion plural = clasificar("seguros activos");
+        Clasificacion singular = clasificar("seguro activo");
+
+        assertEquals(Intencion.SEGUROS_ACTIVOS, plural.intencion());
+        assertEquals(Intencion.SEGUROS_ACTIVOS, singular.intencion());
+        assertTrue(plural.concluyente());
+        assertTrue(singular.concluyente());
+        assertEquals(Intencion.SEGUROS_ACTIVOS, clasificar("¿Qué pólizas vigentes tengo?").intencion());
+    }
+
+    @Test
+    void prevaleceLaFraseMasLarga() {
+        // "seguro" solo es TIPOS_SEGURO; "seguros activos" es más larga y gana
+        assertEquals(Intencion.TIPOS_SEGURO, clasificar("seguro").intencion());
+        assertEquals(Intencion.SEGUROS_ACTIVOS, clasificar("mis seguros activos").intencion());
+    }
+
+    @Test
+    void lasIntencionesNoDeterministasNuncaSonConcluyentes() {
+        Clasificacion clasificacion = clasificar("¿Qué es una AFP?");
+
+        assertEquals(Intencion.ONP_VS_AFP, clasificacion.intencion());
+        assertEquals(1.0, clasificacion.confianza());
+        assertFalse(clasificacion.concluyente());
+    }
+
+    @Test
+    void unEmpateEntreIntencionesNoEsConcluyente() {
+        Clasificacion clasificacion = clasificar("saldo y asesor");
+
+        assertFalse(clasificacion.concluyente());
+    }
+
+    @Test
+    void sinPalabrasSignificativasLaIntencionEsDesconocida() {
+        assertEquals(Intencion.DESCONOCIDA, clasificar("").intencion());
+        assertEquals(Intencion.DESCONOCIDA, clasificar("¿Qué es?").intencion());
+        assertEquals(Intencion.DESCONOCIDA, clasificar("el clima en lima").intencion());
+    }
+
+    private Clasificacion clasificar(String pregunta) {
+        return clasificador.clasificar(CacheRespuestasChatBot.normalizar(pregunta));
+    }
+}
@@ -0,0 +1,97 @@
+package com.app.financiera.service;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+
+/**
+ * Apunta gemini.api.base-url a un servidor WireMock que responde como la API de Gemini,
+ * incluido el flujo SSE de streamGenerateContent.
+ */
+class ClienteGeminiTest {
+
+    private static final String MODELO = "gemini-2.5-flash";
+    private static final String RUTA_STREAM = "/v1beta/models/" + MODELO + ":streamGenerateContent";
+    private static final String RUTA_COMPLETA = "/v1beta/models/" + MODELO + ":generateContent";
+
+    @RegisterExtension
+    static final WireMockExtension gemini = WireMockExtension.newInstance()
+            .options(wireMockConfig().dynamicPort())
+            .build();
+
+    private ClienteGemini cliente;
+
+    @BeforeEach
+    void configurar() {
+        cliente = new ClienteGemini();
+        ReflectionTestUtils.setField(cliente, "geminiApiKey", "clave-de-prueba");
+        ReflectionTestUtils.setField(cliente, "baseUrl", gemini.baseUrl());
+        ReflectionTestUtils.setField(cliente, "modelo", MODELO);
+        ReflectionTestUtils.setField(cliente, "timeoutMs", 5000);
+        cliente.iniciar();
+    }
+
+    @Test
+    void generarStreamEntregaCadaFragmentoEnOrden() {
+        gemini.stubFor(post(urlPathEqualTo(RUTA_STREAM))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "text/event-stream")
+                        .withBody(evento("Su saldo ") + evento("actual es ") + evento("") + evento("S/ 1,250.00"))));
+
+        List<String> fragmentos = new ArrayList<>();
+        String completa = cliente.generarStream("¿Cuál es mi saldo?", fragmentos::add);
+
+        // Los fragmentos sin texto no se entregan
+        assertEquals(List.of("Su saldo ", "actual es ", "S/ 1,250.00"), fragmentos);
+        assertEquals("Su saldo actual es S/ 1,250.00", completa);
+        gemini.verify(postRequestedFor(urlPathEqualTo(RUTA_STREAM))
+                .withQueryParam("alt", equalTo("sse"))
+                .withHeader("x-goog-api-key", equalTo("clave-de-prueba")));
+    }
+
+    @Test
+    void generarRetornaElTextoDeLaRespuesta() {
+        gemini.stubFor(post(urlPathEqualTo(RUTA_COMPLETA))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody(respuesta("Hola, ¿en qué puedo ayudarle?"))));
+
+        assertEquals("Hola, ¿en qué puedo ayudarle?", cliente.generar("Hola"));
+    }
+
+    @Test
+    void unErrorDelServidorSePropagaParaElCircuito() {
+        gemini.stubFor(post(urlPathEqualTo(RUTA_STREAM))
+                .willReturn(aResponse()
+                        .withStatus(503)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("{\"error\":{\"code\":503,\"message\":\"overloaded\",\"status\":\"UNAVAILABLE\"}}")));
+
+        List<String> fragmentos = new ArrayList<>();
+        assertThrows(RuntimeException.class, () -> cliente.generarStream("Hola", fragmentos::add));
+        assertEquals(List.of(), fragmentos);
+    }
+
+    private static String evento(String texto) {
+        return "data: " + respuesta(texto) + "\r\n\r\n";
+    }
+
+    private static String respuesta(String texto) {
+        return "{\"candidates\":[{\"content\":{\"role\":\"model\",\"parts\":[{\"text\":\"" + texto + "\"}]}}]}";
+    }
+}
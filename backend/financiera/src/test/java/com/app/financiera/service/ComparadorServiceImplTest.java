@@ -0,0 +1,157 @@
+package com.app.financiera.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.app.financiera.dto.ComparacionSegurosResponse;
+import com.app.financiera.entity.CompaniaSeguro;
+import com.app.financiera.entity.Seguro;
+import com.app.financiera.entity.TipoSeguro;
+import com.app.financiera.repository.SeguroRepository;
+
+@ExtendWith(MockitoExtension.class)
+class ComparadorServiceImplTest {
+
+    private final Map<Integer, Seguro> catalogo = new HashMap<>();
+
+    @Mock
+    private SeguroRepository seguroRepository;
+
+    @InjectMocks
+    private ComparadorServiceImpl comparador;
+
+    @BeforeEach
+    void configurar() {
+        // Devuelve los seguros en orden inverso al pedido, como podría hacerlo la base de datos
+        lenient().when(seguroRepository.findAllConDetalleByIds(anyCollection())).thenAnswer(invocacion -> {
+            List<Integer> ids = new ArrayList<>(invocacion.<Collection<Integer>>getArgument(0));
+            List<Seguro> encontrados = new ArrayList<>();
+            for (int i = ids.size() - 1; i >= 0; i--) {
+                Seguro seguro = catalogo.get(ids.get(i));
+                if (seguro != null) {
+                    encontrados.add(seguro);
+                }
+            }
+            return encontrados;
+        });
+
+        agregar(1, 100.0, 50_000.0);
+        agregar(2, 50.0, 10_000.0);
+        agregar(3, null, 80_000.0);
+        agregar(4, 50.0, null);
+        agregar(5, 0.0, 20_000.0);
+    }
+
+    @Test
+    void descartaRepetidosYNulosConservandoElOrdenPedido() {
+        ComparacionSegurosResponse respuesta = comparador.compararSeguros(Arrays.asList(4, 1, 4, null, 2, 1), null);
+
+        assertEquals(List.of(4, 1, 2), ids(respuesta));
+        assertEquals(3, respuesta.totalComparados());
+        // Una sola consulta, sin repetidos
+        verify(seguroRepository).findAllConDetalleByIds(List.of(4, 1, 2));
+    }
+
+    @Test
+    void losIdsInexistentesSeOmiten() {
+        ComparacionSegurosResponse respuesta = comparador.compararSeguros(List.of(2, 99, 1), null);
+
+        assertEquals(List.of(2, 1), ids(respuesta));
+        assertEquals(2, respuesta.totalComparados());
+    }
+
+    @Test
+    void ordenaPorPrimaConLosNulosAlFinalYEmpatesPorId() {
+        assertEquals(List.of(5, 2, 4, 1, 3), ids(comparador.compararSeguros(List.of(1, 2, 3, 4, 5), "prima")));
+        assertEquals(List.of(1, 2, 4, 5, 3), ids(comparador.compararSeguros(List.of(1, 2, 3, 4, 5), "primaDesc")));
+    }
+
+    @Test
+    void ordenaPorCoberturaYMejorValorDeMayorAMenor() {
+        assertEquals(List.of(3, 1, 5, 2, 4), ids(comparador.compararSeguros(List.of(1, 2, 3, 4, 5), "cobertura")));
+        // 1 -> 500 por sol, 2 -> 200; los demás no tienen cobertura por sol
+        assertEquals(List.of(1, 2, 3, 4, 5), ids(comparador.compararSeguros(List.of(5, 4, 3, 2, 1), "mejorValor")));
+    }
+
+    @Test
+    void unOrdenDesconocidoSeRechaza() {
+        assertThrows(IllegalArgumentException.class, () -> comparador.compararSeguros(List.of(1), "nombre"));
+    }
+
+    @Test
+    void lasEstadisticasIgnoranLosValoresNulos() {
+        ComparacionSegurosResponse respuesta = comparador.compararSeguros(List.of(1, 2, 3, 4, 5), null);
+
+        assertEquals(Double.valueOf(0.0), respuesta.precioMin());
+        assertEquals(Double.valueOf(100.0), respuesta.precioMax());
+        assertEquals(Double.valueOf(50.0), respuesta.precioPromedio());
+        assertEquals(Double.valueOf(10_000.0), respuesta.coberturaMin());
+        assertEquals(Double.valueOf(80_000.0), respuesta.coberturaMax());
+        assertEquals(Double.valueOf(40_000.0), respuesta.coberturaPromedio());
+        assertEquals(Integer.valueOf(1), respuesta.idMejorValor());
+
+        ComparacionSegurosResponse.PlanComparado sinPrima = respuesta.planes().get(2);
+        ComparacionSegurosResponse.PlanComparado primaCero = respuesta.planes().get(4);
+        assertNull(sinPrima.coberturaPorSol());
+        assertNull(primaCero.coberturaPorSol());
+    }
+
+    @Test
+    void sinDatosLasEstadisticasQuedanEnNull() {
+        agregar(6, null, null);
+
+        ComparacionSegurosResponse respuesta = comparador.compararSeguros(List.of(6), "prima");
+
+        assertEquals(1, respuesta.totalComparados());
+        assertNull(respuesta.precioMin());
+        assertNull(respuesta.precioPromedio());
+        assertNull(respuesta.coberturaMax());
+        assertNull(respuesta.idMejorValor());
+    }
+
+    @Test
+    void sinIdsNoConsultaLaBaseDeDatos() {
+        ComparacionSegurosResponse respuesta = comparador.compararSeguros(List.of(), null);
+
+        assertEquals(0, respuesta.totalComparados());
+        verifyNoInteractions(seguroRepository);
+    }
+
+    private static List<Integer> ids(ComparacionSegurosResponse respuesta) {
+        return respuesta.planes().stream().map(ComparacionSegurosResponse.PlanComparado::idSeguro).toList();
+    }
+
+    private void agregar(int idSeguro, Double prima, Double cobertura) {
+        TipoSeguro tipo = new TipoSeguro();
+        tipo.setNombre("Plan " + idSeguro);
+        CompaniaSeguro compania = new CompaniaSeguro();
+        compania.setNombre("Compañía " + idSeguro);
+
+        Seguro seguro = new Seguro();
+        seguro.setIdSeguro(idSeguro);
+        seguro.setTipoSeguro(tipo);
+        seguro.setCompania(compania);
+        seguro.setPrimaMensual(prima);
+        seguro.setMontoAsegurado(cobertura);
+        catalogo.put(idSeguro, seguro);
+    }
+}
@@ -0,0 +1,279 @@
+package com.app.financiera.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.app.financiera.entity.CorreoSaliente;
+import com.app.financiera.repository.CorreoSalienteRepository;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+
+/**
+ * Envía la bandeja de salida contra un servidor SMTP de GreenMail. La tabla correo_saliente
+ * se reemplaza por un mock del repositorio sobre un mapa que respeta estado y próximo intento, y cada
+ * ronda se ejecuta directamente, sin el hilo coordinador.
+ */
+class DespachadorCorreosTest {
+
+    private static final int HILOS = 2;
+    private static final int TAMANO_LOTE = 3;
+    private static final int MAX_INTENTOS = 3;
+    private static final long ESPERA_BASE_SEGUNDOS = 30;
+
+    @RegisterExtension
+    static final GreenMailExtension servidor = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private final Map<Integer, CorreoSaliente> bandeja = new LinkedHashMap<>();
+    private final AtomicInteger conexiones = new AtomicInteger();
+
+    private DespachadorCorreos despachador;
+    private ExecutorService trabajadores;
+
+    @BeforeEach
+    void configurar() {
+        // Cada llamada a doSend abre una conexión SMTP para todos los mensajes recibidos
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl() {
+            @Override
+            protected void doSend(MimeMessage[] mensajes, Object[] originales) {
+                conexiones.incrementAndGet();
+                super.doSend(mensajes, originales);
+            }
+        };
+        mailSender.setHost("localhost");
+        mailSender.setPort(servidor.getSmtp().getPort());
+
+        despachador = new DespachadorCorreos();
+        ReflectionTestUtils.setField(despachador, "correoSalienteRepository", repositorio());
+        ReflectionTestUtils.setField(despachador, "mailSender", mailSender);
+        ReflectionTestUtils.setField(despachador, "fromEmail", "noreply@financiera.com");
+        ReflectionTestUtils.setField(despachador, "hilos", HILOS);
+        ReflectionTestUtils.setField(despachador, "tamanoLote", TAMANO_LOTE);
+        ReflectionTestUtils.setField(despachador, "maxIntentos", MAX_INTENTOS);
+        ReflectionTestUtils.setField(despachador, "esperaBaseSegundos", ESPERA_BASE_SEGUNDOS);
+        ReflectionTestUtils.setField(despachador, "bloqueoMinutos", 10L);
+
+        trabajadores = Executors.newFixedThreadPool(HILOS);
+        ReflectionTestUtils.setField(despachador, "trabajadores", trabajadores);
+        ReflectionTestUtils.setField(despachador, "transactionTemplate",
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+    }
+
+    @AfterEach
+    void detener() {
+        trabajadores.shutdownNow();
+    }
+
+    @Test
+    void cadaLoteSeEnviaPorUnaSolaConexion() throws MessagingException {
+        for (int i = 1; i <= 7; i++) {
+            encolar(i, "usuario" + i + "@correo.pe");
+        }
+
+        // Dos lotes de tres llenan la ronda; el séptimo correo sale en la siguiente
+        assertTrue(despacharRonda());
+        assertEquals(2, conexiones.get());
+        assertFalse(despacharRonda());
+        assertEquals(3, conexiones.get());
+
+        // Los lotes salen en paralelo: el orden de llegada no está definido
+        Set<String> asuntos = new HashSet<>();
+        for (MimeMessage recibido : servidor.getReceivedMessages()) {
+            asuntos.add(recibido.getSubject());
+        }
+        assertEquals(7, servidor.getReceivedMessages().length);
+        assertEquals(Set.of("Aviso 1", "Aviso 2", "Aviso 3", "Aviso 4", "Aviso 5", "Aviso 6", "Aviso 7"), asuntos);
+        for (CorreoSaliente correo : bandeja.values()) {
+            assertEquals("Enviado", correo.getEstado());
+            assertEquals(1, correo.getIntentos());
+            assertNotNull(correo.getFechaEnvio());
+        }
+    }
+
+    @Test
+    void unDestinatarioInvalidoNoDetieneElRestoDelLote() {
+        encolar(1, "ana@correo.pe");
+        encolar(2, "sin@@dominio");
+        encolar(3, "luis@correo.pe");
+
+        LocalDateTime antes = LocalDateTime.now();
+        despacharRonda();
+
+        assertEquals(2, servidor.getReceivedMessages().length);
+        assertEquals("Enviado", bandeja.get(1).getEstado());
+        assertEquals("Enviado", bandeja.get(3).getEstado());
+
+        CorreoSaliente invalido = bandeja.get(2);
+        assertEquals("Pendiente", invalido.getEstado());
+        assertEquals(1, invalido.getIntentos());
+        assertNotNull(invalido.getUltimoError());
+        assertEsperaDesde(antes, ESPERA_BASE_SEGUNDOS, invalido);
+    }
+
+    @Test
+    void losReintentosDuplicanLaEsperaHastaDescartarElCorreo() {
+        encolar(1, "ana@correo.pe");
+        servidor.stop();
+
+        for (int intento = 1; intento < MAX_INTENTOS; intento++) {
+            LocalDateTime antes = LocalDateTime.now();
+            despacharRonda();
+
+            CorreoSaliente correo = bandeja.get(1);
+            assertEquals("Pendiente", correo.getEstado());
+            assertEquals(intento, correo.getIntentos());
+            assertEsperaDesde(antes, ESPERA_BASE_SEGUNDOS << (intento - 1), correo);
+
+            // Mientras no venza la espera el correo no se vuelve a tomar
+            despacharRonda();
+            assertEquals(intento, correo.getIntentos());
+            vencerEspera(correo);
+        }
+
+        despacharRonda();
+        assertEquals("Fallido", bandeja.get(1).getEstado());
+        assertEquals(MAX_INTENTOS, bandeja.get(1).getIntentos());
+
+        // Un correo descartado no vuelve a intentarse aunque el servidor se recupere
+        servidor.start();
+        assertFalse(despacharRonda());
+        assertEquals(0, servidor.getReceivedMessages().length);
+    }
+
+    @Test
+    void trasUnFalloElCorreoSaleCuandoElServidorSeRecupera() {
+        encolar(1, "ana@correo.pe");
+        servidor.stop();
+        despacharRonda();
+        assertEquals("Pendiente", bandeja.get(1).getEstado());
+
+        servidor.start();
+        vencerEspera(bandeja.get(1));
+        despacharRonda();
+
+        assertEquals(1, servidor.getReceivedMessages().length);
+        assertEquals("Enviado", bandeja.get(1).getEstado());
+        assertEquals(2, bandeja.get(1).getIntentos());
+        assertNull(bandeja.get(1).getUltimoError());
+    }
+
+    private boolean despacharRonda() {
+        return ReflectionTestUtils.invokeMethod(despachador, "despacharRonda");
+    }
+
+    private void encolar(int idCorreo, String destinatario) {
+        CorreoSaliente correo = new CorreoSaliente();
+        correo.setIdCorreo(idCorreo);
+        correo.setDestinatario(destinatario);
+        correo.setAsunto("Aviso " + idCorreo);
+        correo.setContenido("<p>Aviso " + idCorreo + "</p>");
+        correo.setEsHtml(true);
+        correo.setEstado("Pendiente");
+        correo.setFechaCreacion(LocalDateTime.now());
+        correo.setProximoIntento(LocalDateTime.now().minusSeconds(1));
+        bandeja.put(idCorreo, correo);
+    }
+
+    private static void vencerEspera(CorreoSaliente correo) {
+        correo.setProximoIntento(LocalDateTime.now().minusSeconds(1));
+    }
+
+    private static void assertEsperaDesde(LocalDateTime antes, long segundos, CorreoSaliente correo) {
+        LocalDateTime proximo = correo.getProximoIntento();
+        assertFalse(proximo.isBefore(antes.plusSeconds(segundos)), proximo.toString());
+        assertFalse(proximo.isAfter(LocalDateTime.now().plusSeconds(segundos)), proximo.toString());
+    }
+
+    // Repositorio respaldado por la bandeja; bloquearListos hace la misma selección que en PostgreSQL,
+    // sin los bloqueos de fila. Los trabajadores lo llaman en paralelo
+    private CorreoSalienteRepository repositorio() {
+        CorreoSalienteRepository repositorio = mock(CorreoSalienteRepository.class);
+        when(repositorio.bloquearListos(any(), any(), anyInt())).thenAnswer(invocacion -> {
+            LocalDateTime ahora = invocacion.getArgument(0);
+            LocalDateTime bloqueoVencido = invocacion.getArgument(1);
+            int limite = invocacion.getArgument(2);
+            synchronized (bandeja) {
+                return bandeja.values().stream()
+                        .filter(c -> ("Pendiente".equals(c.getEstado()) && !c.getProximoIntento().isAfter(ahora))
+                                || ("Enviando".equals(c.getEstado()) && c.getFechaBloqueo().isBefore(bloqueoVencido)))
+                        .sorted(Comparator.comparing(CorreoSaliente::getProximoIntento))
+                        .limit(limite)
+                        .map(CorreoSaliente::getIdCorreo)
+                        .toList();
+            }
+        });
+        when(repositorio.marcarEnviando(anyCollection(), any())).thenAnswer(invocacion -> {
+            Collection<Integer> ids = invocacion.getArgument(0);
+            synchronized (bandeja) {
+                for (Integer id : ids) {
+                    bandeja.get(id).setEstado("Enviando");
+                    bandeja.get(id).setFechaBloqueo(invocacion.getArgument(1));
+                }
+            }
+            return ids.size();
+        });
+        when(repositorio.findAllById(any())).thenAnswer(invocacion -> {
+            List<CorreoSaliente> encontrados = new ArrayList<>();
+            synchronized (bandeja) {
+                for (Integer id : invocacion.<Iterable<Integer>>getArgument(0)) {
+                    encontrados.add(bandeja.get(id));
+                }
+            }
+            return encontrados;
+        });
+        when(repositorio.marcarEnviados(anyCollection(), any())).thenAnswer(invocacion -> {
+            Collection<Integer> ids = invocacion.getArgument(0);
+            synchronized (bandeja) {
+                for (Integer id : ids) {
+                    CorreoSaliente correo = bandeja.get(id);
+                    correo.setEstado("Enviado");
+                    correo.setFechaEnvio(invocacion.getArgument(1));
+                    correo.setIntentos(correo.getIntentos() + 1);
+                    correo.setUltimoError(null);
+                }
+            }
+            return ids.size();
+        });
+        when(repositorio.saveAll(any())).thenAnswer(invocacion -> {
+            synchronized (bandeja) {
+                for (CorreoSaliente correo : invocacion.<Iterable<CorreoSaliente>>getArgument(0)) {
+                    bandeja.put(correo.getIdCorreo(), correo);
+                }
+            }
+            return invocacion.getArgument(0);
+        });
+        return repositorio;
+    }
+}
@@ -0,0 +1,109 @@
+package com.app.financiera.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.app.financiera.PostgresEmbebido;
+
+/**
+ * Escritura por lotes de chat_mensaje en PostgreSQL embebido. El escritor confirma sus propias
+ * transacciones, así que la prueba no corre dentro de una y borra sus filas al terminar.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(EscritorConversaciones.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EscritorConversacionesTest {
+
+    // Usuarios de los datos de ejemplo de baseDeDatos.txt
+    private static final int USUARIO_ANA = 2;
+    private static final int USUARIO_LUIS = 7;
+    private static final int USUARIO_INEXISTENTE = 999_999;
+
+    @Autowired
+    private EscritorConversaciones escritor;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final String sesion = "prueba-" + UUID.randomUUID();
+
+    @DynamicPropertySource
+    static void baseDeDatos(DynamicPropertyRegistry registro) {
+        PostgresEmbebido.registrar(registro);
+    }
+
+    @AfterEach
+    void limpiar() {
+        jdbcTemplate.update("DELETE FROM chat_mensaje WHERE session_id = ?", sesion);
+    }
+
+    @Test
+    void unLoteValidoSeGuardaCompleto() throws InterruptedException {
+        long omitidosAntes = contador("omitidos");
+        long procesadosAntes = procesados();
+        escritor.encolar(USUARIO_ANA, sesion, "¿Cuál es mi saldo?", "S/ 1,250.00", "SALDO", null, "Datos");
+        escritor.encolar(USUARIO_LUIS, sesion, "¿Qué es una AFP?", "Una administradora...", "GENERAL", null, "Modelo");
+
+        esperarProcesados(procesadosAntes + 2);
+
+        assertEquals(List.of(USUARIO_ANA, USUARIO_LUIS), usuariosGuardados());
+        assertEquals(omitidosAntes, contador("omitidos"));
+    }
+
+    @Test
+    void unUsuarioInexistenteSoloPierdeSuPropioTurno() throws InterruptedException {
+        long omitidosAntes = contador("omitidos");
+        long procesadosAntes = procesados();
+        escritor.encolar(USUARIO_ANA, sesion, "¿Cuál es mi saldo?", "S/ 1,250.00", "SALDO", null, "Datos");
+        escritor.encolar(USUARIO_INEXISTENTE, sesion, "Hola", "Hola, ¿en qué puedo ayudarle?", "SALUDO", null, "Local");
+        escritor.encolar(USUARIO_LUIS, sesion, "¿Qué es una AFP?", "Una administradora...", "GENERAL", null, "Modelo");
+
+        esperarProcesados(procesadosAntes + 3);
+
+        // fk_usuario_chat rechaza el turno del usuario inexistente; los otros dos se reintentan y se guardan
+        assertEquals(List.of(USUARIO_ANA, USUARIO_LUIS), usuariosGuardados());
+        assertEquals(omitidosAntes + 1, contador("omitidos"));
+    }
+
+    private List<Integer> usuariosGuardados() {
+        return jdbcTemplate.queryForList(
+                "SELECT id_usuario FROM chat_mensaje WHERE session_id = ? ORDER BY fecha_mensaje, id_mensaje",
+                Integer.class, sesion);
+    }
+
+    // El contexto de Spring se comparte entre pruebas: los contadores del escritor son acumulados
+    private long contador(String nombre) {
+        return (Long) escritor.obtenerEstadisticas().get(nombre);
+    }
+
+    private long procesados() {
+        return contador("guardados") + contador("omitidos");
+    }
+
+    // El hilo escritor toma los turnos de la cola; se espera a que todos queden guardados u omitidos
+    private void esperarProcesados(long esperados) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 15_000;
+        while (System.currentTimeMillis() < limite) {
+            if (procesados() >= esperados) {
+                return;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("El escritor procesó " + procesados() + " turnos de " + esperados);
+    }
+}
@@ -0,0 +1,139 @@
+package com.app.financiera.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.app.financiera.entity.ChatMensaje;
+import com.app.financiera.repository.ChatMensajeRepository;
+
+/**
+ * Búfer circular de turnos por sesión, recorte de la ventana por presupuesto de tokens y
+ * precarga desde chat_mensaje.
+ */
+@ExtendWith(MockitoExtension.class)
+class HistorialConversacionesTest {
+
+    private static final int ID_USUARIO = 7;
+    private static final String SESION = "sesion-1";
+
+    @Mock
+    private ChatMensajeRepository chatMensajeRepository;
+
+    @InjectMocks
+    private HistorialConversaciones historial;
+
+    @BeforeEach
+    void configurar() {
+        ReflectionTestUtils.setField(historial, "maxTurnos", 3);
+        ReflectionTestUtils.setField(historial, "presupuestoTokens", 600);
+        ReflectionTestUtils.setField(historial, "maxSesiones", 100);
+        ReflectionTestUtils.setField(historial, "inactividadMinutos", 30L);
+    }
+
+    @Test
+    void elBuferConservaSoloLosUltimosTurnos() {
+        for (int i = 1; i <= 5; i++) {
+            historial.agregar(null, SESION, "pregunta " + i, "respuesta " + i);
+        }
+
+        assertEquals(ventana(3, 4, 5), historial.ventana(null, SESION));
+    }
+
+    @Test
+    void laVentanaTomaLosTurnosRecientesQueCabenEnElPresupuesto() {
+        // Cada turno suma 40 caracteres: 10 tokens
+        ReflectionTestUtils.setField(historial, "presupuestoTokens", 25);
+        for (int i = 1; i <= 3; i++) {
+            historial.agregar(null, SESION, "pregunta " + i + "-".repeat(10), "respuesta " + i + "-".repeat(9));
+        }
+
+        String ventana = historial.ventana(null, SESION);
+
+        assertEquals("Usuario: pregunta 2" + "-".repeat(10) + "\nAsistente: respuesta 2" + "-".repeat(9) + "\n"
+                + "Usuario: pregunta 3" + "-".repeat(10) + "\nAsistente: respuesta 3" + "-".repeat(9) + "\n", ventana);
+    }
+
+    @Test
+    void unTurnoMasGrandeQueElPresupuestoDejaLaVentanaVacia() {
+        ReflectionTestUtils.setField(historial, "presupuestoTokens", 5);
+        historial.agregar(null, SESION, "una pregunta bastante larga", "y una respuesta todavía más larga");
+
+        assertEquals("", historial.ventana(null, SESION));
+    }
+
+    @Test
+    void laPrecargaPoneLosTurnosGuardadosAntesDeLosNuevos() {
+        // La consulta devuelve del más reciente al más antiguo; mientras se carga llega un turno nuevo
+        when(chatMensajeRepository.findRecientesBySesion(eq(ID_USUARIO), eq(SESION), any(PageRequest.class)))
+                .thenAnswer(invocacion -> {
+                    historial.agregar(ID_USUARIO, SESION, "pregunta 3", "respuesta 3");
+                    return List.of(mensaje(2), mensaje(1));
+                });
+
+        historial.agregar(ID_USUARIO, SESION, "pregunta 4", "respuesta 4");
+
+        assertEquals(ventana(2, 3, 4), historial.ventana(ID_USUARIO, SESION));
+        assertEquals(1L, historial.obtenerEstadisticas().get("cargasDesdeBase"));
+    }
+
+    @Test
+    void laBaseSeConsultaUnaSolaVezPorSesion() {
+        when(chatMensajeRepository.findRecientesBySesion(anyInt(), any(), any())).thenReturn(List.of(mensaje(1)));
+
+        historial.ventana(ID_USUARIO, SESION);
+        historial.agregar(ID_USUARIO, SESION, "pregunta 2", "respuesta 2");
+
+        assertEquals(ventana(1, 2), historial.ventana(ID_USUARIO, SESION));
+        verify(chatMensajeRepository).findRecientesBySesion(ID_USUARIO, SESION, PageRequest.of(0, 3));
+    }
+
+    @Test
+    void sinUsuarioNoSeConsultaLaBase() {
+        historial.agregar(null, SESION, "pregunta 1", "respuesta 1");
+
+        assertEquals(ventana(1), historial.ventana(null, SESION));
+        verifyNoInteractions(chatMensajeRepository);
+    }
+
+    @Test
+    void elSeguimientoSeDetectaPorLaPrimeraPalabra() {
+        assertTrue(HistorialConversaciones.esSeguimiento("y en afp"));
+        assertTrue(HistorialConversaciones.esSeguimiento("cuanto costaba el anterior"));
+        assertFalse(HistorialConversaciones.esSeguimiento("cual es mi saldo"));
+        assertFalse(HistorialConversaciones.esSeguimiento(""));
+    }
+
+    private static ChatMensaje mensaje(int numero) {
+        ChatMensaje mensaje = new ChatMensaje();
+        mensaje.setMensajeUsuario("pregunta " + numero);
+        mensaje.setRespuestaAsistente("respuesta " + numero);
+        return mensaje;
+    }
+
+    private static String ventana(int... numeros) {
+        StringBuilder texto = new StringBuilder();
+        for (int numero : numeros) {
+            texto.append("Usuario: pregunta ").append(numero).append('\n');
+            texto.append("Asistente: respuesta ").append(numero).append('\n');
+        }
+        return texto.toString();
+    }
+}
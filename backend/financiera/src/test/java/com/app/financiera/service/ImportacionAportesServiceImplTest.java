@@ -0,0 +1,176 @@
+package com.app.financiera.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.app.financiera.entity.AportePension;
+import com.app.financiera.entity.Institucion;
+import com.app.financiera.entity.TipoFondo;
+import com.app.financiera.entity.Usuario;
+import com.app.financiera.repository.AportePensionRepository;
+import com.app.financiera.repository.TipoFondoRepository;
+import com.app.financiera.repository.UsuarioRepository;
+
+import jakarta.persistence.EntityManager;
+
+@ExtendWith(MockitoExtension.class)
+class ImportacionAportesServiceImplTest {
+
+    private static final String CABECERA = "id_usuario,periodo,monto_aporte,fecha_aporte,id_tipo_fondo\n";
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private AportePensionRepository aportePensionRepository;
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    @Mock
+    private InstitucionCache institucionCache;
+
+    @Mock
+    private TipoFondoRepository tipoFondoRepository;
+
+    @Mock
+    private SaldoPensionService saldoPensionService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private ImportacionAportesServiceImpl importacion;
+
+    private TipoFondo tipoFondo;
+    private Institucion institucion;
+
+    @BeforeEach
+    void configurar() {
+        ReflectionTestUtils.setField(importacion, "tamanoLote", 2);
+
+        tipoFondo = new TipoFondo();
+        tipoFondo.setIdTipoFondo(1);
+        institucion = new Institucion();
+        institucion.setIdInstitucion(3);
+        when(tipoFondoRepository.findAll()).thenReturn(List.of(tipoFondo));
+    }
+
+    @Test
+    void lecturaInterrumpidaConservaElSaldoDeLosLotesGuardados() {
+        Usuario usuario = usuario(7);
+        when(usuarioRepository.findConAfpByIds(anyCollection())).thenReturn(List.of(usuario));
+        when(institucionCache.resolver(usuario)).thenReturn(institucion);
+
+        // Un lote completo y luego el archivo falla antes de la tercera fila
+        String filas = CABECERA
+                + "7,2024-01,100.0,2024-01-31,1\n"
+                + "7,2024-02,200.0,2024-02-29,1\n";
+        InputStream contenido = new SequenceInputStream(
+                new ByteArrayInputStream(filas.getBytes(StandardCharsets.UTF_8)), new InputStream() {
+                    @Override
+                    public int read() throws IOException {
+                        throw new IOException("conexión interrumpida");
+                    }
+                });
+
+        HashMap<String, Object> resultado = importacion.importarAportesCsv(contenido);
+
+        assertEquals(false, resultado.get("exitoso"));
+        assertEquals(2, resultado.get("importadas"));
+        assertEquals(1, resultado.get("usuariosActualizados"));
+        verify(saldoPensionService).aplicarVariacion(usuario, tipoFondo, 300.0);
+        verify(eventPublisher).publishEvent(any(DatosUsuarioModificadosEvent.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void usuarioSinInstitucionSeRechazaSinDescartarElLote() {
+        Usuario conInstitucion = usuario(7);
+        Usuario sinInstitucion = usuario(8);
+        when(usuarioRepository.findConAfpByIds(anyCollection())).thenReturn(List.of(conInstitucion, sinInstitucion));
+        when(institucionCache.resolver(conInstitucion)).thenReturn(institucion);
+        when(institucionCache.resolver(sinInstitucion)).thenReturn(null);
+
+        String filas = CABECERA
+                + "7,2024-01,150.0,2024-01-31,1\n"
+                + "8,2024-01,90.0,2024-01-31,1\n";
+
+        HashMap<String, Object> resultado = importacion.importarAportesCsv(
+                new ByteArrayInputStream(filas.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(1, resultado.get("importadas"));
+        assertEquals(1, resultado.get("rechazadas"));
+        List<HashMap<String, Object>> errores = (List<HashMap<String, Object>>) resultado.get("errores");
+        assertEquals(1, errores.size());
+        assertEquals(3, errores.get(0).get("fila"));
+        assertFalse(((String) errores.get(0).get("error")).startsWith("Lote no guardado"));
+
+        ArgumentCaptor<List<AportePension>> guardados = ArgumentCaptor.forClass(List.class);
+        verify(aportePensionRepository).saveAll(guardados.capture());
+        assertEquals(1, guardados.getValue().size());
+        assertEquals(institucion, guardados.getValue().get(0).getInstitucion());
+
+        verify(saldoPensionService).aplicarVariacion(conInstitucion, tipoFondo, 150.0);
+        verify(saldoPensionService, never()).aplicarVariacion(eq(sinInstitucion), any(), anyDouble());
+    }
+
+    @Test
+    void lotesSeparadosAjustanElSaldoUnaVezPorLote() {
+        Usuario usuario = usuario(7);
+        when(usuarioRepository.findConAfpByIds(anyCollection())).thenReturn(List.of(usuario));
+        when(institucionCache.resolver(usuario)).thenReturn(institucion);
+
+        String filas = CABECERA
+                + "7,2024-01,100.0,2024-01-31,1\n"
+                + "7,2024-02,100.0,2024-02-29,1\n"
+                + "7,2024-03,50.0,2024-03-31,1\n";
+
+        Map<String, Object> resultado = importacion.importarAportesCsv(
+                new ByteArrayInputStream(filas.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(true, resultado.get("exitoso"));
+        assertEquals(3, resultado.get("importadas"));
+        verify(aportePensionRepository, times(2)).saveAll(anyList());
+        verify(saldoPensionService).aplicarVariacion(usuario, tipoFondo, 200.0);
+        verify(saldoPensionService).aplicarVariacion(usuario, tipoFondo, 50.0);
+    }
+
+    private static Usuario usuario(int idUsuario) {
+        Usuario usuario = new Usuario();
+        usuario.setIdUsuario(idUsuario);
+        return usuario;
+    }
+}
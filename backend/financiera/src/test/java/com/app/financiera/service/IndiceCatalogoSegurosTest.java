@@ -0,0 +1,248 @@
+package com.app.financiera.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.app.financiera.dto.FilaCatalogoProjection;
+import com.app.financiera.repository.SeguroRepository;
+
+class IndiceCatalogoSegurosTest {
+
+    private static final String SALUD = "Salud";
+
+    @Test
+    void sinFiltrosDevuelveTodoOrdenadoPorPrimaConLosSinPrimaAlFinal() {
+        IndiceCatalogoSeguros indice = indiceCon(List.of(
+                fila(1, 1, 10, 80.0, 5000.0),
+                fila(2, 1, 10, null, 3000.0),
+                fila(3, 2, 10, 40.0, null),
+                fila(4, 2, 10, 80.0, 9000.0)));
+
+        assertArrayEquals(new int[] { 3, 1, 4, 2 }, buscar(indice, null, null, null, null, null, null));
+    }
+
+    @Test
+    void losLimitesDePrimaSonInclusivos() {
+        IndiceCatalogoSeguros indice = indiceCon(List.of(
+                fila(1, 1, 10, 50.0, 1000.0),
+                fila(2, 1, 10, 100.0, 1000.0),
+                fila(3, 1, 10, 100.0, 1000.0),
+                fila(4, 1, 10, 150.0, 1000.0),
+                fila(5, 1, 10, 200.0, 1000.0)));
+
+        assertArrayEquals(new int[] { 2, 3, 4 }, buscar(indice, 100.0, 150.0, null, null, null, null));
+        assertArrayEquals(new int[] { 1 }, buscar(indice, null, 50.0, null, null, null, null));
+        assertArrayEquals(new int[] { 5 }, buscar(indice, 200.0, null, null, null, null, null));
+        assertArrayEquals(new int[] { 2, 3 }, buscar(indice, 100.0, 100.0, null, null, null, null));
+    }
+
+    @Test
+    void rangosFueraDeLosExtremosOInvertidosNoDevuelvenNada() {
+        IndiceCatalogoSeguros indice = indiceCon(List.of(
+                fila(1, 1, 10, 50.0, 1000.0),
+                fila(2, 1, 10, 100.0, 1000.0)));
+
+        assertEquals(0, buscar(indice, 101.0, null, null, null, null, null).length);
+        assertEquals(0, buscar(indice, null, 49.99, null, null, null, null).length);
+        assertEquals(0, buscar(indice, 90.0, 60.0, null, null, null, null).length);
+    }
+
+    @Test
+    void unFiltroDePrimaExcluyeLosSegurosSinPrima() {
+        IndiceCatalogoSeguros indice = indiceCon(List.of(
+                fila(1, 1, 10, 50.0, 1000.0),
+                fila(2, 1, 10, null, 1000.0)));
+
+        assertArrayEquals(new int[] { 1 }, buscar(indice, 0.0, null, null, null, null, null));
+        assertArrayEquals(new int[] { 1 }, buscar(indice, null, Double.MAX_VALUE, null, null, null, null));
+    }
+
+    @Test
+    void elRangoDeCoberturaEsInclusivoYExcluyeLosSinCobertura() {
+        IndiceCatalogoSeguros indice = indiceCon(List.of(
+                fila(1, 1, 10, 10.0, 1000.0),
+                fila(2, 1, 10, 20.0, 5000.0),
+                fila(3, 1, 10, 30.0, null),
+                fila(4, 1, 10, 40.0, 10000.0)));
+
+        // El resultado conserva el orden por prima, no el de cobertura
+        assertArrayEquals(new int[] { 2, 4 }, buscar(indice, null, null, 5000.0, 10000.0, null, null));
+        assertArrayEquals(new int[] { 1, 2 }, buscar(indice, null, null, null, 5000.0, null, null));
+    }
+
+    @Test
+    void filtraPorCompaniaYTipoYUnIdDesconocidoNoDevuelveNada() {
+        IndiceCatalogoSeguros indice = indiceCon(List.of(
+                fila(1, 1, 10, 10.0, 1000.0),
+                fila(2, 2, 10, 20.0, 1000.0),
+                fila(3, 1, 11, 30.0, 1000.0)));
+
+        assertArrayEquals(new int[] { 1, 3 }, buscar(indice, null, null, null, null, 1, null));
+        assertArrayEquals(new int[] { 3 }, buscar(indice, null, null, null, null, 1, 11));
+        assertEquals(0, buscar(indice, null, null, null, null, 99, null).length);
+        assertEquals(0, buscar(indice, null, null, null, null, null, 99).length);
+        assertEquals(0, indice.buscar("Vida", null, null, null, null, null, null).length);
+    }
+
+    @Test
+    void combinaFiltrosSobreVariasPalabrasDelBitset() {
+        // Más de 64 seguros para que los bitsets ocupen varias palabras
+        Random aleatorio = new Random(42);
+        List<FilaCatalogoProjection> filas = new ArrayList<>();
+        for (int id = 1; id <= 200; id++) {
+            Double prima = id % 17 == 0 ? null : (double) aleatorio.nextInt(300);
+            Double cobertura = id % 13 == 0 ? null : (double) aleatorio.nextInt(50_000);
+            filas.add(fila(id, 1 + aleatorio.nextInt(4), 10 + aleatorio.nextInt(3), prima, cobertura));
+        }
+        IndiceCatalogoSeguros indice = indiceCon(filas);
+
+        Double[][] rangos = { { 50.0, 200.0, 10_000.0, 40_000.0 }, { null, 120.0, null, 25_000.0 },
+                { 100.0, null, 5_000.0, null }, { null, null, null, null } };
+        for (Double[] rango : rangos) {
+            for (Integer compania : new Integer[] { null, 1, 3 }) {
+                for (Integer tipo : new Integer[] { null, 10, 12 }) {
+                    assertArrayEquals(
+                            fuerzaBruta(filas, rango[0], rango[1], rango[2], rango[3], compania, tipo),
+                            buscar(indice, rango[0], rango[1], rango[2], rango[3], compania, tipo));
+                }
+            }
+        }
+    }
+
+    @Test
+    void losPercentilesInterpolanEntreVecinosEIgnoranLasPrimasNulas() {
+        IndiceCatalogoSeguros indice = indiceCon(List.of(
+                fila(1, 1, 10, 40.0, null),
+                fila(2, 1, 10, 10.0, null),
+                fila(3, 1, 10, null, null),
+                fila(4, 1, 10, 30.0, null),
+                fila(5, 1, 10, 20.0, null)));
+
+        Map<String, Object> estadisticas = indice.estadisticas(SALUD);
+
+        assertEquals(5, estadisticas.get("totalPlanes"));
+        assertEquals(10.0, estadisticas.get("primaMinima"));
+        assertEquals(40.0, estadisticas.get("primaMaxima"));
+        assertEquals(25.0, estadisticas.get("primaPromedio"));
+        assertEquals(17.5, estadisticas.get("primaP25"));
+        assertEquals(25.0, estadisticas.get("primaP50"));
+        assertEquals(32.5, estadisticas.get("primaP75"));
+    }
+
+    @Test
+    void conUnaSolaPrimaTodosLosPercentilesSonEsaPrima() {
+        IndiceCatalogoSeguros indice = indiceCon(List.of(fila(1, 1, 10, 70.0, null)));
+
+        Map<String, Object> estadisticas = indice.estadisticas(SALUD);
+
+        assertEquals(70.0, estadisticas.get("primaP25"));
+        assertEquals(70.0, estadisticas.get("primaP50"));
+        assertEquals(70.0, estadisticas.get("primaP75"));
+        assertEquals(List.of(barra(70.0, 70.0, 1)), estadisticas.get("histogramaPrimas"));
+    }
+
+    @Test
+    void elHistogramaRepartePorBarrasDeIgualAnchoYLaUltimaIncluyeElMaximo() {
+        IndiceCatalogoSeguros indice = indiceCon(List.of(
+                fila(1, 1, 10, 0.0, null),
+                fila(2, 1, 10, 10.0, null),
+                fila(3, 1, 10, 25.0, null),
+                fila(4, 1, 10, 50.0, null),
+                fila(5, 1, 10, 75.0, null),
+                fila(6, 1, 10, 100.0, null)));
+
+        // Cuatro barras de 25: el límite inferior de cada barra es inclusivo
+        assertEquals(List.of(barra(0.0, 25.0, 2), barra(25.0, 50.0, 1), barra(50.0, 75.0, 1), barra(75.0, 100.0, 2)),
+                indice.estadisticas(SALUD).get("histogramaPrimas"));
+    }
+
+    @Test
+    void primasIgualesProducenUnaSolaBarra() {
+        IndiceCatalogoSeguros indice = indiceCon(List.of(
+                fila(1, 1, 10, 5.0, null),
+                fila(2, 1, 10, 5.0, null),
+                fila(3, 1, 10, 5.0, null)));
+
+        assertEquals(List.of(barra(5.0, 5.0, 3)), indice.estadisticas(SALUD).get("histogramaPrimas"));
+    }
+
+    @Test
+    void sinPrimasNoHayPercentilesNiHistograma() {
+        IndiceCatalogoSeguros indice = indiceCon(List.of(
+                fila(1, 1, 10, null, 1000.0),
+                fila(2, 1, 10, null, 3000.0)));
+
+        Map<String, Object> estadisticas = indice.estadisticas(SALUD);
+
+        assertEquals(2, estadisticas.get("totalPlanes"));
+        assertEquals(2000.0, estadisticas.get("coberturaPromedio"));
+        assertFalse(estadisticas.containsKey("primaP50"));
+        assertFalse(estadisticas.containsKey("histogramaPrimas"));
+        assertNull(indice.estadisticas("Vida"));
+    }
+
+    private static Map<String, Object> barra(double desde, double hasta, int planes) {
+        return Map.of("desde", desde, "hasta", hasta, "planes", planes);
+    }
+
+    private static int[] buscar(IndiceCatalogoSeguros indice, Double primaMin, Double primaMax, Double coberturaMin,
+                                Double coberturaMax, Integer idCompania, Integer idTipoSeguro) {
+        return indice.buscar(SALUD, primaMin, primaMax, coberturaMin, coberturaMax, idCompania, idTipoSeguro);
+    }
+
+    // Mismo resultado que debe dar el índice: filtros inclusivos, null no cumple un rango, orden por prima e id
+    private static int[] fuerzaBruta(List<FilaCatalogoProjection> filas, Double primaMin, Double primaMax,
+                                     Double coberturaMin, Double coberturaMax, Integer idCompania, Integer idTipoSeguro) {
+        return filas.stream()
+                .filter(f -> dentro(f.getPrimaMensual(), primaMin, primaMax))
+                .filter(f -> dentro(f.getMontoAsegurado(), coberturaMin, coberturaMax))
+                .filter(f -> idCompania == null || idCompania.equals(f.getIdCompania()))
+                .filter(f -> idTipoSeguro == null || idTipoSeguro.equals(f.getIdTipoSeguro()))
+                .sorted(Comparator.comparing(FilaCatalogoProjection::getPrimaMensual,
+                                Comparator.nullsLast(Comparator.naturalOrder()))
+                        .thenComparing(FilaCatalogoProjection::getIdSeguro))
+                .mapToInt(FilaCatalogoProjection::getIdSeguro)
+                .toArray();
+    }
+
+    private static boolean dentro(Double valor, Double minimo, Double maximo) {
+        if (minimo == null && maximo == null) {
+            return true;
+        }
+        return valor != null && (minimo == null || valor >= minimo) && (maximo == null || valor <= maximo);
+    }
+
+    private static IndiceCatalogoSeguros indiceCon(List<FilaCatalogoProjection> filas) {
+        IndiceCatalogoSeguros indice = new IndiceCatalogoSeguros();
+        // El índice solo lee la carga completa del catálogo
+        SeguroRepository seguroRepository = mock(SeguroRepository.class);
+        when(seguroRepository.findFilasCatalogo()).thenReturn(filas);
+        ReflectionTestUtils.setField(indice, "seguroRepository", seguroRepository);
+        ReflectionTestUtils.setField(indice, "barrasHistograma", 4);
+        return indice;
+    }
+
+    private static FilaCatalogoProjection fila(int idSeguro, Integer idCompania, int idTipoSeguro, Double prima,
+                                               Double cobertura) {
+        return new Fila(idSeguro, SALUD, idCompania, idCompania != null ? "Compañía " + idCompania : null,
+                idTipoSeguro, prima, cobertura, null);
+    }
+
+    private record Fila(Integer getIdSeguro, String getCategoria, Integer getIdCompania, String getNombreCompania,
+                Integer getIdTipoSeguro, Double getPrimaMensual, Double getMontoAsegurado, Double getDeducible)
+            implements FilaCatalogoProjection {
+    }
+}
@@ -0,0 +1,61 @@
+package com.app.financiera.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MotorPlantillasCorreoTest {
+
+    private static final Map<String, String> VALORES = Map.of("nombre", "Ana", "monto", "450.75");
+
+    private MotorPlantillasCorreo motor;
+
+    @BeforeEach
+    void configurar() throws IOException {
+        motor = new MotorPlantillasCorreo();
+        motor.cargar("classpath:plantillas/correo-prueba/*.html");
+    }
+
+    @Test
+    void eligeLaVarianteDelIdiomaYLaDelPais() {
+        assertEquals("<p>Hello Ana, your contribution of S/ 450.75 was recorded.</p>\n",
+                motor.renderizar("aporte", Locale.ENGLISH, VALORES));
+        assertEquals("<p>Howdy Ana, your contribution of S/ 450.75 was recorded.</p>\n",
+                motor.renderizar("aporte", Locale.US, VALORES));
+        // Sin variante para el Reino Unido se usa la del idioma
+        assertEquals(motor.renderizar("aporte", Locale.ENGLISH, VALORES),
+                motor.renderizar("aporte", Locale.UK, VALORES));
+    }
+
+    @Test
+    void sinVarianteSeUsaLaPlantillaBase() {
+        String base = "<p>Hola Ana, su aporte de S/ 450.75 fue registrado.</p>\n";
+
+        assertEquals(base, motor.renderizar("aporte", Locale.FRANCE, VALORES));
+        assertEquals(base, motor.renderizar("aporte", null, VALORES));
+        assertEquals(base, motor.renderizar("aporte", VALORES));
+    }
+
+    @Test
+    void unaPlantillaInexistenteSeRechaza() {
+        assertThrows(IllegalArgumentException.class, () -> motor.renderizar("baja", Locale.ENGLISH, VALORES));
+    }
+
+    @Test
+    void lasPlantillasDeLaAplicacionSeCompilanAlIniciar() throws IOException {
+        motor.cargar();
+
+        String correo = motor.renderizar("aporte-registrado", Locale.ENGLISH,
+                Map.of("nombreUsuario", "<b>Ana</b>", "monto", "450.75", "periodo", "2024-06"));
+
+        assertTrue(correo.contains("&lt;b&gt;Ana&lt;/b&gt;"), correo);
+        assertTrue(correo.contains("S/ 450.75"), correo);
+    }
+}
@@ -0,0 +1,126 @@
+package com.app.financiera.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class MotorRecomendacionesTest {
+
+    private static final MotorRecomendaciones.Perfil PERFIL =
+            new MotorRecomendaciones.Perfil(40, 4000.0, Set.of(3), null, null);
+
+    private MotorRecomendaciones motor;
+
+    @BeforeEach
+    void configurar() {
+        motor = new MotorRecomendaciones();
+        ReflectionTestUtils.setField(motor, "pesoPrima", 0.35);
+        ReflectionTestUtils.setField(motor, "pesoCobertura", 0.30);
+        ReflectionTestUtils.setField(motor, "pesoDeducible", 0.15);
+        ReflectionTestUtils.setField(motor, "pesoValor", 0.20);
+        ReflectionTestUtils.setField(motor, "porcentajeIngresoMax", 0.05);
+        ReflectionTestUtils.setField(motor, "penalizacionTipoContratado", 0.5);
+        ReflectionTestUtils.setField(motor, "umbralSecuencial", Integer.MAX_VALUE);
+    }
+
+    @Test
+    void laListaCompletaVaDelMejorAlPeorYAIgualPuntajeGanaLaPosicionMenor() {
+        MotorRecomendaciones.Recomendacion[] todas = motor.recomendar(catalogo(3000, 7), PERFIL, 3000);
+
+        assertEquals(3000, todas.length);
+        for (int i = 1; i < todas.length; i++) {
+            MotorRecomendaciones.Recomendacion anterior = todas[i - 1];
+            MotorRecomendaciones.Recomendacion actual = todas[i];
+            assertTrue(anterior.puntaje() > actual.puntaje()
+                    || (anterior.puntaje() == actual.puntaje() && anterior.posicion() < actual.posicion()),
+                    "posición " + i);
+        }
+    }
+
+    @Test
+    void unirTramosDaLosMismosKMejoresQueUnSoloMonticulo() {
+        IndiceCatalogoSeguros.Columnas columnas = catalogo(5000, 11);
+        int[] referencia = posiciones(motor.recomendar(columnas, PERFIL, 5000));
+
+        for (int umbral : new int[] { 1, 7, 64, 1000 }) {
+            ReflectionTestUtils.setField(motor, "umbralSecuencial", umbral);
+            for (int k : new int[] { 1, 5, 50, 4999 }) {
+                assertArrayEquals(Arrays.copyOf(referencia, k), posiciones(motor.recomendar(columnas, PERFIL, k)),
+                        "umbral " + umbral + ", k " + k);
+            }
+        }
+    }
+
+    @Test
+    void conPlanesIdenticosSeEligenLasPrimerasPosiciones() {
+        int n = 100;
+        double[] primas = new double[n];
+        double[] coberturas = new double[n];
+        double[] deducibles = new double[n];
+        Arrays.fill(primas, 50);
+        Arrays.fill(coberturas, 10_000);
+        Arrays.fill(deducibles, 500);
+        IndiceCatalogoSeguros.Columnas columnas = new IndiceCatalogoSeguros.Columnas(ids(n), primas, coberturas,
+                deducibles, new int[n]);
+        ReflectionTestUtils.setField(motor, "umbralSecuencial", 8);
+
+        assertArrayEquals(new int[] { 0, 1, 2, 3 }, posiciones(motor.recomendar(columnas, PERFIL, 4)));
+    }
+
+    @Test
+    void kMayorQueLaCategoriaDevuelveTodosYSinPlanesNada() {
+        assertEquals(10, motor.recomendar(catalogo(10, 3), PERFIL, 50).length);
+        assertEquals(0, motor.recomendar(catalogo(10, 3), PERFIL, 0).length);
+        assertEquals(0, motor.recomendar(catalogo(0, 3), PERFIL, 5).length);
+    }
+
+    @Test
+    void unTipoYaContratadoQuedaPorDebajoDeUnoIgualNoContratado() {
+        IndiceCatalogoSeguros.Columnas columnas = new IndiceCatalogoSeguros.Columnas(new int[] { 10, 20 },
+                new double[] { 50, 50 }, new double[] { 10_000, 10_000 }, new double[] { 500, 500 },
+                new int[] { 3, 4 });
+
+        MotorRecomendaciones.Recomendacion[] resultado = motor.recomendar(columnas, PERFIL, 2);
+
+        assertEquals(20, resultado[0].idSeguro());
+        assertTrue(resultado[1].tipoContratado());
+        assertEquals(resultado[0].puntaje() * 0.5, resultado[1].puntaje(), 1e-12);
+    }
+
+    // Valores redondeados para que haya empates, y algunas columnas sin dato (NaN)
+    private static IndiceCatalogoSeguros.Columnas catalogo(int n, long semilla) {
+        Random aleatorio = new Random(semilla);
+        double[] primas = new double[n];
+        double[] coberturas = new double[n];
+        double[] deducibles = new double[n];
+        int[] tipos = new int[n];
+        for (int i = 0; i < n; i++) {
+            primas[i] = i % 50 == 49 ? Double.NaN : 20 + aleatorio.nextInt(20) * 10;
+            coberturas[i] = i % 37 == 36 ? Double.NaN : 5_000 + aleatorio.nextInt(10) * 5_000;
+            deducibles[i] = i % 11 == 10 ? Double.NaN : aleatorio.nextInt(5) * 250;
+            tipos[i] = 1 + aleatorio.nextInt(4);
+        }
+        Arrays.sort(primas);
+        return new IndiceCatalogoSeguros.Columnas(ids(n), primas, coberturas, deducibles, tipos);
+    }
+
+    private static int[] ids(int n) {
+        int[] ids = new int[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = 1000 + i;
+        }
+        return ids;
+    }
+
+    private static int[] posiciones(MotorRecomendaciones.Recomendacion[] recomendaciones) {
+        return Arrays.stream(recomendaciones).mapToInt(MotorRecomendaciones.Recomendacion::posicion).toArray();
+    }
+}
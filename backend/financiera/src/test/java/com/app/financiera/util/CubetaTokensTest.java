@@ -0,0 +1,115 @@
+package com.app.financiera.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class CubetaTokensTest {
+
+    // Tasa tan baja que la recarga no influye durante la prueba
+    private static final double SIN_RECARGA = 0.001;
+
+    @Test
+    void admiteUnaRafagaDeHastaLaCapacidad() {
+        CubetaTokens cubeta = new CubetaTokens(3, SIN_RECARGA);
+
+        assertTrue(cubeta.intentarConsumir());
+        assertTrue(cubeta.intentarConsumir());
+        assertTrue(cubeta.intentarConsumir());
+        assertFalse(cubeta.intentarConsumir());
+    }
+
+    @Test
+    void alAgotarseInformaLaEsperaHastaElSiguienteToken() {
+        CubetaTokens cubeta = new CubetaTokens(1, 1);
+        assertEquals(0, cubeta.consumirOEsperar());
+
+        long espera = cubeta.consumirOEsperar();
+        assertTrue(espera > 0 && espera <= TimeUnit.SECONDS.toNanos(1), "espera: " + espera);
+        assertTrue(cubeta.nanosHastaDisponible() > 0);
+    }
+
+    @Test
+    void seRecargaALaTasaConfigurada() throws InterruptedException {
+        CubetaTokens cubeta = new CubetaTokens(1, 1000);
+        assertTrue(cubeta.intentarConsumir());
+        assertFalse(cubeta.intentarConsumir());
+
+        // Un token cada milisegundo
+        Thread.sleep(5);
+
+        assertTrue(cubeta.intentarConsumir());
+    }
+
+    @Test
+    void laRecargaNoSuperaLaCapacidad() throws InterruptedException {
+        CubetaTokens cubeta = new CubetaTokens(2, 1000);
+
+        // Tiempo suficiente para recargar muchos más tokens de los que caben
+        Thread.sleep(20);
+
+        assertTrue(cubeta.intentarConsumir());
+        assertTrue(cubeta.intentarConsumir());
+        assertFalse(cubeta.intentarConsumir());
+    }
+
+    @Test
+    void estaLlenaSoloSinConsumosPendientesDeRecarga() throws InterruptedException {
+        CubetaTokens cubeta = new CubetaTokens(2, 1000);
+        assertTrue(cubeta.estaLlena());
+
+        cubeta.intentarConsumir();
+        assertFalse(cubeta.estaLlena());
+
+        Thread.sleep(5);
+        assertTrue(cubeta.estaLlena());
+    }
+
+    @Test
+    void rechazaCapacidadOTasaInvalidas() {
+        assertThrows(IllegalArgumentException.class, () -> new CubetaTokens(0.5, 1));
+        assertThrows(IllegalArgumentException.class, () -> new CubetaTokens(1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new CubetaTokens(1, -2));
+    }
+
+    @Test
+    void entreHilosNuncaEntregaMasTokensQueLaCapacidad() throws InterruptedException {
+        CubetaTokens cubeta = new CubetaTokens(100, SIN_RECARGA);
+        AtomicInteger concedidos = new AtomicInteger();
+        CountDownLatch salida = new CountDownLatch(1);
+
+        List<Thread> hilos = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Thread hilo = new Thread(() -> {
+                try {
+                    salida.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int intento = 0; intento < 50; intento++) {
+                    if (cubeta.intentarConsumir()) {
+                        concedidos.incrementAndGet();
+                    }
+                }
+            });
+            hilo.start();
+            hilos.add(hilo);
+        }
+        salida.countDown();
+        for (Thread hilo : hilos) {
+            hilo.join();
+        }
+
+        assertEquals(100, concedidos.get());
+    }
+}
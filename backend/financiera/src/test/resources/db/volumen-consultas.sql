@@ -0,0 +1,55 @@
+-- Volumen parecido al de producción para IndicesConsultasTest: 500 usuarios con cinco años de
+-- aportes, historial de consultas, pólizas con su cronograma y trámites. Con tablas vacías el
+-- planificador prefiere recorrerlas completas y el plan no dice nada sobre los índices.
+
+-- Los ids empiezan en 1000 para no chocar con los datos de ejemplo del volcado
+INSERT INTO rol_usuario (id_rol, nombre_rol, estado) VALUES (1000, 'Usuario', 'Activo');
+
+INSERT INTO institucion (id_institucion, nombre, tipo, ruc, estado) VALUES
+    (1001, 'ONP', 'Pensiones', '99100000001', 'Activo'),
+    (1002, 'Prima AFP', 'Financiera', '99100000002', 'Activo'),
+    (1003, 'Rimac Seguros', 'Seguros', '99100000003', 'Activo');
+
+INSERT INTO tipo_fondo (id_tipo_fondo, nombre_tipo, estado) VALUES (1000, 'Fondo 2', 'Activo');
+INSERT INTO afp (id_afp, id_institucion, nombre, estado) VALUES (1000, 1002, 'Prima', 'Activo');
+INSERT INTO tipo_seguro (id_tipo_seguro, nombre, estado) VALUES (1000, 'Vida', 'Activo'), (1001, 'Salud', 'Activo');
+INSERT INTO compania_seguro (id_compania, id_institucion, nombre, estado) VALUES (1000, 1003, 'Rimac', 'Activo');
+
+INSERT INTO usuario (id_usuario, id_rol, nombre, apellido, dni, correo, id_afp, tipo_regimen, estado)
+SELECT 1000 + u, 1000, 'Usuario', 'Prueba ' || u, '9' || lpad(u::text, 7, '0'), 'volumen' || u || '@correo.pe',
+       1000, 'AFP', 'Activo'
+FROM generate_series(1, 500) u;
+
+-- 60 aportes mensuales por usuario
+INSERT INTO aporte_pension (id_aporte, id_usuario, id_institucion, id_tipo_fondo, periodo, monto_aporte,
+                            fecha_aporte, estado)
+SELECT 100000 + (u - 1) * 60 + m, 1000 + u, 1001 + (u % 2), 1000, to_char(DATE '2020-01-01' + (m - 1) * INTERVAL '1 month', 'YYYY-MM'),
+       300 + (u % 50) * 5, DATE '2020-01-28' + (m - 1) * INTERVAL '1 month', 'Registrado'
+FROM generate_series(1, 500) u, generate_series(1, 60) m;
+
+INSERT INTO saldo_pension (id_saldo, id_usuario, id_afp, id_tipo_fondo, saldo_total, saldo_disponible, estado)
+SELECT 100000 + (u - 1) * 4 + f, 1000 + u, 1000, 1000, 10000, 9000, CASE WHEN f = 1 THEN 'Activo' ELSE 'Inactivo' END
+FROM generate_series(1, 500) u, generate_series(1, 4) f;
+
+INSERT INTO historial_consultas (id_historial, id_usuario, fecha, detalle_consulta, tipo_consulta, resultado)
+SELECT 100000 + (u - 1) * 40 + h, 1000 + u, TIMESTAMP '2024-01-01' + h * INTERVAL '1 day', 'Consulta de saldo', 'Saldo', 'Exitosa'
+FROM generate_series(1, 500) u, generate_series(1, 40) h;
+
+INSERT INTO seguro (id_seguro, id_usuario, id_tipo_seguro, id_compania, numero_poliza, fecha_inicio,
+                    fecha_vencimiento, monto_asegurado, prima_mensual, estado)
+SELECT 100000 + (u - 1) * 4 + s, 1000 + u, 1000 + (s % 2), 1000, 'VOL-' || u || '-' || s, DATE '2023-01-01', DATE '2025-01-01',
+       50000, 80 + s * 10, CASE WHEN s = 4 THEN 'Cancelado' ELSE 'Activo' END
+FROM generate_series(1, 500) u, generate_series(1, 4) s;
+
+-- 12 cuotas por póliza; solo la última sigue pendiente
+INSERT INTO pago_seguro (id_pago, id_seguro, numero_cuota, monto_pagado, fecha_pago, estado)
+SELECT 100000 + (s - 1) * 12 + c, 100000 + s, c, 90, TIMESTAMP '2024-01-05' + c * INTERVAL '1 month',
+       CASE WHEN c = 12 THEN 'Pendiente' ELSE 'Pagado' END
+FROM generate_series(1, 2000) s, generate_series(1, 12) c;
+
+INSERT INTO tramite_seguro (id_tramite, id_usuario, id_seguro, tipo_tramite, descripcion, fecha_solicitud, estado)
+SELECT 100000 + (u - 1) * 6 + t, 1000 + u, 100000 + (u - 1) * 4 + 1, 'Reclamo', 'Trámite de prueba', TIMESTAMP '2024-01-01' + t * INTERVAL '1 week',
+       CASE WHEN t = 6 THEN 'Pendiente' ELSE 'Resuelto' END
+FROM generate_series(1, 500) u, generate_series(1, 6) t;
+
+ANALYZE;
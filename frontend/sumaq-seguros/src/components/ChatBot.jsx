@@ -17,6 +17,7 @@ export default function ChatBot() {
     const [showAsesorModal, setShowAsesorModal] = useState(false);
     const [motivoAsesor, setMotivoAsesor] = useState('');
     const messagesEndRef = useRef(null);
+    const sessionIdRef = useRef(null);
 
     const scrollToBottom = () => {
         messagesEndRef.current?.scrollIntoView({ behavior: "smooth" });
@@ -40,7 +41,8 @@ export default function ChatBot() {
         setIsLoading(true);
 
         try {
-            const response = await ChatBotService.enviarMensaje(inputMessage, user.idUsuario);
+            const response = await ChatBotService.enviarMensaje(inputMessage, user.idUsuario, sessionIdRef.current);
+            sessionIdRef.current = response.data.sessionId ?? sessionIdRef.current;
             const botMessage = {
                 type: 'bot',
                 text: response.data.respuesta,
@@ -49,9 +51,13 @@ export default function ChatBot() {
             setMessages(prev => [...prev, botMessage]);
         } catch (error) {
             console.error("Error enviando mensaje:", error);
+            // 429: demasiados mensajes o asistente saturado; el servidor indica cuándo reintentar
+            const limitado = error.response?.status === 429;
             setMessages(prev => [...prev, {
                 type: 'bot',
-                text: 'Lo siento, ocurrió un error. ¿Necesitas hablar con un asesor?',
+                text: limitado
+                    ? `${error.response.data?.mensaje ?? 'Demasiados mensajes'}. Intenta en ${error.response.data?.reintentarEnSegundos ?? 'unos'} segundos.`
+                    : 'Lo siento, ocurrió un error. ¿Necesitas hablar con un asesor?',
                 time: new Date().toLocaleTimeString('es-PE', { hour: '2-digit', minute: '2-digit' })
             }]);
         } finally {
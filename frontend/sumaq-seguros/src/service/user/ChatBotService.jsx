@@ -4,10 +4,12 @@ const API_URL = "/chatbot";
 
 const ChatBotService = {
     // Enviar mensaje al chatbot
-    enviarMensaje(mensaje, idUsuario) {
+    // sessionId: el devuelto por la respuesta anterior (null para iniciar una conversación)
+    enviarMensaje(mensaje, idUsuario, sessionId) {
         return axiosInstance.post(`${API_URL}/mensaje`, {
             mensaje,
-            idUsuario
+            idUsuario,
+            sessionId
         });
     },
 